@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.examples.with.different.packagename.benchmarks;
+
+/**
+ * Synthetic SUT with many distinct predicates and few loop iterations, so
+ * that traces contain many branches that are each executed a few times.
+ */
+public class BranchHeavy {
+
+	private int state;
+
+	public int classify(int x, int y) {
+		if (x > 0) {
+			if (y > 0)
+				return x > y ? 1 : 2;
+			else if (y < -100)
+				return 3;
+			else
+				return 4;
+		} else if (x < -1000) {
+			if (y == x)
+				return 5;
+			return 6;
+		} else {
+			if (y % 7 == 0)
+				return 7;
+			if (y % 11 == 3)
+				return 8;
+			return 9;
+		}
+	}
+
+	public void step(int input) {
+		switch (state) {
+		case 0:
+			state = input == 42 ? 1 : 0;
+			break;
+		case 1:
+			state = input > 100 ? 2 : 0;
+			break;
+		case 2:
+			state = input < 0 ? 3 : 1;
+			break;
+		default:
+			state = input == 0 ? 0 : 3;
+		}
+	}
+
+	public int getState() {
+		return state;
+	}
+
+	public boolean inRange(double value, double low, double high) {
+		if (low > high)
+			throw new IllegalArgumentException();
+		return value >= low && value <= high;
+	}
+
+	public int compare(long a, long b, boolean reverse) {
+		int result;
+		if (a == b)
+			result = 0;
+		else if (a < b)
+			result = -1;
+		else
+			result = 1;
+		return reverse ? -result : result;
+	}
+
+	public String describe(Object o) {
+		if (o == null)
+			return "null";
+		if (o instanceof Integer)
+			return "int";
+		if (o instanceof String)
+			return "string";
+		if (o == this)
+			return "self";
+		return "other";
+	}
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.examples.with.different.packagename.benchmarks;
+
+/**
+ * Synthetic SUT whose methods spend most of their time in loops, so that
+ * traces contain many executions of few predicates.
+ */
+public class LoopHeavy {
+
+	private int[] values = new int[0];
+
+	public void fill(int size, int seed) {
+		if (size < 0 || size > 1000)
+			throw new IllegalArgumentException();
+		values = new int[size];
+		int x = seed;
+		for (int i = 0; i < size; i++) {
+			x = x * 1103515245 + 12345;
+			values[i] = x % 100;
+		}
+	}
+
+	public int sumAbove(int threshold) {
+		int sum = 0;
+		for (int value : values) {
+			if (value > threshold)
+				sum += value;
+		}
+		return sum;
+	}
+
+	public int countRuns() {
+		int runs = 0;
+		for (int i = 1; i < values.length; i++) {
+			if (values[i] == values[i - 1])
+				runs++;
+		}
+		return runs;
+	}
+
+	public boolean isSorted() {
+		for (int i = 1; i < values.length; i++) {
+			if (values[i] < values[i - 1])
+				return false;
+		}
+		return true;
+	}
+
+	public int collatz(int n) {
+		if (n <= 0)
+			return -1;
+		int steps = 0;
+		long x = n;
+		while (x != 1 && steps < 1000) {
+			if (x % 2 == 0)
+				x = x / 2;
+			else
+				x = 3 * x + 1;
+			steps++;
+		}
+		return steps;
+	}
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.examples.with.different.packagename.benchmarks;
+
+/**
+ * Synthetic SUT comparing strings, so that executions go through the string
+ * distance helpers and the dynamic constant pool.
+ */
+public class StringHeavy {
+
+	public boolean isKeyword(String s) {
+		if (s == null)
+			return false;
+		return s.equals("evosuite") || s.equals("benchmark") || s.equals("search");
+	}
+
+	public int parse(String s) {
+		if (s == null || s.isEmpty())
+			return -1;
+		if (s.startsWith("0x"))
+			return 16;
+		if (s.endsWith("L"))
+			return 64;
+		if (s.contains("."))
+			return 2;
+		return 10;
+	}
+
+	public String normalize(String s) {
+		if (s == null)
+			return "";
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (Character.isLetter(c))
+				sb.append(Character.toLowerCase(c));
+			else if (c == '-' || c == '_')
+				sb.append(' ');
+		}
+		return sb.toString();
+	}
+
+	public boolean matches(String s, String pattern) {
+		if (s == null || pattern == null)
+			return false;
+		if (s.equalsIgnoreCase(pattern))
+			return true;
+		return s.matches(pattern);
+	}
+}
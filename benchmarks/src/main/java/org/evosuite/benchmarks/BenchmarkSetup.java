@@ -0,0 +1,122 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.setup.DependencyAnalysis;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.TestFactory;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.evosuite.testcase.execution.reset.ClassReInitializer;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.evosuite.utils.Randomness;
+
+/**
+ * Shared setup of the benchmarks: analyses one of the synthetic SUTs and
+ * creates random tests and suites for it. Everything is seeded, so two builds
+ * are measured on the same inputs as long as the test generation itself does
+ * not change.
+ */
+public final class BenchmarkSetup {
+
+	/** Package of the synthetic SUTs */
+	public static final String SUT_PACKAGE = "com.examples.with.different.packagename.benchmarks";
+
+	public static final long SEED = 42;
+
+	private BenchmarkSetup() {
+	}
+
+	/**
+	 * Reset EvoSuite and analyse the given SUT, so that tests can be
+	 * generated and executed for it
+	 * 
+	 * @param sut
+	 *            simple name of a class in {@link #SUT_PACKAGE}
+	 */
+	public static void initialise(String sut) throws ClassNotFoundException {
+		Properties.getInstance().resetToDefaults();
+		Properties.CLIENT_ON_THREAD = true;
+		Properties.TARGET_CLASS = SUT_PACKAGE + "." + sut;
+		Randomness.setSeed(SEED);
+
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+		TestGenerationContext.getInstance().resetContext();
+		ClassReInitializer.resetSingleton();
+		Randomness.setSeed(SEED);
+
+		String cp = ClassPathHandler.getInstance().getTargetProjectClasspath();
+		DependencyAnalysis.analyzeClass(Properties.TARGET_CLASS, Arrays.asList(cp.split(File.pathSeparator)));
+		TestCaseExecutor.initExecutor();
+	}
+
+	/**
+	 * @return a random test with (up to) the given number of statements
+	 */
+	public static DefaultTestCase randomTest(int length) {
+		TestFactory factory = TestFactory.getInstance();
+		DefaultTestCase test = new DefaultTestCase();
+		int attempts = 0;
+		while (test.size() < length && attempts++ < 10 * length) {
+			factory.insertRandomStatement(test, test.size() - 1);
+		}
+		return test;
+	}
+
+	/**
+	 * @return an executed test chromosome with a random test
+	 */
+	public static TestChromosome executedTest(int length) {
+		TestChromosome test = new TestChromosome();
+		test.setTestCase(randomTest(length));
+		execute(test);
+		return test;
+	}
+
+	/**
+	 * @return a suite of random tests that have all been executed
+	 */
+	public static TestSuiteChromosome executedSuite(int numTests, int length) {
+		TestSuiteChromosome suite = new TestSuiteChromosome();
+		for (int i = 0; i < numTests; i++) {
+			suite.addTest(executedTest(length));
+		}
+		suite.setChanged(false);
+		return suite;
+	}
+
+	/**
+	 * Execute the test and store the result, as the fitness functions do
+	 */
+	public static void execute(TestChromosome test) {
+		TestCase testCase = test.getTestCase();
+		ExecutionResult result = TestCaseExecutor.runTest(testCase);
+		test.setLastExecutionResult(result);
+		test.setChanged(false);
+	}
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of cloning tests, which the search does for every offspring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CloneBenchmark {
+
+	@Param({ "LoopHeavy", "BranchHeavy", "StringHeavy" })
+	public String sut;
+
+	@Param({ "10", "50" })
+	public int length;
+
+	private TestChromosome chromosome;
+
+	private DefaultTestCase test;
+
+	@Setup
+	public void setUp() throws ClassNotFoundException {
+		BenchmarkSetup.initialise(sut);
+		chromosome = BenchmarkSetup.executedTest(length);
+		test = (DefaultTestCase) chromosome.getTestCase();
+	}
+
+	@Benchmark
+	public DefaultTestCase cloneTestCase() {
+		return test.clone();
+	}
+
+	/** Includes the copy of the last execution result */
+	@Benchmark
+	public TestChromosome cloneTestChromosome() {
+		return (TestChromosome) chromosome.clone();
+	}
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two JMH result files written with <code>-rf csv</code>, e.g. of a
+ * baseline and a candidate build, and prints the relative change of each
+ * score.
+ * 
+ * <pre>
+ * java -cp target/benchmarks.jar org.evosuite.benchmarks.CompareResults baseline.csv candidate.csv
+ * </pre>
+ * 
+ * Changes within the combined score errors are marked with <code>~</code>.
+ */
+public class CompareResults {
+
+	private static final class Score {
+		private final double score;
+		private final double error;
+		private final String unit;
+
+		private Score(double score, double error, String unit) {
+			this.score = score;
+			this.error = error;
+			this.unit = unit;
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: CompareResults <baseline.csv> <candidate.csv>");
+			System.exit(1);
+		}
+		Map<String, Score> baseline = read(args[0]);
+		Map<String, Score> candidate = read(args[1]);
+
+		System.out.println(String.format("%-80s %14s %14s %9s", "Benchmark", "Baseline", "Candidate", "Change"));
+		for (Map.Entry<String, Score> entry : baseline.entrySet()) {
+			Score before = entry.getValue();
+			Score after = candidate.get(entry.getKey());
+			if (after == null) {
+				System.out.println(String.format("%-80s %14.3f %14s", entry.getKey(), before.score, "-"));
+				continue;
+			}
+			double change = 100.0 * (after.score - before.score) / before.score;
+			boolean significant = Math.abs(after.score - before.score) > before.error + after.error;
+			System.out.println(String.format("%-80s %14.3f %14.3f %+8.1f%% %s %s", entry.getKey(),
+					before.score, after.score, change, significant ? " " : "~", after.unit));
+		}
+		for (String benchmark : candidate.keySet()) {
+			if (!baseline.containsKey(benchmark))
+				System.out.println(String.format("%-80s %14s %14.3f", benchmark, "-",
+						candidate.get(benchmark).score));
+		}
+	}
+
+	/**
+	 * Read the scores of a result file, keyed by benchmark, mode and parameters
+	 */
+	private static Map<String, Score> read(String file) throws IOException {
+		List<String> lines = Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8);
+		Map<String, Score> scores = new LinkedHashMap<>();
+		if (lines.isEmpty())
+			return scores;
+
+		List<String> header = split(lines.get(0));
+		int benchmark = header.indexOf("Benchmark");
+		int mode = header.indexOf("Mode");
+		int score = header.indexOf("Score");
+		int unit = header.indexOf("Unit");
+		int error = -1;
+		for (int i = 0; i < header.size(); i++) {
+			if (header.get(i).startsWith("Score Error"))
+				error = i;
+		}
+
+		for (String line : lines.subList(1, lines.size())) {
+			if (line.trim().isEmpty())
+				continue;
+			List<String> values = split(line);
+			StringBuilder key = new StringBuilder(values.get(benchmark));
+			key.append(" ").append(values.get(mode));
+			for (int i = 0; i < header.size(); i++) {
+				if (header.get(i).startsWith("Param: "))
+					key.append(" ").append(header.get(i).substring(7)).append("=").append(values.get(i));
+			}
+			double scoreError = error < 0 || values.get(error).isEmpty() ? 0.0 : parse(values.get(error));
+			scores.put(key.toString(), new Score(parse(values.get(score)), scoreError, values.get(unit)));
+		}
+		return scores;
+	}
+
+	private static double parse(String value) {
+		// Depending on the locale, JMH writes a decimal comma
+		return value.equals("NaN") ? Double.NaN : Double.parseDouble(value.replace(',', '.'));
+	}
+
+	/**
+	 * Split a line of the CSV file, fields may be quoted
+	 */
+	private static List<String> split(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (c == '"') {
+				if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else {
+					quoted = !quoted;
+				}
+			} else if (c == ',' && !quoted) {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.testcase.execution.ExecutionTrace;
+import org.evosuite.testcase.execution.ExecutionTraceImpl;
+import org.evosuite.testcase.execution.ExecutionTracer;
+import org.evosuite.utils.Randomness;
+import org.objectweb.asm.Opcodes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of recording a single branch execution, through the static callbacks
+ * of the instrumented code and directly on the trace.
+ * 
+ * Each invocation simulates one method call executing {@link #CALLS} branches
+ * on a fresh trace, the scores are per branch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ExecutionTracerBenchmark {
+
+	private static final int CALLS = 1024;
+
+	private static final String CLASS_NAME = BenchmarkSetup.SUT_PACKAGE + ".BranchHeavy";
+
+	private static final String METHOD_NAME = "classify(II)I";
+
+	/** Number of distinct branches the executions are spread over */
+	@Param({ "16", "1024" })
+	public int branches;
+
+	private int[] values;
+
+	private int[] branchIds;
+
+	@Setup
+	public void setUp() {
+		Randomness.setSeed(BenchmarkSetup.SEED);
+		values = new int[CALLS + 1];
+		branchIds = new int[CALLS];
+		for (int i = 0; i < CALLS; i++) {
+			values[i] = Randomness.nextInt(-100, 100);
+			branchIds[i] = 1 + Randomness.nextInt(branches);
+		}
+		values[CALLS] = values[0];
+
+		ExecutionTracer.setThread(Thread.currentThread());
+		ExecutionTracer.enable();
+	}
+
+	@TearDown
+	public void tearDown() {
+		ExecutionTracer.disable();
+		ExecutionTracer.getExecutionTracer().clear();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CALLS)
+	public ExecutionTrace passedBranchUnary() {
+		ExecutionTracer tracer = ExecutionTracer.getExecutionTracer();
+		tracer.clear();
+		ExecutionTracer.enteredMethod(CLASS_NAME, METHOD_NAME, null, -1);
+		for (int i = 0; i < CALLS; i++) {
+			ExecutionTracer.passedBranch(values[i], Opcodes.IFLE, branchIds[i], i);
+		}
+		ExecutionTracer.leftMethod(CLASS_NAME, METHOD_NAME);
+		return tracer.getTrace();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CALLS)
+	public ExecutionTrace passedBranchBinary() {
+		ExecutionTracer tracer = ExecutionTracer.getExecutionTracer();
+		tracer.clear();
+		ExecutionTracer.enteredMethod(CLASS_NAME, METHOD_NAME, null, -1);
+		for (int i = 0; i < CALLS; i++) {
+			ExecutionTracer.passedBranch(values[i], values[i + 1], Opcodes.IF_ICMPLT, branchIds[i], i);
+		}
+		ExecutionTracer.leftMethod(CLASS_NAME, METHOD_NAME);
+		return tracer.getTrace();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CALLS)
+	public ExecutionTrace branchPassed() {
+		ExecutionTraceImpl trace = new ExecutionTraceImpl();
+		trace.enteredMethod(CLASS_NAME, METHOD_NAME, null, -1);
+		for (int i = 0; i < CALLS; i++) {
+			double distance = Math.abs(values[i]);
+			trace.branchPassed(branchIds[i], i, distance, distance == 0 ? 1.0 : 0.0);
+		}
+		trace.exitMethod(CLASS_NAME, METHOD_NAME);
+		return trace;
+	}
+}
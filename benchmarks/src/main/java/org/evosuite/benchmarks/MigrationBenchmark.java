@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.rmi.service.MigrantCodec;
+import org.evosuite.testcase.TestChromosome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of sending one group of migrants between clients: plain Java
+ * serialization of the chromosomes, as done over RMI, against
+ * {@link MigrantCodec}, as done over migration channels.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MigrationBenchmark {
+
+	@Param({ "LoopHeavy", "BranchHeavy", "StringHeavy" })
+	public String sut;
+
+	@Param({ "10", "50" })
+	public int length;
+
+	@Param({ "3" })
+	public int migrants;
+
+	private Set<TestChromosome> group;
+
+	private byte[] serialized;
+
+	private byte[] encoded;
+
+	@Setup
+	public void setUp() throws ClassNotFoundException, IOException {
+		BenchmarkSetup.initialise(sut);
+		group = new LinkedHashSet<>();
+		for (int i = 0; i < migrants; i++)
+			group.add(BenchmarkSetup.executedTest(length));
+		serialized = serialize(group);
+		encoded = MigrantCodec.encode(group);
+		System.out.println("\nSerialized: " + serialized.length + " bytes, encoded: " + encoded.length + " bytes");
+	}
+
+	private static byte[] serialize(Set<TestChromosome> group) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(new ArrayList<>(group));
+		}
+		return bytes.toByteArray();
+	}
+
+	@Benchmark
+	public byte[] serialize() throws IOException {
+		return serialize(group);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Benchmark
+	public List<TestChromosome> deserialize() throws IOException, ClassNotFoundException {
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+			return (List<TestChromosome>) in.readObject();
+		}
+	}
+
+	@Benchmark
+	public byte[] encode() throws IOException {
+		return MigrantCodec.encode(group);
+	}
+
+	/** Includes the clone that un-shares the decoded tests */
+	@Benchmark
+	public List<TestChromosome> decode() throws IOException, ClassNotFoundException {
+		return MigrantCodec.decode(encoded);
+	}
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.Properties;
+import org.evosuite.coverage.branch.BranchCoverageSuiteFitness;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of computing the branch suite fitness.
+ * 
+ * {@link #cachedResults()} only aggregates the stored execution results, as
+ * for a suite whose tests did not change. {@link #oneChangedTest()} replaces
+ * one test by a clone that has to be executed again, as after the mutation
+ * of a single test.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SuiteFitnessBenchmark {
+
+	@Param({ "LoopHeavy", "BranchHeavy", "StringHeavy" })
+	public String sut;
+
+	@Param({ "10", "50" })
+	public int tests;
+
+	@Param({ "false", "true" })
+	public boolean incremental;
+
+	private TestSuiteChromosome suite;
+
+	private BranchCoverageSuiteFitness fitness;
+
+	private int next;
+
+	@Setup
+	public void setUp() throws ClassNotFoundException {
+		BenchmarkSetup.initialise(sut);
+		Properties.INCREMENTAL_SUITE_FITNESS = incremental;
+		suite = BenchmarkSetup.executedSuite(tests, 20);
+		fitness = new BranchCoverageSuiteFitness();
+		fitness.getFitness(suite);
+	}
+
+	@Benchmark
+	public double cachedResults() {
+		return fitness.getFitness(suite);
+	}
+
+	@Benchmark
+	public double oneChangedTest() {
+		int position = next++ % suite.size();
+		TestChromosome test = (TestChromosome) suite.getTestChromosome(position).clone();
+		test.setChanged(true);
+		suite.setTestChromosome(position, test);
+		return fitness.getFitness(suite);
+	}
+}
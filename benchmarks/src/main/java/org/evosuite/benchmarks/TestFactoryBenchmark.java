@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestFactory;
+import org.evosuite.utils.Randomness;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of inserting random statements, as done when tests are initialised
+ * and mutated.
+ * 
+ * Each invocation inserts into a clone of the same base test; the random
+ * number generator is reseeded for every iteration, so both builds insert the
+ * same sequence of statements.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TestFactoryBenchmark {
+
+	@Param({ "LoopHeavy", "BranchHeavy", "StringHeavy" })
+	public String sut;
+
+	/** Length of the test statements are inserted into */
+	@Param({ "0", "20" })
+	public int length;
+
+	private DefaultTestCase base;
+
+	private TestFactory factory;
+
+	@Setup
+	public void setUp() throws ClassNotFoundException {
+		BenchmarkSetup.initialise(sut);
+		base = BenchmarkSetup.randomTest(length);
+		factory = TestFactory.getInstance();
+	}
+
+	@Setup(Level.Iteration)
+	public void reseed() {
+		Randomness.setSeed(BenchmarkSetup.SEED);
+	}
+
+	@Benchmark
+	public DefaultTestCase insertRandomStatement() {
+		DefaultTestCase test = base.clone();
+		factory.insertRandomStatement(test, test.size() - 1);
+		return test;
+	}
+}
@@ -126,6 +126,19 @@ public class Properties {
 	@Parameter(key = "reset_all_classes_during_assertion_generation", group = "Test Creation", description = "Test Generation does not apply the selective method of selection of class re-initalization")
 	public static boolean RESET_ALL_CLASSES_DURING_ASSERTION_GENERATION = true;
 
+	public enum StaticResetEngine {
+		/** re-execute the static initializer through __STATIC_RESET() */
+		REINITIALIZE,
+		/** restore the static field values captured right after the first initialization */
+		SNAPSHOT;
+	}
+
+	@Parameter(key = "static_reset_engine", group = "Test Creation", description = "How the static state of a class is reset after a test execution")
+	public static StaticResetEngine STATIC_RESET_ENGINE = StaticResetEngine.REINITIALIZE;
+
+	@Parameter(key = "static_snapshot_deep_copy", group = "Test Creation", description = "Keep a deep copy of mutable (serializable) static field values in the snapshots, so that in-place mutations are undone as well")
+	public static boolean STATIC_SNAPSHOT_DEEP_COPY = false;
+
 
 	@Parameter(key = "reset_standard_streams", group = "Test Creation", description = "Restore System.out, System.in and DebugGraphics.logStream after test execution")
 	public static boolean RESET_STANDARD_STREAMS = false;
@@ -213,6 +226,9 @@ public class Properties {
 	@Parameter(key = "max_generic_depth", group = "Test Creation", description = "Maximum level of nesting for generic types")
 	public static int MAX_GENERIC_DEPTH = 3;
 
+	@Parameter(key = "cache_generic_types", group = "Test Creation", description = "Share type names, type variable maps and assignability checks of generic types between all instances of the same type")
+	public static boolean CACHE_GENERIC_TYPES = false;
+
 	@Parameter(key = "string_length", group = "Test Creation", description = "Maximum length of randomly generated strings")
 	public static int STRING_LENGTH = 20;
 
@@ -329,6 +345,9 @@ public class Properties {
 	@Parameter(key = "migrants_communication_rate", group = "Test Creation", description = "Determines amount of migrants per communication step")
 	public static int MIGRANTS_COMMUNICATION_RATE = 3;
 
+	@Parameter(key = "migration_channels", group = "Test Creation", description = "Send migrants directly to the neighbouring client over a local socket in a compact encoding, instead of through the master")
+	public static boolean MIGRATION_CHANNELS = false;
+
 	// ---------------------------------------------------------------
 	// Search algorithm
 	public enum Algorithm {
@@ -407,6 +426,9 @@ public class Properties {
 	@Parameter(key = "dse_constraint_solver_timeout_millis", group = "DSE", description = "Maximum number of solving time for Constraint solver in milliseconds")
 	public static long DSE_CONSTRAINT_SOLVER_TIMEOUT_MILLIS = 1000;
 
+	@Parameter(key = "dse_solver_threads", group = "DSE", description = "Number of threads used by the DSE algorithm to solve the negated conditions of a path condition in parallel. With 1, they are solved one at a time")
+	public static int DSE_SOLVER_THREADS = 1;
+
 	@Parameter(key = "dse_rank_branch_conditions", group = "DSE", description = "Rank branch conditions")
 	public static boolean DSE_RANK_BRANCH_CONDITIONS = true;
 
@@ -452,6 +474,15 @@ public class Properties {
 	@Parameter(key = "cvc4_path", group = "DSE", description = "Indicates the path to the CVC4 solver")
 	public static String CVC4_PATH = null;
 
+	@Parameter(key = "smt_solver_sessions", group = "DSE", description = "Keep the Z3/CVC4 processes running and send queries to them incrementally, instead of launching a new process for each query")
+	public static boolean SMT_SOLVER_SESSIONS = false;
+
+	@Parameter(key = "solver_cache_size", group = "DSE", description = "Maximum estimated memory in megabytes used by the cache of constraint solver results")
+	public static int SOLVER_CACHE_SIZE = 32;
+
+	@Parameter(key = "solver_cache_file", group = "DSE", description = "File in which the cache of constraint solver results is stored, so that later runs on the same project can start with it")
+	public static String SOLVER_CACHE_FILE = null;
+
 
 	// --------- LS ---------
 
@@ -576,6 +607,9 @@ public class Properties {
 	@IntValue(min = 1, max = 100000)
 	public static int CHROMOSOME_LENGTH = 200;
 
+	@Parameter(key = "copy_on_write_test_clones", group = "Search Algorithm", description = "Cloned test cases share the statements of their original until either of the two is accessed. Statements obtained from a test case before cloning it must not be modified afterwards")
+	public static boolean COPY_ON_WRITE_TEST_CLONES = false;
+
 	@Parameter(key = "number_of_tests_per_target", group = "Search Algorithm", description = "Number of test cases for each target goal to keep in an archive")
 	public static int NUMBER_OF_TESTS_PER_TARGET = 10;
 
@@ -842,6 +876,12 @@ public class Properties {
 	@Parameter(key = "ctg_project_info", group = "Continuous Test Generation", description = "XML file which stores stats about all CTG executions")
 	public static String CTG_PROJECT_INFO = "project_info.xml";
 
+	@Parameter(key = "ctg_incremental", group = "Continuous Test Generation", description = "Only generate tests for the CUTs whose bytecode, or the bytecode of the CUTs they depend on, changed since the last CTG execution")
+	public static boolean CTG_INCREMENTAL = false;
+
+	@Parameter(key = "ctg_bytecode_hashes", group = "Continuous Test Generation", description = "File which stores the bytecode hashes of the CUTs used by incremental CTG")
+	public static String CTG_BYTECODE_HASHES = "bytecode_hashes.properties";
+
 	@Parameter(key = "ctg_history_file", group = "Continuous Test Generation", description = "File with the list of new(A)/modified(M)/deleted(D) files")
 	public static String CTG_HISTORY_FILE = null;
 
@@ -872,6 +912,9 @@ public class Properties {
 	@Parameter(key = "ctg_schedule", group = "Continuous Test Generation", description = "Schedule used to run jobs")
 	public static AvailableSchedule CTG_SCHEDULE = AvailableSchedule.BUDGET;
 
+	@Parameter(key = "ctg_dynamic_scheduling", group = "Continuous Test Generation", description = "Choose the next job whenever a core is free, longest predicted job first and jobs needed for seeding before, and share the budget jobs leave unused")
+	public static boolean CTG_DYNAMIC_SCHEDULING = false;
+
 
 	@Parameter(key = "ctg_extra_args", group = "Continuous Test Generation", description = "Extra '-D' arguments to pass to EvoSuite test generation processes")
 	public static String CTG_EXTRA_ARGS = null;
@@ -939,6 +982,9 @@ public class Properties {
 	//this gives quite a few issues. and hopefully the problems it was aimed to fix are no longer
 	public static boolean JUNIT_CHECK_ON_SEPARATE_PROCESS = false;
 
+	@Parameter(key = "junit_check_in_memory", group = "Output", description = "Compile the JUnit tests to check in memory, all in one compilation task, instead of on disk")
+	public static boolean JUNIT_CHECK_IN_MEMORY = false;
+
 	@Parameter(key = "junit_suffix", group = "Output", description = "Suffix that is appended at each generated JUnit file name")
 	public static String JUNIT_SUFFIX = "_ESTest";
 
@@ -1131,6 +1177,15 @@ public class Properties {
 	@Parameter(key = "timeline_interval", group = "Output", description = "Time interval in milliseconds for timeline statistics")
 	public static long TIMELINE_INTERVAL = 60 * 1000;
 
+	@Parameter(key = "async_statistics", group = "Output", description = "Send statistics and state changes from the client to the master in batches on a background thread")
+	public static boolean ASYNC_STATISTICS = false;
+
+	@Parameter(key = "statistics_flush_interval", group = "Output", description = "Maximum time in milliseconds statistics are buffered on the client before they are sent to the master")
+	public static long STATISTICS_FLUSH_INTERVAL = 1000;
+
+	@Parameter(key = "statistics_batch_size", group = "Output", description = "Number of buffered statistics updates on the client that triggers sending them to the master")
+	public static int STATISTICS_BATCH_SIZE = 100;
+
     @Parameter(key = "timeline_interpolation", group = "Output", description = "Interpolate timeline values")
     public static boolean TIMELINE_INTERPOLATION = true;
 
@@ -1236,6 +1291,12 @@ public class Properties {
 	@Parameter(key = "instrument_libraries", description = "Instrument the libraries used by the project under test")
 	public static boolean INSTRUMENT_LIBRARIES = false;
 
+	@Parameter(key = "instrumentation_cache_dir", description = "Directory in which instrumented classes without coverage goals are cached, so that other processes and later runs on the same project do not need to instrument them again")
+	public static String INSTRUMENTATION_CACHE_DIR = null;
+
+	@Parameter(key = "cfg_construction_threads", description = "Number of threads used to build the control flow and control dependence graphs of the dependencies reachable from the class under test before the search starts. 0 builds them lazily when they are first needed")
+	public static int CFG_CONSTRUCTION_THREADS = 0;
+
 	@Parameter(key = "break_on_exception", description = "Stop test execution if exception occurrs")
 	public static boolean BREAK_ON_EXCEPTION = true;
 
@@ -1364,6 +1425,9 @@ public class Properties {
 	@Parameter(key = "mutation_timeouts", group = "Test Execution", description = "Number of timeouts before we consider a mutant killed")
 	public static int MUTATION_TIMEOUTS = 3;
 
+	@Parameter(key = "infection_based_mutant_execution", group = "Test Execution", description = "During assertion generation, skip mutants that are reached but not infected, and only observe infected mutants from the first infecting statement on")
+	public static boolean INFECTION_BASED_MUTANT_EXECUTION = false;
+
 	@Parameter(key = "array_limit", group = "Test Execution", description = "Hard limit on array allocation in the code")
 	public static int ARRAY_LIMIT = 1000000;
 
@@ -1389,6 +1453,21 @@ public class Properties {
     @Parameter(key = "max_loop_iterations", group = "Test Execution", description = "Max number of iterations allowed per loop. A negative value means no check is done.")
     public static long MAX_LOOP_ITERATIONS = RuntimeSettings.maxNumberOfIterationsPerLoop;
 
+	@Parameter(key = "primitive_branch_trace", group = "Test Execution", description = "Store branch coverage and distances of execution traces in primitive arrays indexed by branch id")
+	public static boolean PRIMITIVE_BRANCH_TRACE = false;
+
+	@Parameter(key = "num_execution_slots", group = "Test Execution", description = "Number of tests executed in parallel during fitness evaluation, each on its own thread with its own execution tracer. 1 executes tests sequentially")
+	public static int NUM_EXECUTION_SLOTS = 1;
+
+	@Parameter(key = "incremental_suite_fitness", group = "Test Execution", description = "Branch suite fitness functions keep the aggregated traces of each suite and only update them with the tests executed since the last evaluation")
+	public static boolean INCREMENTAL_SUITE_FITNESS = false;
+
+	@Parameter(key = "prefix_execution_cache", group = "Test Execution", description = "Resume test executions after a cached prefix of primitive values and pure static calls that has no side effects")
+	public static boolean PREFIX_EXECUTION_CACHE = false;
+
+	@Parameter(key = "prefix_execution_cache_size", group = "Test Execution", description = "Maximum number of prefix snapshots kept by the prefix execution cache")
+	public static int PREFIX_EXECUTION_CACHE_SIZE = 1000;
+
     // ---------------------------------------------------------------
 	// Debugging
 
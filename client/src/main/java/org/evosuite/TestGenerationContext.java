@@ -60,9 +60,13 @@ import org.evosuite.setup.TestClusterGenerator;
 import org.evosuite.symbolic.DSEStats;
 import org.evosuite.testcarver.extraction.CarvingManager;
 import org.evosuite.testcase.execution.ExecutionTracer;
+import org.evosuite.testcase.execution.ParallelTestCaseExecutor;
+import org.evosuite.testcase.execution.PrefixExecutionCache;
 import org.evosuite.testcase.execution.TestCaseExecutor;
 import org.evosuite.testcase.execution.reset.ClassReInitializer;
+import org.evosuite.testcase.execution.reset.StaticFieldSnapshots;
 import org.evosuite.utils.ArrayUtil;
+import org.evosuite.utils.generic.GenericTypeCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -171,8 +175,10 @@ public class TestGenerationContext {
 		}
 
 		TestCaseExecutor.pullDown();
+		ParallelTestCaseExecutor.pullDown();
 
 		ExecutionTracer.getExecutionTracer().clear();
+		PrefixExecutionCache.resetSingleton();
 
 		// TODO: BranchPool should not be static
 		BranchPool.getInstance(classLoader).reset();
@@ -194,6 +200,7 @@ public class TestGenerationContext {
 		// TODO: After this, the test cluster is empty until
 		// DependencyAnalysis.analyse is called
 		TestCluster.reset();
+		GenericTypeCache.resetSingleton();
 		CastClassManager.getInstance().clear();
 		ConcreteClassAnalyzer.getInstance().clear();
 		// This counts the current level of recursion during test generation
@@ -254,6 +261,7 @@ public class TestGenerationContext {
 		final List<String> initializedClasses = ClassReInitializer.getInstance().getInitializedClasses();
 		ClassReInitializer.resetSingleton();
 		ClassReInitializer.getInstance().addInitializedClasses(initializedClasses);
+		StaticFieldSnapshots.resetSingleton();
 		
 		InspectorManager.resetSingleton();
 		ModifiedTargetStaticFields.resetSingleton();
@@ -61,6 +61,8 @@ import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.statistics.StatisticsSender;
 import org.evosuite.strategy.TestGenerationStrategy;
 import org.evosuite.symbolic.DSEStats;
+import org.evosuite.symbolic.solver.SmtSolverSession;
+import org.evosuite.symbolic.solver.SolverCache;
 import org.evosuite.testcase.ConstantInliner;
 import org.evosuite.testcase.DefaultTestCase;
 import org.evosuite.testcase.TestCase;
@@ -70,6 +72,7 @@ import org.evosuite.testcase.execution.EvosuiteError;
 import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testcase.execution.ExecutionTrace;
 import org.evosuite.testcase.execution.ExecutionTracer;
+import org.evosuite.testcase.execution.ParallelTestCaseExecutor;
 import org.evosuite.testcase.execution.TestCaseExecutor;
 import org.evosuite.testcase.execution.reset.ClassReInitializer;
 import org.evosuite.testcase.statements.MethodStatement;
@@ -290,6 +293,9 @@ public class TestSuiteGenerator {
 			writeJUnitFailingTests();
 		}
 		TestCaseExecutor.pullDown();
+		ParallelTestCaseExecutor.pullDown();
+		SmtSolverSession.closeAll();
+		SolverCache.getInstance().save();
 		/*
 		 * TODO: when we will have several processes running in parallel, we ll need to
 		 * handle the gathering of the statistics.
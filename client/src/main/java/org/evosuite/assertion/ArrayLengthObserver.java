@@ -17,6 +17,9 @@ public class ArrayLengthObserver extends AssertionTraceObserver<ArrayLengthTrace
         if(exception != null)
             return;
 
+        if(!isObserved(statement))
+            return;
+
         // No assertions are created for mock statements
         if(statement instanceof FunctionalMockStatement)
             return;
@@ -48,6 +48,9 @@ public class ArrayTraceObserver extends AssertionTraceObserver<ArrayTraceEntry>
 		// By default, no assertions are created for statements that threw exceptions
 		if(exception != null)
 			return;
+
+		if(!isObserved(statement))
+			return;
 		
 		// No assertions are created for mock statements
 		if(statement instanceof FunctionalMockStatement)
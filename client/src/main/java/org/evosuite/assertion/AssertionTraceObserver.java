@@ -51,6 +51,23 @@ public abstract class AssertionTraceObserver<T extends OutputTraceEntry> extends
 
 	protected OutputTrace<T> trace = new OutputTrace<T>();
 
+	/** Statements before this position are not observed */
+	private static int firstObservedPosition = 0;
+
+	/**
+	 * Only observe the statements from the given position on, e.g. because
+	 * the previous statements are known to behave as in an earlier execution
+	 * 
+	 * @param position
+	 */
+	public static void setFirstObservedPosition(int position) {
+		firstObservedPosition = position;
+	}
+
+	protected boolean isObserved(Statement statement) {
+		return firstObservedPosition == 0 || statement.getPosition() >= firstObservedPosition;
+	}
+
 	protected boolean checkThread() {
 		return ExecutionTracer.isThreadNeqCurrentThread();
 	}
@@ -189,6 +206,9 @@ public abstract class AssertionTraceObserver<T extends OutputTraceEntry> extends
 	        Throwable exception) {
 		//if(checkThread())
 		//	return;
+
+		if(!isObserved(statement))
+			return;
 		
 		// No assertions are created for mock statements
 		if(statement instanceof FunctionalMockStatement)
@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.assertion;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.evosuite.testcase.execution.ExecutionObserver;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionTracer;
+import org.evosuite.testcase.execution.Scope;
+import org.evosuite.testcase.statements.Statement;
+
+/**
+ * Records for each mutant the first statement of a test that reached it, and
+ * the first statement after which it was infected, i.e., its infection
+ * distance was 0.
+ * 
+ * Executing the test on a mutant that was reached but never infected gives
+ * the same result as executing it on the original unit. For an infected
+ * mutant, the statements before the first infection behave as on the
+ * original unit.
+ */
+public class MutantInfectionObserver extends ExecutionObserver {
+
+	private final Map<Integer, Integer> reachingPositions = new HashMap<>();
+
+	private final Map<Integer, Integer> infectingPositions = new HashMap<>();
+
+	@Override
+	public void output(int position, String output) {
+		// do nothing
+	}
+
+	@Override
+	public void beforeStatement(Statement statement, Scope scope) {
+		// do nothing
+	}
+
+	@Override
+	public synchronized void afterStatement(Statement statement, Scope scope, Throwable exception) {
+		Map<Integer, Double> distances = ExecutionTracer.getExecutionTracer().getTrace().getMutationDistances();
+		if (distances.size() == infectingPositions.size())
+			return;
+
+		int position = statement.getPosition();
+		synchronized (distances) {
+			for (Map.Entry<Integer, Double> entry : distances.entrySet()) {
+				if (!reachingPositions.containsKey(entry.getKey()))
+					reachingPositions.put(entry.getKey(), position);
+				if (entry.getValue() == 0.0 && !infectingPositions.containsKey(entry.getKey()))
+					infectingPositions.put(entry.getKey(), position);
+			}
+		}
+	}
+
+	@Override
+	public void testExecutionFinished(ExecutionResult r, Scope s) {
+		// do nothing
+	}
+
+	@Override
+	public synchronized void clear() {
+		reachingPositions.clear();
+		infectingPositions.clear();
+	}
+
+	/**
+	 * @return the position of the first statement that reached each mutant
+	 */
+	public synchronized Map<Integer, Integer> getReachingPositions() {
+		return new HashMap<>(reachingPositions);
+	}
+
+	/**
+	 * @return the position of the first statement after which each infected
+	 *         mutant was infected
+	 */
+	public synchronized Map<Integer, Integer> getInfectingPositions() {
+		return new HashMap<>(infectingPositions);
+	}
+}
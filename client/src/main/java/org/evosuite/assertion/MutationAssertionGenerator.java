@@ -75,6 +75,7 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 	protected final static ArrayTraceObserver arrayObserver = new ArrayTraceObserver();
 	protected final static ArrayLengthObserver arrayLengthObserver = new ArrayLengthObserver();
 	protected final static ContainsTraceObserver containsTraceObserver = new ContainsTraceObserver();
+	protected final static MutantInfectionObserver infectionObserver = new MutantInfectionObserver();
 
 	protected final static Map<Mutation, Integer> timedOutMutations = new HashMap<Mutation, Integer>();
 
@@ -102,6 +103,7 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 		TestCaseExecutor.getInstance().addObserver(arrayObserver);
 		TestCaseExecutor.getInstance().addObserver(arrayLengthObserver);
 		TestCaseExecutor.getInstance().addObserver(containsTraceObserver);
+		TestCaseExecutor.getInstance().addObserver(infectionObserver);
 	}
 
 	/**
@@ -123,6 +125,21 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 	 *            The mutant on which the test case shall be executed
 	 */
 	protected ExecutionResult runTest(TestCase test, Mutation mutant) {
+		return runTest(test, mutant, 0);
+	}
+
+	/**
+	 * Execute a test case on a mutant, observing the outputs only from the
+	 * given statement on
+	 * 
+	 * @param test
+	 *            The test case that should be executed
+	 * @param mutant
+	 *            The mutant on which the test case shall be executed
+	 * @param firstObservedPosition
+	 *            Position of the first statement whose outputs are observed
+	 */
+	protected ExecutionResult runTest(TestCase test, Mutation mutant, int firstObservedPosition) {
 		ExecutionResult result = new ExecutionResult(test, mutant);
 		// resetObservers();
 		comparisonObserver.clear();
@@ -134,6 +151,8 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 		arrayObserver.clear();
 		arrayLengthObserver.clear();
 		containsTraceObserver.clear();
+		infectionObserver.clear();
+		AssertionTraceObserver.setFirstObservedPosition(firstObservedPosition);
 		try {
 			logger.debug("Executing test");
 			if (mutant == null) {
@@ -159,6 +178,8 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 
 		} catch (Exception e) {
 			throw new Error(e);
+		} finally {
+			AssertionTraceObserver.setFirstObservedPosition(0);
 		}
 
 		return result;
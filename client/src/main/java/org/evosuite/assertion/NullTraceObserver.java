@@ -38,6 +38,9 @@ public class NullTraceObserver extends AssertionTraceObserver<NullTraceEntry> {
 		if(exception != null)
 			return;
 
+		if(!isObserved(statement))
+			return;
+
 		// No assertions are created for mock statements
 		if(statement instanceof FunctionalMockStatement)
 			return;
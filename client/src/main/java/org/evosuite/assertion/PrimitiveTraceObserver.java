@@ -44,6 +44,9 @@ public class PrimitiveTraceObserver extends AssertionTraceObserver<PrimitiveTrac
 		if(exception != null)
 			return;
 
+		if(!isObserved(statement))
+			return;
+
 		// No assertions are created for mock statements
 		if(statement instanceof FunctionalMockStatement)
 			return;
@@ -37,6 +37,7 @@ import org.evosuite.coverage.mutation.MutationTimeoutStoppingCondition;
 import org.evosuite.rmi.ClientServices;
 import org.evosuite.rmi.service.ClientState;
 import org.evosuite.rmi.service.ClientStateInformation;
+import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.variable.VariableReference;
 import org.evosuite.testcase.execution.ExecutionResult;
@@ -50,6 +51,12 @@ public class SimpleMutationAssertionGenerator extends MutationAssertionGenerator
 
 	private final static Logger logger = LoggerFactory.getLogger(SimpleMutationAssertionGenerator.class);
 
+	/** Number of mutant executions skipped because the mutant was not infected */
+	private int numSkippedMutants = 0;
+
+	/** Number of statements not observed on mutants because they precede the infection */
+	private int numUnobservedStatements = 0;
+
 
 	@Override
 	public void addAssertions(TestSuiteChromosome suite) {
@@ -98,6 +105,14 @@ public class SimpleMutationAssertionGenerator extends MutationAssertionGenerator
 		}
 		
 		calculateMutationScore(tkilled);
+		if (Properties.INFECTION_BASED_MUTANT_EXECUTION) {
+			logger.info("Skipped {} mutant executions, did not observe {} statements on mutants",
+			            numSkippedMutants, numUnobservedStatements);
+			ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.MutantExecutionsSkipped,
+			                                                                 numSkippedMutants);
+			ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.MutantStatementsNotObserved,
+			                                                                 numUnobservedStatements);
+		}
 		restoreCriterion(suite);
 	}
 
@@ -143,6 +158,8 @@ public class SimpleMutationAssertionGenerator extends MutationAssertionGenerator
 			return;
 		}
 
+		Map<Integer, Integer> infectingPositions = infectionObserver.getInfectingPositions();
+
 		Map<Mutation, List<OutputTrace<?>>> mutationTraces = new HashMap<Mutation, List<OutputTrace<?>>>();
 		List<Mutation> executedMutants = new ArrayList<Mutation>();
 
@@ -196,8 +213,20 @@ public class SimpleMutationAssertionGenerator extends MutationAssertionGenerator
 			}
 			*/
 
+			int firstObservedPosition = 0;
+			if (Properties.INFECTION_BASED_MUTANT_EXECUTION) {
+				firstObservedPosition = getFirstObservedPosition(m, origResult, infectingPositions);
+				if (firstObservedPosition < 0) {
+					logger.debug("Skipping mutant that is not infected: {}", m.getMutationName());
+					mutationTraces.put(m, new ArrayList<OutputTrace<?>>());
+					numSkippedMutants++;
+					continue;
+				}
+				numUnobservedStatements += firstObservedPosition;
+			}
+
 			logger.debug("Running test on mutation {}",  m.getMutationName());
-			ExecutionResult mutantResult = runTest(test, m);
+			ExecutionResult mutantResult = runTest(test, m, firstObservedPosition);
 
 			int numKilled = 0;
 			for (Class<?> observerClass : observerClasses) {
@@ -437,6 +466,30 @@ public class SimpleMutationAssertionGenerator extends MutationAssertionGenerator
 
 	}
 	
+	/**
+	 * Determine from which statement on the outputs of a test executed on a
+	 * mutant need to be observed
+	 * 
+	 * @param mutant
+	 * @param origResult
+	 *            result of the test on the original unit
+	 * @param infectingPositions
+	 *            the positions recorded by the {@link MutantInfectionObserver}
+	 *            during that execution
+	 * @return the position of the first statement to observe, or -1 if the
+	 *         mutant does not need to be executed at all
+	 */
+	static int getFirstObservedPosition(Mutation mutant, ExecutionResult origResult,
+	        Map<Integer, Integer> infectingPositions) {
+		// A mutant that is reached but never infected behaves like the original
+		if (origResult.getTrace().getMutationDistance(mutant.getId()) > 0.0)
+			return -1;
+		// Statements before the first infection behave like on the original
+		if (infectingPositions.containsKey(mutant.getId()))
+			return infectingPositions.get(mutant.getId());
+		return 0;
+	}
+
 	/**
 	 * Return a minimal subset of the assertions that covers all killable
 	 * mutants
@@ -39,6 +39,7 @@ import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testcase.statements.ConstructorStatement;
 import org.evosuite.testcase.statements.Statement;
 import org.evosuite.testsuite.AbstractTestSuiteChromosome;
+import org.evosuite.testsuite.SuiteTraceAggregator;
 import org.evosuite.testsuite.TestSuiteFitnessFunction;
 import org.objectweb.asm.Type;
 import org.slf4j.Logger;
@@ -315,6 +316,53 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		}
 		return hasTimeoutOrTestException;
 	}
+
+	/**
+	 * Same as {@link #analyzeTraces}, but only analyzes the results of tests
+	 * that were executed since the last evaluation of the suite. The
+	 * statistics are taken from the aggregated traces of the suite.
+	 */
+	private boolean aggregateTraces(AbstractTestSuiteChromosome<? extends ExecutableChromosome> suite, List<ExecutionResult> results,
+	        Map<Integer, Integer> predicateCount, Map<String, Integer> callCount,
+	        Map<Integer, Double> trueDistance, Map<Integer, Double> falseDistance) {
+		SuiteTraceAggregator aggregator = suite.getTraceAggregator(this);
+		List<ExecutionResult> newResults = aggregator.update(results);
+
+		// Covered goals and the archive only need to see new results
+		analyzeTraces(suite, newResults, new LinkedHashMap<Integer, Integer>(),
+		              new LinkedHashMap<String, Integer>(), new LinkedHashMap<Integer, Double>(),
+		              new LinkedHashMap<Integer, Double>());
+
+		for (Integer key : aggregator.getExecutedPredicates()) {
+			if (!branchesId.contains(key)
+					|| (removedBranchesT.contains(key)
+					&& removedBranchesF.contains(key)))
+				continue;
+			predicateCount.put(key, aggregator.getPredicateExecutionCount(key));
+		}
+		for (Integer key : aggregator.getTrueDistanceBranches()) {
+			if(!branchesId.contains(key)||removedBranchesT.contains(key)) continue;
+			trueDistance.put(key, aggregator.getTrueDistance(key));
+		}
+		for (Integer key : aggregator.getFalseDistanceBranches()) {
+			if(!branchesId.contains(key)||!branchCoverageFalseMap.containsKey(key)||removedBranchesF.contains(key)) continue;
+			falseDistance.put(key, aggregator.getFalseDistance(key));
+		}
+		handleAggregatedMethods(aggregator, callCount);
+		for (String constructor : aggregator.getFailedConstructors()) {
+			if (!callCount.containsKey(constructor))
+				callCount.put(constructor, 1);
+		}
+		return aggregator.hasTimeoutOrTestException();
+	}
+
+	protected void handleAggregatedMethods(SuiteTraceAggregator aggregator, Map<String, Integer> callCount) {
+		for (String method : aggregator.getCalledMethods()) {
+			if (!methods.contains(method) || removedRootBranches.contains(method))
+				continue;
+			callCount.put(method, aggregator.getMethodExecutionCount(method));
+		}
+	}
 	
 	@Override
 	public boolean updateCoveredGoals() {
@@ -390,9 +438,15 @@ public class BranchCoverageSuiteFitness extends TestSuiteFitnessFunction {
 		Map<String, Integer> callCount = new LinkedHashMap<String, Integer>();
 
 		// Collect stats in the traces 
-		boolean hasTimeoutOrTestException = analyzeTraces(suite, results, predicateCount,
-		                                                  callCount, trueDistance,
-		                                                  falseDistance);
+		boolean hasTimeoutOrTestException;
+		if (Properties.INCREMENTAL_SUITE_FITNESS)
+			hasTimeoutOrTestException = aggregateTraces(suite, results, predicateCount,
+			                                            callCount, trueDistance,
+			                                            falseDistance);
+		else
+			hasTimeoutOrTestException = analyzeTraces(suite, results, predicateCount,
+			                                          callCount, trueDistance,
+			                                          falseDistance);
 
 		// Collect branch distances of covered branches
 		int numCoveredBranches = 0;
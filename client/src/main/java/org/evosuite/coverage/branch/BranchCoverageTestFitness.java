@@ -132,11 +132,11 @@ public class BranchCoverageTestFitness extends TestFitnessFunction implements Br
 				methodExecuted = true;
 				if (goal.getBranch() != null) {
 					for (int i = 0; i < call.branchTrace.size(); i++) {
-						if (call.branchTrace.get(i) == goal.getBranch().getInstruction().getInstructionId()) {
+						if (call.branchTrace.getInt(i) == goal.getBranch().getInstruction().getInstructionId()) {
 							if (goal.getValue())
-								sum += call.falseDistanceTrace.get(i);
+								sum += call.falseDistanceTrace.getDouble(i);
 							else
-								sum += call.trueDistanceTrace.get(i);
+								sum += call.trueDistanceTrace.getDouble(i);
 						}
 					}
 				}
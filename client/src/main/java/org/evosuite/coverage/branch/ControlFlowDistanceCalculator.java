@@ -26,7 +26,9 @@ import org.evosuite.coverage.TestCoverageGoal;
 import org.evosuite.graphs.cfg.BytecodeInstruction;
 import org.evosuite.graphs.cfg.ControlDependency;
 import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.execution.DoubleTrace;
 import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.IntTrace;
 import org.evosuite.testcase.execution.MethodCall;
 import org.evosuite.testcase.statements.ConstructorStatement;
 import org.objectweb.asm.Type;
@@ -253,8 +255,7 @@ public class ControlFlowDistanceCalculator {
 		}
 		handled.add(branch);
 
-		List<Double> trueDistances = call.trueDistanceTrace;
-		List<Double> falseDistances = call.falseDistanceTrace;
+		DoubleTrace distances = value ? call.trueDistanceTrace : call.falseDistanceTrace;
 
 		// IDEA:
 		// if this goal's branch is traced in the given path, return the
@@ -263,20 +264,21 @@ public class ControlFlowDistanceCalculator {
 		// and return 1 + minimum of the branch coverage goal distance over all
 		// such branches taking as value the branchExpressionValue
 
-		Set<Integer> branchTracePositions = determineBranchTracePositions(call, branch);
+		IntTrace path = call.branchTrace;
+		int branchId = branch.getActualBranchId();
+		boolean traced = false;
+		double minDistance = Double.MAX_VALUE;
+		for (int pos = 0; pos < path.size(); pos++) {
+			if (path.getInt(pos) == branchId) {
+				traced = true;
+				minDistance = Math.min(minDistance, distances.getDouble(pos));
+			}
+		}
 
-		if (!branchTracePositions.isEmpty()) {
+		if (traced) {
 
 			// branch was traced in given path
-			ControlFlowDistance r = new ControlFlowDistance(0, Double.MAX_VALUE);
-
-			for (Integer branchTracePosition : branchTracePositions)
-				if (value)
-					r.setBranchDistance(Math.min(r.getBranchDistance(),
-					                             trueDistances.get(branchTracePosition)));
-				else
-					r.setBranchDistance(Math.min(r.getBranchDistance(),
-					                             falseDistances.get(branchTracePosition)));
+			ControlFlowDistance r = new ControlFlowDistance(0, minDistance);
 
 //			if (r.getBranchDistance() == Double.MAX_VALUE)
 //				throw new IllegalStateException("should be impossible");
@@ -355,17 +357,4 @@ public class ControlFlowDistanceCalculator {
 		return r;
 	}
 
-	private static Set<Integer> determineBranchTracePositions(MethodCall call,
-	        Branch branch) {
-
-		Set<Integer> r = new HashSet<Integer>();
-		List<Integer> path = call.branchTrace;
-		for (int pos = 0; pos < path.size(); pos++) {
-			if (path.get(pos) == branch.getActualBranchId()) { //.getActualBranchId()); {
-				r.add(pos);
-			}
-		}
-		return r;
-	}
-
 }
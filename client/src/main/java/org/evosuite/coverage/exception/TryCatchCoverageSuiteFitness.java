@@ -26,6 +26,7 @@ import org.evosuite.testcase.ExecutableChromosome;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testsuite.AbstractTestSuiteChromosome;
+import org.evosuite.testsuite.SuiteTraceAggregator;
 
 import java.util.List;
 import java.util.Map;
@@ -60,6 +61,11 @@ public class TryCatchCoverageSuiteFitness extends BranchCoverageSuiteFitness {
         // no-op
     }
 
+    @Override
+    protected void handleAggregatedMethods(SuiteTraceAggregator aggregator, Map<String, Integer> callCount) {
+        // no-op
+    }
+
 //    @Override
 //    protected void handleTrueDistances(TestChromosome test, ExecutionResult result, Map<Integer, Double> falseDistance) {
 //        // We only aim to cover false branches
@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import org.evosuite.Properties;
 import org.evosuite.TestGenerationContext;
@@ -20,9 +21,11 @@ import org.evosuite.testcase.ExecutableChromosome;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
 import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.TraceSummary;
 import org.evosuite.testcase.statements.ConstructorStatement;
 import org.evosuite.testcase.statements.Statement;
 import org.evosuite.testsuite.AbstractTestSuiteChromosome;
+import org.evosuite.testsuite.SuiteTraceAggregator;
 import org.evosuite.testsuite.TestSuiteFitnessFunction;
 import org.objectweb.asm.Type;
 import org.slf4j.Logger;
@@ -69,6 +72,9 @@ public class FBranchSuiteFitness extends TestSuiteFitnessFunction {
 	
 //	private List<FBranchTestFitness> branchGoals;
 	private Map<String, FBranchTestFitness> branchGoals;
+
+	/** Goal fitness of each executed test, only used with incremental suite fitness */
+	private transient Map<TraceSummary, Map<BranchCoverageGoal, Double>> testFitnessCache;
 	/**
 	 * <p>
 	 * Constructor for BranchCoverageSuiteFitness.
@@ -340,6 +346,55 @@ public class FBranchSuiteFitness extends TestSuiteFitnessFunction {
 		}
 		return hasTimeoutOrTestException;
 	}
+
+	/**
+	 * Update the aggregated traces of the suite with the tests executed since
+	 * the last evaluation and summarize statistics
+	 * 
+	 * @param results
+	 * @param predicateCount
+	 * @param callCount
+	 * @param trueDistance
+	 * @param falseDistance
+	 * @return
+	 */
+	private boolean aggregateTraces(AbstractTestSuiteChromosome<? extends ExecutableChromosome> suite, List<ExecutionResult> results,
+	        Map<Integer, Integer> predicateCount, Map<String, Integer> callCount,
+	        Map<Integer, Double> trueDistance, Map<Integer, Double> falseDistance) {
+		SuiteTraceAggregator aggregator = suite.getTraceAggregator(this);
+		List<ExecutionResult> newResults = aggregator.update(results);
+
+		// Covered goals and the archive only need to see new results
+		analyzeTraces(suite, newResults, new HashMap<Integer, Integer>(),
+		              new HashMap<String, Integer>(), new HashMap<Integer, Double>(),
+		              new HashMap<Integer, Double>());
+
+		for (Integer key : aggregator.getExecutedPredicates()) {
+			if (!getBranchesId().contains(key)
+					|| (removedBranchesT.contains(key)
+					&& removedBranchesF.contains(key)))
+				continue;
+			predicateCount.put(key, aggregator.getPredicateExecutionCount(key));
+		}
+		for (Integer key : aggregator.getTrueDistanceBranches()) {
+			if(!getBranchesId().contains(key)||removedBranchesT.contains(key)) continue;
+			trueDistance.put(key, aggregator.getTrueDistance(key));
+		}
+		for (Integer key : aggregator.getFalseDistanceBranches()) {
+			if(!getBranchesId().contains(key)||!branchCoverageFalseMap.containsKey(key)||removedBranchesF.contains(key)) continue;
+			falseDistance.put(key, aggregator.getFalseDistance(key));
+		}
+		for (String method : aggregator.getCalledMethods()) {
+			if (method == null || !methods.contains(method) || removedRootBranches.contains(method))
+				continue;
+			callCount.put(method, aggregator.getMethodExecutionCount(method));
+		}
+		for (String constructor : aggregator.getFailedConstructors()) {
+			if (!callCount.containsKey(constructor))
+				callCount.put(constructor, 1);
+		}
+		return aggregator.hasTimeoutOrTestException();
+	}
 	
 	@Override
 	public boolean updateCoveredGoals() {
@@ -399,6 +454,26 @@ public class FBranchSuiteFitness extends TestSuiteFitnessFunction {
 	
 	
 	private double getTestFitness(BranchCoverageGoal goal, ExecutionResult result) {
+		if (!Properties.INCREMENTAL_SUITE_FITNESS)
+			return computeTestFitness(goal, result);
+
+		// Unchanged tests keep their summary, so their goal fitness is reused
+		if (testFitnessCache == null)
+			testFitnessCache = new WeakHashMap<>();
+		Map<BranchCoverageGoal, Double> goalFitness = testFitnessCache.get(result.getTraceSummary());
+		if (goalFitness == null) {
+			goalFitness = new HashMap<>();
+			testFitnessCache.put(result.getTraceSummary(), goalFitness);
+		}
+		Double f = goalFitness.get(goal);
+		if (f == null) {
+			f = computeTestFitness(goal, result);
+			goalFitness.put(goal, f);
+		}
+		return f;
+	}
+
+	private double computeTestFitness(BranchCoverageGoal goal, ExecutionResult result) {
 		FBranchTestFitness fBranchFitness = getGoal(goal.getBranch().getActualBranchId(), goal.getValue());
 		
 		TestChromosome tc = new TestChromosome();
@@ -513,9 +588,15 @@ public class FBranchSuiteFitness extends TestSuiteFitnessFunction {
 		Map<String, Integer> callCount = new HashMap<String, Integer>();
 
 		// Collect stats in the traces 
-		boolean hasTimeoutOrTestException = analyzeTraces(suite, results, predicateCount,
-		                                                  callCount, trueDistance,
-		                                                  falseDistance);
+		boolean hasTimeoutOrTestException;
+		if (Properties.INCREMENTAL_SUITE_FITNESS)
+			hasTimeoutOrTestException = aggregateTraces(suite, results, predicateCount,
+			                                            callCount, trueDistance,
+			                                            falseDistance);
+		else
+			hasTimeoutOrTestException = analyzeTraces(suite, results, predicateCount,
+			                                          callCount, trueDistance,
+			                                          falseDistance);
 
 		// Collect branch distances of covered branches
 		int numCoveredBranches = 0;
@@ -124,6 +124,12 @@ public abstract class MutationSuiteFitness extends TestSuiteFitnessFunction {
 		return MutationTestFitness.runTest(test, mutant);
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	protected boolean canExecuteTestsInParallel() {
+		return false;
+	}
+
 	/* (non-Javadoc)
 	 * @see org.evosuite.ga.FitnessFunction#getFitness(org.evosuite.ga.Chromosome)
 	 */
@@ -57,6 +57,7 @@ import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
 import org.evosuite.testcase.TestMutationHistoryEntry;
 import org.evosuite.testcase.TestMutationHistoryEntry.TestMutation;
+import org.evosuite.testcase.execution.ParallelTestCaseExecutor;
 import org.evosuite.testcase.factories.RandomLengthTestFactory;
 import org.evosuite.testcase.secondaryobjectives.TestCaseSecondaryObjective;
 import org.evosuite.testcase.statements.ArrayStatement;
@@ -574,6 +575,20 @@ public abstract class AbstractMOSA<T extends Chromosome> extends GeneticAlgorith
         this.budgetMonitor.checkMaxCoverage(this.getNumberOfCoveredGoals());
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>With more than one execution slot, the changed tests of the population are executed
+     * in parallel first, and the fitness is then computed from their stored results.</p>
+     */
+    @Override
+    protected void calculateFitness(boolean isInitialization) {
+        if (ParallelTestCaseExecutor.isEnabled()) {
+            ParallelTestCaseExecutor.getInstance().executeChangedTests(this.population);
+        }
+        super.calculateFitness(isInitialization);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -98,7 +98,13 @@ public class MOSA<T extends Chromosome> extends AbstractMOSA<T> {
 
 		// for parallel runs: integrate possible immigrants
 		if (Properties.NUM_PARALLEL_CLIENTS > 1 && !immigrants.isEmpty()) {
-			union.addAll(immigrants.poll());
+			for (T immigrant : immigrants.poll()) {
+				// migrants received over a migration channel arrive without fitness values
+				if (immigrant.getFitnessValues().isEmpty()) {
+					this.calculateFitness(immigrant);
+				}
+				union.add(immigrant);
+			}
 		}
 
 		Set<FitnessFunction<T>> uncoveredGoals = this.getUncoveredGoals();
@@ -32,6 +32,7 @@ import org.evosuite.ga.FitnessFunction;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ParallelTestCaseExecutor;
 import org.evosuite.testcase.execution.TestCaseExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -91,9 +92,13 @@ public class BranchesManager<T extends Chromosome> extends StructuralGoalManager
 	public void calculateFitness(T c){
 		// run the test
 		TestCase test = ((TestChromosome) c).getTestCase();
-		ExecutionResult result = TestCaseExecutor.runTest(test);
-		((TestChromosome) c).setLastExecutionResult(result);
-		c.setChanged(false);
+		ExecutionResult result = ((TestChromosome) c).getLastExecutionResult();
+		// tests executed in parallel beforehand are not changed since
+		if (!ParallelTestCaseExecutor.isEnabled() || c.isChanged() || result == null) {
+			result = TestCaseExecutor.runTest(test);
+			((TestChromosome) c).setLastExecutionResult(result);
+			c.setChanged(false);
+		}
 		
 		if (result.hasTimeout() || result.hasTestException()){
 			for (FitnessFunction<T> f : currentGoals)
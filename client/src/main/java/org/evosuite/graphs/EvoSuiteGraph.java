@@ -28,6 +28,7 @@ import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.evosuite.utils.LoggingUtils;
 import org.jgrapht.DirectedGraph;
@@ -70,7 +71,7 @@ public abstract class EvoSuiteGraph<V, E extends DefaultEdge> {
 
 	private static Logger logger = LoggerFactory.getLogger(EvoSuiteGraph.class);
 
-	private static int evoSuiteGraphs = 0;
+	private static final AtomicInteger evoSuiteGraphs = new AtomicInteger();
 	protected int graphId;
 
 	protected DirectedGraph<V, E> graph;
@@ -117,8 +118,7 @@ public abstract class EvoSuiteGraph<V, E extends DefaultEdge> {
 	}
 
 	private void setId() {
-		evoSuiteGraphs++;
-		graphId = evoSuiteGraphs;
+		graphId = evoSuiteGraphs.incrementAndGet();
 	}
 
 	// retrieving nodes and edges
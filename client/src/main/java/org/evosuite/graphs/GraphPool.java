@@ -275,6 +275,33 @@ public class GraphPool {
 		}
 	}
 	
+	/**
+	 * Registers an actual CFG that was already finalised together with its
+	 * CDG, both computed outside of this pool by the
+	 * {@link ParallelGraphBuilder}. The CDG is null for methods that are not
+	 * instrumented.
+	 */
+	void registerActualCFG(ActualControlFlowGraph cfg, ControlDependenceGraph cdg) {
+		String className = cfg.getClassName();
+		String methodName = cfg.getMethodName();
+
+		if (className == null || methodName == null)
+			throw new IllegalStateException(
+			        "expect class and method name of CFGs to be set before entering the GraphPool");
+
+		if (!actualCFGs.containsKey(className)) {
+			actualCFGs.put(className, new HashMap<String, ActualControlFlowGraph>());
+		}
+		actualCFGs.get(className).put(methodName, cfg);
+		logger.debug("Added CFG for class " + className + " and method " + methodName);
+
+		if (Properties.WRITE_CFG)
+			cfg.toDot();
+
+		if (cdg != null)
+			registerControlDependence(cdg);
+	}
+
 	public void registerClass(String className) {
 		InputStream is = ResourceList.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT())
 				.getClassAsStream(className);
@@ -353,9 +380,10 @@ public class GraphPool {
 	}
 
 	private void createAndRegisterControlDependence(ActualControlFlowGraph cfg) {
+		registerControlDependence(new ControlDependenceGraph(cfg));
+	}
 
-		ControlDependenceGraph cd = new ControlDependenceGraph(cfg);
-
+	private void registerControlDependence(ControlDependenceGraph cd) {
 		String className = cd.getClassName();
 		String methodName = cd.getMethodName();
 
@@ -0,0 +1,363 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.graphs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.IOUtils;
+import org.evosuite.Properties;
+import org.evosuite.classpath.ResourceList;
+import org.evosuite.graphs.cdg.ControlDependenceGraph;
+import org.evosuite.graphs.cfg.ActualControlFlowGraph;
+import org.evosuite.graphs.cfg.BytecodeInstruction;
+import org.evosuite.graphs.cfg.BytecodeInstructionPool;
+import org.evosuite.graphs.cfg.CFGFrame;
+import org.evosuite.graphs.cfg.CFGGenerator;
+import org.evosuite.graphs.cfg.RawControlFlowGraph;
+import org.evosuite.setup.DependencyAnalysis;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.analysis.Analyzer;
+import org.objectweb.asm.tree.analysis.AnalyzerException;
+import org.objectweb.asm.tree.analysis.Frame;
+import org.objectweb.asm.tree.analysis.SourceInterpreter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Builds the raw and actual CFGs and the CDGs of a set of classes before the
+ * search starts, instead of building them one method at a time when they are
+ * first needed.
+ * 
+ * The class files are read sequentially, as the {@link ResourceList} is not
+ * thread safe. The rest of the work is done in four stages:
+ * <ol>
+ * <li>parsing the classes and computing the frames of their methods, in
+ * parallel</li>
+ * <li>registering the instructions in the {@link BytecodeInstructionPool} and
+ * the branches in the {@link org.evosuite.coverage.branch.BranchPool}, and
+ * building the raw CFGs, sequentially as the pools are not thread safe</li>
+ * <li>computing actual CFGs, their diameters and the CDGs, in parallel. This
+ * only reads from the pools</li>
+ * <li>publishing the graphs to the {@link GraphPool}, sequentially</li>
+ * </ol>
+ * 
+ * The time each task takes is summed up to estimate how long building the
+ * graphs sequentially would have taken.
+ */
+public class ParallelGraphBuilder {
+
+	private static final Logger logger = LoggerFactory.getLogger(ParallelGraphBuilder.class);
+
+	private final ClassLoader classLoader;
+
+	private final int threads;
+
+	private final AtomicLong sequentialTime = new AtomicLong();
+
+	private long wallClockTime = 0L;
+
+	private int numMethods = 0;
+
+	public ParallelGraphBuilder(ClassLoader classLoader, int threads) {
+		if (threads < 1)
+			throw new IllegalArgumentException("Need at least one thread: " + threads);
+		this.classLoader = classLoader;
+		this.threads = threads;
+	}
+
+	/**
+	 * Builds the graphs of all methods of the given classes that the
+	 * {@link GraphPool} does not know yet. Classes that cannot be read or
+	 * analyzed are skipped.
+	 * 
+	 * @param classNames
+	 *            fully qualified names of the classes
+	 */
+	public void build(Collection<String> classNames) {
+		long start = System.currentTimeMillis();
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			List<Callable<List<MethodFrames>>> analysisTasks = new ArrayList<>();
+			for (final String className : classNames) {
+				final byte[] bytes = readClass(className);
+				if (bytes != null)
+					analysisTasks.add(() -> timed(() -> analyzeClass(className, bytes)));
+			}
+			sequentialTime.addAndGet(System.currentTimeMillis() - start);
+			List<MethodFrames> analyzed = new ArrayList<>();
+			for (List<MethodFrames> methods : invokeAll(pool, analysisTasks)) {
+				analyzed.addAll(methods);
+			}
+
+			long publishStart = System.currentTimeMillis();
+			List<Callable<MethodGraphs>> graphTasks = new ArrayList<>();
+			for (final MethodFrames method : analyzed) {
+				final RawControlFlowGraph rawGraph = registerRawCFG(method);
+				if (rawGraph != null)
+					graphTasks.add(() -> timed(() -> computeGraphs(rawGraph)));
+			}
+			sequentialTime.addAndGet(System.currentTimeMillis() - publishStart);
+
+			List<MethodGraphs> computed = invokeAll(pool, graphTasks);
+
+			publishStart = System.currentTimeMillis();
+			GraphPool graphPool = GraphPool.getInstance(classLoader);
+			for (MethodGraphs graphs : computed) {
+				if (graphs != null) {
+					graphPool.registerActualCFG(graphs.cfg, graphs.cdg);
+					numMethods++;
+				}
+			}
+			sequentialTime.addAndGet(System.currentTimeMillis() - publishStart);
+		} finally {
+			pool.shutdownNow();
+		}
+		wallClockTime = System.currentTimeMillis() - start;
+		logger.info("Built graphs of {} methods in {} classes in {}ms, sequentially this would take about {}ms",
+		            numMethods, classNames.size(), wallClockTime, sequentialTime.get());
+	}
+
+	/**
+	 * @return the time in milliseconds the last call to {@link #build} took
+	 */
+	public long getWallClockTime() {
+		return wallClockTime;
+	}
+
+	/**
+	 * @return the estimated time in milliseconds building the graphs
+	 *         sequentially would have taken
+	 */
+	public long getSequentialTime() {
+		return sequentialTime.get();
+	}
+
+	/**
+	 * @return the estimated time in milliseconds saved by building the graphs
+	 *         in parallel
+	 */
+	public long getSavedTime() {
+		return Math.max(0L, sequentialTime.get() - wallClockTime);
+	}
+
+	/**
+	 * @return the number of methods whose graphs were published
+	 */
+	public int getNumberOfMethods() {
+		return numMethods;
+	}
+
+	private <T> T timed(Callable<T> task) throws Exception {
+		long start = System.currentTimeMillis();
+		try {
+			return task.call();
+		} finally {
+			sequentialTime.addAndGet(System.currentTimeMillis() - start);
+		}
+	}
+
+	private static <T> List<T> invokeAll(ForkJoinPool pool, List<Callable<T>> tasks) {
+		List<T> results = new ArrayList<>(tasks.size());
+		for (Future<T> future : pool.invokeAll(tasks)) {
+			try {
+				results.add(future.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while building graphs", e);
+			} catch (ExecutionException e) {
+				// Failures are handled within the tasks
+				logger.warn("Unexpected error while building graphs: " + e.getCause());
+			}
+		}
+		return results;
+	}
+
+	private byte[] readClass(String className) {
+		try (InputStream is = ResourceList.getInstance(classLoader).getClassAsStream(className)) {
+			if (is == null) {
+				logger.debug("Cannot find class " + className);
+				return null;
+			}
+			return IOUtils.toByteArray(is);
+		} catch (IOException e) {
+			logger.debug("Cannot read class " + className + ": " + e);
+			return null;
+		}
+	}
+
+	// stage 1, parallel
+
+	private List<MethodFrames> analyzeClass(String className, byte[] bytes) {
+		List<MethodFrames> result = new ArrayList<>();
+		ClassNode cn = new ClassNode();
+		try {
+			new ClassReader(bytes).accept(cn, ClassReader.SKIP_FRAMES);
+		} catch (RuntimeException e) {
+			logger.debug("Cannot parse class " + className + ": " + e);
+			return result;
+		}
+
+		for (MethodNode m : cn.methods) {
+			if (m.instructions.size() == 0)
+				continue;
+			String methodName = m.name + m.desc;
+			RecordingAnalyzer analyzer = new RecordingAnalyzer();
+			try {
+				analyzer.analyze(className, m);
+			} catch (AnalyzerException | RuntimeException e) {
+				logger.debug("Cannot analyze " + className + "." + methodName + ": " + e);
+				continue;
+			}
+			result.add(new MethodFrames(className, methodName, m, analyzer.getFrames(),
+			        analyzer.edges));
+		}
+		return result;
+	}
+
+	// stage 2, sequential
+
+	private RawControlFlowGraph registerRawCFG(MethodFrames method) {
+		GraphPool graphPool = GraphPool.getInstance(classLoader);
+		if (graphPool.getRawCFG(method.className, method.methodName) != null)
+			return null;
+		if (BytecodeInstructionPool.getInstance(classLoader).hasMethod(method.className,
+		                                                               method.methodName))
+			return null;
+
+		// Same steps as BytecodeAnalyzer.analyze and CFGGenerator.registerCFGs
+		CFGGenerator generator = new CFGGenerator(classLoader, method.className,
+		        method.methodName, method.node);
+		for (int i = 0; i < method.edges.size(); i += 3) {
+			generator.registerControlFlowEdge(method.edges.get(i), method.edges.get(i + 1),
+			                                  method.frames, method.edges.get(i + 2) != 0);
+		}
+		for (int i = 0; i < method.node.instructions.size(); i++) {
+			BytecodeInstruction instruction = BytecodeInstructionPool.getInstance(classLoader).getInstruction(method.className,
+			                                                                                                  method.methodName,
+			                                                                                                  i,
+			                                                                                                  method.node.instructions.get(i));
+			if (instruction.getFrame() == null && method.frames[i] instanceof CFGFrame)
+				instruction.setCFGFrame((CFGFrame) method.frames[i]);
+		}
+
+		RawControlFlowGraph rawGraph = generator.getRawGraph();
+		int removed = rawGraph.removeIsolatedNodes();
+		if (removed > 0)
+			logger.info("removed isolated nodes: " + removed + " in " + method.methodName);
+		graphPool.registerRawCFG(rawGraph);
+		return rawGraph;
+	}
+
+	// stage 3, parallel
+
+	private MethodGraphs computeGraphs(RawControlFlowGraph rawGraph) {
+		try {
+			ActualControlFlowGraph cfg = new ActualControlFlowGraph(rawGraph);
+			cfg.finalise();
+			ControlDependenceGraph cdg = null;
+			if (Properties.ALWAYS_REGISTER_BRANCH
+			        || DependencyAnalysis.shouldInstrument(cfg.getClassName(), cfg.getMethodName()))
+				cdg = new ControlDependenceGraph(cfg);
+			return new MethodGraphs(cfg, cdg);
+		} catch (RuntimeException e) {
+			logger.debug("Cannot build graphs of " + rawGraph.getClassName() + "."
+			        + rawGraph.getMethodName() + ": " + e);
+			return null;
+		}
+	}
+
+	private static class MethodFrames {
+		private final String className;
+		private final String methodName;
+		private final MethodNode node;
+		private final Frame[] frames;
+		/** Triples of source, destination and 1 for exception edges */
+		private final List<Integer> edges;
+
+		MethodFrames(String className, String methodName, MethodNode node, Frame[] frames,
+		        List<Integer> edges) {
+			this.className = className;
+			this.methodName = methodName;
+			this.node = node;
+			this.frames = frames;
+			this.edges = edges;
+		}
+	}
+
+	private static class MethodGraphs {
+		private final ActualControlFlowGraph cfg;
+		private final ControlDependenceGraph cdg;
+
+		MethodGraphs(ActualControlFlowGraph cfg, ControlDependenceGraph cdg) {
+			this.cfg = cfg;
+			this.cdg = cdg;
+		}
+	}
+
+	/**
+	 * Computes the same frames as the {@link org.evosuite.graphs.cfg.BytecodeAnalyzer}
+	 * but only records the control flow edges instead of adding them to a
+	 * CFG, so that it does not need to access any pool.
+	 */
+	private static class RecordingAnalyzer extends Analyzer {
+
+		private final List<Integer> edges = new ArrayList<>();
+
+		RecordingAnalyzer() {
+			super(new SourceInterpreter());
+		}
+
+		@Override
+		protected void newControlFlowEdge(int src, int dst) {
+			edges.add(src);
+			edges.add(dst);
+			edges.add(0);
+		}
+
+		@Override
+		protected boolean newControlFlowExceptionEdge(int src, int dst) {
+			edges.add(src);
+			edges.add(dst);
+			edges.add(1);
+			return true;
+		}
+
+		@Override
+		protected Frame newFrame(int nLocals, int nStack) {
+			return new CFGFrame(nLocals, nStack);
+		}
+
+		@Override
+		protected Frame newFrame(Frame src) {
+			return new CFGFrame(src);
+		}
+	}
+}
@@ -21,6 +21,7 @@ package org.evosuite.graphs.cfg;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
@@ -63,7 +64,7 @@ public class BasicBlock implements Serializable, Iterable<BytecodeInstruction> {
 
 	private static Logger logger = LoggerFactory.getLogger(BasicBlock.class);
 
-	private static int blockCount = 0;
+	private static final AtomicInteger blockCount = new AtomicInteger();
 
 	private int id = -1;
 	protected ClassLoader classLoader;
@@ -251,8 +252,7 @@ public class BasicBlock implements Serializable, Iterable<BytecodeInstruction> {
 	}
 
 	private void setId() {
-		blockCount++;
-		this.id = blockCount;
+		this.id = blockCount.incrementAndGet();
 	}
 
 	// retrieve information
@@ -54,6 +54,7 @@ public class EndOfClassInitializerVisitor extends ClassVisitor {
 
 		private final String className;
 		private final String methodName;
+		private final boolean passClass;
 		private Label startingTryLabel;
 		private Label endingTryLabel;
 
@@ -69,24 +70,18 @@ public class EndOfClassInitializerVisitor extends ClassVisitor {
 		 * @param finalFields
 		 *            a {@link java.util.List} object.
 		 */
-		public EndOfClassInitializerMethodVisitor(String className, String methodName, MethodVisitor mv) {
+		public EndOfClassInitializerMethodVisitor(String className, String methodName, boolean passClass,
+				MethodVisitor mv) {
 			super(Opcodes.ASM5, mv);
 			this.className = className;
 			this.methodName = methodName;
+			this.passClass = passClass;
 		}
 
 		@Override
 		public void visitInsn(int opcode) {
 			if (opcode == Opcodes.RETURN && (methodName.equals("<clinit>"))) {
-
-				String executionTracerClassName = ExecutionTracer.class.getName().replace('.', '/');
-				String executionTracerDescriptor = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(String.class));
-
-				String classNameWithDots = className.replace('/', '.');
-				super.visitLdcInsn(classNameWithDots);
-				super.visitMethodInsn(INVOKESTATIC, executionTracerClassName, EXIT_CLASS_INIT,
-						executionTracerDescriptor, false);
-
+				visitExitClassInit(mv, className, passClass);
 			}
 			super.visitInsn(opcode);
 		}
@@ -157,6 +152,11 @@ public class EndOfClassInitializerVisitor extends ClassVisitor {
 
 	private final String className;
 
+	/**
+	 * Class constants can only be loaded with LDC from Java 5 class files on
+	 */
+	private boolean supportsClassConstants = false;
+
 	public EndOfClassInitializerVisitor(ClassVisitor visitor, String className) {
 		super(Opcodes.ASM5, visitor);
 		this.className = className;
@@ -172,7 +172,7 @@ public class EndOfClassInitializerVisitor extends ClassVisitor {
 
 			clinitFound = true;
 			EndOfClassInitializerMethodVisitor staticResetMethodAdapter = new EndOfClassInitializerMethodVisitor(
-					className, methodName, mv);
+					className, methodName, supportsClassConstants, mv);
 
 			return staticResetMethodAdapter;
 		} else {
@@ -190,6 +190,7 @@ public class EndOfClassInitializerVisitor extends ClassVisitor {
 	public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
 		super.visit(version, access, name, signature, superName, interfaces);
 		isInterface = ((access & Opcodes.ACC_INTERFACE) == Opcodes.ACC_INTERFACE);
+		supportsClassConstants = (version & 0xFFFF) >= Opcodes.V1_5;
 	}
 
 	@Override
@@ -215,17 +216,32 @@ public class EndOfClassInitializerVisitor extends ClassVisitor {
 		return super.visitField(access, name, desc, signature, value);
 	}
 
+	/**
+	 * Inserts the callback for a completed class initialization. If possible,
+	 * the initialized class is passed as well, as a class with the same name
+	 * might be defined by more than one class loader.
+	 */
+	private static void visitExitClassInit(MethodVisitor mv, String className, boolean passClass) {
+		String executionTracerClassName = ExecutionTracer.class.getName().replace('.', '/');
+		String executionTracerDescriptor;
+		String classNameWithDots = className.replace('/', '.');
+		mv.visitLdcInsn(classNameWithDots);
+		if (passClass) {
+			mv.visitLdcInsn(Type.getObjectType(className));
+			executionTracerDescriptor = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(String.class),
+					Type.getType(Class.class));
+		} else {
+			executionTracerDescriptor = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(String.class));
+		}
+		mv.visitMethodInsn(INVOKESTATIC, executionTracerClassName, EXIT_CLASS_INIT, executionTracerDescriptor, false);
+	}
+
 	private void createEmptyClassInit() {
 		logger.info("Creating <clinit> in class " + className);
 		MethodVisitor mv = cv.visitMethod(Opcodes.ACC_STATIC, "<clinit>", "()V", null, null);
 		mv.visitCode();
 
-		String executionTracerClassName = ExecutionTracer.class.getName().replace('.', '/');
-		String executionTracerDescriptor = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(String.class));
-
-		String classNameWithDots = className.replace('/', '.');
-		mv.visitLdcInsn(classNameWithDots);
-		mv.visitMethodInsn(INVOKESTATIC, executionTracerClassName, EXIT_CLASS_INIT, executionTracerDescriptor, false);
+		visitExitClassInit(mv, className, supportsClassConstants);
 
 		mv.visitInsn(Opcodes.RETURN);
 		mv.visitMaxs(0, 0);
@@ -0,0 +1,630 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.evosuite.Properties;
+import org.evosuite.assertion.CheapPurityAnalyzer;
+import org.evosuite.classpath.ResourceList;
+import org.evosuite.junit.writer.TestSuiteWriterUtils;
+import org.evosuite.runtime.LoopCounter;
+import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.runtime.classhandling.ModifiedTargetStaticFields;
+import org.evosuite.runtime.instrumentation.RemoveFinalClassAdapter;
+import org.evosuite.seeding.PrimitiveClassAdapter;
+import org.evosuite.setup.DependencyAnalysis;
+import org.evosuite.testcase.execution.ExecutionTracer;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * On-disk cache of instrumented classes, enabled by setting
+ * {@link Properties#INSTRUMENTATION_CACHE_DIR}.
+ * 
+ * Entries are addressed by a hash of the original bytecode, the class name,
+ * and the settings that influence {@link BytecodeInstrumentation}, so several
+ * processes and runs on the same project can share a directory.
+ * 
+ * Only classes that are not analyzed for coverage are cached: their
+ * instrumentation does not build CFGs or register branches in the
+ * BranchPool, so the classes that do are still instrumented (and register
+ * their branches) exactly as before. The side information of a cached class
+ * is rebuilt from the cached bytecode, which is much cheaper than instrumenting
+ * it:
+ * <ul>
+ * <li>loop counter indices are reassigned, as they are allocated per
+ * process</li>
+ * <li>constants are added to the constant pool and methods to the purity
+ * analysis by running the respective visitors again</li>
+ * <li>final classes are registered as such</li>
+ * <li>fields whose final modifier was removed are registered in
+ * {@link ModifiedTargetStaticFields}, from the list stored with the entry</li>
+ * </ul>
+ */
+public class InstrumentedClassCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(InstrumentedClassCache.class);
+
+	private static final int MAGIC = 0x45564943;
+
+	/** Needs to change whenever the format or the instrumentation changes */
+	private static final int FORMAT_VERSION = 2;
+
+	private static final String LOOP_COUNTER = Type.getInternalName(LoopCounter.class);
+
+	private static final String EXECUTION_TRACER = Type.getInternalName(ExecutionTracer.class);
+
+	private static InstrumentedClassCache instance = null;
+
+	/**
+	 * A cached class: the instrumented bytecode and the fields whose final
+	 * modifier the instrumentation removed
+	 */
+	static class Entry {
+
+		final byte[] bytecode;
+
+		final List<String> modifiedFinalFields;
+
+		Entry(byte[] bytecode, List<String> modifiedFinalFields) {
+			this.bytecode = bytecode;
+			this.modifiedFinalFields = modifiedFinalFields;
+		}
+	}
+
+	private final File directory;
+
+	private final AtomicInteger hits = new AtomicInteger();
+
+	private final AtomicInteger misses = new AtomicInteger();
+
+	InstrumentedClassCache(File directory) {
+		this.directory = directory;
+	}
+
+	public static boolean isEnabled() {
+		return Properties.INSTRUMENTATION_CACHE_DIR != null && !Properties.INSTRUMENTATION_CACHE_DIR.isEmpty();
+	}
+
+	public static synchronized InstrumentedClassCache getInstance() {
+		File directory = new File(Properties.INSTRUMENTATION_CACHE_DIR);
+		if (instance == null || !instance.directory.equals(directory)) {
+			instance = new InstrumentedClassCache(directory);
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns the instrumented version of the class, either from the cache or
+	 * by applying the instrumentation and storing the result.
+	 * 
+	 * @param classLoader
+	 *            the class loader the class is instrumented for
+	 * @param instrumentation
+	 * @param className
+	 *            the class name with slashes
+	 * @param original
+	 *            the original bytecode
+	 * @return the instrumented bytecode
+	 */
+	public byte[] transformBytes(ClassLoader classLoader, BytecodeInstrumentation instrumentation, String className,
+			byte[] original) {
+		String classNameWithDots = ResourceList.getClassNameFromResourcePath(className);
+		if (!isCacheable(instrumentation, classNameWithDots)) {
+			return instrumentation.transformBytes(classLoader, className, new ClassReader(original));
+		}
+
+		File file = getFile(computeKey(className, original));
+		Entry cached = read(file);
+		if (cached != null) {
+			hits.incrementAndGet();
+			logger.debug("Using cached instrumentation of {}", classNameWithDots);
+			return restore(className, original, cached);
+		}
+
+		misses.incrementAndGet();
+		byte[] instrumented = instrumentation.transformBytes(classLoader, className, new ClassReader(original));
+		write(file, new Entry(instrumented, getModifiedFinalFields(original, instrumented)));
+		return instrumented;
+	}
+
+	/**
+	 * Classes with coverage goals and classes that are transformed with
+	 * information of the current run are not cached
+	 */
+	private static boolean isCacheable(BytecodeInstrumentation instrumentation, String classNameWithDots) {
+		if (Properties.TEST_CARVING) {
+			return false;
+		}
+		if (DependencyAnalysis.shouldAnalyze(classNameWithDots)) {
+			return false;
+		}
+		if (Properties.TT && classNameWithDots.startsWith(Properties.CLASS_PREFIX)) {
+			return false;
+		}
+		return !instrumentation.shouldTransform(classNameWithDots);
+	}
+
+	/**
+	 * Rebuilds the side information the instrumentation of the class would
+	 * have produced
+	 */
+	byte[] restore(String className, byte[] original, Entry cached) {
+		byte[] bytes = cached.bytecode;
+		if (Properties.MAX_LOOP_ITERATIONS >= 0) {
+			bytes = assignLoopIndices(bytes);
+		}
+
+		registerFinalClasses(original);
+
+		// same as CreateClassResetClassAdapter, when it removed the final modifiers
+		if (!cached.modifiedFinalFields.isEmpty()) {
+			ModifiedTargetStaticFields.getInstance().addFinalFields(cached.modifiedFinalFields);
+		}
+
+		// the pool collects constants before the non-target and loop
+		// instrumentation are applied
+		ClassReader reader = new ClassReader(bytes);
+		reader.accept(new StrippingClassVisitor(new PrimitiveClassAdapter(null, className), true),
+				ClassReader.SKIP_FRAMES);
+
+		// the purity analysis sees everything but the static field accesses
+		if (Properties.PURE_INSPECTORS) {
+			reader.accept(new StrippingClassVisitor(
+					new PurityAnalysisClassVisitor(null, className, CheapPurityAnalyzer.getInstance()), false),
+					ClassReader.SKIP_FRAMES);
+		}
+		return bytes;
+	}
+
+	/**
+	 * Replaces the loop indices of the cached class with new indices of the
+	 * current {@link LoopCounter}
+	 */
+	static byte[] assignLoopIndices(byte[] cached) {
+		ClassReader reader = new ClassReader(cached);
+		ClassWriter writer = new ClassWriter(reader, 0);
+		reader.accept(new ClassVisitor(Opcodes.ASM5, writer) {
+			@Override
+			public MethodVisitor visitMethod(int access, String name, String desc, String signature,
+					String[] exceptions) {
+				return new MethodVisitor(Opcodes.ASM5, super.visitMethod(access, name, desc, signature, exceptions)) {
+					private boolean loopCounterOnStack = false;
+
+					@Override
+					public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean itf) {
+						loopCounterOnStack = opcode == Opcodes.INVOKESTATIC && owner.equals(LOOP_COUNTER)
+								&& name.equals("getInstance");
+						super.visitMethodInsn(opcode, owner, name, desc, itf);
+					}
+
+					@Override
+					public void visitLdcInsn(Object cst) {
+						if (loopCounterOnStack && cst instanceof Integer) {
+							cst = LoopCounter.getInstance().getNewIndex();
+						}
+						loopCounterOnStack = false;
+						super.visitLdcInsn(cst);
+					}
+				};
+			}
+		}, 0);
+		return writer.toByteArray();
+	}
+
+	/**
+	 * @return the names of the fields that are final in the original class
+	 *         but not in the instrumented one
+	 */
+	static List<String> getModifiedFinalFields(byte[] original, byte[] instrumented) {
+		final Set<String> finalFields = new LinkedHashSet<String>();
+		new ClassReader(original).accept(new ClassVisitor(Opcodes.ASM5) {
+			@Override
+			public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
+				if ((access & Opcodes.ACC_FINAL) == Opcodes.ACC_FINAL) {
+					finalFields.add(name);
+				}
+				return null;
+			}
+		}, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+		final List<String> modified = new ArrayList<String>();
+		if (finalFields.isEmpty()) {
+			return modified;
+		}
+		new ClassReader(instrumented).accept(new ClassVisitor(Opcodes.ASM5) {
+			@Override
+			public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
+				if ((access & Opcodes.ACC_FINAL) == 0 && finalFields.contains(name)) {
+					modified.add(name);
+				}
+				return null;
+			}
+		}, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+		return modified;
+	}
+
+	/**
+	 * Same as {@link NonTargetClassAdapter}, which removed the final
+	 * modifiers from the cached class
+	 */
+	private static void registerFinalClasses(byte[] original) {
+		new ClassReader(original).accept(new ClassVisitor(Opcodes.ASM5) {
+			@Override
+			public void visit(int version, int access, String name, String signature, String superName,
+					String[] interfaces) {
+				if ((access & Opcodes.ACC_FINAL) == Opcodes.ACC_FINAL) {
+					RemoveFinalClassAdapter.finalClasses.add(name.replace('/', '.'));
+				}
+			}
+
+			@Override
+			public void visitInnerClass(String name, String outerName, String innerName, int access) {
+				if ((access & Opcodes.ACC_FINAL) == Opcodes.ACC_FINAL) {
+					RemoveFinalClassAdapter.finalClasses.add(name.replace('/', '.'));
+				}
+			}
+		}, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+	}
+
+	/**
+	 * Hides instructions added by the instrumentation from the visitors that
+	 * did not see them when the class was instrumented: static field access
+	 * notifications and, if <code>stripAll</code>, loop counters and timeout
+	 * checks.
+	 */
+	static class StrippingClassVisitor extends ClassVisitor {
+
+		private final boolean stripAll;
+
+		StrippingClassVisitor(ClassVisitor cv, boolean stripAll) {
+			super(Opcodes.ASM5, cv);
+			this.stripAll = stripAll;
+		}
+
+		@Override
+		public MethodVisitor visitMethod(int access, String name, String desc, String signature,
+				String[] exceptions) {
+			return new StrippingMethodVisitor(super.visitMethod(access, name, desc, signature, exceptions),
+					stripAll);
+		}
+	}
+
+	private static class StrippingMethodVisitor extends MethodVisitor {
+
+		private final boolean stripAll;
+
+		/** String constants that might be the arguments of a static access notification */
+		private final List<Object> pendingConstants = new ArrayList<Object>(3);
+
+		private boolean inLoopCounter = false;
+
+		StrippingMethodVisitor(MethodVisitor mv, boolean stripAll) {
+			super(Opcodes.ASM5, mv);
+			this.stripAll = stripAll;
+		}
+
+		private void flush() {
+			for (Object cst : pendingConstants) {
+				super.visitLdcInsn(cst);
+			}
+			pendingConstants.clear();
+		}
+
+		@Override
+		public void visitLdcInsn(Object cst) {
+			if (inLoopCounter) {
+				return;
+			}
+			if (cst instanceof String) {
+				pendingConstants.add(cst);
+				if (pendingConstants.size() > 2) {
+					super.visitLdcInsn(pendingConstants.remove(0));
+				}
+				return;
+			}
+			flush();
+			super.visitLdcInsn(cst);
+		}
+
+		@Override
+		public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean itf) {
+			if (owner.equals(EXECUTION_TRACER)
+					&& (name.equals("passedGetStatic") || name.equals("passedPutStatic"))) {
+				// drop the class and field name
+				int size = pendingConstants.size();
+				pendingConstants.subList(Math.max(0, size - 2), size).clear();
+				flush();
+				return;
+			}
+			flush();
+			if (stripAll) {
+				if (owner.equals(LOOP_COUNTER)) {
+					inLoopCounter = name.equals("getInstance");
+					return;
+				}
+				if (owner.equals(EXECUTION_TRACER) && name.equals("checkTimeout")) {
+					return;
+				}
+			}
+			super.visitMethodInsn(opcode, owner, name, desc, itf);
+		}
+
+		@Override
+		public void visitInsn(int opcode) {
+			flush();
+			super.visitInsn(opcode);
+		}
+
+		@Override
+		public void visitIntInsn(int opcode, int operand) {
+			flush();
+			super.visitIntInsn(opcode, operand);
+		}
+
+		@Override
+		public void visitVarInsn(int opcode, int var) {
+			flush();
+			super.visitVarInsn(opcode, var);
+		}
+
+		@Override
+		public void visitTypeInsn(int opcode, String type) {
+			flush();
+			super.visitTypeInsn(opcode, type);
+		}
+
+		@Override
+		public void visitFieldInsn(int opcode, String owner, String name, String desc) {
+			flush();
+			super.visitFieldInsn(opcode, owner, name, desc);
+		}
+
+		@Override
+		public void visitInvokeDynamicInsn(String name, String desc, Handle bsm, Object... bsmArgs) {
+			flush();
+			super.visitInvokeDynamicInsn(name, desc, bsm, bsmArgs);
+		}
+
+		@Override
+		public void visitJumpInsn(int opcode, Label label) {
+			flush();
+			super.visitJumpInsn(opcode, label);
+		}
+
+		@Override
+		public void visitLabel(Label label) {
+			flush();
+			super.visitLabel(label);
+		}
+
+		@Override
+		public void visitIincInsn(int var, int increment) {
+			flush();
+			super.visitIincInsn(var, increment);
+		}
+
+		@Override
+		public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+			flush();
+			super.visitTableSwitchInsn(min, max, dflt, labels);
+		}
+
+		@Override
+		public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+			flush();
+			super.visitLookupSwitchInsn(dflt, keys, labels);
+		}
+
+		@Override
+		public void visitMultiANewArrayInsn(String desc, int dims) {
+			flush();
+			super.visitMultiANewArrayInsn(desc, dims);
+		}
+
+		@Override
+		public void visitMaxs(int maxStack, int maxLocals) {
+			flush();
+			super.visitMaxs(maxStack, maxLocals);
+		}
+
+		@Override
+		public void visitEnd() {
+			flush();
+			super.visitEnd();
+		}
+	}
+
+	String computeKey(String className, byte[] original) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		String settings = FORMAT_VERSION + "|" + className + "|" + getSettingsFingerprint();
+		digest.update(settings.getBytes(StandardCharsets.UTF_8));
+		digest.update(original);
+
+		StringBuilder key = new StringBuilder();
+		for (byte b : digest.digest()) {
+			key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return key.toString();
+	}
+
+	/**
+	 * @return everything besides the class itself that the instrumented bytecode
+	 *         depends on
+	 */
+	private static String getSettingsFingerprint() {
+		StringBuilder builder = new StringBuilder();
+		builder.append(getEvoSuiteVersion()).append('|');
+		builder.append(System.getProperty("java.version")).append('|');
+		// the frames depend on the class hierarchy
+		builder.append(Properties.CP).append('|');
+		builder.append(Properties.INSTRUMENTATION_SKIP_DEBUG).append(Properties.RESET_STATIC_FIELDS)
+				.append(Properties.RESET_STATIC_FINAL_FIELDS).append(Properties.PURE_INSPECTORS)
+				.append(Properties.MAX_LOOP_ITERATIONS >= 0).append(Properties.MAKE_ACCESSIBLE)
+				.append(Properties.STRING_REPLACEMENT).append(Properties.TT)
+				.append(TestSuiteWriterUtils.needToUseAgent()).append('|');
+		builder.append(RuntimeSettings.applyUIDTransformation).append(RuntimeSettings.mockJVMNonDeterminism)
+				.append(RuntimeSettings.useVFS).append(RuntimeSettings.useVNET).append(RuntimeSettings.useJEE)
+				.append(RuntimeSettings.mockGUI).append('|');
+		builder.append(Properties.PROJECT_PREFIX).append('|').append(Properties.TARGET_CLASS_PREFIX);
+		return builder.toString();
+	}
+
+	private static String getEvoSuiteVersion() {
+		URL location = BytecodeInstrumentation.class.getResource("BytecodeInstrumentation.class");
+		if (location == null) {
+			return "unknown";
+		}
+		String path = location.getPath();
+		if ("jar".equals(location.getProtocol()) && path.contains("!")) {
+			path = path.substring(0, path.indexOf('!'));
+		}
+		if (path.startsWith("file:")) {
+			path = path.substring("file:".length());
+		}
+		File file = new File(path);
+		return path + ":" + file.length() + ":" + file.lastModified();
+	}
+
+	private File getFile(String key) {
+		return new File(new File(directory, key.substring(0, 2)), key.substring(2) + ".inst");
+	}
+
+	/**
+	 * @return the cached entry, or <code>null</code> if the file does not
+	 *         exist or cannot be read
+	 */
+	static Entry read(File file) {
+		if (!file.isFile()) {
+			return null;
+		}
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.remaining() < 12 || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+				return null;
+			}
+			int numberOfFields = buffer.getInt();
+			List<String> modifiedFinalFields = new ArrayList<String>();
+			for (int i = 0; i < numberOfFields; i++) {
+				if (buffer.remaining() < 4) {
+					return null;
+				}
+				int length = buffer.getInt();
+				if (length < 0 || length > buffer.remaining()) {
+					return null;
+				}
+				byte[] name = new byte[length];
+				buffer.get(name);
+				modifiedFinalFields.add(new String(name, StandardCharsets.UTF_8));
+			}
+			if (buffer.remaining() < 4) {
+				return null;
+			}
+			int length = buffer.getInt();
+			if (length != buffer.remaining()) {
+				return null;
+			}
+			byte[] bytes = new byte[length];
+			buffer.get(bytes);
+			return new Entry(bytes, modifiedFinalFields);
+		} catch (IOException e) {
+			logger.debug("Could not read cached class " + file + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the entry to a temporary file first, so that other processes
+	 * never see incomplete entries
+	 */
+	static void write(File file, Entry entry) {
+		File parent = file.getParentFile();
+		try {
+			if (!parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory()) {
+				logger.warn("Could not create instrumentation cache directory " + parent);
+				return;
+			}
+			File temp = File.createTempFile(file.getName(), ".tmp", parent);
+			try (DataOutputStream out = new DataOutputStream(new FileOutputStream(temp))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				out.writeInt(entry.modifiedFinalFields.size());
+				for (String field : entry.modifiedFinalFields) {
+					byte[] name = field.getBytes(StandardCharsets.UTF_8);
+					out.writeInt(name.length);
+					out.write(name);
+				}
+				out.writeInt(entry.bytecode.length);
+				out.write(entry.bytecode);
+			}
+			try {
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			} catch (IOException e) {
+				// another process stored the same entry in the meantime
+				Files.deleteIfExists(temp.toPath());
+			}
+		} catch (IOException e) {
+			logger.warn("Could not store instrumented class in " + file + ": " + e.getMessage());
+		}
+	}
+
+	public int getNumberOfHits() {
+		return hits.get();
+	}
+
+	public int getNumberOfMisses() {
+		return misses.get();
+	}
+}
@@ -19,6 +19,7 @@
  */
 package org.evosuite.instrumentation;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -33,6 +34,7 @@ import java.util.Set;
 
 import javax.persistence.Entity;
 
+import org.apache.commons.io.IOUtils;
 import org.evosuite.Properties;
 import org.evosuite.TestGenerationContext;
 import org.evosuite.classpath.ResourceList;
@@ -126,6 +128,27 @@ public class InstrumentingClassLoader extends ClassLoader {
 		}
 	}
 	
+	public Class<?> loadClassFromBytes(String fullyQualifiedTargetClass, byte[] bytes) throws ClassNotFoundException {
+
+		String className = fullyQualifiedTargetClass.replace('.', '/');
+
+		try(InputStream is = new ByteArrayInputStream(bytes)) {
+
+			byte[] byteBuffer = getTransformedBytes(className, is);
+
+			createPackageDefinition(fullyQualifiedTargetClass);
+			Class<?> result = defineClass(fullyQualifiedTargetClass, byteBuffer, 0, byteBuffer.length);
+
+			classes.put(fullyQualifiedTargetClass, result);
+
+			logger.info("Loaded class " + fullyQualifiedTargetClass + " directly from memory");
+			return result;
+		} catch (Throwable t) {
+			logger.info("Error while loading class " + fullyQualifiedTargetClass + " : " + t);
+			throw new ClassNotFoundException(t.getMessage(), t);
+		}
+	}
+	
 	@Override
 	public Class<?> loadClass(String name) throws ClassNotFoundException {
         synchronized(getClassLoadingLock(name)) {
@@ -176,7 +199,13 @@ public class InstrumentingClassLoader extends ClassLoader {
 
 	//This is needed, as it is overridden in subclasses
 		protected byte[] getTransformedBytes(String className, InputStream is) throws IOException {
-			byte[] data = instrumentation.transformBytes(this, className, new ClassReader(is));
+			byte[] data;
+			if (InstrumentedClassCache.isEnabled()) {
+				data = InstrumentedClassCache.getInstance().transformBytes(this, instrumentation, className,
+						IOUtils.toByteArray(is));
+			} else {
+				data = instrumentation.transformBytes(this, className, new ClassReader(is));
+			}
 			log(data, className, false);
 			return data;
 		}
@@ -0,0 +1,294 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.junit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.runtime.util.JarPathing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles generated test classes without writing sources or class files to
+ * disk.
+ * 
+ * <p>
+ * All classes given to {@link #compile(Map)} are compiled in a single task.
+ * The compiler and its file manager are kept between calls, so that the jars
+ * on the classpath are only opened once per process, as long as the
+ * classpath does not change.
+ */
+public class InMemoryCompiler {
+
+	private static final Logger logger = LoggerFactory.getLogger(InMemoryCompiler.class);
+
+	private static InMemoryCompiler instance = null;
+
+	private final JavaCompiler compiler;
+
+	private StandardJavaFileManager fileManager;
+
+	private String classpath;
+
+	/**
+	 * Outcome of a compilation task
+	 */
+	public static class Result {
+
+		private final Map<String, byte[]> classes;
+
+		private final Set<String> failedSources;
+
+		private final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+
+		private final boolean successful;
+
+		private Result(Map<String, byte[]> classes, Set<String> failedSources,
+		        List<Diagnostic<? extends JavaFileObject>> diagnostics, boolean successful) {
+			this.classes = classes;
+			this.failedSources = failedSources;
+			this.diagnostics = diagnostics;
+			this.successful = successful;
+		}
+
+		public boolean isSuccessful() {
+			return successful;
+		}
+
+		/**
+		 * @return the bytecode of all compiled classes, including inner and
+		 *         anonymous ones, by fully qualified name
+		 */
+		public Map<String, byte[]> getClasses() {
+			return classes;
+		}
+
+		/**
+		 * @return the fully qualified names of the sources errors were
+		 *         reported for
+		 */
+		public Set<String> getFailedSources() {
+			return failedSources;
+		}
+
+		/**
+		 * @return true if compilation failed with errors that do not belong
+		 *         to any of the sources
+		 */
+		public boolean hasUnattributedErrors() {
+			if (successful)
+				return false;
+			for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+				if (diagnostic.getKind() == Diagnostic.Kind.ERROR
+				        && !(diagnostic.getSource() instanceof SourceFile))
+					return true;
+			}
+			return failedSources.isEmpty();
+		}
+
+		public List<Diagnostic<? extends JavaFileObject>> getDiagnostics() {
+			return diagnostics;
+		}
+	}
+
+	private static class SourceFile extends SimpleJavaFileObject {
+
+		private final String className;
+
+		private final String content;
+
+		private SourceFile(String className, String content) {
+			super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+			this.className = className;
+			this.content = content;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return content;
+		}
+	}
+
+	private static class ClassFile extends SimpleJavaFileObject {
+
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		private ClassFile(String className) {
+			super(URI.create("bytes:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+		}
+
+		@Override
+		public OutputStream openOutputStream() {
+			return bytes;
+		}
+	}
+
+	/**
+	 * Keeps the generated class files in memory, everything else is delegated
+	 * to the shared file manager
+	 */
+	private static class MemoryFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+
+		private final Map<String, ClassFile> classFiles = new LinkedHashMap<>();
+
+		private MemoryFileManager(JavaFileManager fileManager) {
+			super(fileManager);
+		}
+
+		@Override
+		public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+		        FileObject sibling) throws IOException {
+			if (kind != JavaFileObject.Kind.CLASS)
+				return super.getJavaFileForOutput(location, className, kind, sibling);
+			ClassFile file = new ClassFile(className);
+			classFiles.put(className, file);
+			return file;
+		}
+
+		@Override
+		public void close() {
+			// the shared file manager stays open
+		}
+
+		private Map<String, byte[]> getClasses() {
+			Map<String, byte[]> classes = new LinkedHashMap<>();
+			for (Map.Entry<String, ClassFile> entry : classFiles.entrySet())
+				classes.put(entry.getKey(), entry.getValue().bytes.toByteArray());
+			return classes;
+		}
+	}
+
+	private InMemoryCompiler() {
+		compiler = ToolProvider.getSystemJavaCompiler();
+	}
+
+	public static synchronized InMemoryCompiler getInstance() {
+		if (instance == null)
+			instance = new InMemoryCompiler();
+		return instance;
+	}
+
+	public boolean isAvailable() {
+		return compiler != null;
+	}
+
+	/**
+	 * Compile the given classes in a single task
+	 * 
+	 * @param sources
+	 *            source code by fully qualified class name
+	 * @return null if no compiler is available
+	 */
+	public synchronized Result compile(Map<String, String> sources) throws IOException {
+		if (compiler == null) {
+			logger.error("No Java compiler is available");
+			return null;
+		}
+
+		List<JavaFileObject> compilationUnits = new ArrayList<>();
+		for (Map.Entry<String, String> source : sources.entrySet())
+			compilationUnits.add(new SourceFile(source.getKey(), source.getValue()));
+
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+		MemoryFileManager memoryFileManager = new MemoryFileManager(getFileManager());
+
+		// Errors of all tests are needed, not only the first 100
+		List<String> optionList = Arrays.asList("-Xmaxerrs", String.valueOf(Integer.MAX_VALUE));
+
+		CompilationTask task = compiler.getTask(null, memoryFileManager, diagnostics, optionList, null,
+		                                        compilationUnits);
+		boolean compiled = task.call();
+
+		Set<String> failedSources = new LinkedHashSet<>();
+		for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+			if (diagnostic.getKind() == Diagnostic.Kind.ERROR && diagnostic.getSource() instanceof SourceFile)
+				failedSources.add(((SourceFile) diagnostic.getSource()).className);
+		}
+
+		Map<String, byte[]> classes = compiled ? memoryFileManager.getClasses() : Collections.<String, byte[]>emptyMap();
+		return new Result(classes, failedSources, diagnostics.getDiagnostics(), compiled);
+	}
+
+	/**
+	 * The file manager is shared between compilations, and only recreated
+	 * when the classpath changed
+	 */
+	private StandardJavaFileManager getFileManager() throws IOException {
+		String currentClasspath = getClasspath();
+		if (fileManager == null || !currentClasspath.equals(classpath)) {
+			if (fileManager != null)
+				fileManager.close();
+			fileManager = compiler.getStandardFileManager(null, Locale.getDefault(), Charset.forName("UTF-8"));
+			List<File> entries = new ArrayList<>();
+			for (String entry : currentClasspath.split(File.pathSeparator)) {
+				if (!entry.isEmpty())
+					entries.add(new File(entry));
+			}
+			fileManager.setLocation(StandardLocation.CLASS_PATH, entries);
+			classpath = currentClasspath;
+		}
+		return fileManager;
+	}
+
+	/**
+	 * Same classpath as used for compiling the tests on disk
+	 */
+	public static String getClasspath() {
+		String evosuiteCP = ClassPathHandler.getInstance().getEvoSuiteClassPath();
+		if(JarPathing.containsAPathingJar(evosuiteCP)){
+			evosuiteCP = JarPathing.expandPathingJars(evosuiteCP);
+		}
+
+		String targetProjectCP = ClassPathHandler.getInstance().getTargetProjectClasspath();
+		if(JarPathing.containsAPathingJar(targetProjectCP)){
+			targetProjectCP = JarPathing.expandPathingJars(targetProjectCP);
+		}
+
+		return targetProjectCP + File.pathSeparator + evosuiteCP;
+	}
+}
@@ -83,6 +83,13 @@ public class JUnitAnalyzer {
 			return;
 		}
 
+		if (useInMemoryCompilation()) {
+			if (removeTestsThatDoNotCompileInMemory(tests)) {
+				return;
+			}
+			logger.warn("Failed to attribute compilation errors to tests, compiling each test on its own");
+		}
+
 		Iterator<TestCase> iter = tests.iterator();
 
 		while (iter.hasNext()) {
@@ -123,6 +130,71 @@ public class JUnitAnalyzer {
 		} // end of while
 	}
 
+	/**
+	 * Compile all tests in a single task, each test in its own class, and
+	 * remove the ones whose classes have compilation errors
+	 * 
+	 * @param tests
+	 * @return false if there were compilation errors that could not be
+	 *         attributed to a test
+	 */
+	private static boolean removeTestsThatDoNotCompileInMemory(List<TestCase> tests) {
+
+		Map<String, TestCase> testOfClass = new HashMap<>();
+		Map<String, String> sources = new LinkedHashMap<>();
+		for (TestCase test : tests) {
+			if(!TimeController.getInstance().hasTimeToExecuteATestCase()) {
+				break;
+			}
+			Map<String, String> testSources = generateTestSources(Collections.singletonList(test));
+			for (String className : testSources.keySet()) {
+				testOfClass.put(className, test);
+			}
+			sources.putAll(testSources);
+		}
+
+		/*
+		 * javac might not report all errors of a class if another class
+		 * has errors as well, so compile the remaining classes again
+		 * until there are no errors left
+		 */
+		while (!sources.isEmpty()) {
+			InMemoryCompiler.Result result;
+			try {
+				result = InMemoryCompiler.getInstance().compile(sources);
+			} catch (IOException e) {
+				logger.error("" + e, e);
+				return false;
+			}
+			if (result == null) {
+				return false;
+			}
+			if (result.isSuccessful()) {
+				return true;
+			}
+			if (result.hasUnattributedErrors()) {
+				logDiagnostics(result);
+				return false;
+			}
+
+			Set<TestCase> failing = Collections.newSetFromMap(new IdentityHashMap<TestCase, Boolean>());
+			for (String className : result.getFailedSources()) {
+				failing.add(testOfClass.get(className));
+			}
+
+			Iterator<TestCase> iter = tests.iterator();
+			while (iter.hasNext()) {
+				TestCase test = iter.next();
+				if (failing.contains(test)) {
+					iter.remove();
+					logger.error("Failed to compile test case:\n" + test.toCode());
+				}
+			}
+			sources.keySet().removeIf(className -> failing.contains(testOfClass.get(className)));
+		}
+		return true;
+	}
+
 	/**
 	 * Compile and run all the test cases, and mark as "unstable" all the ones
 	 * that fail during execution (ie, unstable assertions).
@@ -143,16 +215,25 @@ public class JUnitAnalyzer {
 			return numUnstable;
 		}
 
-		File dir = createNewTmpDir();
-		if (dir == null) {
-			logger.error("Failed to create tmp dir");
-			return numUnstable;
+		File dir = null;
+		if (!useInMemoryCompilation()) {
+			dir = createNewTmpDir();
+			if (dir == null) {
+				logger.error("Failed to create tmp dir");
+				return numUnstable;
+			}
+			logger.debug("Created tmp folder: " + dir.getAbsolutePath());
 		}
-		logger.debug("Created tmp folder: " + dir.getAbsolutePath());
 
 		try {
-			List<File> generated = compileTests(tests, dir);
-			if (generated == null) {
+			List<File> generated = null;
+			Map<String, byte[]> compiled = null;
+			if (dir == null) {
+				compiled = compileTestsInMemory(tests);
+			} else {
+				generated = compileTests(tests, dir);
+			}
+			if (generated == null && compiled == null) {
 				/*
 				 * Note: in theory this shouldn't really happen, as check for compilation
 				 * is done before calling this method
@@ -168,7 +249,7 @@ public class JUnitAnalyzer {
 
             // Create a new classloader so that each test gets freshly loaded classes
 			loader = new NonInstrumentingClassLoader();
-            Class<?>[] testClasses = loadTests(generated);
+            Class<?>[] testClasses = dir == null ? loadTests(compiled) : loadTests(generated);
 
 			if (testClasses == null) {
 				logger.error("Found no classes for compiled tests");
@@ -337,19 +418,92 @@ public class JUnitAnalyzer {
 		return compiler != null;
 	}
 
+	private static boolean useInMemoryCompilation() {
+		return Properties.JUNIT_CHECK_IN_MEMORY && InMemoryCompiler.getInstance().isAvailable();
+	}
+
 	// We have to have a unique name for this test suite as it is loaded by the
 	// EvoSuite classloader, and thus cannot easily be re-loaded
 	private static int NUM = 0;
 
+	private static String getNewTestSuiteName() {
+        //to get name, remove all package before last '.'
+        int beginIndex = Properties.TARGET_CLASS.lastIndexOf(".") + 1;
+		String name = Properties.TARGET_CLASS.substring(beginIndex);
+		name += "_" +(NUM++) + "_tmp_" + Properties.JUNIT_SUFFIX ; //postfix
+		return name;
+	}
+
+	/**
+	 * Generate the source code of the test suite for the given tests
+	 * 
+	 * @param tests
+	 * @return source code by fully qualified class name
+	 */
+	private static Map<String, String> generateTestSources(List<TestCase> tests) {
+		TestSuiteWriter suite = new TestSuiteWriter();
+		suite.insertAllTests(tests);
+
+		String packagePrefix = getPackagePrefix();
+		Map<String, String> sources = new LinkedHashMap<>();
+		for (Map.Entry<String, String> source : suite.generateTestSuite(getNewTestSuiteName(),
+		                                                                Collections.EMPTY_LIST).entrySet()) {
+			sources.put(packagePrefix + source.getKey(), source.getValue());
+		}
+		return sources;
+	}
+
+	/**
+	 * Compile the tests without writing anything on disk
+	 * 
+	 * @param tests
+	 * @return the bytecode of the compiled classes by name, or null if the
+	 *         tests do not compile
+	 */
+	private static Map<String, byte[]> compileTestsInMemory(List<TestCase> tests) {
+		Map<String, String> sources = generateTestSources(tests);
+
+		try {
+			InMemoryCompiler.Result result = InMemoryCompiler.getInstance().compile(sources);
+			if (result == null) {
+				return null;
+			}
+			if (!result.isSuccessful()) {
+				logger.error("Compilation failed on compilation units: " + sources.keySet());
+				logger.error("Classpath: " + InMemoryCompiler.getClasspath());
+				logDiagnostics(result);
+
+				StringBuffer buffer = new StringBuffer();
+				for (Map.Entry<String, String> source : sources.entrySet()) {
+					buffer.append(source.getKey() + "\n");
+					String[] lines = source.getValue().split("\n");
+					for (int i = 0; i < lines.length; i++) {
+						buffer.append((i + 1) + ": " + lines[i] + "\n");
+					}
+				}
+				logger.error(buffer.toString());
+				return null;
+			}
+			return result.getClasses();
+		} catch (IOException e) {
+			logger.error("" + e, e);
+			return null;
+		}
+	}
+
+	private static void logDiagnostics(InMemoryCompiler.Result result) {
+		for (Diagnostic<?> diagnostic : result.getDiagnostics()) {
+			logger.error("Diagnostic: " + diagnostic.getMessage(null) + ": "
+			        + diagnostic.getLineNumber());
+		}
+	}
+
 	private static List<File> compileTests(List<TestCase> tests, File dir) {
 
 		TestSuiteWriter suite = new TestSuiteWriter();
 		suite.insertAllTests(tests);
 
-        //to get name, remove all package before last '.'
-        int beginIndex = Properties.TARGET_CLASS.lastIndexOf(".") + 1;
-		String name = Properties.TARGET_CLASS.substring(beginIndex);
-		name += "_" +(NUM++) + "_tmp_" + Properties.JUNIT_SUFFIX ; //postfix
+		String name = getNewTestSuiteName();
 
 		try {
 			//now generate the JUnit test case
@@ -483,6 +637,41 @@ public class JUnitAnalyzer {
 		return testClasses;
 	}
 
+	/**
+	 * Load tests compiled in memory, see {@link #loadTests(List)}
+	 * 
+	 * @param classes
+	 *            bytecode by fully qualified class name
+	 * @return the test classes
+	 */
+	private static Class<?>[] loadTests(Map<String, byte[]> classes) {
+		for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+			if (isScaffolding(entry.getKey())) {
+				loadClass(entry.getKey(), entry.getValue());
+			}
+		}
+
+		List<Class<?>> testClasses = new ArrayList<>();
+		for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+			if (isScaffolding(entry.getKey()) || entry.getKey().contains("$")) {
+				continue;
+			}
+			Class<?> clazz = loadClass(entry.getKey(), entry.getValue());
+			if (clazz != null) {
+				testClasses.add(clazz);
+			}
+		}
+
+		// as for files, also load all other classes, e.g. the anonymous ones
+		for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+			if (entry.getKey().contains("$")) {
+				loadClass(entry.getKey(), entry.getValue());
+			}
+		}
+
+		return testClasses.toArray(new Class<?>[testClasses.size()]);
+	}
+
 	private static List<File> listOnlyFiles(List<File> tests) throws IllegalArgumentException{
 		if(tests==null || tests.isEmpty()){
 			return null;
@@ -559,22 +748,31 @@ public class JUnitAnalyzer {
 			return true;
 		}
 
-		File dir = createNewTmpDir();
-		if (dir == null) {
-			logger.warn("Failed to create tmp dir");
-			return false;
+		File dir = null;
+		if (!useInMemoryCompilation()) {
+			dir = createNewTmpDir();
+			if (dir == null) {
+				logger.warn("Failed to create tmp dir");
+				return false;
+			}
 		}
 
 		try {
-			List<File> generated = compileTests(tests, dir);
-			if (generated == null) {
+			List<File> generated = null;
+			Map<String, byte[]> compiled = null;
+			if (dir == null) {
+				compiled = compileTestsInMemory(tests);
+			} else {
+				generated = compileTests(tests, dir);
+			}
+			if (generated == null && compiled == null) {
 				logger.warn("Failed to compile the test cases ");
 				return false;
 			}
 
 			//as last step, execute the generated/compiled test cases
 
-			Class<?>[] testClasses = loadTests(generated);
+			Class<?>[] testClasses = dir == null ? loadTests(compiled) : loadTests(generated);
 
 			if (testClasses == null) {
 				logger.error("Found no classes for compiled tests");
@@ -663,16 +861,36 @@ public class JUnitAnalyzer {
 		return name.endsWith("_"+Properties.SCAFFOLDING_SUFFIX+JAVA) || 
 				name.endsWith("_"+Properties.SCAFFOLDING_SUFFIX+CLASS);
 	}
+
+	private static boolean isScaffolding(String className){
+		return className.endsWith("_"+Properties.SCAFFOLDING_SUFFIX);
+	}
+
+	private static String getPackagePrefix(){
+		String packagePrefix = Properties.CLASS_PREFIX;
+		if (!packagePrefix.isEmpty() && !packagePrefix.endsWith(".")) {
+			packagePrefix += ".";
+		}
+		return packagePrefix;
+	}
+
+	private static Class<?> loadClass(String className, byte[] bytes){
+		Class<?> testClass = null;
+		try {
+			logger.info("Loading class " + className);
+			testClass = loader.loadClassFromBytes(className, bytes);
+		} catch (ClassNotFoundException e) {
+			logger.error("Failed to load test case " + className + " from memory, error " + e, e);
+		}
+		return testClass;
+	}
 	
 	private static Class<?> loadClass(File file){
 		if (!file.isFile()) {
 			return null;
 		}
 
-		String packagePrefix = Properties.CLASS_PREFIX;
-		if (!packagePrefix.isEmpty() && !packagePrefix.endsWith(".")) {
-			packagePrefix += ".";
-		}
+		String packagePrefix = getPackagePrefix();
 
 		String name = file.getName();
 
@@ -19,6 +19,7 @@
  */
 package org.evosuite.rmi.service;
 
+import java.io.IOException;
 import java.rmi.RemoteException;
 import java.rmi.registry.Registry;
 import java.util.ArrayList;
@@ -56,6 +57,7 @@ import org.evosuite.runtime.sandbox.Sandbox;
 import org.evosuite.setup.DependencyAnalysis;
 import org.evosuite.setup.TestCluster;
 import org.evosuite.statistics.RuntimeVariable;
+import org.evosuite.testcase.TestChromosome;
 import org.evosuite.utils.Listener;
 import org.evosuite.utils.LoggingUtils;
 import org.evosuite.utils.Randomness;
@@ -106,6 +108,16 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 	
 	private Thread statisticsThread; 
 
+	/**
+	 * Sends statistics and state changes in batches, if they are sent asynchronously
+	 */
+	private volatile StatisticsSender statisticsSender;
+
+	/**
+	 * Receives migrants directly from the neighbour, if migration channels are used
+	 */
+	private volatile MigrationChannel migrationChannel;
+
 	//only for testing
 	protected ClientNodeImpl() {
 	}
@@ -158,6 +170,7 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 					// TODO: Why?
 					// GeneticAlgorithm<?> ga = generator.getEmployedGeneticAlgorithm();
 
+					flushStatistics();
 					masterNode.evosuite_collectTestGenerationResult(clientRmiIdentifier, results);
 				} catch (Throwable t) {
 					logger.error("Error when generating tests for: "
@@ -215,16 +228,53 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
     public void emigrate(Set<? extends Chromosome> immigrants) {
         try {
             logger.debug(ClientProcess.getPrettyPrintIdentifier() + "Sending " + immigrants.size() + " immigrants");
+            flushStatistics();
+            if (migrationChannel != null && sendMigrants(immigrants)) {
+                return;
+            }
             masterNode.evosuite_migrate(clientRmiIdentifier, immigrants);
         } catch (RemoteException e) {
             logger.error(ClientProcess.getPrettyPrintIdentifier() + "Cannot send immigrating individuals to master", e);
         }
     }
 
+    /**
+     * Send the migrants directly to the neighbour over the migration channel
+     * 
+     * @param immigrants
+     * @return false if the migrants have to be sent through the master instead
+     * @throws RemoteException
+     */
+    @SuppressWarnings("unchecked")
+    private boolean sendMigrants(Set<? extends Chromosome> immigrants) throws RemoteException {
+        for (Chromosome immigrant : immigrants) {
+            if (!(immigrant instanceof TestChromosome)) {
+                return false;
+            }
+        }
+        int port = masterNode.evosuite_getMigrationPort(clientRmiIdentifier);
+        if (port == MasterNodeRemote.NO_NEIGHBOUR) {
+            // no neighbour is searching at the moment, the master would drop them too
+            return true;
+        }
+        if (port == MasterNodeRemote.NO_MIGRATION_CHANNEL) {
+            return false;
+        }
+        try {
+            migrationChannel.send(port, (Set<TestChromosome>) immigrants);
+            return true;
+        } catch (IOException e) {
+            logger.warn(ClientProcess.getPrettyPrintIdentifier() + "Cannot send immigrants on port " + port
+                    + ", sending them through the master: " + e.getMessage());
+            return false;
+        }
+    }
+
     @Override
     public void sendBestSolution(Set<? extends Chromosome> solutions) {
         try {
             logger.debug(ClientProcess.getPrettyPrintIdentifier() + "sending best solutions to " + ClientProcess.DEFAULT_CLIENT_NAME);
+            flushStatistics();
             masterNode.evosuite_collectBestSolutions(clientRmiIdentifier, solutions);
         } catch (RemoteException e) {
             logger.error(ClientProcess.getPrettyPrintIdentifier() + "Cannot send best solution to master", e);
@@ -246,10 +296,15 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 
 		TimeController.getInstance().updateState(state);
 
-		try {
-			masterNode.evosuite_informChangeOfStateInClient(clientRmiIdentifier, state,information);
-		} catch (RemoteException e) {
-			logger.error("Cannot inform master of change of state", e);
+		StatisticsSender sender = statisticsSender;
+		if (sender != null) {
+			sender.changeState(state, information);
+		} else {
+			try {
+				masterNode.evosuite_informChangeOfStateInClient(clientRmiIdentifier, state,information);
+			} catch (RemoteException e) {
+				logger.error("Cannot inform master of change of state", e);
+			}
 		}
 
 		if (this.state.equals(ClientState.DONE)) {
@@ -265,6 +320,13 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 	public void updateStatistics(Chromosome individual) {
 		logger.info("Sending current best individual to master process");
 
+		StatisticsSender sender = statisticsSender;
+		if (sender != null) {
+			// Copies the individual only if it is going to be sent
+			sender.updateStatistics(individual);
+			return;
+		}
+
 		try {
 			masterNode.evosuite_collectStatistics(clientRmiIdentifier, individual);
 		} catch (RemoteException e) {
@@ -276,6 +338,7 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 	public void flushStatisticsForClassChange() {
 		logger.info("Flushing output variables to master process");
 
+		flushStatistics();
 		try {
 			masterNode.evosuite_flushStatisticsForClassChange(clientRmiIdentifier);
 		} catch (RemoteException e) {
@@ -287,6 +350,7 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 	public void updateProperty(String propertyName, Object value) {
 		logger.info("Updating property '" + propertyName + "' with value '" + value + "' on master process");
 
+		flushStatistics();
 		try {
 			masterNode.evosuite_updateProperty(clientRmiIdentifier, propertyName, value);
 		} catch (RemoteException | IllegalArgumentException | IllegalAccessException | NoSuchParameterException e) {
@@ -298,6 +362,12 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 	public void trackOutputVariable(RuntimeVariable variable, Object value) {
 		logger.info("Sending output variable to master process: "+variable+" = "+value);
 
+		StatisticsSender sender = statisticsSender;
+		if (sender != null) {
+			sender.trackOutputVariable(variable, value);
+			return;
+		}
+
 		/*
 		 * As this code might be called from unsafe blocks, we just put the values
 		 * on a queue, and have a privileged thread doing the RMI connection to master
@@ -347,7 +417,24 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 
     }
 
+	/**
+	 * Send the buffered statistics before calls to the master that may depend on them
+	 */
+	private void flushStatistics() {
+		StatisticsSender sender = statisticsSender;
+		if (sender != null)
+			sender.flush();
+	}
+
 	public void stop(){
+		if(migrationChannel!=null){
+			migrationChannel.close();
+			migrationChannel = null;
+		}
+		if(statisticsSender!=null){
+			statisticsSender.stop();
+			statisticsSender = null;
+		}
 		if(statisticsThread!=null){
 			statisticsThread.interrupt();
 			List<OutputVariable> vars = new ArrayList<OutputVariable>();
@@ -380,6 +467,23 @@ public class ClientNodeImpl implements ClientNodeLocal, ClientNodeRemote {
 			masterNode.evosuite_informChangeOfStateInClient(clientRmiIdentifier, state,
 					new ClientStateInformation(state));
 
+			if (Properties.MIGRATION_CHANNELS && Properties.NUM_PARALLEL_CLIENTS > 1) {
+				try {
+					migrationChannel = new MigrationChannel(this::fireEvent);
+					masterNode.evosuite_registerMigrationPort(clientRmiIdentifier, migrationChannel.getPort());
+				} catch (IOException e) {
+					logger.warn("Cannot open migration channel, migrants are sent through the master: "
+							+ e.getMessage());
+					migrationChannel = null;
+				}
+			}
+
+			if (Properties.ASYNC_STATISTICS) {
+				statisticsSender = new StatisticsSender(masterNode, clientRmiIdentifier);
+				statisticsSender.start();
+				return true;
+			}
+
 			statisticsThread = new Thread() {
 				@Override
 				public void run() {
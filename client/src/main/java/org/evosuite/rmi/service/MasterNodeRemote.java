@@ -22,6 +22,7 @@ package org.evosuite.rmi.service;
 import java.rmi.Remote;
 import java.rmi.RemoteException;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.evosuite.Properties.NoSuchParameterException;
@@ -37,6 +38,12 @@ import org.evosuite.statistics.RuntimeVariable;
 public interface MasterNodeRemote extends Remote {
 
 	public static final String RMI_SERVICE_NAME = "MasterNode";
+
+	/** No other client is searching, so there is nobody to send migrants to */
+	public static final int NO_NEIGHBOUR = -1;
+
+	/** The neighbour has no migration channel, so migrants go through the master */
+	public static final int NO_MIGRATION_CHANNEL = -2;
 	
 	/*
 	 * Note: we need names starting with 'evosuite' here, because those names are accessed 
@@ -51,6 +58,8 @@ public interface MasterNodeRemote extends Remote {
 
 	public void evosuite_collectStatistics(String clientRmiIdentifier, RuntimeVariable variable, Object value) throws RemoteException;
 
+	public void evosuite_collectStatistics(String clientRmiIdentifier, Map<RuntimeVariable, Object> variables) throws RemoteException;
+
 	public void evosuite_collectTestGenerationResult(String clientRmiIdentifier, List<TestGenerationResult> results) throws RemoteException;
 
 	public void evosuite_flushStatisticsForClassChange(String clientRmiIdentifier) throws RemoteException;
@@ -59,5 +68,14 @@ public interface MasterNodeRemote extends Remote {
 	
 	public void evosuite_migrate(String clientRmiIdentifier, Set<? extends Chromosome> migrants) throws RemoteException;
 
+	public void evosuite_registerMigrationPort(String clientRmiIdentifier, int port) throws RemoteException;
+
+	/**
+	 * @return the local port on which the neighbour of the given client
+	 *         receives migrants, {@link #NO_NEIGHBOUR} or
+	 *         {@link #NO_MIGRATION_CHANNEL}
+	 */
+	public int evosuite_getMigrationPort(String clientRmiIdentifier) throws RemoteException;
+
     public void evosuite_collectBestSolutions(String clientRmiIdentifier, Set<? extends Chromosome> solutions) throws RemoteException;
 }
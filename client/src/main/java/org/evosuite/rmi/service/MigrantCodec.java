@@ -0,0 +1,199 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.rmi.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.utils.generic.GenericAccessibleObject;
+
+/**
+ * Compact encoding of migrating tests.
+ * 
+ * Only the statements of the tests are encoded; fitness values, which refer
+ * to the coverage goals, and execution results are left out and have to be
+ * recomputed by the receiver. Equal methods, constructors and fields are
+ * written only once per batch and referenced by the statements using them,
+ * and the stream is compressed.
+ * 
+ * Decoding only accepts the classes tests consist of, as the data comes from
+ * another process.
+ */
+public class MigrantCodec {
+
+	static final int VERSION = 1;
+
+	private static final Set<String> JAVA_LANG_CLASSES = new HashSet<>(Arrays.asList(
+			"java.lang.String", "java.lang.Number", "java.lang.Enum", "java.lang.Boolean",
+			"java.lang.Character", "java.lang.Byte", "java.lang.Short", "java.lang.Integer",
+			"java.lang.Long", "java.lang.Float", "java.lang.Double"));
+
+	private static final Set<String> PRIMITIVE_TYPES = new HashSet<>(Arrays.asList(
+			"boolean", "byte", "char", "short", "int", "long", "float", "double", "void"));
+
+	private MigrantCodec() {
+	}
+
+	/**
+	 * Writes each equal accessible object only once
+	 */
+	private static class InterningOutputStream extends ObjectOutputStream {
+
+		private final Map<List<Object>, GenericAccessibleObject<?>> interned = new HashMap<>();
+
+		private InterningOutputStream(OutputStream out) throws IOException {
+			super(out);
+			enableReplaceObject(true);
+		}
+
+		@Override
+		protected Object replaceObject(Object obj) throws IOException {
+			if (obj instanceof GenericAccessibleObject) {
+				GenericAccessibleObject<?> accessibleObject = (GenericAccessibleObject<?>) obj;
+				// Instantiations of generic methods and constructors may differ
+				if (accessibleObject.getTypeParameters().length > 0)
+					return obj;
+				// Equality of accessible objects ignores the type arguments of the owner
+				List<Object> key = Arrays.asList(accessibleObject, accessibleObject.getOwnerType());
+				GenericAccessibleObject<?> existing = interned.putIfAbsent(key, accessibleObject);
+				if (existing != null)
+					return existing;
+			}
+			return obj;
+		}
+	}
+
+	/**
+	 * Resolves only EvoSuite classes, boxed primitives, strings, the
+	 * collections of java.util, enums, and arrays of these. Classes of the
+	 * SUT are referenced by name within the EvoSuite classes, so other
+	 * classes on the classpath cannot be instantiated by a forged stream.
+	 */
+	private static class FilteringInputStream extends ObjectInputStream {
+
+		private FilteringInputStream(InputStream in) throws IOException {
+			super(in);
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			String name = desc.getName();
+			if (isAllowed(name))
+				return super.resolveClass(desc);
+
+			// Assertions may contain enum values of the SUT, whose
+			// deserialization only looks up the constant by its name
+			Class<?> clazz = super.resolveClass(desc);
+			if (clazz.isEnum() || (clazz.getSuperclass() != null && clazz.getSuperclass().isEnum()))
+				return clazz;
+			throw new InvalidClassException(name, "Class is not allowed in encoded migrants");
+		}
+
+		@Override
+		protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+			throw new InvalidClassException("Proxy classes are not allowed in encoded migrants");
+		}
+	}
+
+	/**
+	 * @param className
+	 *            name of a class as returned by {@link Class#getName()}
+	 * @return true if instances of the class can be part of encoded tests
+	 */
+	static boolean isAllowed(String className) {
+		if (className.startsWith("[")) {
+			String componentName = className.replaceFirst("^\\[+", "");
+			if (componentName.startsWith("L") && componentName.endsWith(";"))
+				return isAllowed(componentName.substring(1, componentName.length() - 1));
+			// array of primitives
+			return componentName.length() == 1;
+		}
+		if (PRIMITIVE_TYPES.contains(className) || JAVA_LANG_CLASSES.contains(className))
+			return true;
+		if (className.startsWith("org.evosuite."))
+			return true;
+		// Collections, but not the classes of the subpackages of java.util
+		return className.startsWith("java.util.") && className.indexOf('.', "java.util.".length()) < 0;
+	}
+
+	/**
+	 * @param migrants
+	 * @return the encoded tests of the migrants
+	 * @throws IOException
+	 */
+	public static byte[] encode(Collection<TestChromosome> migrants) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new InterningOutputStream(
+		        new DeflaterOutputStream(bytes, new Deflater(Deflater.BEST_SPEED)))) {
+			out.writeInt(VERSION);
+			out.writeInt(migrants.size());
+			for (TestChromosome migrant : migrants) {
+				out.writeObject(migrant.getTestCase());
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * @param data
+	 *            encoded tests
+	 * @return new chromosomes for the tests, which still need to be evaluated
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	public static List<TestChromosome> decode(byte[] data) throws IOException, ClassNotFoundException {
+		try (ObjectInputStream in = new FilteringInputStream(new InflaterInputStream(new ByteArrayInputStream(data)))) {
+			int version = in.readInt();
+			if (version != VERSION)
+				throw new IOException("Unsupported migrant encoding version: " + version);
+
+			int size = in.readInt();
+			List<TestChromosome> migrants = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				TestCase test = (TestCase) in.readObject();
+				TestChromosome migrant = new TestChromosome();
+				// Statements of a decoded test share the interned objects, a clone copies them
+				migrant.setTestCase(test.clone());
+				migrants.add(migrant);
+			}
+			return migrants;
+		}
+	}
+}
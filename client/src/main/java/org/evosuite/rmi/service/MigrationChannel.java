@@ -0,0 +1,171 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.rmi.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.evosuite.ga.Chromosome;
+import org.evosuite.runtime.sandbox.Sandbox;
+import org.evosuite.testcase.TestChromosome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Direct connection between clients on the same machine to exchange
+ * migrants, encoded with {@link MigrantCodec}, without going through the
+ * master. The master only tells a client the port of its neighbour.
+ */
+class MigrationChannel {
+
+	private static final Logger logger = LoggerFactory.getLogger(MigrationChannel.class);
+
+	private final ServerSocket serverSocket;
+
+	private final Consumer<Set<? extends Chromosome>> receiver;
+
+	/** Open connections to neighbours by port */
+	private final Map<Integer, DataOutputStream> connections = new HashMap<>();
+
+	private volatile boolean closed = false;
+
+	/**
+	 * @param receiver
+	 *            is informed of all migrants arriving on this channel
+	 * @throws IOException
+	 *             if no local port could be opened
+	 */
+	MigrationChannel(Consumer<Set<? extends Chromosome>> receiver) throws IOException {
+		this.receiver = receiver;
+		this.serverSocket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+
+		Thread acceptor = new Thread() {
+			@Override
+			public void run() {
+				while (!closed) {
+					try {
+						Socket socket = serverSocket.accept();
+						startReader(socket);
+					} catch (IOException e) {
+						if (!closed)
+							logger.error("Error when accepting migration connection", e);
+						break;
+					}
+				}
+			}
+		};
+		acceptor.setName("Migration channel acceptor in client process");
+		acceptor.setDaemon(true);
+		Sandbox.addPrivilegedThread(acceptor);
+		acceptor.start();
+	}
+
+	/**
+	 * @return the local port on which migrants are received
+	 */
+	int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	private void startReader(final Socket socket) {
+		Thread reader = new Thread() {
+			@Override
+			public void run() {
+				try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+					while (!closed) {
+						byte[] data = new byte[in.readInt()];
+						in.readFully(data);
+						List<TestChromosome> migrants = MigrantCodec.decode(data);
+						logger.debug("Received {} migrants in {} bytes", migrants.size(), data.length);
+						receiver.accept(new LinkedHashSet<>(migrants));
+					}
+				} catch (EOFException e) {
+					// sender closed the connection
+				} catch (IOException | ClassNotFoundException e) {
+					if (!closed)
+						logger.error("Error when receiving migrants", e);
+				}
+			}
+		};
+		reader.setName("Migration channel reader in client process");
+		reader.setDaemon(true);
+		Sandbox.addPrivilegedThread(reader);
+		reader.start();
+	}
+
+	/**
+	 * Send migrants to the client listening on the given local port
+	 * 
+	 * @param port
+	 * @param migrants
+	 * @throws IOException
+	 */
+	synchronized void send(int port, Collection<TestChromosome> migrants) throws IOException {
+		byte[] data = MigrantCodec.encode(migrants);
+		DataOutputStream out = connections.get(port);
+		try {
+			if (out == null) {
+				Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+				out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+				connections.put(port, out);
+			}
+			out.writeInt(data.length);
+			out.write(data);
+			out.flush();
+		} catch (IOException e) {
+			connections.remove(port);
+			if (out != null)
+				out.close();
+			throw e;
+		}
+		logger.debug("Sent {} migrants in {} bytes", migrants.size(), data.length);
+	}
+
+	synchronized void close() {
+		closed = true;
+		for (DataOutputStream out : connections.values()) {
+			try {
+				out.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+		connections.clear();
+		try {
+			serverSocket.close();
+		} catch (IOException e) {
+			// ignore
+		}
+	}
+}
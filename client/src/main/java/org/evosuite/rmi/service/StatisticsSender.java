@@ -0,0 +1,283 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.rmi.service;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.runtime.sandbox.Sandbox;
+import org.evosuite.statistics.RuntimeVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends statistics and state changes of a client to the master in batches on
+ * a background thread, so that the search never waits for RMI calls.
+ * 
+ * Pending updates are coalesced: only the latest value of each output
+ * variable and the latest individual are sent, and consecutive updates of the
+ * same state only send the latest information. As the search may still
+ * change an individual, it is copied on the search thread, but only once per
+ * batch: the first update after a batch was sent is copied right away, later
+ * ones are only kept until the next update or {@link #flush()}. Output variables are sent
+ * before the individual, and state changes last, so that the master has all
+ * statistics before it learns that the client is done.
+ */
+class StatisticsSender {
+
+	private static final Logger logger = LoggerFactory.getLogger(StatisticsSender.class);
+
+	private static class StateChange {
+		private final ClientState state;
+		private ClientStateInformation information;
+
+		private StateChange(ClientState state, ClientStateInformation information) {
+			this.state = state;
+			this.information = information;
+		}
+	}
+
+	private final MasterNodeRemote masterNode;
+
+	private final String clientRmiIdentifier;
+
+	/** Guards the pending updates */
+	private final Object lock = new Object();
+
+	/** Only one batch is sent at a time, to keep the order of updates */
+	private final Object sendLock = new Object();
+
+	private Map<RuntimeVariable, Object> variables = new LinkedHashMap<>();
+
+	/** Copy of an individual, ready to be sent */
+	private Chromosome individual = null;
+
+	/** Latest individual of the search, not copied yet */
+	private Chromosome latestIndividual = null;
+
+	/** Whether the next individual is copied right away */
+	private boolean individualRequested = true;
+
+	private List<StateChange> stateChanges = new ArrayList<>();
+
+	private int numPending = 0;
+
+	private boolean flushRequested = false;
+
+	private volatile boolean stopped = false;
+
+	/** Updates that were replaced by a later one before being sent */
+	private long numMerged = 0;
+
+	/** Updates that could not be sent */
+	private long numDropped = 0;
+
+	private Thread thread;
+
+	StatisticsSender(MasterNodeRemote masterNode, String clientRmiIdentifier) {
+		this.masterNode = masterNode;
+		this.clientRmiIdentifier = clientRmiIdentifier;
+	}
+
+	void start() {
+		thread = new Thread() {
+			@Override
+			public void run() {
+				while (!stopped) {
+					synchronized (lock) {
+						if (!flushRequested && numPending < Properties.STATISTICS_BATCH_SIZE) {
+							try {
+								lock.wait(Properties.STATISTICS_FLUSH_INTERVAL);
+							} catch (InterruptedException e) {
+								break;
+							}
+						}
+					}
+					send();
+				}
+			}
+		};
+		thread.setName("Statistics sender in client process");
+		Sandbox.addPrivilegedThread(thread);
+		thread.start();
+	}
+
+	/**
+	 * Stop the background thread and send all pending updates
+	 */
+	void stop() {
+		stopped = true;
+		synchronized (lock) {
+			lock.notifyAll();
+		}
+		try {
+			thread.join(3000);
+		} catch (InterruptedException e) {
+			logger.error("Failed to stop statistics sender in time");
+		}
+		long merged, dropped;
+		synchronized (lock) {
+			merged = numMerged;
+			dropped = numDropped;
+		}
+		logger.info("Statistics updates merged: {}, dropped: {}", merged, dropped);
+		trackOutputVariable(RuntimeVariable.StatisticsUpdatesMerged, merged);
+		trackOutputVariable(RuntimeVariable.StatisticsUpdatesDropped, dropped);
+		flush();
+	}
+
+	void trackOutputVariable(RuntimeVariable variable, Object value) {
+		synchronized (lock) {
+			if (variables.containsKey(variable))
+				numMerged++;
+			else
+				numPending++;
+			variables.put(variable, value);
+			notifyIfFull();
+		}
+	}
+
+	/**
+	 * Must be called from the thread that may change the individual
+	 * 
+	 * @param individual
+	 */
+	void updateStatistics(Chromosome individual) {
+		synchronized (lock) {
+			if (latestIndividual != null)
+				numMerged++;
+			if (individualRequested) {
+				setIndividual(individual.clone());
+				latestIndividual = null;
+				individualRequested = false;
+				notifyIfFull();
+			} else {
+				latestIndividual = individual;
+			}
+		}
+	}
+
+	private void setIndividual(Chromosome copy) {
+		if (individual != null)
+			numMerged++;
+		else
+			numPending++;
+		individual = copy;
+	}
+
+	void changeState(ClientState state, ClientStateInformation information) {
+		synchronized (lock) {
+			StateChange last = stateChanges.isEmpty() ? null : stateChanges.get(stateChanges.size() - 1);
+			if (last != null && last.state == state) {
+				last.information = information;
+				numMerged++;
+			} else {
+				stateChanges.add(new StateChange(state, information));
+				numPending++;
+			}
+			// The master waits for these, so do not delay them
+			if (state == ClientState.DONE || state == ClientState.FINISHED)
+				flushRequested = true;
+			notifyIfFull();
+		}
+	}
+
+	private void notifyIfFull() {
+		if (flushRequested || numPending >= Properties.STATISTICS_BATCH_SIZE)
+			lock.notifyAll();
+	}
+
+	/**
+	 * Send all pending updates to the master, including the latest
+	 * individual. Must be called from the thread that may change the
+	 * individual
+	 */
+	void flush() {
+		synchronized (lock) {
+			if (latestIndividual != null) {
+				setIndividual(latestIndividual.clone());
+				latestIndividual = null;
+			}
+		}
+		send();
+	}
+
+	/**
+	 * Send all pending updates to the master, except for an individual that
+	 * was not copied yet
+	 */
+	void send() {
+		synchronized (sendLock) {
+			Map<RuntimeVariable, Object> variables;
+			Chromosome individual;
+			List<StateChange> stateChanges;
+			synchronized (lock) {
+				if (numPending == 0) {
+					flushRequested = false;
+					return;
+				}
+				variables = this.variables;
+				individual = this.individual;
+				stateChanges = this.stateChanges;
+				this.variables = new LinkedHashMap<>();
+				this.individual = null;
+				this.stateChanges = new ArrayList<>();
+				numPending = 0;
+				flushRequested = false;
+				individualRequested = true;
+			}
+
+			try {
+				if (!variables.isEmpty())
+					masterNode.evosuite_collectStatistics(clientRmiIdentifier, variables);
+			} catch (RemoteException e) {
+				logger.error("Error when exporting statistics: " + variables, e);
+				addDropped(variables.size());
+			}
+			try {
+				if (individual != null)
+					masterNode.evosuite_collectStatistics(clientRmiIdentifier, individual);
+			} catch (RemoteException e) {
+				logger.error("Cannot send current best individual to master", e);
+				addDropped(1);
+			}
+			for (StateChange stateChange : stateChanges) {
+				try {
+					masterNode.evosuite_informChangeOfStateInClient(clientRmiIdentifier, stateChange.state,
+					                                                stateChange.information);
+				} catch (RemoteException e) {
+					logger.error("Cannot inform master of change of state", e);
+					addDropped(1);
+				}
+			}
+		}
+	}
+
+	private void addDropped(int num) {
+		synchronized (lock) {
+			numDropped += num;
+		}
+	}
+}
@@ -24,6 +24,8 @@ package org.evosuite.seeding;
 
 import org.evosuite.Properties;
 import org.evosuite.utils.DefaultRandomAccessQueue;
+import org.evosuite.utils.IntRandomAccessQueue;
+import org.evosuite.utils.LongRandomAccessQueue;
 import org.evosuite.utils.RandomAccessQueue;
 import org.objectweb.asm.Type;
 
@@ -37,13 +39,15 @@ public class DynamicConstantPool implements ConstantPool {
 
 	private final RandomAccessQueue<Type> typePool = new DefaultRandomAccessQueue<Type>();
 
-	private final RandomAccessQueue<Integer> intPool = new DefaultRandomAccessQueue<Integer>();
+	private final IntRandomAccessQueue intPool = new IntRandomAccessQueue();
 
-	private final RandomAccessQueue<Double> doublePool = new DefaultRandomAccessQueue<Double>();
+	/** Bit representations of the doubles, see {@link Double#doubleToLongBits(double)} */
+	private final LongRandomAccessQueue doublePool = new LongRandomAccessQueue();
 
-	private final RandomAccessQueue<Long> longPool = new DefaultRandomAccessQueue<Long>();
+	private final LongRandomAccessQueue longPool = new LongRandomAccessQueue();
 
-	private final RandomAccessQueue<Float> floatPool = new DefaultRandomAccessQueue<Float>();
+	/** Bit representations of the floats, see {@link Float#floatToIntBits(float)} */
+	private final IntRandomAccessQueue floatPool = new IntRandomAccessQueue();
 
 	public DynamicConstantPool() {
 		/*
@@ -57,8 +61,8 @@ public class DynamicConstantPool implements ConstantPool {
 		}
 		intPool.restrictedAdd(0);
 		longPool.restrictedAdd(0L);
-		floatPool.restrictedAdd(0.0f);
-		doublePool.restrictedAdd(0.0);
+		floatPool.restrictedAdd(Float.floatToIntBits(0.0f));
+		doublePool.restrictedAdd(Double.doubleToLongBits(0.0));
 	}
 
 	/* (non-Javadoc)
@@ -87,7 +91,7 @@ public class DynamicConstantPool implements ConstantPool {
 	 */
 	@Override
 	public float getRandomFloat() {
-		return floatPool.getRandomValue();
+		return Float.intBitsToFloat(floatPool.getRandomValue());
 	}
 
 	/* (non-Javadoc)
@@ -95,7 +99,7 @@ public class DynamicConstantPool implements ConstantPool {
 	 */
 	@Override
 	public double getRandomDouble() {
-		return doublePool.getRandomValue();
+		return Double.longBitsToDouble(doublePool.getRandomValue());
 	}
 
 	/* (non-Javadoc)
@@ -110,7 +114,7 @@ public class DynamicConstantPool implements ConstantPool {
 	 * @see org.evosuite.primitives.ConstantPool#add(java.lang.Object)
 	 */
 	@Override
-	public void add(Object object) {
+	public synchronized void add(Object object) {
 		// We don't add null because this is explicitly handled in the TestFactory
 		if (object == null)
 			return;
@@ -132,7 +136,7 @@ public class DynamicConstantPool implements ConstantPool {
 			if (Properties.RESTRICT_POOL) {
 				int val = (Integer) object;
 				if (Math.abs(val) < Properties.MAX_INT) {
-					intPool.restrictedAdd((Integer) object);
+					intPool.restrictedAdd(val);
 				}
 			} else {
 				intPool.restrictedAdd((Integer) object);
@@ -141,7 +145,7 @@ public class DynamicConstantPool implements ConstantPool {
 			if (Properties.RESTRICT_POOL) {
 				long val = (Long) object;
 				if (Math.abs(val) < Properties.MAX_INT) {
-					longPool.restrictedAdd((Long) object);
+					longPool.restrictedAdd(val);
 				}
 			} else {
 				longPool.restrictedAdd((Long) object);
@@ -150,19 +154,19 @@ public class DynamicConstantPool implements ConstantPool {
 			if (Properties.RESTRICT_POOL) {
 				float val = (Float) object;
 				if (Math.abs(val) < Properties.MAX_INT) {
-					floatPool.restrictedAdd((Float) object);
+					floatPool.restrictedAdd(Float.floatToIntBits(val));
 				}
 			} else {
-				floatPool.restrictedAdd((Float) object);
+				floatPool.restrictedAdd(Float.floatToIntBits((Float) object));
 			}
 		} else if (object instanceof Double) {
 			if (Properties.RESTRICT_POOL) {
 				double val = (Double) object;
 				if (Math.abs(val) < Properties.MAX_INT) {
-					doublePool.restrictedAdd((Double) object);
+					doublePool.restrictedAdd(Double.doubleToLongBits(val));
 				}
 			} else {
-				doublePool.restrictedAdd((Double) object);
+				doublePool.restrictedAdd(Double.doubleToLongBits((Double) object));
 			}
 		}
 	}
@@ -174,10 +178,26 @@ public class DynamicConstantPool implements ConstantPool {
 		res += "typePool=" + typePool.toString() + " ; ";
 		res += "intPool=" + intPool.toString() + " ; ";
 		res += "longPool=" + longPool.toString() + " ; ";
-		res += "floatPool=" + floatPool.toString() + " ; ";
-		res += "doublePool=" + doublePool.toString() + "}";	
+		res += "floatPool=" + floatsToString(floatPool) + " ; ";
+		res += "doublePool=" + doublesToString(doublePool) + "}";	
 		return res;
 	}
 
+	private static String floatsToString(IntRandomAccessQueue pool) {
+		StringBuilder res = new StringBuilder("[ ");
+		for (int i = 0; i < pool.size(); i++) {
+			res.append(Float.intBitsToFloat(pool.get(i))).append(" ");
+		}
+		return res.append("]").toString();
+	}
+
+	private static String doublesToString(LongRandomAccessQueue pool) {
+		StringBuilder res = new StringBuilder("[ ");
+		for (int i = 0; i < pool.size(); i++) {
+			res.append(Double.longBitsToDouble(pool.get(i))).append(" ");
+		}
+		return res.append("]").toString();
+	}
+
 	
 }
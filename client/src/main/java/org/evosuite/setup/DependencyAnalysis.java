@@ -30,15 +30,19 @@ import org.evosuite.classpath.ResourceList;
 import org.evosuite.coverage.branch.BranchPool;
 import org.evosuite.coverage.dataflow.DefUsePool;
 import org.evosuite.coverage.mutation.MutationPool;
+import org.evosuite.graphs.ParallelGraphBuilder;
+import org.evosuite.graphs.cfg.BytecodeInstructionPool;
 import org.evosuite.graphs.cfg.CFGMethodAdapter;
 import org.evosuite.graphs.dataflow.Dataflow;
 import org.evosuite.instrumentation.LinePool;
 import org.evosuite.junit.CoverageAnalysis;
 import org.evosuite.rmi.ClientServices;
+import org.evosuite.runtime.instrumentation.RuntimeInstrumentation;
 import org.evosuite.setup.callgraph.CallGraph;
 import org.evosuite.setup.callgraph.CallGraphGenerator;
 import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.utils.ArrayUtil;
+import org.evosuite.utils.LoggingUtils;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.tree.ClassNode;
 import org.slf4j.Logger;
@@ -133,6 +137,10 @@ public class DependencyAnalysis {
 		
 		initInheritanceTree(classPath);
 		analyze(className, classPath);
+
+		if (Properties.CFG_CONSTRUCTION_THREADS > 0) {
+			buildDependencyGraphs(callGraphs.get(className));
+		}
 		
 		// Parse the data flow before generating tests
 		if (Properties.APPLY_OBJECT_RULE) {
@@ -159,6 +167,38 @@ public class DependencyAnalysis {
 		return targetClasses;
 	}
 
+	/**
+	 * Build the graphs of the project classes in the call graph that are not
+	 * instrumented, which would otherwise be built one method at a time
+	 * whenever they are needed
+	 * 
+	 * @param callGraph
+	 */
+	private static void buildDependencyGraphs(CallGraph callGraph) {
+		ClassLoader classLoader = TestGenerationContext.getInstance().getClassLoaderForSUT();
+		Set<String> knownClasses = BytecodeInstructionPool.getInstance(classLoader).knownClasses();
+		Set<String> classes = new LinkedHashSet<>();
+		for (String className : callGraph.getClasses()) {
+			if (shouldAnalyze(className)
+					|| (Properties.TT && className.startsWith(Properties.CLASS_PREFIX)))
+				continue;
+			if (!Properties.INSTRUMENT_LIBRARIES && !isTargetProject(className))
+				continue;
+			if (!RuntimeInstrumentation.checkIfCanInstrument(className)
+					|| knownClasses.contains(className))
+				continue;
+			classes.add(className);
+		}
+
+		ParallelGraphBuilder builder = new ParallelGraphBuilder(classLoader, Properties.CFG_CONSTRUCTION_THREADS);
+		builder.build(classes);
+		LoggingUtils.getEvoLogger().info("* Built graphs of " + builder.getNumberOfMethods() + " methods in "
+				+ classes.size() + " dependencies in " + builder.getWallClockTime() + "ms, saved "
+				+ builder.getSavedTime() + "ms");
+		ClientServices.getInstance().getClientNode()
+				.trackOutputVariable(RuntimeVariable.GraphConstructionSavedTime, builder.getSavedTime());
+	}
+
 	private static void loadCallTreeClasses(CallGraph callGraph) {
 		for (String className : callGraph.getClasses()) {
 			if (className.startsWith(Properties.TARGET_CLASS + "$")) {
@@ -35,7 +35,6 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -98,6 +97,9 @@ public class TestCluster {
 	/** Static information about how to modify types */
 	private final static Map<GenericClass, Set<GenericAccessibleObject<?>>> modifiers = new LinkedHashMap<>();
 
+	/** Generated and modified types by the raw types they are assignable to */
+	private final static TypeLatticeIndex typeIndex = new TypeLatticeIndex();
+
 	private static InheritanceTree inheritanceTree = null;
 
     private EnvironmentTestClusterAugmenter environmentAugmenter;
@@ -130,6 +132,7 @@ public class TestCluster {
 		generators.clear();
 		generatorCache.clear();
 		modifiers.clear();
+		typeIndex.clear();
 		CastClassManager.getInstance().clear();
 
 		instance = null;
@@ -354,8 +357,10 @@ public class TestCluster {
 	 * @param call
 	 */
 	public void addGenerator(GenericClass target, GenericAccessibleObject<?> call) {
-		if (!generators.containsKey(target))
+		if (!generators.containsKey(target)) {
 			generators.put(target, new LinkedHashSet<GenericAccessibleObject<?>>());
+			typeIndex.addGeneratedType(target);
+		}
 
 		logger.debug("Adding generator for class " + target + ": " + call);
 		generators.get(target).add(call);
@@ -371,8 +376,10 @@ public class TestCluster {
 	 * @param call
 	 */
 	public void addModifier(GenericClass target, GenericAccessibleObject<?> call) {
-		if (!modifiers.containsKey(target))
+		if (!modifiers.containsKey(target)) {
 			modifiers.put(target, new LinkedHashSet<>());
+			typeIndex.addModifiedType(target);
+		}
 
 		modifiers.get(target).add(call);
 	}
@@ -434,7 +441,10 @@ public class TestCluster {
 			}
 		} else {
 			logger.debug("2. Target class is not object: {}", clazz);
-			for (GenericClass generatorClazz : generators.keySet()) {
+			Collection<GenericClass> candidates = typeIndex.getGeneratedTypeCandidates(clazz);
+			if (candidates == null)
+				candidates = generators.keySet();
+			for (GenericClass generatorClazz : candidates) {
 				// logger.debug("3. Considering original generator: " + generatorClazz + " for " + clazz);
 
 				if (generatorClazz.canBeInstantiatedTo(clazz)) {
@@ -463,7 +473,7 @@ public class TestCluster {
 							if (newGenerator.getOwnerClass().hasWildcardOrTypeVariables()) {
 								logger.debug("Instantiating type parameters of owner type: {}",newGenerator.getOwnerClass());
 								GenericClass concreteClass = newGenerator.getOwnerClass()
-										.getGenericInstantiation(clazz.getTypeVariableMap());
+										.getGenericInstantiation(new LinkedHashMap<>(clazz.getTypeVariableMap()));
 								newGenerator = newGenerator.copyWithNewOwner(concreteClass);
 								hadTypeParameters = true;
 							}
@@ -552,13 +562,16 @@ public class TestCluster {
 		Set<GenericAccessibleObject<?>> genericModifiers = new LinkedHashSet<GenericAccessibleObject<?>>();
 		if (clazz.isParameterizedType()) {
 			logger.debug("Is parameterized class");
-			for (Entry<GenericClass, Set<GenericAccessibleObject<?>>> entry : modifiers.entrySet()) {
-				logger.debug("Considering " + entry.getKey());
-				//if (entry.getKey().canBeInstantiatedTo(clazz)) {
-
-				if (entry.getKey().getWithWildcardTypes().isGenericSuperTypeOf(clazz)) {
-					logger.debug(entry.getKey() + " can be instantiated to " + clazz);
-					for (GenericAccessibleObject<?> modifier : entry.getValue()) {
+			Collection<GenericClass> candidates = typeIndex.getModifiedTypeCandidates(clazz);
+			if (candidates == null)
+				candidates = modifiers.keySet();
+			for (GenericClass modifierClazz : candidates) {
+				logger.debug("Considering " + modifierClazz);
+				//if (modifierClazz.canBeInstantiatedTo(clazz)) {
+
+				if (modifierClazz.getWithWildcardTypes().isGenericSuperTypeOf(clazz)) {
+					logger.debug(modifierClazz + " can be instantiated to " + clazz);
+					for (GenericAccessibleObject<?> modifier : modifiers.get(modifierClazz)) {
 						try {
 							GenericAccessibleObject<?> newModifier = modifier.getGenericInstantiation(clazz);
 							logger.debug("Adding new modifier: " + newModifier);
@@ -621,7 +634,7 @@ public class TestCluster {
 								GenericAccessibleObject<?> newModifier = modifier.copyWithOwnerFromReturnType(newOwner);
 								logger.debug("Modifier with new owner: " + newModifier);
 								if (newModifier.getOwnerClass().hasWildcardOrTypeVariables()) {
-									GenericClass concreteClass = newModifier.getOwnerClass().getGenericInstantiation(clazz.getTypeVariableMap());
+									GenericClass concreteClass = newModifier.getOwnerClass().getGenericInstantiation(new LinkedHashMap<>(clazz.getTypeVariableMap()));
 									GenericAccessibleObject<?> concreteNewModifier = newModifier.copyWithNewOwner(concreteClass);
 									logger.debug("Modifier with new owner and instantiated types: "
 									        + concreteNewModifier);
@@ -946,6 +959,7 @@ public class TestCluster {
 		}
 		if (!generators.containsKey(clazz)) {
 			generators.put(clazz, new LinkedHashSet<GenericAccessibleObject<?>>());
+			typeIndex.addGeneratedType(clazz);
 		}
 		logger.info("addNumericConstructor for class " + clazz);
 		for (Constructor<?> constructor : clazz.getRawClass().getConstructors()) {
@@ -0,0 +1,196 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.setup;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.evosuite.utils.generic.GenericClass;
+
+/**
+ * Index of the generated and modified types of a {@link TestCluster} by the
+ * raw types they can be assigned to.
+ * 
+ * A generator for a type can only be instantiated to a target type if its
+ * raw class is assignable to the raw class of the target, unless it
+ * generates a type variable or a wildcard. The index therefore returns all
+ * types that can possibly match a target, in the order they were added, and
+ * the cluster only has to check these instead of all generated types.
+ */
+class TypeLatticeIndex {
+
+	private static final List<Class<?>> PRIMITIVES_AND_WRAPPERS = Arrays.asList(boolean.class,
+	        byte.class, char.class, short.class, int.class, long.class, float.class,
+	        double.class, Boolean.class, Byte.class, Character.class, Short.class, Integer.class,
+	        Long.class, Float.class, Double.class);
+
+	/** Order in which generated types were added */
+	private final Map<GenericClass, Integer> generatorSequence = new HashMap<>();
+
+	/** Order in which modified types were added */
+	private final Map<GenericClass, Integer> modifierSequence = new HashMap<>();
+
+	/** Generated types by the raw types they are assignable to */
+	private final Map<Class<?>, List<GenericClass>> generatorsByTarget = new HashMap<>();
+
+	/** Generated types that are type variables or wildcards, candidates for any target */
+	private final List<GenericClass> genericGenerators = new ArrayList<>();
+
+	/** Modified types by their raw type */
+	private final Map<Class<?>, List<GenericClass>> modifiersByRawClass = new HashMap<>();
+
+	/** Modified types that are type variables or wildcards */
+	private final List<GenericClass> genericModifiers = new ArrayList<>();
+
+	private final Map<Class<?>, Set<Class<?>>> assignableTypes = new HashMap<>();
+
+	private static boolean isGeneric(GenericClass clazz) {
+		return clazz.getRawClass() == null || clazz.isTypeVariable() || clazz.isWildcardType()
+		        || clazz.getType() instanceof GenericArrayType;
+	}
+
+	private static boolean register(Map<GenericClass, Integer> sequence, GenericClass clazz) {
+		if (sequence.containsKey(clazz))
+			return false;
+		sequence.put(clazz, sequence.size());
+		return true;
+	}
+
+	void addGeneratedType(GenericClass clazz) {
+		if (!register(generatorSequence, clazz))
+			return;
+		if (isGeneric(clazz)) {
+			genericGenerators.add(clazz);
+			return;
+		}
+		for (Class<?> target : getAssignableTypes(clazz.getRawClass()))
+			generatorsByTarget.computeIfAbsent(target, t -> new ArrayList<>()).add(clazz);
+	}
+
+	void addModifiedType(GenericClass clazz) {
+		if (!register(modifierSequence, clazz))
+			return;
+		if (isGeneric(clazz)) {
+			genericModifiers.add(clazz);
+			return;
+		}
+		modifiersByRawClass.computeIfAbsent(clazz.getRawClass(), t -> new ArrayList<>()).add(clazz);
+	}
+
+	/**
+	 * @param target
+	 * @return the generated types that might be instantiated to the target,
+	 *         or null if the target itself is a type variable or wildcard and
+	 *         all generated types have to be checked
+	 */
+	Collection<GenericClass> getGeneratedTypeCandidates(GenericClass target) {
+		if (isGeneric(target))
+			return null;
+		List<GenericClass> candidates = generatorsByTarget.getOrDefault(target.getRawClass(),
+		                                                                Collections.emptyList());
+		if (genericGenerators.isEmpty())
+			return candidates;
+		return merge(Arrays.asList(candidates, genericGenerators), generatorSequence);
+	}
+
+	/**
+	 * @param target
+	 * @return the modified types that might be super types of the target, or
+	 *         null if all modified types have to be checked
+	 */
+	Collection<GenericClass> getModifiedTypeCandidates(GenericClass target) {
+		if (isGeneric(target))
+			return null;
+		List<List<GenericClass>> buckets = new ArrayList<>();
+		for (Class<?> superType : getAssignableTypes(target.getRawClass())) {
+			List<GenericClass> bucket = modifiersByRawClass.get(superType);
+			if (bucket != null)
+				buckets.add(bucket);
+		}
+		buckets.add(genericModifiers);
+		return merge(buckets, modifierSequence);
+	}
+
+	private static List<GenericClass> merge(List<List<GenericClass>> buckets,
+	        Map<GenericClass, Integer> sequence) {
+		List<GenericClass> merged = new ArrayList<>();
+		for (List<GenericClass> bucket : buckets)
+			merged.addAll(bucket);
+		merged.sort(Comparator.comparing(sequence::get));
+		return merged;
+	}
+
+	/**
+	 * All raw types a value of the given raw type can be assigned to,
+	 * including boxing and widening of primitives and covariance of arrays
+	 */
+	private Set<Class<?>> getAssignableTypes(Class<?> rawClass) {
+		Set<Class<?>> types = assignableTypes.get(rawClass);
+		if (types != null)
+			return types;
+
+		types = new LinkedHashSet<>();
+		if (PRIMITIVES_AND_WRAPPERS.contains(rawClass)) {
+			for (Class<?> other : PRIMITIVES_AND_WRAPPERS) {
+				if (ClassUtils.isAssignable(rawClass, other, true))
+					types.addAll(getSuperTypes(other));
+			}
+		} else {
+			types.addAll(getSuperTypes(rawClass));
+		}
+		assignableTypes.put(rawClass, types);
+		return types;
+	}
+
+	private static Set<Class<?>> getSuperTypes(Class<?> rawClass) {
+		Set<Class<?>> types = new LinkedHashSet<>();
+		types.add(rawClass);
+		types.addAll(ClassUtils.getAllSuperclasses(rawClass));
+		types.addAll(ClassUtils.getAllInterfaces(rawClass));
+		if (rawClass.isInterface() || rawClass.isPrimitive())
+			types.add(Object.class);
+		if (rawClass.isArray() && !rawClass.getComponentType().isPrimitive()) {
+			for (Class<?> componentType : getSuperTypes(rawClass.getComponentType()))
+				types.add(Array.newInstance(componentType, 0).getClass());
+		}
+		return types;
+	}
+
+	void clear() {
+		generatorSequence.clear();
+		modifierSequence.clear();
+		generatorsByTarget.clear();
+		genericGenerators.clear();
+		modifiersByRawClass.clear();
+		genericModifiers.clear();
+		assignableTypes.clear();
+	}
+}
@@ -377,6 +377,28 @@ public enum RuntimeVariable {
 	NumberOfUsefulNewTests,
 	/** How many SAT queries led to Unuseful (i.e. no better fitness) new tests*/ 
 	NumberOfUnusefulNewTests,
+	/** Ratio of Solver queries answered by the solver cache */
+	SolverCacheHitRate,
+	/** Time in milliseconds the solver would have needed for the queries answered by the solver cache */
+	SolverCacheSavedTime,
+	/** Wall-clock time in milliseconds saved by building the graphs of dependencies in parallel */
+	GraphConstructionSavedTime,
+	/** Number of mutant executions skipped during assertion generation because the mutant was not infected */
+	MutantExecutionsSkipped,
+	/** Number of statements not observed on mutants during assertion generation because they precede the infection */
+	MutantStatementsNotObserved,
+	/** Number of test executions resumed after a cached prefix */
+	PrefixCacheHits,
+	/** Number of statement executions saved by resuming after cached prefixes */
+	PrefixCacheSavedStatements,
+	/** Number of statistics updates of the client that were replaced by a later update before being sent to the master */
+	StatisticsUpdatesMerged,
+	/** Number of statistics updates of the client that could not be sent to the master */
+	StatisticsUpdatesDropped,
+	/** Number of generic type computations answered from the generic type cache */
+	GenericTypeCacheHits,
+	/** Number of generic type computations that had to be done and were added to the generic type cache */
+	GenericTypeCacheMisses,
 	
 	/* -------------------------------------------------------------------- */
 	/** Search budget needed to reach the maximum coverage */ 
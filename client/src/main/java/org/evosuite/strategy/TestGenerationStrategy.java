@@ -42,9 +42,11 @@ import org.evosuite.rmi.ClientServices;
 import org.evosuite.setup.TestCluster;
 import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.testcase.TestFitnessFunction;
+import org.evosuite.testcase.execution.PrefixExecutionCache;
 import org.evosuite.testsuite.TestSuiteChromosome;
 import org.evosuite.testsuite.TestSuiteFitnessFunction;
 import org.evosuite.utils.LoggingUtils;
+import org.evosuite.utils.generic.GenericTypeCache;
 
 /**
  * This is the abstract superclass of all techniques to generate a set of tests
@@ -77,6 +79,14 @@ public abstract class TestGenerationStrategy {
     protected void sendExecutionStatistics() {
         ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Statements_Executed, MaxStatementsStoppingCondition.getNumExecutedStatements());
         ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Tests_Executed, MaxTestsStoppingCondition.getNumExecutedTests());
+        if (Properties.PREFIX_EXECUTION_CACHE) {
+            ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.PrefixCacheHits, PrefixExecutionCache.getInstance().getNumHits());
+            ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.PrefixCacheSavedStatements, PrefixExecutionCache.getInstance().getNumSavedStatements());
+        }
+        if (Properties.CACHE_GENERIC_TYPES) {
+            ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.GenericTypeCacheHits, GenericTypeCache.getInstance().getNumHits());
+            ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.GenericTypeCacheMisses, GenericTypeCache.getInstance().getNumMisses());
+        }
     }
     
     /**
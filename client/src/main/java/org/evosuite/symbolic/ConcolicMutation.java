@@ -71,6 +71,25 @@ public class ConcolicMutation {
 	// @SuppressWarnings({ "rawtypes", "unchecked" })
 	public static TestCase negateCondition(List<BranchCondition> pathCondition, BranchCondition targetCondition,
 			TestCase test) {
+		return negateCondition(pathCondition, targetCondition, test, null);
+	}
+
+	/**
+	 * Generate new constraint and ask solver for solution, unless the
+	 * (reduced) constraints are subsumed by a query that was already solved
+	 * 
+	 * @param pathCondition
+	 * @param targetCondition
+	 *            a {@link org.evosuite.symbolic.BranchCondition} object.
+	 * @param test
+	 *            a {@link org.evosuite.testcase.TestCase} object.
+	 * @param explored
+	 *            queries already solved, which is updated with the new query
+	 *            if the solver finds a solution. Can be <code>null</code>
+	 * @return a {@link org.evosuite.testcase.TestCase} object.
+	 */
+	public static TestCase negateCondition(List<BranchCondition> pathCondition, BranchCondition targetCondition,
+			TestCase test, ConstraintSubsumptionIndex explored) {
 		List<Constraint<?>> constraints = new LinkedList<Constraint<?>>();
 
 		for (BranchCondition b : pathCondition) {
@@ -100,10 +119,22 @@ public class ConcolicMutation {
 			// logger.info("Now solving: " + constraints);
 		}
 
+		Set<Constraint<?>> constraintSet = new HashSet<Constraint<?>>(constraints);
+		if (explored != null && explored.isSubsumed(constraintSet)) {
+			logger.debug("Skipping query already covered by a solved query");
+			return null;
+		}
+
 		Solver solver = SolverFactory.getInstance().buildNewSolver();
 		SolverCache solverCache = SolverCache.getInstance();
 		SolverResult solverResult = solverCache.solve(solver, constraints);
 
+		if (solverResult != null && explored != null && solverResult.isSAT()) {
+			// Only satisfiable queries subsume others; unsolved ones may
+			// succeed later, eg after a solver timeout
+			explored.add(constraintSet);
+		}
+
 		if (solverResult != null) {
 			// logger.info(values.toString());
 			TestCase newTest = test.clone();
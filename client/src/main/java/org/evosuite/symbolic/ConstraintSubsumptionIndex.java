@@ -0,0 +1,154 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.evosuite.symbolic.expr.Constraint;
+
+/**
+ * Stores sets of constraints (eg, path conditions or solved queries) and
+ * answers whether a given set of constraints is contained in any of them.
+ * 
+ * <p>
+ * Each distinct constraint gets an id, and for each id we keep a bitset of
+ * the stored sets that contain it. A query is subsumed iff the intersection
+ * of the bitsets of its constraints is not empty, which avoids a
+ * <code>containsAll</code> over every stored set. A query with a constraint
+ * that was never stored is rejected with a single lookup.
+ * 
+ * <p>
+ * This class is not thread-safe.
+ */
+public class ConstraintSubsumptionIndex {
+
+	private final Map<Constraint<?>, Integer> constraintIds = new HashMap<Constraint<?>, Integer>();
+
+	/**
+	 * For each constraint id, the ids of the stored sets containing it
+	 */
+	private final List<BitSet> postings = new ArrayList<BitSet>();
+
+	private final Set<Set<Constraint<?>>> storedSets = new HashSet<Set<Constraint<?>>>();
+
+	public ConstraintSubsumptionIndex() {
+	}
+
+	/**
+	 * Create an independent copy of the given index
+	 * 
+	 * @param other
+	 */
+	public ConstraintSubsumptionIndex(ConstraintSubsumptionIndex other) {
+		constraintIds.putAll(other.constraintIds);
+		for (BitSet sets : other.postings) {
+			postings.add((BitSet) sets.clone());
+		}
+		storedSets.addAll(other.storedSets);
+	}
+
+	/**
+	 * Store a copy of the given set of constraints
+	 * 
+	 * @param constraints
+	 * @return <code>false</code> if the same set was already stored
+	 */
+	public boolean add(Set<Constraint<?>> constraints) {
+		Set<Constraint<?>> copy = new HashSet<Constraint<?>>(constraints);
+		if (!storedSets.add(copy)) {
+			return false;
+		}
+
+		int setId = storedSets.size() - 1;
+		for (Constraint<?> constraint : copy) {
+			Integer id = constraintIds.get(constraint);
+			if (id == null) {
+				id = postings.size();
+				constraintIds.put(constraint, id);
+				postings.add(new BitSet());
+			}
+			postings.get(id).set(setId);
+		}
+		return true;
+	}
+
+	/**
+	 * @param constraints
+	 * @return <code>true</code> if exactly the same set of constraints was stored
+	 */
+	public boolean contains(Set<Constraint<?>> constraints) {
+		return storedSets.contains(constraints);
+	}
+
+	/**
+	 * @param constraints
+	 * @return <code>true</code> if all the given constraints are contained
+	 *         in at least one of the stored sets
+	 */
+	public boolean isSubsumed(Set<Constraint<?>> constraints) {
+		if (storedSets.isEmpty()) {
+			return false;
+		}
+		if (constraints.isEmpty()) {
+			return true;
+		}
+
+		List<BitSet> sets = new ArrayList<BitSet>(constraints.size());
+		for (Constraint<?> constraint : constraints) {
+			Integer id = constraintIds.get(constraint);
+			if (id == null) {
+				return false;
+			}
+			sets.add(postings.get(id));
+		}
+
+		// start from the rarest constraint, so the intersection shrinks quickly
+		sets.sort(Comparator.comparingInt(BitSet::cardinality));
+
+		BitSet intersection = (BitSet) sets.get(0).clone();
+		for (int i = 1; i < sets.size(); i++) {
+			intersection.and(sets.get(i));
+			if (intersection.isEmpty()) {
+				return false;
+			}
+		}
+		return !intersection.isEmpty();
+	}
+
+	/**
+	 * @return the number of stored sets
+	 */
+	public int size() {
+		return storedSets.size();
+	}
+
+	public void clear() {
+		constraintIds.clear();
+		postings.clear();
+		storedSets.clear();
+	}
+}
@@ -14,11 +14,22 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.SerializationException;
+import org.apache.commons.lang3.SerializationUtils;
 
 import org.evosuite.Properties;
 import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
 import org.evosuite.ga.metaheuristics.Hybridable;
 import org.evosuite.runtime.classhandling.ClassResetter;
+import org.evosuite.runtime.sandbox.Sandbox;
 import org.evosuite.symbolic.expr.Constraint;
 import org.evosuite.symbolic.expr.IntegerConstraint;
 import org.evosuite.symbolic.expr.Variable;
@@ -58,6 +69,18 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 	 */
 	private final Map<Set<Constraint<?>>, SolverResult> queryCache = new HashMap<Set<Constraint<?>>, SolverResult>();
 
+	/**
+	 * The queries in the query cache, indexed for subsumption checks
+	 */
+	private final ConstraintSubsumptionIndex queryIndex = new ConstraintSubsumptionIndex();
+
+	private static final long SOLVER_POLL_INTERVAL_MILLIS = 100;
+
+	/**
+	 * Workers solving queries in parallel, if {@link Properties#DSE_SOLVER_THREADS} &gt; 1
+	 */
+	private ExecutorService solverPool = null;
+
 	/**
 	 * Applies DSE test generation on a static non-private method until a stopping
 	 * condition is met or all queries have been explored.
@@ -88,7 +111,7 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 			return;
 		}
 
-		HashSet<Set<Constraint<?>>> pathConditions = new HashSet<Set<Constraint<?>>>();
+		ConstraintSubsumptionIndex pathConditions = new ConstraintSubsumptionIndex();
 
 		for (int currentTestIndex = 0; currentTestIndex < generatedTests.size(); currentTestIndex++) {
 
@@ -111,6 +134,13 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 			pathConditions.add(constraintsSet);
 			logger.debug("Number of stored path condition: " + pathConditions.size());
 
+			if (Properties.DSE_SOLVER_THREADS > 1) {
+				if (negateConditionsInParallel(pathCondition, currentTestCase, pathConditions, generatedTests)) {
+					return;
+				}
+				continue;
+			}
+
 			for (int i = pathCondition.size() - 1; i >= 0; i--) {
 				logger.debug("negating index " + i + " of path condition");
 
@@ -118,26 +148,7 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 
 				Set<Constraint<?>> constraintSet = canonicalize(query);
 
-				if (queryCache.containsKey(constraintSet)) {
-					logger.debug("skipping solving of current query since it is in the query cache");
-					continue;
-				}
-
-				if (isSubSetOf(constraintSet, queryCache.keySet())) {
-					logger.debug(
-							"skipping solving of current query because it is satisfiable and solved by previous path condition");
-					continue;
-				}
-
-				if (pathConditions.contains(constraintSet)) {
-					logger.debug("skipping solving of current query because of existing path condition");
-					continue;
-
-				}
-
-				if (isSubSetOf(constraintSet, pathConditions)) {
-					logger.debug(
-							"skipping solving of current query because it is satisfiable and solved by previous path condition");
+				if (isAlreadyExplored(constraintSet, pathConditions)) {
 					continue;
 				}
 
@@ -158,48 +169,210 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 				long time = end - start;
 
 				queryCache.put(constraintSet, result);
+				queryIndex.add(constraintSet);
 				logger.debug("Number of stored entries in query cache : " + queryCache.keySet().size());
 				logger.debug(constraintsSet.toString());
 				logger.debug("It takes " + time + "ms  to solve this constraint");
 
-				if (result == null) {
-					logger.debug("Solver outcome is null (probably failure/unknown");
-				} else if (result.isSAT()) {
-					logger.debug("query is SAT (solution found)");
-					Map<String, Object> solution = result.getModel();
-					logger.debug("solver found solution " + solution.toString());
+				if (addTestFromSolverResult(currentTestCase, result, generatedTests)) {
+					return;
+				}
+			}
+		}
+
+		logger.debug("DSE test generation finished for method " + staticEntryMethod.getName() + ". Exiting with "
+				+ generatedTests.size() + " generated test cases");
+		return;
+	}
 
-					TestCase newTest = DSETestGenerator.updateTest(currentTestCase, solution);
-					logger.debug("Created new test case from SAT solution:" + newTest.toCode());
-					generatedTests.add(newTest);
+	/**
+	 * Returns true if there is no need to solve the query, as it was already
+	 * solved or it is satisfied by a previous path condition
+	 * 
+	 * @param constraintSet
+	 * @param pathConditions
+	 * @return
+	 */
+	private boolean isAlreadyExplored(Set<Constraint<?>> constraintSet, ConstraintSubsumptionIndex pathConditions) {
+		if (queryCache.containsKey(constraintSet)) {
+			logger.debug("skipping solving of current query since it is in the query cache");
+			return true;
+		}
 
-					double fitnessBeforeAddingNewTest = this.getBestIndividual().getFitness();
-					logger.debug("Fitness before adding new test" + fitnessBeforeAddingNewTest);
+		if (queryIndex.isSubsumed(constraintSet)) {
+			logger.debug(
+					"skipping solving of current query because it is satisfiable and solved by previous path condition");
+			return true;
+		}
 
-					getBestIndividual().addTest(newTest);
+		if (pathConditions.contains(constraintSet)) {
+			logger.debug("skipping solving of current query because of existing path condition");
+			return true;
+		}
 
-					calculateFitness(getBestIndividual());
+		if (pathConditions.isSubsumed(constraintSet)) {
+			logger.debug(
+					"skipping solving of current query because it is satisfiable and solved by previous path condition");
+			return true;
+		}
+		return false;
+	}
 
-					double fitnessAfterAddingNewTest = this.getBestIndividual().getFitness();
-					logger.debug("Fitness after adding new test " + fitnessAfterAddingNewTest);
+	/**
+	 * If the solver found a solution, adds a new test case built from it to the
+	 * best individual
+	 * 
+	 * @param currentTestCase
+	 * @param result
+	 * @param generatedTests
+	 * @return true if the fitness of the best individual reached 0
+	 */
+	private boolean addTestFromSolverResult(TestCase currentTestCase, SolverResult result,
+			List<TestCase> generatedTests) {
+		if (result == null) {
+			logger.debug("Solver outcome is null (probably failure/unknown");
+		} else if (result.isSAT()) {
+			logger.debug("query is SAT (solution found)");
+			Map<String, Object> solution = result.getModel();
+			logger.debug("solver found solution " + solution.toString());
 
-					this.notifyIteration();
+			TestCase newTest = DSETestGenerator.updateTest(currentTestCase, solution);
+			logger.debug("Created new test case from SAT solution:" + newTest.toCode());
+			generatedTests.add(newTest);
 
-					if (fitnessAfterAddingNewTest == 0) {
-						logger.debug("No more DSE test generation since fitness is 0");
-						return;
-					}
+			double fitnessBeforeAddingNewTest = this.getBestIndividual().getFitness();
+			logger.debug("Fitness before adding new test" + fitnessBeforeAddingNewTest);
 
-				} else {
-//					assert (result.isUNSAT());
-					logger.debug("query is UNSAT (no solution found)");
+			getBestIndividual().addTest(newTest);
+
+			calculateFitness(getBestIndividual());
+
+			double fitnessAfterAddingNewTest = this.getBestIndividual().getFitness();
+			logger.debug("Fitness after adding new test " + fitnessAfterAddingNewTest);
+
+			this.notifyIteration();
+
+			if (fitnessAfterAddingNewTest == 0) {
+				logger.debug("No more DSE test generation since fitness is 0");
+				return true;
+			}
+
+		} else {
+//			assert (result.isUNSAT());
+			logger.debug("query is UNSAT (no solution found)");
+		}
+		return false;
+	}
+
+	/**
+	 * Negates all the conditions of the path condition at once, and solves the
+	 * resulting queries on the solver pool. Each query is solved on its own copy
+	 * of the constraints, as solvers modify the concrete values of the
+	 * variables. New test cases are created in the order in which the solutions
+	 * are found.
+	 * 
+	 * @param pathCondition
+	 * @param currentTestCase
+	 * @param pathConditions
+	 * @param generatedTests
+	 * @return true if DSE test generation has to stop
+	 */
+	private boolean negateConditionsInParallel(PathCondition pathCondition, TestCase currentTestCase,
+			ConstraintSubsumptionIndex pathConditions, List<TestCase> generatedTests) {
+
+		CompletionService<SolverResult> completionService = new ExecutorCompletionService<SolverResult>(
+				getSolverPool());
+		Map<Future<SolverResult>, Set<Constraint<?>>> pending = new HashMap<Future<SolverResult>, Set<Constraint<?>>>();
+
+		for (int i = pathCondition.size() - 1; i >= 0; i--) {
+			List<Constraint<?>> query = DSETestGenerator.buildQuery(pathCondition, i);
+			Set<Constraint<?>> constraintSet = canonicalize(query);
+
+			if (isAlreadyExplored(constraintSet, pathConditions)) {
+				continue;
+			}
+			// the next queries contained in this one do not need to be solved
+			queryIndex.add(constraintSet);
+
+			query.addAll(createVarBounds(query));
+			final ArrayList<Constraint<?>> ownQuery;
+			try {
+				ownQuery = SerializationUtils.clone(new ArrayList<Constraint<?>>(query));
+			} catch (SerializationException e) {
+				// the workers only use copies, so the original constraints can be solved here
+				logger.debug("Cannot copy query, solving it in the current thread: " + e.getMessage());
+				SolverResult result = DSETestGenerator.solve(query);
+				queryCache.put(constraintSet, result);
+				if (addTestFromSolverResult(currentTestCase, result, generatedTests)) {
+					cancelAll(pending.keySet());
+					return true;
 				}
+				continue;
 			}
+			pending.put(completionService.submit(() -> DSETestGenerator.solve(ownQuery)), constraintSet);
 		}
+		logger.debug("Solving " + pending.size() + " queries in parallel");
 
-		logger.debug("DSE test generation finished for method " + staticEntryMethod.getName() + ". Exiting with "
-				+ generatedTests.size() + " generated test cases");
-		return;
+		try {
+			while (!pending.isEmpty()) {
+				if (this.isFinished()) {
+					logger.debug("DSE test generation met a stopping condition. Exiting with " + generatedTests.size()
+							+ " generated test cases");
+					return true;
+				}
+
+				Future<SolverResult> future = completionService.poll(SOLVER_POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+				if (future == null) {
+					continue;
+				}
+				Set<Constraint<?>> constraintSet = pending.remove(future);
+
+				SolverResult result;
+				try {
+					result = future.get();
+				} catch (ExecutionException e) {
+					logger.debug("Solver failed: " + e.getCause());
+					result = null;
+				}
+				queryCache.put(constraintSet, result);
+
+				if (addTestFromSolverResult(currentTestCase, result, generatedTests)) {
+					return true;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return true;
+		} finally {
+			cancelAll(pending.keySet());
+		}
+		return false;
+	}
+
+	private static void cancelAll(Collection<Future<SolverResult>> futures) {
+		for (Future<SolverResult> future : futures) {
+			future.cancel(true);
+		}
+	}
+
+	private ExecutorService getSolverPool() {
+		if (solverPool == null) {
+			solverPool = Executors.newFixedThreadPool(Properties.DSE_SOLVER_THREADS, runnable -> {
+				Thread thread = new Thread(runnable);
+				thread.setName("DSE solver worker");
+				thread.setDaemon(true);
+				Sandbox.addPrivilegedThread(thread);
+				return thread;
+			});
+		}
+		return solverPool;
+	}
+
+	private void shutdownSolverPool() {
+		if (solverPool != null) {
+			solverPool.shutdownNow();
+			solverPool = null;
+		}
 	}
 
 	protected static HashSet<Constraint<?>> canonicalize(List<Constraint<?>> query) {
@@ -242,23 +415,6 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 		return boundsForVariables;
 	}
 
-	/**
-	 * Returns true if the constraints in the query are a subset of any of the
-	 * constraints in the set of queries
-	 * 
-	 * @param query
-	 * @param queries
-	 * @return
-	 */
-	private static boolean isSubSetOf(Set<Constraint<?>> query, Collection<Set<Constraint<?>>> queries) {
-		for (Set<Constraint<?>> pathCondition : queries) {
-			if (pathCondition.containsAll(query)) {
-				return true;
-			}
-		}
-		return false;
-	}
-	
 	@Override
 	public List<TestChromosome> getSeeds(){
 		TestSuiteChromosome suite = this.getPopulation().get(0);
@@ -631,6 +787,7 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 
 		}
 
+		shutdownSolverPool();
 		this.updateFitnessFunctionsAndValues();
 		this.notifySearchFinished();
 	}
@@ -691,6 +848,7 @@ public class DSEAlgorithm extends GeneticAlgorithm<TestSuiteChromosome> implemen
 
 		}
 
+		shutdownSolverPool();
 		this.updateFitnessFunctionsAndValues();
 		this.notifySearchFinished();
 		
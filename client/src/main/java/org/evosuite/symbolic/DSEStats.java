@@ -214,6 +214,9 @@ public class DSEStats {
 			percentFormat.setMaximumFractionDigits(1);
 			String hit_rate_str = percentFormat.format(SolverCache.getInstance().getHitRate());
 			logger.info(String.format("* DSE)   Cache hit rate: %s", hit_rate_str));
+
+			logger.info(String.format("* DSE)   Solving time saved by the cache: %sms",
+					SolverCache.getInstance().getSavedSolvingTime()));
 		}
 	}
 
@@ -489,6 +492,12 @@ public class DSEStats {
 
 		trackOutputVariable(RuntimeVariable.NumberOfUnusefulNewTests, getUnusefulTests());
 
+		SolverCache solverCache = SolverCache.getInstance();
+		double hitRate = solverCache.getHitRate();
+		trackOutputVariable(RuntimeVariable.SolverCacheHitRate, Double.isNaN(hitRate) ? 0.0 : hitRate);
+
+		trackOutputVariable(RuntimeVariable.SolverCacheSavedTime, solverCache.getSavedSolvingTime());
+
 	}
 
 	private void trackOutputVariable(RuntimeVariable var, Object value) {
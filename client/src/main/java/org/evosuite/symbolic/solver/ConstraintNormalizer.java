@@ -0,0 +1,376 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.evosuite.symbolic.expr.BinaryExpression;
+import org.evosuite.symbolic.expr.Cast;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.ConstraintEvaluator;
+import org.evosuite.symbolic.expr.Expression;
+import org.evosuite.symbolic.expr.MultipleExpression;
+import org.evosuite.symbolic.expr.UnaryExpression;
+import org.evosuite.symbolic.expr.Variable;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.expr.fp.RealConstant;
+import org.evosuite.symbolic.expr.fp.RealVariable;
+import org.evosuite.symbolic.expr.str.StringConstant;
+import org.evosuite.symbolic.expr.str.StringVariable;
+
+/**
+ * Brings a constraint system into a canonical form so that equivalent queries
+ * share an entry in the {@link SolverCache}.
+ * 
+ * The constraint system is first sliced: only the constraints that
+ * (transitively) share variables with the last constraint are kept, as long as
+ * the dropped ones are satisfied by the current concrete values. The remaining
+ * constraints are printed without concrete values, sorted, deduplicated, and
+ * their variables are renamed in order of first occurrence.
+ * 
+ * Constraint systems using expressions without a canonical form (tokenizers,
+ * readers, references) are not normalized.
+ */
+final class ConstraintNormalizer {
+
+	private ConstraintNormalizer() {
+		/* only static methods */
+	}
+
+	/**
+	 * A constraint system in canonical form
+	 */
+	static final class NormalizedQuery {
+
+		private final List<Constraint<?>> constraints;
+
+		private final String key;
+
+		private final Set<String> printedConstraints;
+
+		private final Map<String, String> canonicalNames;
+
+		private final Set<Variable<?>> variables;
+
+		private NormalizedQuery(List<Constraint<?>> constraints, String key, Set<String> printedConstraints,
+				Map<String, String> canonicalNames, Set<Variable<?>> variables) {
+			this.constraints = constraints;
+			this.key = key;
+			this.printedConstraints = printedConstraints;
+			this.canonicalNames = canonicalNames;
+			this.variables = variables;
+		}
+
+		/**
+		 * @return the constraints that have to be solved, after slicing
+		 */
+		List<Constraint<?>> getConstraints() {
+			return constraints;
+		}
+
+		/**
+		 * @return a string that is equal for constraint systems that only differ
+		 *         in the order of the constraints and the names of the variables
+		 */
+		String getKey() {
+			return key;
+		}
+
+		/**
+		 * @return the printed constraints using the original variable names
+		 */
+		Set<String> getPrintedConstraints() {
+			return printedConstraints;
+		}
+
+		/**
+		 * @return the variables of the sliced constraint system
+		 */
+		Set<Variable<?>> getVariables() {
+			return variables;
+		}
+
+		/**
+		 * Translates a model over the original variable names into a model over
+		 * the canonical names
+		 */
+		Map<String, Object> toCanonicalModel(Map<String, Object> model) {
+			Map<String, Object> canonicalModel = new HashMap<String, Object>();
+			for (Map.Entry<String, String> entry : canonicalNames.entrySet()) {
+				if (model.containsKey(entry.getKey())) {
+					canonicalModel.put(entry.getValue(), model.get(entry.getKey()));
+				}
+			}
+			return canonicalModel;
+		}
+
+		/**
+		 * Translates a model over the canonical names into a model over the
+		 * original variable names
+		 */
+		Map<String, Object> fromCanonicalModel(Map<String, Object> canonicalModel) {
+			Map<String, Object> model = new HashMap<String, Object>();
+			for (Map.Entry<String, String> entry : canonicalNames.entrySet()) {
+				if (canonicalModel.containsKey(entry.getValue())) {
+					model.put(entry.getKey(), canonicalModel.get(entry.getValue()));
+				}
+			}
+			return model;
+		}
+
+		/**
+		 * Removes the values of variables that do not occur in this query
+		 */
+		Map<String, Object> restrictModel(Map<String, Object> model) {
+			Map<String, Object> restricted = new HashMap<String, Object>();
+			for (String name : canonicalNames.keySet()) {
+				if (model.containsKey(name)) {
+					restricted.put(name, model.get(name));
+				}
+			}
+			return restricted;
+		}
+	}
+
+	/**
+	 * Thrown while printing an expression that has no canonical form
+	 */
+	private static final class NotNormalizableException extends Exception {
+
+		private static final long serialVersionUID = 4937409462214578214L;
+
+		NotNormalizableException(Expression<?> expr) {
+			super(expr.getClass().getName());
+		}
+	}
+
+	/**
+	 * Normalizes the constraint system.
+	 * 
+	 * @param constraints
+	 *            the constraint system, the last constraint is the one the
+	 *            slice is computed for
+	 * @return the normalized query, or <code>null</code> if the constraint
+	 *         system cannot be normalized
+	 */
+	static NormalizedQuery normalize(Collection<Constraint<?>> constraints) {
+		if (constraints.isEmpty()) {
+			return null;
+		}
+		List<Constraint<?>> sliced = slice(new ArrayList<Constraint<?>>(constraints));
+
+		try {
+			// print without names to get an order independent of the names
+			Map<String, Constraint<?>> printed = new LinkedHashMap<String, Constraint<?>>();
+			final Map<String, String> anonymous = new HashMap<String, String>();
+			for (Constraint<?> constraint : sliced) {
+				String original = print(constraint, Mode.ORIGINAL, null);
+				if (!printed.containsKey(original)) {
+					printed.put(original, constraint);
+					anonymous.put(original, print(constraint, Mode.ANONYMOUS, null));
+				}
+			}
+			List<String> order = new ArrayList<String>(printed.keySet());
+			Collections.sort(order, new java.util.Comparator<String>() {
+				@Override
+				public int compare(String o1, String o2) {
+					int result = anonymous.get(o1).compareTo(anonymous.get(o2));
+					return result != 0 ? result : o1.compareTo(o2);
+				}
+			});
+
+			Map<String, String> canonicalNames = new LinkedHashMap<String, String>();
+			StringBuilder key = new StringBuilder();
+			List<Constraint<?>> ordered = new ArrayList<Constraint<?>>(order.size());
+			for (String original : order) {
+				Constraint<?> constraint = printed.get(original);
+				ordered.add(constraint);
+				key.append(print(constraint, Mode.CANONICAL, canonicalNames)).append('\n');
+			}
+
+			return new NormalizedQuery(ordered, key.toString(), new LinkedHashSet<String>(order), canonicalNames,
+					Solver.getVariables(ordered));
+		} catch (NotNormalizableException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Keeps the constraints that share variables with the last constraint, if
+	 * all other constraints hold for the current concrete values of their
+	 * variables.
+	 */
+	static List<Constraint<?>> slice(List<Constraint<?>> constraints) {
+		Constraint<?> target = constraints.get(constraints.size() - 1);
+		Set<String> dependencies = getVariableNames(target);
+
+		boolean[] relevant = new boolean[constraints.size()];
+		relevant[constraints.size() - 1] = true;
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int i = 0; i < constraints.size() - 1; i++) {
+				if (relevant[i]) {
+					continue;
+				}
+				Set<String> variables = getVariableNames(constraints.get(i));
+				if (!Collections.disjoint(variables, dependencies)) {
+					dependencies.addAll(variables);
+					relevant[i] = true;
+					changed = true;
+				}
+			}
+		}
+
+		List<Constraint<?>> slice = new ArrayList<Constraint<?>>();
+		ConstraintEvaluator evaluator = new ConstraintEvaluator();
+		for (int i = 0; i < constraints.size(); i++) {
+			Constraint<?> constraint = constraints.get(i);
+			if (relevant[i]) {
+				slice.add(constraint);
+			} else if (!holdsConcretely(constraint, evaluator)) {
+				// the independent part is not solved already, keep everything
+				return constraints;
+			}
+		}
+		return slice;
+	}
+
+	private static boolean holdsConcretely(Constraint<?> constraint, ConstraintEvaluator evaluator) {
+		try {
+			return Boolean.TRUE.equals(constraint.accept(evaluator, null));
+		} catch (RuntimeException e) {
+			return false;
+		}
+	}
+
+	private static Set<String> getVariableNames(Constraint<?> constraint) {
+		Set<String> names = new HashSet<String>();
+		for (Variable<?> variable : constraint.getVariables()) {
+			names.add(variable.getName());
+		}
+		return names;
+	}
+
+	private enum Mode {
+		/** Variables are printed with their names */
+		ORIGINAL,
+		/** Variables are only printed with their type */
+		ANONYMOUS,
+		/** Variables are renamed in order of their first occurrence */
+		CANONICAL
+	}
+
+	private static String print(Constraint<?> constraint, Mode mode, Map<String, String> names)
+			throws NotNormalizableException {
+		StringBuilder builder = new StringBuilder();
+		builder.append('(').append(constraint.getClass().getSimpleName()).append(' ')
+				.append(constraint.getComparator().name()).append(' ');
+		print(constraint.getLeftOperand(), mode, names, builder);
+		builder.append(' ');
+		print(constraint.getRightOperand(), mode, names, builder);
+		builder.append(')');
+		return builder.toString();
+	}
+
+	private static void print(Expression<?> expr, Mode mode, Map<String, String> names, StringBuilder builder)
+			throws NotNormalizableException {
+		if (expr instanceof Variable<?>) {
+			String type = getTypeTag(expr);
+			String name = ((Variable<?>) expr).getName();
+			switch (mode) {
+			case ORIGINAL:
+				builder.append(type).append(':').append(name);
+				break;
+			case ANONYMOUS:
+				builder.append(type);
+				break;
+			default:
+				String canonicalName = names.get(name);
+				if (canonicalName == null) {
+					canonicalName = type + names.size();
+					names.put(name, canonicalName);
+				}
+				builder.append(canonicalName);
+			}
+		} else if (expr instanceof IntegerConstant) {
+			builder.append(((IntegerConstant) expr).getConcreteValue());
+		} else if (expr instanceof RealConstant) {
+			builder.append(Double.doubleToLongBits(((RealConstant) expr).getConcreteValue())).append('d');
+		} else if (expr instanceof StringConstant) {
+			String value = ((StringConstant) expr).getConcreteValue();
+			builder.append('"').append(value.length()).append(':').append(value).append('"');
+		} else if (expr instanceof MultipleExpression<?>) {
+			MultipleExpression<?> multiple = (MultipleExpression<?>) expr;
+			openOperation(expr, multiple.getOperator().name(), builder);
+			print(multiple.getLeftOperand(), mode, names, builder);
+			builder.append(' ');
+			print(multiple.getRightOperand(), mode, names, builder);
+			for (Expression<?> other : multiple.getOther()) {
+				builder.append(' ');
+				print(other, mode, names, builder);
+			}
+			builder.append(')');
+		} else if (expr instanceof BinaryExpression<?>) {
+			BinaryExpression<?> binary = (BinaryExpression<?>) expr;
+			openOperation(expr, binary.getOperator().name(), builder);
+			print(binary.getLeftOperand(), mode, names, builder);
+			builder.append(' ');
+			print(binary.getRightOperand(), mode, names, builder);
+			builder.append(')');
+		} else if (expr instanceof UnaryExpression<?>) {
+			UnaryExpression<?> unary = (UnaryExpression<?>) expr;
+			openOperation(expr, unary.getOperator().name(), builder);
+			print(unary.getOperand(), mode, names, builder);
+			builder.append(')');
+		} else if (expr instanceof Cast<?>) {
+			openOperation(expr, "CAST", builder);
+			print(((Cast<?>) expr).getArgument(), mode, names, builder);
+			builder.append(')');
+		} else {
+			throw new NotNormalizableException(expr);
+		}
+	}
+
+	private static void openOperation(Expression<?> expr, String operator, StringBuilder builder) {
+		builder.append('(').append(expr.getClass().getSimpleName()).append(' ').append(operator).append(' ');
+	}
+
+	private static String getTypeTag(Expression<?> variable) throws NotNormalizableException {
+		if (variable instanceof IntegerVariable) {
+			return "i";
+		} else if (variable instanceof RealVariable) {
+			return "r";
+		} else if (variable instanceof StringVariable) {
+			return "s";
+		}
+		throw new NotNormalizableException(variable);
+	}
+}
@@ -22,8 +22,11 @@ package org.evosuite.symbolic.solver;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.List;
 
 import org.apache.commons.exec.ExecuteException;
+import org.evosuite.symbolic.solver.smt.SmtQuery;
+import org.evosuite.symbolic.solver.smt.SmtQueryPrinter;
 import org.evosuite.utils.ProcessLauncher;
 import org.evosuite.utils.ProcessTimeoutException;
 
@@ -83,4 +86,33 @@ public abstract class SmtSolver extends Solver {
 
 	}
 
+	/**
+	 * Solve the query on a pooled solver process, see {@link SmtSolverSession}
+	 * 
+	 * @param solverCmd
+	 *            command starting the solver in interactive, incremental mode
+	 * @param smtQuery
+	 * @param timeout
+	 * @return the output of the solver for the query
+	 * @throws IOException
+	 * @throws SolverTimeoutException
+	 * @throws SolverErrorException
+	 */
+	protected static String solveInSession(String solverCmd, SmtQuery smtQuery, long timeout)
+			throws IOException, SolverTimeoutException, SolverErrorException {
+		SmtQueryPrinter printer = new SmtQueryPrinter();
+		List<String> preamble = printer.printPreamble(smtQuery);
+		List<String> commands = printer.printIncrementalCommands(smtQuery);
+
+		SmtSolverSession session = SmtSolverSession.acquire(solverCmd, preamble);
+		long solver_start_time_millis = System.currentTimeMillis();
+		try {
+			return session.solve(commands, timeout);
+		} finally {
+			SmtSolverSession.release(session);
+			long solver_duration_millis = System.currentTimeMillis() - solver_start_time_millis;
+			logger.debug("Solver session time was {}ms", solver_duration_millis);
+		}
+	}
+
 }
@@ -0,0 +1,379 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.exec.CommandLine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A long-lived SMT solver process that is fed SMT-LIB2 commands incrementally
+ * over stdin, instead of launching a new process for each query.
+ * 
+ * <p>
+ * Every declaration, definition and assertion of a query is sent in its own
+ * <code>(push 1)</code> frame. For the next query, only the frames after the
+ * longest common prefix with the previous query are popped, so that queries
+ * sharing a path condition prefix do not send (and the solver does not
+ * re-process) the shared part again. A session whose process died or timed
+ * out is restarted on its next query.
+ * </p>
+ * 
+ * <p>
+ * Sessions are pooled by command line and preamble (logic and options):
+ * {@link #acquire(String, List)} hands out an idle session, which has to be
+ * given back with {@link #release(SmtSolverSession)}. A session is never used
+ * by two threads at the same time.
+ * </p>
+ */
+public final class SmtSolverSession {
+
+	private static final Logger logger = LoggerFactory.getLogger(SmtSolverSession.class);
+
+	/**
+	 * Printed by the solver after the answer to a query, to know where the
+	 * answer ends
+	 */
+	private static final String END_OF_ANSWER = "evosuite-end-of-answer";
+
+	/** Marks the end of the solver output in the queue of lines */
+	private static final String END_OF_STREAM = new String("<eof>");
+
+	/**
+	 * Time to wait for an answer on top of the solver timeout, before the
+	 * process is considered to hang
+	 */
+	private static final long ANSWER_GRACE_MILLIS = 1000;
+
+	private static final Map<String, Deque<SmtSolverSession>> idleSessions = new HashMap<String, Deque<SmtSolverSession>>();
+
+	private static final List<SmtSolverSession> allSessions = new ArrayList<SmtSolverSession>();
+
+	private final String solverCmd;
+
+	private final List<String> preamble;
+
+	private final String key;
+
+	/** The commands currently asserted, one frame each */
+	private final List<String> frames = new ArrayList<String>();
+
+	private Process process = null;
+
+	private Writer stdin = null;
+
+	private BlockingQueue<String> stdout = null;
+
+	private int numStarts = 0;
+
+	private int numQueries = 0;
+
+	private int numReusedCommands = 0;
+
+	/** What the solver printed instead of an answer to the last query */
+	private String lastErrors = "";
+
+	private SmtSolverSession(String solverCmd, List<String> preamble, String key) {
+		this.solverCmd = solverCmd;
+		this.preamble = new ArrayList<String>(preamble);
+		this.key = key;
+	}
+
+	/**
+	 * Get an idle session for the given solver command and preamble, or
+	 * create a new one. The solver process is started on the first query.
+	 * 
+	 * @param solverCmd
+	 *            command line starting the solver in interactive SMT-LIB2
+	 *            mode
+	 * @param preamble
+	 *            commands sent once after the solver started, i.e.
+	 *            <code>set-logic</code> and <code>set-option</code>
+	 * @return a session that only the calling thread uses until it is
+	 *         released
+	 */
+	public static SmtSolverSession acquire(String solverCmd, List<String> preamble) {
+		String key = solverCmd + "\n" + preamble;
+		synchronized (idleSessions) {
+			Deque<SmtSolverSession> sessions = idleSessions.get(key);
+			if (sessions != null && !sessions.isEmpty()) {
+				return sessions.pop();
+			}
+			SmtSolverSession session = new SmtSolverSession(solverCmd, preamble, key);
+			allSessions.add(session);
+			return session;
+		}
+	}
+
+	public static void release(SmtSolverSession session) {
+		synchronized (idleSessions) {
+			Deque<SmtSolverSession> sessions = idleSessions.get(session.key);
+			if (sessions == null) {
+				sessions = new ArrayDeque<SmtSolverSession>();
+				idleSessions.put(session.key, sessions);
+			}
+			sessions.push(session);
+		}
+	}
+
+	/**
+	 * Stop the processes of all sessions
+	 */
+	public static void closeAll() {
+		synchronized (idleSessions) {
+			for (SmtSolverSession session : allSessions) {
+				if (session.numQueries > 0) {
+					logger.debug("Solver session answered {} queries with {} process starts, reusing {} commands",
+							session.numQueries, session.numStarts, session.numReusedCommands);
+				}
+				session.stop();
+			}
+			allSessions.clear();
+			idleSessions.clear();
+		}
+	}
+
+	/**
+	 * Check the satisfiability of the given commands and get a model.
+	 * 
+	 * @param commands
+	 *            declarations, definitions and assertions, one per entry
+	 * @param timeout
+	 *            milliseconds to wait for an answer, on top of a grace period
+	 * @return the solver output for <code>(check-sat)</code> and
+	 *         <code>(get-model)</code>, in the same format as the output of a
+	 *         solver process that is run on the whole query
+	 * @throws SolverTimeoutException
+	 *             if the solver did not answer in time. The process is
+	 *             stopped.
+	 * @throws SolverErrorException
+	 *             if the solver process died twice while answering
+	 * @throws IOException
+	 *             if the solver process cannot be started
+	 */
+	public String solve(List<String> commands, long timeout)
+			throws SolverTimeoutException, SolverErrorException, IOException {
+		numQueries++;
+		String answer;
+		try {
+			answer = send(commands, timeout);
+		} catch (SolverErrorException e) {
+			logger.debug("Solver process died, restarting it: " + e.getMessage());
+			answer = send(commands, timeout);
+		}
+		if (answer == null) {
+			// a command before (check-sat) failed, the frames may not match what the solver has
+			logger.debug("Solver reported an error before answering, retrying on a new process");
+			stop();
+			answer = send(commands, timeout);
+			if (answer == null) {
+				stop();
+				throw new SolverErrorException("Solver reported an error: " + lastErrors);
+			}
+		}
+		return answer;
+	}
+
+	/**
+	 * @return the answer, or null if the solver printed an error before the
+	 *         answer to <code>(check-sat)</code>
+	 */
+	private String send(List<String> commands, long timeout)
+			throws SolverTimeoutException, SolverErrorException, IOException {
+		if (process == null) {
+			start();
+		}
+
+		int common = 0;
+		while (common < frames.size() && common < commands.size()
+				&& frames.get(common).equals(commands.get(common))) {
+			common++;
+		}
+		numReusedCommands += common;
+
+		StringBuilder input = new StringBuilder();
+		int toPop = frames.size() - common;
+		if (toPop > 0) {
+			input.append("(pop ").append(toPop).append(")\n");
+			frames.subList(common, frames.size()).clear();
+		}
+		for (int i = common; i < commands.size(); i++) {
+			String command = commands.get(i);
+			input.append("(push 1)\n");
+			input.append(command).append("\n");
+			frames.add(command);
+		}
+		input.append("(check-sat)\n");
+		input.append("(get-model)\n");
+		input.append("(echo \"").append(END_OF_ANSWER).append("\")\n");
+
+		try {
+			stdin.write(input.toString());
+			stdin.flush();
+		} catch (IOException e) {
+			stop();
+			throw new SolverErrorException("Cannot write to solver process: " + e.getMessage());
+		}
+
+		List<String> lines = readAnswer(timeout);
+
+		StringBuilder errors = new StringBuilder();
+		int first = 0;
+		while (first < lines.size() && !isCheckSatAnswer(lines.get(first))) {
+			errors.append(lines.get(first)).append("\n");
+			first++;
+		}
+		if (first == lines.size() || errors.toString().trim().length() > 0) {
+			lastErrors = errors.toString().trim();
+			return null;
+		}
+
+		StringBuilder answer = new StringBuilder();
+		for (String line : lines.subList(first, lines.size())) {
+			answer.append(line).append("\n");
+		}
+		return answer.toString();
+	}
+
+	private static boolean isCheckSatAnswer(String line) {
+		String trimmed = line.trim();
+		return trimmed.equals("sat") || trimmed.equals("unsat") || trimmed.equals("unknown");
+	}
+
+	private List<String> readAnswer(long timeout) throws SolverTimeoutException, SolverErrorException {
+		long deadline = System.currentTimeMillis() + timeout + ANSWER_GRACE_MILLIS;
+		List<String> lines = new ArrayList<String>();
+		while (true) {
+			long remaining = deadline - System.currentTimeMillis();
+			String line;
+			try {
+				line = remaining > 0 ? stdout.poll(remaining, TimeUnit.MILLISECONDS) : null;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				stop();
+				throw new SolverTimeoutException();
+			}
+			if (line == null) {
+				logger.debug("Solver did not answer in time, stopping its process");
+				stop();
+				throw new SolverTimeoutException();
+			}
+			if (line == END_OF_STREAM) {
+				stop();
+				throw new SolverErrorException("Solver process terminated unexpectedly");
+			}
+			String trimmed = line.trim();
+			if (trimmed.equals(END_OF_ANSWER) || trimmed.equals("\"" + END_OF_ANSWER + "\"")) {
+				return lines;
+			}
+			lines.add(line);
+		}
+	}
+
+	private void start() throws IOException {
+		logger.debug("Starting solver process " + solverCmd);
+		String[] command = CommandLine.parse(solverCmd).toStrings();
+		ProcessBuilder builder = new ProcessBuilder(Arrays.asList(command));
+		builder.redirectErrorStream(true);
+		process = builder.start();
+		numStarts++;
+		stdin = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+
+		final BlockingQueue<String> lines = new LinkedBlockingQueue<String>();
+		final BufferedReader reader = new BufferedReader(
+				new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+		Thread pump = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					String line;
+					while ((line = reader.readLine()) != null) {
+						lines.add(line);
+					}
+				} catch (IOException e) {
+					// process was stopped
+				} finally {
+					lines.add(END_OF_STREAM);
+				}
+			}
+		}, "SmtSolverSession-output");
+		pump.setDaemon(true);
+		pump.start();
+		stdout = lines;
+
+		frames.clear();
+		StringBuilder input = new StringBuilder();
+		for (String option : preamble) {
+			input.append(option).append("\n");
+		}
+		stdin.write(input.toString());
+		stdin.flush();
+	}
+
+	private void stop() {
+		frames.clear();
+		if (process == null)
+			return;
+		try {
+			stdin.write("(exit)\n");
+			stdin.flush();
+			stdin.close();
+		} catch (IOException e) {
+			// process already gone
+		}
+		process.destroy();
+		process = null;
+		stdin = null;
+		stdout = null;
+	}
+
+	public int getNumStarts() {
+		return numStarts;
+	}
+
+	public int getNumQueries() {
+		return numQueries;
+	}
+
+	/**
+	 * @return the number of commands that did not have to be sent again as
+	 *         they were shared with the previous query
+	 */
+	public int getNumReusedCommands() {
+		return numReusedCommands;
+	}
+}
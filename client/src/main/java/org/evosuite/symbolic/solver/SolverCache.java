@@ -19,113 +19,404 @@
  */
 package org.evosuite.symbolic.solver;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.evosuite.Properties;
 import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Variable;
+import org.evosuite.symbolic.solver.ConstraintNormalizer.NormalizedQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Cache of constraint solver results.
+ * 
+ * Queries are normalized by {@link ConstraintNormalizer} before the lookup, so
+ * that queries that only differ in the order of their constraints, the names
+ * of their variables or in constraints that do not affect the last one share
+ * an entry. If there is no entry for a query, the cache still answers it if
+ * 
+ * <ul>
+ * <li>a cached UNSAT query is a subset of the query, or</li>
+ * <li>the model of a cached SAT query that overlaps with the query also
+ * satisfies the query.</li>
+ * </ul>
+ * 
+ * Entries are evicted in least recently used order once their estimated size
+ * exceeds {@link Properties#SOLVER_CACHE_SIZE}. If
+ * {@link Properties#SOLVER_CACHE_FILE} is set, the cache is loaded from that
+ * file on first use and stored by {@link #save()}.
+ */
 public final class SolverCache {
 
+	private static final Logger logger = LoggerFactory.getLogger(SolverCache.class);
+
+	/** Maximum number of cached models that are checked against a query */
+	private static final int MAX_MODEL_CHECKS = 8;
+
+	private static final SolverCache instance = new SolverCache(Properties.SOLVER_CACHE_SIZE * 1024L * 1024L);
+
+	/**
+	 * A cached query. Entries loaded from disk only know their canonical form.
+	 */
+	private static final class Entry {
+
+		private final String key;
+
+		private final boolean sat;
+
+		private final Map<String, Object> canonicalModel;
+
+		private final Set<String> printedConstraints;
+
+		private final Map<String, Object> model;
+
+		private final long solvingTime;
+
+		private final long size;
+
+		Entry(String key, boolean sat, Map<String, Object> canonicalModel, Set<String> printedConstraints,
+				Map<String, Object> model, long solvingTime) {
+			this.key = key;
+			this.sat = sat;
+			this.canonicalModel = canonicalModel;
+			this.printedConstraints = printedConstraints;
+			this.model = model;
+			this.solvingTime = solvingTime;
+			this.size = estimateSize();
+		}
+
+		private long estimateSize() {
+			long bytes = 128 + 2L * key.length();
+			for (String constraint : printedConstraints) {
+				bytes += 48 + 2L * constraint.length();
+			}
+			int values = (canonicalModel == null ? 0 : canonicalModel.size()) + (model == null ? 0 : model.size());
+			return bytes + 96L * values;
+		}
+	}
+
+	private final long maxSize;
+
+	private long size = 0;
+
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+	/** The entries that contain a constraint, by printed constraint */
+	private final Map<String, List<Entry>> entriesByConstraint = new HashMap<String, List<Entry>>();
+
+	private boolean loaded = false;
+
+	private int cached_sat_result_count = 0;
+	private int cached_unsat_result_count = 0;
+
+	private int number_of_accesses = 0;
+	private int number_of_hits = 0;
+
+	private long saved_solving_time = 0;
+
+	SolverCache(long maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	public static SolverCache getInstance() {
+		return instance;
+	}
+
 	/**
+	 * Returns the cached result for the constraint system, or solves it using
+	 * the given solver and caches the result.
 	 * 
 	 * @param solver
 	 * @param constraints
-	 * @return 
+	 * @return the result, or <code>null</code> if the solver failed
 	 */
 	public SolverResult solve(Solver solver, Collection<Constraint<?>> constraints) {
-		if (hasCachedResult(constraints)) {
-			SolverResult cached_solution = getCachedResult();
-			return cached_solution;
+		NormalizedQuery query = ConstraintNormalizer.normalize(constraints);
+
+		synchronized (this) {
+			loadIfNeeded();
+			number_of_accesses++;
+			if (query != null) {
+				SolverResult cached = lookup(query, solver);
+				if (cached != null) {
+					number_of_hits++;
+					return cached;
+				}
+			}
 		}
 
+		Collection<Constraint<?>> toSolve = query == null ? constraints : query.getConstraints();
 		SolverResult solverResult;
+		long startTime = System.currentTimeMillis();
 		try {
-			solverResult = solver.solve(constraints);
-			if (solverResult.isUNSAT()) {
-				addUNSAT(constraints, solverResult);
-			} else {
-				addSAT(constraints, solverResult);
-			}
+			solverResult = solver.solve(toSolve);
 		} catch (SolverTimeoutException | IOException | SolverParseException | SolverEmptyQueryException
 				| SolverErrorException e) {
-			solverResult = null;
+			return null;
+		}
+		long solvingTime = System.currentTimeMillis() - startTime;
+
+		synchronized (this) {
+			if (solverResult.isUNSAT()) {
+				cached_unsat_result_count++;
+			} else if (solverResult.isSAT()) {
+				cached_sat_result_count++;
+			}
+			if (query != null && !solverResult.isUnknown()) {
+				add(query, solverResult, solvingTime);
+			}
 		}
 
+		if (solverResult.isSAT() && query != null) {
+			return completeModel(solver, constraints, solverResult.getModel());
+		}
 		return solverResult;
+	}
 
+	private SolverResult lookup(NormalizedQuery query, Solver solver) {
+		Entry entry = entries.get(query.getKey());
+		if (entry != null) {
+			saved_solving_time += entry.solvingTime;
+			if (!entry.sat) {
+				return SolverResult.newUNSAT();
+			}
+			return completeModel(solver, query.getConstraints(), query.fromCanonicalModel(entry.canonicalModel));
+		}
+
+		// count how many constraints of the query each entry contains
+		Map<Entry, Integer> overlaps = new LinkedHashMap<Entry, Integer>();
+		for (String constraint : query.getPrintedConstraints()) {
+			List<Entry> containing = entriesByConstraint.get(constraint);
+			if (containing == null) {
+				continue;
+			}
+			for (Entry candidate : containing) {
+				Integer count = overlaps.get(candidate);
+				overlaps.put(candidate, count == null ? 1 : count + 1);
+			}
+		}
+
+		List<Entry> models = new ArrayList<Entry>();
+		for (Map.Entry<Entry, Integer> overlap : overlaps.entrySet()) {
+			Entry candidate = overlap.getKey();
+			int count = overlap.getValue();
+			if (!candidate.sat) {
+				if (count == candidate.printedConstraints.size()) {
+					// an unsatisfiable subset
+					saved_solving_time += candidate.solvingTime;
+					return SolverResult.newUNSAT();
+				}
+			} else if (count == query.getPrintedConstraints().size()) {
+				// a satisfiable superset
+				saved_solving_time += candidate.solvingTime;
+				return completeModel(solver, query.getConstraints(), query.restrictModel(candidate.model));
+			} else {
+				models.add(candidate);
+			}
+		}
+
+		// try the models of overlapping queries, the largest overlap first
+		final Map<Entry, Integer> counts = overlaps;
+		Collections.sort(models, new java.util.Comparator<Entry>() {
+			@Override
+			public int compare(Entry e1, Entry e2) {
+				return counts.get(e2) - counts.get(e1);
+			}
+		});
+		for (Entry candidate : models.subList(0, Math.min(MAX_MODEL_CHECKS, models.size()))) {
+			Map<String, Object> model = query.restrictModel(candidate.model);
+			if (Solver.checkSAT(query.getConstraints(), SolverResult.newSAT(model))) {
+				saved_solving_time += candidate.solvingTime;
+				return completeModel(solver, query.getConstraints(), model);
+			}
+		}
+		return null;
 	}
 
-	private static final SolverCache instance = new SolverCache();
+	/**
+	 * Adds the current values of variables missing from the model if the solver
+	 * is expected to do so.
+	 */
+	private static SolverResult completeModel(Solver solver, Collection<Constraint<?>> constraints,
+			Map<String, Object> model) {
+		if (solver.addMissingVariables()) {
+			for (Variable<?> variable : Solver.getVariables(constraints)) {
+				if (!model.containsKey(variable.getName())) {
+					model.put(variable.getName(), variable.getConcreteValue());
+				}
+			}
+		}
+		return SolverResult.newSAT(model);
+	}
 
-	private HashMap<Collection<Constraint<?>>, SolverResult> cached_solver_results = new HashMap<Collection<Constraint<?>>, SolverResult>();
-	private int cached_sat_result_count = 0;
-	private int cached_unsat_result_count = 0;
+	private void add(NormalizedQuery query, SolverResult result, long solvingTime) {
+		Entry entry;
+		if (result.isSAT()) {
+			Map<String, Object> model = query.restrictModel(result.getModel());
+			entry = new Entry(query.getKey(), true, query.toCanonicalModel(model), query.getPrintedConstraints(),
+					model, solvingTime);
+		} else {
+			entry = new Entry(query.getKey(), false, null, query.getPrintedConstraints(), null, solvingTime);
+		}
+		put(entry);
+	}
 
-	public int getNumberOfUNSATs() {
-		return cached_unsat_result_count;
+	private void put(Entry entry) {
+		remove(entries.get(entry.key));
+		entries.put(entry.key, entry);
+		for (String constraint : entry.printedConstraints) {
+			List<Entry> containing = entriesByConstraint.get(constraint);
+			if (containing == null) {
+				containing = new ArrayList<Entry>(2);
+				entriesByConstraint.put(constraint, containing);
+			}
+			containing.add(entry);
+		}
+		size += entry.size;
+
+		while (size > maxSize && !entries.isEmpty()) {
+			remove(entries.values().iterator().next());
+		}
 	}
 
-	public int getNumberOfSATs() {
-		return cached_sat_result_count;
+	private void remove(Entry entry) {
+		if (entry == null) {
+			return;
+		}
+		entries.remove(entry.key);
+		for (String constraint : entry.printedConstraints) {
+			List<Entry> containing = entriesByConstraint.get(constraint);
+			containing.remove(entry);
+			if (containing.isEmpty()) {
+				entriesByConstraint.remove(constraint);
+			}
+		}
+		size -= entry.size;
 	}
 
-	private int number_of_accesses = 0;
-	private int number_of_hits = 0;
+	private void loadIfNeeded() {
+		if (loaded) {
+			return;
+		}
+		loaded = true;
+		if (Properties.SOLVER_CACHE_FILE == null) {
+			return;
+		}
+		File file = new File(Properties.SOLVER_CACHE_FILE);
+		if (file.exists()) {
+			load(file);
+		}
+	}
 
-	private SolverCache() {
-		/* empty constructor */
+	/**
+	 * Adds the entries stored in the file to the cache
+	 * 
+	 * @param file
+	 */
+	@SuppressWarnings("unchecked")
+	synchronized void load(File file) {
+		try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String key = (String) in.readObject();
+				boolean sat = in.readBoolean();
+				Map<String, Object> canonicalModel = (Map<String, Object>) in.readObject();
+				long solvingTime = in.readLong();
+				put(new Entry(key, sat, canonicalModel, Collections.<String> emptySet(), null, solvingTime));
+			}
+			logger.debug("Loaded {} constraint solver results from {}", count, file);
+		} catch (IOException | ClassNotFoundException | ClassCastException e) {
+			logger.warn("Could not load the constraint solver cache from " + file + ": " + e.getMessage());
+		}
 	}
 
-	public static SolverCache getInstance() {
-		return instance;
+	/**
+	 * Stores the cache in {@link Properties#SOLVER_CACHE_FILE}, if set.
+	 */
+	public void save() {
+		if (Properties.SOLVER_CACHE_FILE == null) {
+			return;
+		}
+		save(new File(Properties.SOLVER_CACHE_FILE));
 	}
 
-	private void addUNSAT(Collection<Constraint<?>> unsat_constraints, SolverResult unsatResult) {
-		cached_solver_results.put(unsat_constraints, unsatResult);
-		cached_unsat_result_count++;
+	/**
+	 * Stores the cache in the given file, least recently used entries first
+	 * 
+	 * @param file
+	 */
+	synchronized void save(File file) {
+		loadIfNeeded();
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.exists()) {
+			parent.mkdirs();
+		}
+		try (ObjectOutputStream out = new ObjectOutputStream(
+				new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(entries.size());
+			for (Entry entry : entries.values()) {
+				out.writeObject(entry.key);
+				out.writeBoolean(entry.sat);
+				out.writeObject(entry.canonicalModel == null ? null : new HashMap<String, Object>(entry.canonicalModel));
+				out.writeLong(entry.solvingTime);
+			}
+		} catch (IOException e) {
+			logger.warn("Could not store the constraint solver cache in " + file + ": " + e.getMessage());
+		}
 	}
 
-	private void addSAT(Collection<Constraint<?>> sat_constraints, SolverResult satResult) {
-		cached_solver_results.put(sat_constraints, satResult);
-		cached_sat_result_count++;
+	/**
+	 * Removes all entries and resets the statistics
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		entriesByConstraint.clear();
+		size = 0;
+		cached_sat_result_count = 0;
+		cached_unsat_result_count = 0;
+		number_of_accesses = 0;
+		number_of_hits = 0;
+		saved_solving_time = 0;
 	}
 
-	private boolean valid_cached_solution = false;
-	private SolverResult cached_solution = null;
+	public synchronized int getNumberOfUNSATs() {
+		return cached_unsat_result_count;
+	}
 
-	private boolean hasCachedResult(Collection<Constraint<?>> constraints) {
-		number_of_accesses++;
+	public synchronized int getNumberOfSATs() {
+		return cached_sat_result_count;
+	}
 
-		if (this.cached_solver_results.containsKey(constraints)) {
-			valid_cached_solution = true;
-			cached_solution = this.cached_solver_results.get(constraints);
-			number_of_hits++;
-			return true;
-		} else {
-			valid_cached_solution = false;
-			return false;
-		}
+	public synchronized int getNumberOfEntries() {
+		return entries.size();
 	}
 
-	public double getHitRate() {
+	public synchronized double getHitRate() {
 		return (double) this.number_of_hits / (double) this.number_of_accesses;
 	}
 
 	/**
-	 * If not in cache returns IllegalArgumentException()
-	 * 
-	 * @param constraints
-	 * @return
+	 * @return the time in milliseconds the solver needed for the queries that
+	 *         were later answered from the cache
 	 */
-	public SolverResult getCachedResult() {
-
-		if (valid_cached_solution == false) {
-			throw new IllegalArgumentException("The constraint is not cached!");
-		}
-
-		valid_cached_solution = false;
-		return this.cached_solution;
+	public synchronized long getSavedSolvingTime() {
+		return saved_solving_time;
 	}
 
 }
@@ -131,12 +131,17 @@ public final class CVC4Solver extends SmtSolver {
 		logger.debug("CVC4 Query:");
 		logger.debug(smtQueryStr);
 
-		String cmd = buildCVC4cmd(cvcTimeout);
-
-		ByteArrayOutputStream stdout = new ByteArrayOutputStream();
 		try {
-			launchNewSolvingProcess(cmd, smtQueryStr, (int) cvcTimeout, stdout);
-			String output = stdout.toString("UTF-8");
+			String output;
+			if (Properties.SMT_SOLVER_SESSIONS) {
+				String cmd = buildCVC4SessionCmd(cvcTimeout);
+				output = solveInSession(cmd, query, cvcTimeout);
+			} else {
+				String cmd = buildCVC4cmd(cvcTimeout);
+				ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+				launchNewSolvingProcess(cmd, smtQueryStr, (int) cvcTimeout, stdout);
+				output = stdout.toString("UTF-8");
+			}
 
 			if (output.startsWith("unknown")) {
 				logger.debug("timeout reached when using cvc4");
@@ -279,6 +284,15 @@ public final class CVC4Solver extends SmtSolver {
 		return cmd;
 	}
 
+	private static String buildCVC4SessionCmd(long cvcTimeout) {
+		String cmd = Properties.CVC4_PATH;
+		cmd += " --lang smt"; // query language is SMT-LIB
+		cmd += " --incremental"; // needed for push/pop
+		cmd += " --finite-model-find"; // see buildCVC4cmd
+		cmd += " --tlimit-per=" + cvcTimeout; // the time limit applies to each query, not to the process
+		return cmd;
+	}
+
 	private static boolean hasNonLinearConstraints(Collection<Constraint<?>> constraints) {
 		NonLinearConstraintVisitor v = new NonLinearConstraintVisitor();
 		for (Constraint<?> constraint : constraints) {
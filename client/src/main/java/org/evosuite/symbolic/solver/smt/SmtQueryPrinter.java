@@ -19,6 +19,17 @@
  */
 package org.evosuite.symbolic.solver.smt;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.evosuite.symbolic.solver.smt.SmtOperation.Operator;
+
 public class SmtQueryPrinter {
 
 	public String print(SmtQuery query) {
@@ -74,6 +85,85 @@ public class SmtQueryPrinter {
 
 	}
 
+	/**
+	 * Prints the logic and the options of the query, which a solver session
+	 * sets once after it started. Options are sorted by name.
+	 * 
+	 * @param query
+	 * @return one command per entry
+	 */
+	public List<String> printPreamble(SmtQuery query) {
+		List<String> commands = new ArrayList<String>();
+		if (query.hasLogic()) {
+			commands.add("(set-logic " + query.getLogic() + ")");
+		}
+		for (String optionName : new TreeSet<String>(query.getOptions())) {
+			String optionValue = query.getOptionValue(optionName);
+			commands.add(String.format("(set-option %s %s)", optionName, optionValue));
+		}
+		return commands;
+	}
+
+	/**
+	 * Prints the declarations, definitions and assertions of the query for an
+	 * incremental solver session, one command per entry and each on a single
+	 * line. Each assertion is preceded by the declarations (sorted by name)
+	 * and definitions it needs that were not printed before it, so that
+	 * queries sharing a prefix of assertions also share a prefix of commands.
+	 * 
+	 * @param query
+	 * @return one command per entry
+	 */
+	public List<String> printIncrementalCommands(SmtQuery query) {
+		Map<String, String> declarations = new HashMap<String, String>();
+		for (SmtConstantDeclaration constantDeclaration : query.getConstantDeclarations()) {
+			declarations.put(constantDeclaration.getConstantName(), print(constantDeclaration));
+		}
+		for (SmtFunctionDeclaration functionDeclaration : query.getFunctionDeclarations()) {
+			declarations.put(functionDeclaration.getFunctionName(), print(functionDeclaration));
+		}
+		Set<SmtFunctionDefinition> definitions = new LinkedHashSet<SmtFunctionDefinition>(
+				query.getFunctionDefinitions());
+
+		List<String> commands = new ArrayList<String>();
+		for (SmtAssertion smtAssertion : query.getAssertions()) {
+			SmtVariableCollector varCollector = new SmtVariableCollector();
+			SmtOperatorCollector opCollector = new SmtOperatorCollector();
+			smtAssertion.getFormula().accept(varCollector, null);
+			smtAssertion.getFormula().accept(opCollector, null);
+
+			Map<String, String> newDeclarations = new TreeMap<String, String>();
+			for (SmtVariable variable : varCollector.getSmtVariables()) {
+				String declaration = declarations.remove(variable.getName());
+				if (declaration != null) {
+					newDeclarations.put(variable.getName(), declaration);
+				}
+			}
+			commands.addAll(newDeclarations.values());
+
+			for (Operator operator : opCollector.getOperators()) {
+				for (SmtFunctionDefinition definition : new ArrayList<SmtFunctionDefinition>(definitions)) {
+					if (definition.getFunctionDefinition().startsWith(operator.toString() + "(")) {
+						commands.add(singleLine(print(definition)));
+						definitions.remove(definition);
+					}
+				}
+			}
+			commands.add(singleLine(print(smtAssertion)));
+		}
+
+		// declarations and definitions no assertion refers to
+		commands.addAll(new TreeMap<String, String>(declarations).values());
+		for (SmtFunctionDefinition definition : definitions) {
+			commands.add(singleLine(print(definition)));
+		}
+		return commands;
+	}
+
+	private static String singleLine(String command) {
+		return command.replace('\n', ' ');
+	}
+
 	public String print(SmtAssertion smtAssertion) {
 		SmtExprPrinter printer = new SmtExprPrinter();
 		SmtExpr expr = smtAssertion.getFormula();
@@ -21,10 +21,13 @@ package org.evosuite.testcase;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -86,6 +89,18 @@ public class DefaultTestCase implements TestCase, Serializable {
 	/** The statements */
 	protected final ListenableList<Statement> statements;
 
+	/**
+	 * Test case this one was cloned from, as long as the statements of the
+	 * original have not been copied yet
+	 */
+	private transient DefaultTestCase cloneSource = null;
+
+	/** Clones that still share the statements of this test case */
+	private transient List<WeakReference<DefaultTestCase>> sharingClones = null;
+
+	/** Set while a clone copies the statements of this test case */
+	private transient boolean copyingStatements = false;
+
 	/** Coverage goals this test covers */
 	private transient Set<TestFitnessFunction> coveredGoals = new LinkedHashSet<TestFitnessFunction>();
 
@@ -102,7 +117,7 @@ public class DefaultTestCase implements TestCase, Serializable {
 	 * Constructor
 	 */
 	public DefaultTestCase() {
-		statements = new ListenableList<>(new ArrayList<>());
+		statements = new ListenableList<>(new StatementList(this));
 		id = idGenerator.getAndIncrement();
 	}
 
@@ -370,13 +385,10 @@ public class DefaultTestCase implements TestCase, Serializable {
 		}
 		*/
 
-		for (Statement s : statements) {
-			Statement copy = s.clone(t);
-			t.statements.add(copy);
-			copy.setRetval(s.getReturnValue().clone(t));
-			copy.setAssertions(s.copyAssertions(t, 0));
-			copy.setChangeRelevanceMap(s.getChangeRelevanceMap());
-		}
+		if (Properties.COPY_ON_WRITE_TEST_CLONES)
+			shareStatements(t);
+		else
+			copyStatements(t);
 		t.coveredGoals.addAll(coveredGoals);
 		t.accessedEnvironment.copyFrom(accessedEnvironment);
 		t.isFailing = isFailing;
@@ -386,6 +398,74 @@ public class DefaultTestCase implements TestCase, Serializable {
 		return t;
 	}
 
+	private void copyStatements(DefaultTestCase t) {
+		for (Statement s : statements) {
+			Statement copy = s.clone(t);
+			t.statements.add(copy);
+			copy.setRetval(s.getReturnValue().clone(t));
+			copy.setAssertions(s.copyAssertions(t, 0));
+			copy.setChangeRelevanceMap(s.getChangeRelevanceMap());
+		}
+	}
+
+	/**
+	 * Let the clone t share the statements of this test case. The statements
+	 * are copied once either of the two test cases accesses them.
+	 */
+	private void shareStatements(DefaultTestCase t) {
+		synchronized (DefaultTestCase.class) {
+			// A clone that still shares its statements is identical to its source
+			DefaultTestCase source = cloneSource != null ? cloneSource : this;
+			if (source.sharingClones == null)
+				source.sharingClones = new ArrayList<>();
+			else
+				source.sharingClones.removeIf(ref -> ref.get() == null);
+			source.sharingClones.add(new WeakReference<>(t));
+			t.cloneSource = source;
+		}
+	}
+
+	/**
+	 * Make sure this test case owns its statements, and that no other test
+	 * case shares them anymore. This has to be called before modifying
+	 * statements that were obtained before this test case was cloned.
+	 */
+	public void unshareStatements() {
+		if (cloneSource == null && sharingClones == null)
+			return;
+		synchronized (DefaultTestCase.class) {
+			if (cloneSource != null) {
+				DefaultTestCase source = cloneSource;
+				cloneSource = null;
+				source.sharingClones.removeIf(ref -> ref.get() == null || ref.get() == this);
+				if (source.sharingClones.isEmpty())
+					source.sharingClones = null;
+				source.copyingStatements = true;
+				try {
+					source.copyStatements(this);
+				} finally {
+					source.copyingStatements = false;
+				}
+			}
+			if (sharingClones != null && !copyingStatements) {
+				List<WeakReference<DefaultTestCase>> clones = sharingClones;
+				sharingClones = null;
+				copyingStatements = true;
+				try {
+					for (WeakReference<DefaultTestCase> ref : clones) {
+						DefaultTestCase clone = ref.get();
+						if (clone != null && clone.cloneSource == this) {
+							clone.cloneSource = null;
+							copyStatements(clone);
+						}
+					}
+				} finally {
+					copyingStatements = false;
+				}
+			}
+		}
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public void deleteListener(Listener<Void> listener) {
@@ -1162,6 +1242,11 @@ public class DefaultTestCase implements TestCase, Serializable {
 
 
 
+	private void writeObject(ObjectOutputStream oos) throws IOException {
+		unshareStatements();
+		oos.defaultWriteObject();
+	}
+
 	private void readObject(ObjectInputStream ois) throws ClassNotFoundException,
 	        IOException {
 		ois.defaultReadObject();
@@ -1237,4 +1322,63 @@ public class DefaultTestCase implements TestCase, Serializable {
 	public String toString() {
 		return toCode();
 	}
+
+	/**
+	 * The statements of a test case. Statements shared with another test case
+	 * are copied before any of them is accessed.
+	 */
+	private static class StatementList extends AbstractList<Statement> implements Serializable {
+
+		private static final long serialVersionUID = 4385473602749232104L;
+
+		private final DefaultTestCase owner;
+
+		private final ArrayList<Statement> statements = new ArrayList<>();
+
+		StatementList(DefaultTestCase owner) {
+			this.owner = owner;
+		}
+
+		@Override
+		public Statement get(int index) {
+			owner.unshareStatements();
+			return statements.get(index);
+		}
+
+		@Override
+		public int size() {
+			DefaultTestCase source = owner.cloneSource;
+			if (source != null)
+				return source.size();
+			return statements.size();
+		}
+
+		@Override
+		public Statement set(int index, Statement element) {
+			owner.unshareStatements();
+			return statements.set(index, element);
+		}
+
+		@Override
+		public void add(int index, Statement element) {
+			owner.unshareStatements();
+			statements.add(index, element);
+			modCount++;
+		}
+
+		@Override
+		public Statement remove(int index) {
+			owner.unshareStatements();
+			Statement statement = statements.remove(index);
+			modCount++;
+			return statement;
+		}
+
+		@Override
+		public void clear() {
+			owner.unshareStatements();
+			statements.clear();
+			modCount++;
+		}
+	}
 }
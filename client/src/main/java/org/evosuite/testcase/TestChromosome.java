@@ -51,6 +51,7 @@ import org.evosuite.setup.TestCluster;
 import org.evosuite.symbolic.BranchCondition;
 import org.evosuite.symbolic.ConcolicExecution;
 import org.evosuite.symbolic.ConcolicMutation;
+import org.evosuite.symbolic.ConstraintSubsumptionIndex;
 import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testcase.execution.TestCaseExecutor;
 import org.evosuite.testcase.factories.TestGenerationUtil;
@@ -101,6 +102,13 @@ public class TestChromosome extends ExecutableChromosome {
 	private static final double MAX_POWER = 100;
 
 	private double legitimacyDistance = 0;
+
+	/**
+	 * Queries solved by concolic mutation of this chromosome. The test
+	 * already satisfies these, so they are not solved again. Forgotten
+	 * whenever the test is changed in any other way
+	 */
+	private transient ConstraintSubsumptionIndex solvedConcolicQueries = null;
 	
 	public Statement getStatementReportingException(){
 		ExecutionResult result = TestCaseExecutor.runTest(this.getTestCase());
@@ -374,6 +382,7 @@ public class TestChromosome extends ExecutableChromosome {
 		test = testCase;
 		clearCachedResults();
 		clearCachedMutationResults();
+		solvedConcolicQueries = null;
 		setChanged(true);
 	}
 
@@ -432,6 +441,8 @@ public class TestChromosome extends ExecutableChromosome {
 		c.setNumberOfEvaluations(this.getNumberOfEvaluations());
 		c.setKineticEnergy(getKineticEnergy());
 		c.setNumCollisions(getNumCollisions());
+		if (solvedConcolicQueries != null)
+			c.solvedConcolicQueries = new ConstraintSubsumptionIndex(solvedConcolicQueries);
 
 		return c;
 	}
@@ -491,6 +502,7 @@ public class TestChromosome extends ExecutableChromosome {
 		if (!Properties.CHECK_MAX_LENGTH
 				|| offspring.test.size() <= Properties.CHROMOSOME_LENGTH) {
 			test = offspring.test;
+			solvedConcolicQueries = null;
 			setChanged(true);
 		}
 	}
@@ -611,6 +623,7 @@ public class TestChromosome extends ExecutableChromosome {
 		if(Properties.CHOP_MAX_LENGTH && size() >= Properties.CHROMOSOME_LENGTH) {
 			int lastPosition = getLastMutatableStatement();
 			test.chop(lastPosition + 1);
+			solvedConcolicQueries = null;
 		}
 
 		// Delete
@@ -636,6 +649,7 @@ public class TestChromosome extends ExecutableChromosome {
 
 		if (changed) {
 			this.increaseNumberOfMutations();
+			solvedConcolicQueries = null;
 			setChanged(true);
 			test.clearCoveredGoals();
 		}
@@ -747,6 +761,7 @@ public class TestChromosome extends ExecutableChromosome {
 
 		if(changed){
 			assert ConstraintVerifier.verifyTest(test);
+			solvedConcolicQueries = null;
 		}
 
 		return changed;
@@ -906,6 +921,7 @@ public class TestChromosome extends ExecutableChromosome {
 
 		if(changed){
 			assert ConstraintVerifier.verifyTest(test);
+			solvedConcolicQueries = null;
 		}
 
 		return changed;
@@ -1080,6 +1096,7 @@ public class TestChromosome extends ExecutableChromosome {
 
 		if(changed){
 			assert ConstraintVerifier.verifyTest(test);
+			solvedConcolicQueries = null;
 		}
 
 		return changed;
@@ -1396,6 +1413,8 @@ public class TestChromosome extends ExecutableChromosome {
 				        test.getStatement(position)));
 			}
 		}
+		if (changed)
+			solvedConcolicQueries = null;
 		return changed;
 	}
 
@@ -1433,7 +1452,9 @@ public class TestChromosome extends ExecutableChromosome {
 		        + " target branches");
 
 		// Try to solve negated constraint
-		TestCase newTest = ConcolicMutation.negateCondition(branches, branch, test);
+		if (solvedConcolicQueries == null)
+			solvedConcolicQueries = new ConstraintSubsumptionIndex();
+		TestCase newTest = ConcolicMutation.negateCondition(branches, branch, test, solvedConcolicQueries);
 
 		// If successful, add resulting test to test suite
 		if (newTest != null) {
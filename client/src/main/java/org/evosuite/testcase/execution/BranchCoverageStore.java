@@ -0,0 +1,468 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Branch coverage information of an execution trace, stored in dense
+ * primitive arrays indexed by branch id.
+ *
+ * Branch ids are handed out consecutively by the BranchPool, so the arrays
+ * can be sized up front and recording a passed branch neither boxes values
+ * nor allocates. The arrays still grow if a class that is loaded during
+ * execution registers new branches.
+ *
+ * The store is not synchronized: it is only written by the thread executing
+ * the test. The map views returned by this class are read-only and reflect
+ * the current content of the store.
+ */
+public class BranchCoverageStore {
+
+	/** Marks a branch for which no distance was recorded yet */
+	private static final double NO_DISTANCE = -1.0;
+
+	private int[] predicateCount;
+
+	private int[] trueCount;
+
+	private int[] falseCount;
+
+	private double[] trueDistance;
+
+	private double[] falseDistance;
+
+	private double[] trueDistanceSum;
+
+	private double[] falseDistanceSum;
+
+	/** Ids of all branches with a recorded distance, in order of first execution */
+	private int[] reached;
+
+	private int numReached = 0;
+
+	private int numPredicates = 0;
+
+	private int numCoveredTrue = 0;
+
+	private int numCoveredFalse = 0;
+
+	/** Highest branch id that was reached, bounds the scans of the map views */
+	private int maxReachedId = 0;
+
+	private final Map<Integer, Integer> predicateCountView = new CountView(CountView.PREDICATE);
+
+	private final Map<Integer, Integer> trueCountView = new CountView(CountView.TRUE);
+
+	private final Map<Integer, Integer> falseCountView = new CountView(CountView.FALSE);
+
+	private final Map<Integer, Double> trueDistanceView = new DistanceView(DistanceView.TRUE);
+
+	private final Map<Integer, Double> falseDistanceView = new DistanceView(DistanceView.FALSE);
+
+	private final Map<Integer, Double> trueDistanceSumView = new DistanceView(DistanceView.TRUE_SUM);
+
+	private final Map<Integer, Double> falseDistanceSumView = new DistanceView(DistanceView.FALSE_SUM);
+
+	/**
+	 * @param numBranches
+	 *            the number of branches currently known; branch ids start at 1
+	 */
+	public BranchCoverageStore(int numBranches) {
+		int capacity = Math.max(numBranches + 1, 16);
+		predicateCount = new int[capacity];
+		trueCount = new int[capacity];
+		falseCount = new int[capacity];
+		trueDistance = new double[capacity];
+		falseDistance = new double[capacity];
+		trueDistanceSum = new double[capacity];
+		falseDistanceSum = new double[capacity];
+		reached = new int[capacity];
+		Arrays.fill(trueDistance, NO_DISTANCE);
+		Arrays.fill(falseDistance, NO_DISTANCE);
+	}
+
+	private BranchCoverageStore(BranchCoverageStore other) {
+		predicateCount = other.predicateCount.clone();
+		trueCount = other.trueCount.clone();
+		falseCount = other.falseCount.clone();
+		trueDistance = other.trueDistance.clone();
+		falseDistance = other.falseDistance.clone();
+		trueDistanceSum = other.trueDistanceSum.clone();
+		falseDistanceSum = other.falseDistanceSum.clone();
+		reached = other.reached.clone();
+		numReached = other.numReached;
+		numPredicates = other.numPredicates;
+		numCoveredTrue = other.numCoveredTrue;
+		numCoveredFalse = other.numCoveredFalse;
+		maxReachedId = other.maxReachedId;
+	}
+
+	/**
+	 * Record the execution of a branch
+	 *
+	 * @param branch
+	 *            the id of the branch
+	 * @param trueDistance
+	 *            the distance to taking the true branch
+	 * @param falseDistance
+	 *            the distance to taking the false branch
+	 * @param countCoverage
+	 *            whether execution counts should be updated
+	 */
+	public void branchPassed(int branch, double trueDistance, double falseDistance, boolean countCoverage) {
+		if (branch >= this.trueDistance.length)
+			grow(branch + 1);
+
+		if (countCoverage) {
+			if (predicateCount[branch]++ == 0)
+				numPredicates++;
+			if (trueDistance == 0.0 && trueCount[branch]++ == 0)
+				numCoveredTrue++;
+			if (falseDistance == 0.0 && falseCount[branch]++ == 0)
+				numCoveredFalse++;
+		}
+
+		double oldTrue = this.trueDistance[branch];
+		if (oldTrue == NO_DISTANCE) {
+			reached[numReached++] = branch;
+			if (branch > maxReachedId)
+				maxReachedId = branch;
+			this.trueDistance[branch] = trueDistance;
+			this.falseDistance[branch] = falseDistance;
+			trueDistanceSum[branch] = trueDistance;
+			falseDistanceSum[branch] = falseDistance;
+		} else {
+			if (trueDistance < oldTrue)
+				this.trueDistance[branch] = trueDistance;
+			if (falseDistance < this.falseDistance[branch])
+				this.falseDistance[branch] = falseDistance;
+			trueDistanceSum[branch] += trueDistance;
+			falseDistanceSum[branch] += falseDistance;
+		}
+	}
+
+	private void grow(int minCapacity) {
+		int capacity = Math.max(minCapacity, trueDistance.length * 2);
+		int oldCapacity = trueDistance.length;
+		predicateCount = Arrays.copyOf(predicateCount, capacity);
+		trueCount = Arrays.copyOf(trueCount, capacity);
+		falseCount = Arrays.copyOf(falseCount, capacity);
+		trueDistance = Arrays.copyOf(trueDistance, capacity);
+		falseDistance = Arrays.copyOf(falseDistance, capacity);
+		trueDistanceSum = Arrays.copyOf(trueDistanceSum, capacity);
+		falseDistanceSum = Arrays.copyOf(falseDistanceSum, capacity);
+		reached = Arrays.copyOf(reached, capacity);
+		Arrays.fill(trueDistance, oldCapacity, capacity, NO_DISTANCE);
+		Arrays.fill(falseDistance, oldCapacity, capacity, NO_DISTANCE);
+	}
+
+	/**
+	 * Reset all recorded information. Only the entries of reached branches are
+	 * touched, so the cost is independent of the number of branches.
+	 */
+	public void clear() {
+		for (int i = 0; i < numReached; i++) {
+			int branch = reached[i];
+			predicateCount[branch] = 0;
+			trueCount[branch] = 0;
+			falseCount[branch] = 0;
+			trueDistance[branch] = NO_DISTANCE;
+			falseDistance[branch] = NO_DISTANCE;
+			trueDistanceSum[branch] = 0.0;
+			falseDistanceSum[branch] = 0.0;
+		}
+		numReached = 0;
+		numPredicates = 0;
+		numCoveredTrue = 0;
+		numCoveredFalse = 0;
+		maxReachedId = 0;
+	}
+
+	/**
+	 * @return a deep copy of this store
+	 */
+	public BranchCoverageStore copy() {
+		return new BranchCoverageStore(this);
+	}
+
+	public boolean isReached(int branch) {
+		return branch >= 0 && branch < trueDistance.length && trueDistance[branch] != NO_DISTANCE;
+	}
+
+	public boolean isCoveredTrue(int branch) {
+		return branch >= 0 && branch < trueCount.length && trueCount[branch] > 0;
+	}
+
+	public boolean isCoveredFalse(int branch) {
+		return branch >= 0 && branch < falseCount.length && falseCount[branch] > 0;
+	}
+
+	/**
+	 * @param branch
+	 *            a reached branch
+	 * @return the minimal distance to the true branch
+	 * @throws IllegalArgumentException
+	 *             if the branch was not reached
+	 */
+	public double getTrueDistance(int branch) {
+		if (!isReached(branch))
+			throw new IllegalArgumentException("Branch " + branch + " was not reached");
+		return trueDistance[branch];
+	}
+
+	/**
+	 * @param branch
+	 *            a reached branch
+	 * @return the minimal distance to the false branch
+	 * @throws IllegalArgumentException
+	 *             if the branch was not reached
+	 */
+	public double getFalseDistance(int branch) {
+		if (!isReached(branch))
+			throw new IllegalArgumentException("Branch " + branch + " was not reached");
+		return falseDistance[branch];
+	}
+
+	public int getNumReached() {
+		return numReached;
+	}
+
+	/**
+	 * @param index
+	 *            position in the order of first execution,
+	 *            <code>0 &lt;= index &lt; getNumReached()</code>
+	 * @return the id of the reached branch
+	 */
+	public int getReachedBranch(int index) {
+		if (index < 0 || index >= numReached)
+			throw new IndexOutOfBoundsException("Index " + index + ", reached branches: " + numReached);
+		return reached[index];
+	}
+
+	public Map<Integer, Integer> getPredicateExecutionCount() {
+		return predicateCountView;
+	}
+
+	public Map<Integer, Integer> getCoveredTrue() {
+		return trueCountView;
+	}
+
+	public Map<Integer, Integer> getCoveredFalse() {
+		return falseCountView;
+	}
+
+	public Map<Integer, Double> getTrueDistances() {
+		return trueDistanceView;
+	}
+
+	public Map<Integer, Double> getFalseDistances() {
+		return falseDistanceView;
+	}
+
+	public Map<Integer, Double> getTrueDistancesSum() {
+		return trueDistanceSumView;
+	}
+
+	public Map<Integer, Double> getFalseDistancesSum() {
+		return falseDistanceSumView;
+	}
+
+	/**
+	 * Iterates over the ids of a view in ascending order, which is the order in
+	 * which a HashMap with (small) Integer keys would iterate
+	 */
+	private abstract class IdIterator<V> implements Iterator<Map.Entry<Integer, V>> {
+
+		private int next = advance(-1);
+
+		/** @return the first id larger than the given one that is in the view */
+		private int advance(int id) {
+			for (int i = id + 1; i <= maxReachedId; i++) {
+				if (contains(i))
+					return i;
+			}
+			return -1;
+		}
+
+		protected abstract boolean contains(int id);
+
+		protected abstract V value(int id);
+
+		@Override
+		public boolean hasNext() {
+			return next >= 0;
+		}
+
+		@Override
+		public Map.Entry<Integer, V> next() {
+			if (next < 0)
+				throw new NoSuchElementException();
+			int id = next;
+			next = advance(id);
+			return new AbstractMap.SimpleImmutableEntry<>(id, value(id));
+		}
+	}
+
+	private final class CountView extends AbstractMap<Integer, Integer> {
+
+		static final int PREDICATE = 0;
+
+		static final int TRUE = 1;
+
+		static final int FALSE = 2;
+
+		private final int kind;
+
+		private final Set<Map.Entry<Integer, Integer>> entries = new AbstractSet<Map.Entry<Integer, Integer>>() {
+			@Override
+			public Iterator<Map.Entry<Integer, Integer>> iterator() {
+				return new IdIterator<Integer>() {
+					@Override
+					protected boolean contains(int id) {
+						return count(id) > 0;
+					}
+
+					@Override
+					protected Integer value(int id) {
+						return count(id);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return CountView.this.size();
+			}
+		};
+
+		CountView(int kind) {
+			this.kind = kind;
+		}
+
+		private int count(int id) {
+			int[] counts = kind == PREDICATE ? predicateCount : kind == TRUE ? trueCount : falseCount;
+			return id >= 0 && id < counts.length ? counts[id] : 0;
+		}
+
+		@Override
+		public int size() {
+			return kind == PREDICATE ? numPredicates : kind == TRUE ? numCoveredTrue : numCoveredFalse;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof Integer && count((Integer) key) > 0;
+		}
+
+		@Override
+		public Integer get(Object key) {
+			if (!(key instanceof Integer))
+				return null;
+			int count = count((Integer) key);
+			return count > 0 ? count : null;
+		}
+
+		@Override
+		public Set<Map.Entry<Integer, Integer>> entrySet() {
+			return entries;
+		}
+	}
+
+	private final class DistanceView extends AbstractMap<Integer, Double> {
+
+		static final int TRUE = 0;
+
+		static final int FALSE = 1;
+
+		static final int TRUE_SUM = 2;
+
+		static final int FALSE_SUM = 3;
+
+		private final int kind;
+
+		private final Set<Map.Entry<Integer, Double>> entries = new AbstractSet<Map.Entry<Integer, Double>>() {
+			@Override
+			public Iterator<Map.Entry<Integer, Double>> iterator() {
+				return new IdIterator<Double>() {
+					@Override
+					protected boolean contains(int id) {
+						return isReached(id);
+					}
+
+					@Override
+					protected Double value(int id) {
+						return distance(id);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return numReached;
+			}
+		};
+
+		DistanceView(int kind) {
+			this.kind = kind;
+		}
+
+		private double distance(int id) {
+			switch (kind) {
+			case TRUE:
+				return trueDistance[id];
+			case FALSE:
+				return falseDistance[id];
+			case TRUE_SUM:
+				return trueDistanceSum[id];
+			default:
+				return falseDistanceSum[id];
+			}
+		}
+
+		@Override
+		public int size() {
+			return numReached;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof Integer && isReached((Integer) key);
+		}
+
+		@Override
+		public Double get(Object key) {
+			if (!(key instanceof Integer) || !isReached((Integer) key))
+				return null;
+			return distance((Integer) key);
+		}
+
+		@Override
+		public Set<Map.Entry<Integer, Double>> entrySet() {
+			return entries;
+		}
+	}
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Growable list of double values used for the traces of a {@link MethodCall}.
+ *
+ * Values are kept in a primitive array, the {@link List} interface is only a
+ * view for existing consumers. Copies share the array with their source until
+ * one of them is modified. Snapshots are immutable and share the array even
+ * while the source keeps appending, as appending never changes the prefix a
+ * snapshot can see.
+ */
+public class DoubleTrace extends AbstractList<Double> implements RandomAccess {
+
+	private static final double[] EMPTY = new double[0];
+
+	private double[] data;
+
+	private int size;
+
+	/** Another trace uses the same array and may write to it */
+	private boolean shared;
+
+	/** A snapshot reads a prefix of the array, so it must not be changed in place */
+	private boolean prefixShared;
+
+	private final boolean immutable;
+
+	public DoubleTrace() {
+		this(EMPTY, 0, false);
+	}
+
+	private DoubleTrace(double[] data, int size, boolean immutable) {
+		this.data = data;
+		this.size = size;
+		this.immutable = immutable;
+	}
+
+	/**
+	 * @return a copy that shares the values of this trace until either of the
+	 *         two is modified
+	 */
+	public DoubleTrace copy() {
+		DoubleTrace copy = new DoubleTrace(data, size, false);
+		copy.shared = true;
+		shared = true;
+		return copy;
+	}
+
+	/**
+	 * @return an immutable view of the current values of this trace that is
+	 *         not affected by later modifications of this trace
+	 */
+	public DoubleTrace snapshot() {
+		if (immutable)
+			return this;
+		prefixShared = true;
+		return new DoubleTrace(data, size, true);
+	}
+
+	public double getDouble(int index) {
+		if (index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		return data[index];
+	}
+
+	public void addDouble(double value) {
+		checkMutable();
+		if (shared) {
+			data = Arrays.copyOf(data, Math.max(size + 1, data.length));
+			shared = false;
+			prefixShared = false;
+		} else if (size == data.length) {
+			data = Arrays.copyOf(data, Math.max(8, size + (size >> 1)));
+			prefixShared = false;
+		}
+		data[size++] = value;
+		modCount++;
+	}
+
+	public double[] toDoubleArray() {
+		return Arrays.copyOf(data, size);
+	}
+
+	private void checkMutable() {
+		if (immutable)
+			throw new UnsupportedOperationException("Trace snapshots are immutable");
+	}
+
+	/** Make sure the array can be changed in place */
+	private void own() {
+		checkMutable();
+		if (shared || prefixShared) {
+			data = Arrays.copyOf(data, data.length);
+			shared = false;
+			prefixShared = false;
+		}
+	}
+
+	@Override
+	public Double get(int index) {
+		return getDouble(index);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean add(Double value) {
+		addDouble(value);
+		return true;
+	}
+
+	@Override
+	public void add(int index, Double value) {
+		if (index == size) {
+			addDouble(value);
+			return;
+		}
+		if (index < 0 || index > size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		own();
+		if (size == data.length)
+			data = Arrays.copyOf(data, Math.max(8, size + (size >> 1)));
+		System.arraycopy(data, index, data, index + 1, size - index);
+		data[index] = value;
+		size++;
+		modCount++;
+	}
+
+	@Override
+	public Double set(int index, Double value) {
+		double old = getDouble(index);
+		own();
+		data[index] = value;
+		return old;
+	}
+
+	@Override
+	public Double remove(int index) {
+		double old = getDouble(index);
+		own();
+		System.arraycopy(data, index + 1, data, index, size - index - 1);
+		size--;
+		modCount++;
+		return old;
+	}
+
+	@Override
+	public void clear() {
+		checkMutable();
+		if (shared || prefixShared) {
+			data = EMPTY;
+			shared = false;
+			prefixShared = false;
+		}
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	public int hashCode() {
+		int hashCode = 1;
+		for (int i = 0; i < size; i++)
+			hashCode = 31 * hashCode + Double.hashCode(data[i]);
+		return hashCode;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this)
+			return true;
+		if (o instanceof DoubleTrace) {
+			DoubleTrace other = (DoubleTrace) o;
+			if (other.size != size)
+				return false;
+			for (int i = 0; i < size; i++) {
+				if (Double.doubleToLongBits(data[i]) != Double.doubleToLongBits(other.data[i]))
+					return false;
+			}
+			return true;
+		}
+		return super.equals(o);
+	}
+}
@@ -53,6 +53,9 @@ public class ExecutionResult implements Cloneable {
 	/** Trace recorded during execution */
 	protected ExecutionTrace trace;
 
+	/** Summary of the trace, shared with clones as they have the same trace */
+	private TraceSummary traceSummary;
+
 	/** Duration of execution */
 	protected long executionTime = 0L;
 
@@ -123,6 +126,7 @@ public class ExecutionResult implements Cloneable {
 	 */
 	public void setThrownExceptions(Map<Integer, Throwable> data) {
 		exceptions.clear();
+		traceSummary = null;
 		for (Integer position : data.keySet()) {
 			reportNewThrownException(position, data.get(position));
 		}
@@ -158,6 +162,7 @@ public class ExecutionResult implements Cloneable {
 	 */
 	public void reportNewThrownException(Integer position, Throwable t) {
 		exceptions.put(position, t);
+		traceSummary = null;
 	}
 
 	/**
@@ -284,6 +289,18 @@ public class ExecutionResult implements Cloneable {
 			throw new IllegalArgumentException("Trace cannot be null");
 		}
 		this.trace = trace;
+		traceSummary = null;
+	}
+
+	/**
+	 * Summary of the trace used for incremental suite fitness evaluation
+	 * 
+	 * @return a {@link org.evosuite.testcase.execution.TraceSummary} object.
+	 */
+	public TraceSummary getTraceSummary() {
+		if (traceSummary == null)
+			traceSummary = TraceSummary.of(this);
+		return traceSummary;
 	}
 
 	/**
@@ -429,6 +446,7 @@ public class ExecutionResult implements Cloneable {
 		ExecutionResult copy = new ExecutionResult(test, mutation);
 		copy.exceptions.putAll(exceptions);
 		copy.trace = trace.lazyClone();
+		copy.traceSummary = traceSummary;
 		copy.explicitExceptions.putAll(explicitExceptions);
 		copy.executionTime = executionTime;
 		copy.regressionObjectDistance = regressionObjectDistance;
@@ -0,0 +1,193 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.Collections;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.runtime.LoopCounter;
+import org.evosuite.testcase.TestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One worker of the {@link ParallelTestCaseExecutor}: a thread with its own
+ * {@link ExecutionTracer} and {@link LoopCounter}, on which one test is
+ * executed at a time.
+ * 
+ * <p>
+ * WARNING: as for the {@link TestCaseExecutor}, never give "privileged" rights
+ * in MSecurityManager to the threads generated here
+ * </p>
+ */
+class ExecutionSlot implements ThreadFactory {
+
+	private static final Logger logger = LoggerFactory.getLogger(ExecutionSlot.class);
+
+	private final int id;
+
+	/**
+	 * Replaced together with the thread if a test does not stop after a
+	 * timeout, so that the old thread keeps seeing the kill switch
+	 */
+	private volatile ExecutionTracer tracer;
+
+	private ExecutorService executor;
+
+	private Thread currentThread = null;
+
+	private int threadCounter = 0;
+
+	ExecutionSlot(int id) {
+		this.id = id;
+		this.tracer = ExecutionTracer.createSlotTracer();
+		this.executor = Executors.newSingleThreadExecutor(this);
+	}
+
+	/**
+	 * Execute a test on the thread of this slot. Shared state (runtime,
+	 * sandbox, output streams) has to be handled by the caller.
+	 * 
+	 * @param tc
+	 *            the test to execute
+	 * @param timeout
+	 *            in milliseconds
+	 * @return the result of the execution
+	 */
+	ExecutionResult execute(TestCase tc, int timeout) {
+		TimeoutHandler<ExecutionResult> handler = new TimeoutHandler<ExecutionResult>();
+		SlotTestRunnable callable = new SlotTestRunnable(tc);
+		ExecutionTracer slotTracer = tracer;
+		slotTracer.clear();
+
+		try {
+			return handler.execute(callable, executor, timeout, Properties.CPU_TIMEOUT);
+		} catch (InterruptedException e) {
+			logger.info("InterruptedException in execution slot " + id);
+			ExecutionResult result = new ExecutionResult(tc, null);
+			result.setThrownExceptions(callable.getExceptionsThrown());
+			result.setTrace(slotTracer.getTrace());
+			return result;
+		} catch (ExecutionException e) {
+			logger.error("ExecutionException (this is likely a serious error in the framework)", e);
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			} else if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			ExecutionResult result = new ExecutionResult(tc, null);
+			result.setThrownExceptions(callable.getExceptionsThrown());
+			result.setTrace(slotTracer.getTrace());
+			return result;
+		} catch (TimeoutException e) {
+			logger.info("TimeoutException in execution slot " + id + ", need to stop runner");
+			slotTracer.setSlotKillSwitch(true);
+			try {
+				handler.getLastTask().get(Properties.SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException | ExecutionException | TimeoutException e2) {
+			}
+
+			if (!callable.isRunFinished()) {
+				logger.info("Run in execution slot " + id + " still not finished, replacing thread");
+				replaceThread();
+			}
+
+			ExecutionResult result = new ExecutionResult(tc, null);
+			result.setThrownExceptions(callable.getExceptionsThrown());
+			result.reportNewThrownException(tc.size(), new TestCaseExecutor.TimeoutExceeded());
+			result.setTrace(slotTracer.getTrace());
+			if (slotTracer == tracer) {
+				slotTracer.setSlotKillSwitch(false);
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * The stuck thread keeps the old tracer, whose kill switch stays on, and
+	 * is left running at minimum priority
+	 */
+	private void replaceThread() {
+		ExecutionTracer oldTracer = tracer;
+		executor.shutdownNow();
+		if (currentThread != null && currentThread.isAlive()) {
+			currentThread.setPriority(Thread.MIN_PRIORITY);
+		}
+		tracer = ExecutionTracer.createSlotTracer();
+		oldTracer.setSlotKillSwitch(true);
+		executor = Executors.newSingleThreadExecutor(this);
+	}
+
+	/**
+	 * Set the kill switch of the tracer of the current thread of this slot.
+	 * The tracers of replaced threads keep their kill switch on.
+	 * 
+	 * @param kill
+	 */
+	void setKillSwitch(boolean kill) {
+		tracer.setSlotKillSwitch(kill);
+	}
+
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/** {@inheritDoc} */
+	@Override
+	public Thread newThread(final Runnable r) {
+		ThreadGroup threadGroup = new ThreadGroup(TestCaseExecutor.TEST_EXECUTION_THREAD_GROUP);
+		currentThread = new Thread(threadGroup, new Runnable() {
+			@Override
+			public void run() {
+				ExecutionTracer.bindSlotTracer(tracer);
+				LoopCounter.bindNewInstanceToCurrentThread();
+				r.run();
+			}
+		});
+		currentThread.setName(TestCaseExecutor.TEST_EXECUTION_THREAD + "_SLOT_" + id + "_" + threadCounter);
+		threadCounter++;
+		currentThread.setContextClassLoader(TestGenerationContext.getInstance().getClassLoaderForSUT());
+		return currentThread;
+	}
+
+	/**
+	 * Runs a test without observers, starting from a clean loop counter
+	 */
+	private static class SlotTestRunnable extends TestRunnable {
+
+		SlotTestRunnable(TestCase tc) {
+			super(tc, new Scope(), Collections.<ExecutionObserver> emptySet());
+			setExecutedInBatch(true);
+		}
+
+		@Override
+		public ExecutionResult call() {
+			LoopCounter.getInstance().reset();
+			return super.call();
+		}
+	}
+}
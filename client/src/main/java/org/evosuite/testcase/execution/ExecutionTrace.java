@@ -602,6 +602,14 @@ public interface ExecutionTrace {
 	 */
 	public Set<String> getClassesWithStaticWrites();
 
+	/**
+	 * Retrieve the names of the static fields affected by a PUTSTATIC, grouped
+	 * by the owner class.
+	 *
+	 * @return
+	 */
+	public Map<String, Set<String>> getStaticFieldWrites();
+
 	/**
 	 * Retrieve a list of those classes that were affected by a GETSTATIC.
 	 *
@@ -273,6 +273,9 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 
 	private final Map<Integer, Double> trueDistancesSum = Collections.synchronizedMap(new HashMap<Integer, Double>());
 
+	// Replaces the branch coverage and distance maps if PRIMITIVE_BRANCH_TRACE is set
+	private BranchCoverageStore branchStore = null;
+
 	public static Set<Integer> gradientBranches = Collections.synchronizedSet(new HashSet<Integer>());
 
 	public static Set<Integer> gradientBranchesCoveredTrue = Collections.synchronizedSet(new HashSet<Integer>());
@@ -295,6 +298,11 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	 */
 	public ExecutionTraceImpl() {
 		stack.add(new MethodCall("", "", 0, 0, 0, -1)); // Main method
+		if (Properties.PRIMITIVE_BRANCH_TRACE) {
+			branchStore = new BranchCoverageStore(
+					BranchPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT())
+							.getBranchCounter());
+		}
 	}
 
 	/**
@@ -333,7 +341,9 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 				gradientBranches.add(branch);
 		}
 
-		if (traceCoverage) {
+		if (branchStore != null) {
+			branchStore.branchPassed(branch, true_distance, false_distance, traceCoverage);
+		} else if (traceCoverage) {
 			if (!coveredPredicates.containsKey(branch))
 				coveredPredicates.put(branch, 1);
 			else
@@ -357,9 +367,9 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 
 		if (Properties.TRACK_COVERED_GRADIENT_BRANCHES) {
 			if (gradientBranches.contains(branch)) {
-				if ((coveredTrue.containsKey(branch)))
+				if (isCoveredTrue(branch))
 					gradientBranchesCoveredTrue.add(branch);
-				if ((coveredFalse.containsKey(branch)))
+				if (isCoveredFalse(branch))
 					gradientBranchesCoveredFalse.add(branch);
 			}
 		}
@@ -372,8 +382,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 					.getInstruction().getASMNode().getPrevious() != null)
 				previousOpcode = BranchPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT())
 						.getBranch(branch).getInstruction().getASMNode().getPrevious().getOpcode();
-			boolean cTrue = coveredTrue.containsKey(branch);
-			boolean cFalse = coveredFalse.containsKey(branch);
+			boolean cTrue = isCoveredTrue(branch);
+			boolean cFalse = isCoveredFalse(branch);
 			switch (previousOpcode) {
 			case Opcodes.LCMP:
 				trackBranchOpcode(bytecodeInstructionReached, RuntimeVariable.Reached_lcmp, branch);
@@ -460,25 +470,27 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 			}
 		}
 
-		if (!trueDistances.containsKey(branch))
-			trueDistances.put(branch, true_distance);
-		else
-			trueDistances.put(branch, Math.min(trueDistances.get(branch), true_distance));
+		if (branchStore == null) {
+			if (!trueDistances.containsKey(branch))
+				trueDistances.put(branch, true_distance);
+			else
+				trueDistances.put(branch, Math.min(trueDistances.get(branch), true_distance));
 
-		if (!falseDistances.containsKey(branch))
-			falseDistances.put(branch, false_distance);
-		else
-			falseDistances.put(branch, Math.min(falseDistances.get(branch), false_distance));
+			if (!falseDistances.containsKey(branch))
+				falseDistances.put(branch, false_distance);
+			else
+				falseDistances.put(branch, Math.min(falseDistances.get(branch), false_distance));
 
-		if (!trueDistancesSum.containsKey(branch))
-			trueDistancesSum.put(branch, true_distance);
-		else
-			trueDistancesSum.put(branch, trueDistancesSum.get(branch) + true_distance);
+			if (!trueDistancesSum.containsKey(branch))
+				trueDistancesSum.put(branch, true_distance);
+			else
+				trueDistancesSum.put(branch, trueDistancesSum.get(branch) + true_distance);
 
-		if (!falseDistancesSum.containsKey(branch))
-			falseDistancesSum.put(branch, false_distance);
-		else
-			falseDistancesSum.put(branch, falseDistancesSum.get(branch) + false_distance);
+			if (!falseDistancesSum.containsKey(branch))
+				falseDistancesSum.put(branch, false_distance);
+			else
+				falseDistancesSum.put(branch, falseDistancesSum.get(branch) + false_distance);
+		}
 
 		if (!disableContext && (Properties.INSTRUMENT_CONTEXT || Properties.INSTRUMENT_METHOD_CALLS
 				|| ArrayUtil.contains(Properties.CRITERION, Criterion.IBRANCH)
@@ -493,6 +505,14 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 		}
 	}
 
+	private boolean isCoveredTrue(int branch) {
+		return branchStore != null ? branchStore.isCoveredTrue(branch) : coveredTrue.containsKey(branch);
+	}
+
+	private boolean isCoveredFalse(int branch) {
+		return branchStore != null ? branchStore.isCoveredFalse(branch) : coveredFalse.containsKey(branch);
+	}
+
 	/**
 	 * Track reach/coverage of branch based on it's underlying opcode during
 	 * execution
@@ -618,15 +638,11 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 		}
 		
 		if(latestCall == null) {
-			return new ArrayList<>();
+			return new IntTrace();
 		}
 		
-		ArrayList<Integer> branchTrace = new ArrayList<Integer>(latestCall.branchTrace);
-//		for(Integer i: latestCall.branchTrace) {
-//			branchTrace.add(i);
-//		}
-		
-		return branchTrace;
+		// The snapshot shares the values of the call's trace, which keeps growing
+		return latestCall.branchTrace.snapshot();
 	}
 	
 	
@@ -677,6 +693,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 		coveredTrueContext = new HashMap<Integer, Map<CallContext, Double>>();
 		coveredFalseContext = new HashMap<Integer, Map<CallContext, Double>>();
 		coveredPredicateContext = new HashMap<Integer, Map<CallContext, Integer>>();
+		if (branchStore != null)
+			branchStore.clear();
 	}
 
 	/**
@@ -722,6 +740,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 		copy.coveredTrueContext.putAll(coveredTrueContext);
 		copy.coveredFalseContext.putAll(coveredFalseContext);
 		copy.coveredPredicateContext.putAll(coveredPredicateContext);
+		if (branchStore != null)
+			copy.branchStore = branchStore.copy();
 
 		copy.methodId = methodId;
 		copy.duCounter = duCounter;
@@ -818,10 +838,10 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 			if (traceCalls) {
 				if (ArrayUtil.contains(Properties.CRITERION, Criterion.DEFUSE)
 						|| ArrayUtil.contains(Properties.CRITERION, Criterion.ALLDEFS)) {
-					call.branchTrace.add(-1);
-					call.trueDistanceTrace.add(1.0);
-					call.falseDistanceTrace.add(0.0);
-					call.defuseCounterTrace.add(duCounter);
+					call.branchTrace.addInt(-1);
+					call.trueDistanceTrace.addDouble(1.0);
+					call.falseDistanceTrace.addDouble(0.0);
+					call.defuseCounterTrace.addInt(duCounter);
 					// TODO line_trace ?
 				}
 			}
@@ -964,7 +984,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	@Override
 	public Set<Integer> getCoveredFalseBranches() {
 		Set<Integer> covered = new HashSet<Integer>();
-		for (Entry<Integer, Double> entry : falseDistances.entrySet()) {
+		for (Entry<Integer, Double> entry : getFalseDistances().entrySet()) {
 			if (entry.getValue() == 0.0)
 				covered.add(entry.getKey());
 		}
@@ -1033,7 +1053,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	/** {@inheritDoc} */
 	@Override
 	public Set<Integer> getCoveredPredicates() {
-		return coveredPredicates.keySet();
+		return getPredicateExecutionCount().keySet();
 	}
 
 	/*
@@ -1045,7 +1065,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	@Override
 	public Set<Integer> getCoveredTrueBranches() {
 		Set<Integer> covered = new HashSet<Integer>();
-		for (Entry<Integer, Double> entry : trueDistances.entrySet()) {
+		for (Entry<Integer, Double> entry : getTrueDistances().entrySet()) {
 			if (entry.getValue() == 0.0)
 				covered.add(entry.getKey());
 		}
@@ -1102,6 +1122,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	/** {@inheritDoc} */
 	@Override
 	public double getFalseDistance(int branchId) {
+		if (branchStore != null)
+			return branchStore.getFalseDistance(branchId);
 		return falseDistances.get(branchId);
 	}
 
@@ -1113,6 +1135,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	/** {@inheritDoc} */
 	@Override
 	public Map<Integer, Double> getFalseDistances() {
+		if (branchStore != null)
+			return branchStore.getFalseDistances();
 		return falseDistances;
 	}
 
@@ -1191,6 +1215,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	/** {@inheritDoc} */
 	@Override
 	public Map<Integer, Integer> getPredicateExecutionCount() {
+		if (branchStore != null)
+			return branchStore.getPredicateExecutionCount();
 		return coveredPredicates;
 	}
 
@@ -1335,8 +1361,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 			}
 			ArrayList<Integer> removableIndices = new ArrayList<Integer>();
 			for (int i = 0; i < call.defuseCounterTrace.size(); i++) {
-				int currentDUCounter = call.defuseCounterTrace.get(i);
-				int currentBranchBytecode = call.branchTrace.get(i);
+				int currentDUCounter = call.defuseCounterTrace.getInt(i);
+				int currentBranchBytecode = call.branchTrace.getInt(i);
 
 				if (currentDUCounter < duCounterStart || currentDUCounter > duCounterEnd)
 					removableIndices.add(i);
@@ -1345,10 +1371,10 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 					// targetDU
 					boolean targetExpressionValue = targetDU.getControlDependentBranchExpressionValue();
 					if (targetExpressionValue) {
-						if (call.trueDistanceTrace.get(i) == 0.0)
+						if (call.trueDistanceTrace.getDouble(i) == 0.0)
 							removableIndices.add(i);
 					} else {
-						if (call.falseDistanceTrace.get(i) == 0.0)
+						if (call.falseDistanceTrace.getDouble(i) == 0.0)
 							removableIndices.add(i);
 					}
 
@@ -1370,6 +1396,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	/** {@inheritDoc} */
 	@Override
 	public double getTrueDistance(int branchId) {
+		if (branchStore != null)
+			return branchStore.getTrueDistance(branchId);
 		return trueDistances.get(branchId);
 	}
 
@@ -1381,6 +1409,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	/** {@inheritDoc} */
 	@Override
 	public Map<Integer, Double> getTrueDistances() {
+		if (branchStore != null)
+			return branchStore.getTrueDistances();
 		return trueDistances;
 	}
 
@@ -1407,6 +1437,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	/** {@inheritDoc} */
 	@Override
 	public boolean hasFalseDistance(int predicateId) {
+		if (branchStore != null)
+			return branchStore.isReached(predicateId);
 		return falseDistances.containsKey(predicateId);
 	}
 
@@ -1430,6 +1462,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	/** {@inheritDoc} */
 	@Override
 	public boolean hasTrueDistance(int predicateId) {
+		if (branchStore != null)
+			return branchStore.isReached(predicateId);
 		return trueDistances.containsKey(predicateId);
 	}
 
@@ -1496,7 +1530,7 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 					}
 				}
 				if (!empty)
-					stack.peek().lineTrace.add(line);
+					stack.peek().lineTrace.addInt(line);
 			}
 		}
 		if (traceCoverage) {
@@ -1683,15 +1717,15 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
 		}
 		ret.append("\nCovered predicates: ");
-		for (Entry<Integer, Integer> entry : coveredPredicates.entrySet()) {
+		for (Entry<Integer, Integer> entry : getPredicateExecutionCount().entrySet()) {
 			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
 		}
 		ret.append("\nTrue distances: ");
-		for (Entry<Integer, Double> entry : trueDistances.entrySet()) {
+		for (Entry<Integer, Double> entry : getTrueDistances().entrySet()) {
 			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
 		}
 		ret.append("\nFalse distances: ");
-		for (Entry<Integer, Double> entry : falseDistances.entrySet()) {
+		for (Entry<Integer, Double> entry : getFalseDistances().entrySet()) {
 			ret.append(entry.getKey() + ": " + entry.getValue() + ", ");
 		}
 		return ret.toString();
@@ -1707,14 +1741,14 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 				return;
 			}
 			stack.peek().setCallSite(bytecode_id);
-			stack.peek().branchTrace.add(branch); // was: bytecode_id
-			stack.peek().trueDistanceTrace.add(true_distance);
-			stack.peek().falseDistanceTrace.add(false_distance);
+			stack.peek().branchTrace.addInt(branch); // was: bytecode_id
+			stack.peek().trueDistanceTrace.addDouble(true_distance);
+			stack.peek().falseDistanceTrace.addDouble(false_distance);
 			assert ((true_distance == 0.0) || (false_distance == 0.0));
 			// TODO line_trace ?
 			if (ArrayUtil.contains(Properties.CRITERION, Criterion.DEFUSE)
 					|| ArrayUtil.contains(Properties.CRITERION, Criterion.ALLDEFS)) {
-				stack.peek().defuseCounterTrace.add(duCounter);
+				stack.peek().defuseCounterTrace.addInt(duCounter);
 			}
 		}
 	}
@@ -1779,12 +1813,16 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	/** {@inheritDoc} */
 	@Override
 	public Map<Integer, Double> getFalseDistancesSum() {
+		if (branchStore != null)
+			return branchStore.getFalseDistancesSum();
 		return falseDistancesSum;
 	}
 
 	/** {@inheritDoc} */
 	@Override
 	public Map<Integer, Double> getTrueDistancesSum() {
+		if (branchStore != null)
+			return branchStore.getTrueDistancesSum();
 		return trueDistancesSum;
 	}
 
@@ -1875,9 +1913,21 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	 */
 	private final HashSet<String> classesWithStaticWrites = new HashSet<String>();
 
+	/**
+	 * This map keeps the names of the static fields written (i.e. PUTSTATIC)
+	 * during test execution, grouped by class.
+	 */
+	private final HashMap<String, Set<String>> staticFieldWrites = new HashMap<String, Set<String>>();
+
 	@Override
 	public void putStaticPassed(String classNameWithDots, String fieldName) {
 		classesWithStaticWrites.add(classNameWithDots);
+		Set<String> fieldNames = staticFieldWrites.get(classNameWithDots);
+		if (fieldNames == null) {
+			fieldNames = new HashSet<String>();
+			staticFieldWrites.put(classNameWithDots, fieldNames);
+		}
+		fieldNames.add(fieldName);
 	}
 
 	/**
@@ -1896,6 +1946,11 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 		return classesWithStaticWrites;
 	}
 
+	@Override
+	public Map<String, Set<String>> getStaticFieldWrites() {
+		return staticFieldWrites;
+	}
+
 	/**
 	 * This field keeps the names of those classes that were initialized (ie
 	 * <clinit> was completed during this test execution). The list has no
@@ -1937,12 +1992,15 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 	
 	@Override
 	public Map<Integer, Integer> getCoveredTrue() {
+		if (branchStore != null)
+			return branchStore.getCoveredTrue();
 		return this.coveredTrue;
 	}
 
 	@Override
 	public Map<Integer, Integer> getCoveredFalse() {
-		// TODO Auto-generated method stub
+		if (branchStore != null)
+			return branchStore.getCoveredFalse();
 		return this.coveredFalse;
 	}
 }
@@ -720,6 +720,11 @@ public class ExecutionTraceProxy implements ExecutionTrace, Cloneable {
 		return trace.getClassesWithStaticWrites();
 	}
 
+	@Override
+	public Map<String, Set<String>> getStaticFieldWrites() {
+		return trace.getStaticFieldWrites();
+	}
+
 	@Override
 	public void classInitialized(String classNameWithDots) {
 		trace.classInitialized(classNameWithDots);
@@ -21,11 +21,13 @@ package org.evosuite.testcase.execution;
 
 import java.util.Map;
 
+import org.evosuite.Properties;
 import org.evosuite.coverage.dataflow.DefUsePool;
 import org.evosuite.coverage.dataflow.Definition;
 import org.evosuite.coverage.dataflow.Use;
 import org.evosuite.instrumentation.testability.BooleanHelper;
 import org.evosuite.seeding.ConstantPoolManager;
+import org.evosuite.testcase.execution.reset.StaticFieldSnapshots;
 import org.objectweb.asm.Opcodes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,7 +53,7 @@ public class ExecutionTracer {
 	private boolean disabled = true;
 
 	/** Flag that is used to kill threads that are stuck in endless loops */
-	private boolean killSwitch = false;
+	private volatile boolean killSwitch = false;
 
 	private int num_statements = 0;
 
@@ -67,8 +69,24 @@ public class ExecutionTracer {
 	 * external library), then we don't want its data in the current trace
 	 */
 	private static volatile Thread currentThread = null;
-	
-	private static Pair<Integer, Double> comparisonValue;
+
+	/**
+	 * Tracers of the execution slots of the {@link ParallelTestCaseExecutor},
+	 * each bound to the thread of its slot
+	 */
+	private static final ThreadLocal<ExecutionTracer> slotTracer = new ThreadLocal<ExecutionTracer>();
+
+	/** Only look up slot tracers once a slot has been created */
+	private static volatile boolean slotsInUse = false;
+
+	/** The thread of the execution slot this tracer belongs to, if any */
+	private Thread slotThread = null;
+
+	/**
+	 * Result of the last complex number comparison, per tracer as slots
+	 * compare concurrently
+	 */
+	private Pair<Integer, Double> comparisonValue;
 
 	/**
 	 * <p>
@@ -189,12 +207,55 @@ public class ExecutionTracer {
 	 * @return a {@link org.evosuite.testcase.execution.ExecutionTracer} object.
 	 */
 	public static ExecutionTracer getExecutionTracer() {
+		if (slotsInUse) {
+			ExecutionTracer tracer = slotTracer.get();
+			if (tracer != null)
+				return tracer;
+		}
 		if (instance == null) {
 			instance = new ExecutionTracer();
 		}
 		return instance;
 	}
 
+	/**
+	 * Create a tracer for an execution slot of the
+	 * {@link ParallelTestCaseExecutor}. It has to be bound to the thread of
+	 * the slot with {@link #bindSlotTracer(ExecutionTracer)}.
+	 * 
+	 * @return a new, disabled tracer
+	 */
+	static ExecutionTracer createSlotTracer() {
+		ExecutionTracer tracer = new ExecutionTracer();
+		tracer.clear();
+		slotsInUse = true;
+		return tracer;
+	}
+
+	/**
+	 * Make the current thread report to the given slot tracer. Threads that
+	 * the SUT spawns from it are not bound and thus ignored, as they are for
+	 * sequential execution.
+	 * 
+	 * @param tracer
+	 *            a tracer created with {@link #createSlotTracer()}
+	 */
+	static void bindSlotTracer(ExecutionTracer tracer) {
+		tracer.slotThread = Thread.currentThread();
+		slotTracer.set(tracer);
+	}
+
+	/**
+	 * Set the kill switch of this tracer, for slot tracers that need to be
+	 * stopped from the coordinating thread
+	 * 
+	 * @param value
+	 *            a boolean.
+	 */
+	void setSlotKillSwitch(boolean value) {
+		killSwitch = value;
+	}
+
 	/**
 	 * Reset for new execution
 	 */
@@ -204,6 +265,26 @@ public class ExecutionTracer {
 		num_statements = 0;
 	}
 
+	/**
+	 * @return a copy of the trace of the current execution
+	 */
+	ExecutionTrace copyTrace() {
+		return trace.lazyClone();
+	}
+
+	/**
+	 * Continue the current execution from a copy of an earlier trace
+	 * 
+	 * @param copy
+	 *            trace after the statements that are not executed again
+	 * @param numStatements
+	 *            number of statements that are not executed again
+	 */
+	void restoreTrace(ExecutionTrace copy, int numStatements) {
+		trace = copy.lazyClone();
+		num_statements = numStatements;
+	}
+
 	/**
 	 * Obviously more than one thread is executing during the creation of
 	 * concurrent TestCases. #TODO steenbuck we should test if
@@ -215,6 +296,11 @@ public class ExecutionTracer {
 		if (!checkCallerThread) {
 			return false;
 		}
+		if (slotsInUse) {
+			ExecutionTracer tracer = slotTracer.get();
+			if (tracer != null)
+				return Thread.currentThread() != tracer.slotThread;
+		}
 		if (currentThread == null) {
 			logger.error("CurrentThread has not been set!");
 			Map<Thread, StackTraceElement[]> map = Thread.getAllStackTraces();
@@ -477,6 +563,7 @@ public class ExecutionTracer {
 		/* 
 		 * in case of the if instruction which has complex basic type comparison, the real value is stored in comparisonValue
 		 * */
+		Pair<Integer, Double> comparisonValue = tracer.comparisonValue;
 		if (comparisonValue != null && comparisonValue.fst == branch) {
 			val = comparisonValue.snd;
 		}
@@ -550,15 +637,15 @@ public class ExecutionTracer {
 				cmpVariation = value1 - value2;
 			}
 		}
-		comparisonValue = Pair.of(branchId, cmpVariation);
+		getExecutionTracer().comparisonValue = Pair.of(branchId, cmpVariation);
 	}
 	
 	public static void onDcmpG(double value1, double value2, int branchId) {
 		if (value1 == value2) {
-			comparisonValue = Pair.of(branchId, 0.0);
+			getExecutionTracer().comparisonValue = Pair.of(branchId, 0.0);
 		} else if(Double.isNaN(value1) || Double.isNaN(value2)) {
 			// Bytecode spec: If either number is NaN, the integer 1 is pushed onto the stack
-			comparisonValue = Pair.of(branchId, 1.0);
+			getExecutionTracer().comparisonValue = Pair.of(branchId, 1.0);
 		} else {
 			passedComplexNumberComparison(value1, value2, branchId);
 		}
@@ -566,10 +653,10 @@ public class ExecutionTracer {
 	
 	public static void onDcmpL(double value1, double value2, int branchId) {
 		if (value1 == value2) {
-			comparisonValue = Pair.of(branchId, 0.0);
+			getExecutionTracer().comparisonValue = Pair.of(branchId, 0.0);
 		} else if(Double.isNaN(value1) || Double.isNaN(value2)) {
 			// Bytecode spec: If either number is NaN, the integer -1 is pushed onto the stack
-			comparisonValue = Pair.of(branchId, -1.0);
+			getExecutionTracer().comparisonValue = Pair.of(branchId, -1.0);
 		} else {
 			passedComplexNumberComparison(value1, value2, branchId);
 		}
@@ -581,10 +668,10 @@ public class ExecutionTracer {
 
 	public static void onFcmpG(float value1, float value2, int branchId) {
 		if (value1 == value2) {
-			comparisonValue = Pair.of(branchId, 0.0);
+			getExecutionTracer().comparisonValue = Pair.of(branchId, 0.0);
 		} else if(Float.isNaN(value1) || Float.isNaN(value2)) {
 			// Bytecode spec: If either number is NaN, the integer 1 is pushed onto the stack
-			comparisonValue = Pair.of(branchId, 1.0);
+			getExecutionTracer().comparisonValue = Pair.of(branchId, 1.0);
 		} else {
 			passedComplexNumberComparison(value1, value2, branchId);
 		}
@@ -592,10 +679,10 @@ public class ExecutionTracer {
 	
 	public static void onFcmpL(float value1, float value2, int branchId) {
 		if (value1 == value2) {
-			comparisonValue = Pair.of(branchId, 0.0);
+			getExecutionTracer().comparisonValue = Pair.of(branchId, 0.0);
 		} else if(Float.isNaN(value1) || Float.isNaN(value2)) {
 			// Bytecode spec: If either number is NaN, the integer -1 is pushed onto the stack
-			comparisonValue = Pair.of(branchId, -1.0);
+			getExecutionTracer().comparisonValue = Pair.of(branchId, -1.0);
 		} else {
 			passedComplexNumberComparison(value1, value2, branchId);
 		}
@@ -637,6 +724,22 @@ public class ExecutionTracer {
 		tracer.trace.classInitialized(classNameWithDots);
 		
 	}
+
+	/**
+	 * This method is added in the transformed bytecode of classes that can
+	 * load their own class constant
+	 *
+	 * @param className
+	 * @param initializedClass
+	 *            the class whose static initializer completed
+	 */
+	public static void exitClassInit(String className, Class<?> initializedClass) {
+		exitClassInit(className);
+
+		if (Properties.STATIC_RESET_ENGINE == Properties.StaticResetEngine.SNAPSHOT) {
+			StaticFieldSnapshots.getInstance().captureInitializedClass(initializedClass);
+		}
+	}
 	
 	/**
 	 * 
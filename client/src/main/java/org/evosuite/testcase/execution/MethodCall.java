@@ -24,16 +24,14 @@
  */
 package org.evosuite.testcase.execution;
 
-import java.util.ArrayList;
-import java.util.List;
 public class MethodCall implements Cloneable {
 	public String className;
 	public String methodName;
-	public List<Integer> lineTrace;
-	public List<Integer> branchTrace;
-	public List<Double> trueDistanceTrace;
-	public List<Double> falseDistanceTrace;
-	public List<Integer> defuseCounterTrace;
+	public IntTrace lineTrace;
+	public IntTrace branchTrace;
+	public DoubleTrace trueDistanceTrace;
+	public DoubleTrace falseDistanceTrace;
+	public IntTrace defuseCounterTrace;
 	public int methodId;
 	public int callingObjectID;
 	public int callDepth;
@@ -53,11 +51,11 @@ public class MethodCall implements Cloneable {
 	        int callingObjectID, int callDepth, int callSite) {
 		this.className = className;
 		this.methodName = methodName;
-		lineTrace = new ArrayList<Integer>();
-		branchTrace = new ArrayList<Integer>();
-		trueDistanceTrace = new ArrayList<Double>();
-		falseDistanceTrace = new ArrayList<Double>();
-		defuseCounterTrace = new ArrayList<Integer>();
+		lineTrace = new IntTrace();
+		branchTrace = new IntTrace();
+		trueDistanceTrace = new DoubleTrace();
+		falseDistanceTrace = new DoubleTrace();
+		defuseCounterTrace = new IntTrace();
 		this.methodId = methodId;
 		this.callingObjectID = callingObjectID;
 		this.callDepth = callDepth;
@@ -154,16 +152,21 @@ public class MethodCall implements Cloneable {
 		return r.toString();
 	}
 
-	/** {@inheritDoc} */
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The traces of the copy share their values with this call until either
+	 * of them is modified
+	 */
 	@Override
 	public MethodCall clone() {
 		MethodCall copy = new MethodCall(className, methodName, methodId,
 		        callingObjectID, callDepth, callSite);
-		copy.lineTrace = new ArrayList<Integer>(lineTrace);
-		copy.branchTrace = new ArrayList<Integer>(branchTrace);
-		copy.trueDistanceTrace = new ArrayList<Double>(trueDistanceTrace);
-		copy.falseDistanceTrace = new ArrayList<Double>(falseDistanceTrace);
-		copy.defuseCounterTrace = new ArrayList<Integer>(defuseCounterTrace);
+		copy.lineTrace = lineTrace.copy();
+		copy.branchTrace = branchTrace.copy();
+		copy.trueDistanceTrace = trueDistanceTrace.copy();
+		copy.falseDistanceTrace = falseDistanceTrace.copy();
+		copy.defuseCounterTrace = defuseCounterTrace.copy();
 		return copy;
 	}
 
@@ -0,0 +1,423 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
+import org.evosuite.ga.stoppingconditions.MaxTestsStoppingCondition;
+import org.evosuite.runtime.Random;
+import org.evosuite.runtime.Runtime;
+import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.runtime.javaee.db.DBManager;
+import org.evosuite.runtime.jvm.ShutdownHookHandler;
+import org.evosuite.runtime.mock.java.lang.MockThread;
+import org.evosuite.runtime.sandbox.PermissionStatistics;
+import org.evosuite.runtime.sandbox.Sandbox;
+import org.evosuite.runtime.thread.KillSwitch;
+import org.evosuite.runtime.thread.ThreadCounter;
+import org.evosuite.runtime.thread.ThreadStopper;
+import org.evosuite.runtime.util.JOptionPaneInputs;
+import org.evosuite.runtime.util.SystemInUtil;
+import org.evosuite.runtime.vfs.VirtualFileSystem;
+import org.evosuite.runtime.vnet.VirtualNetwork;
+import org.evosuite.setup.TestCluster;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.execution.reset.ClassReInitializer;
+import org.evosuite.utils.LoggingUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes batches of tests on {@link Properties#NUM_EXECUTION_SLOTS}
+ * execution slots in parallel, for fitness evaluation.
+ * 
+ * <p>
+ * Each slot has its own thread, {@link ExecutionTracer} and loop counter. The
+ * state that all tests share (runtime, sandbox, output streams, SUT threads)
+ * is set up once per batch rather than once per test. Tests are executed in
+ * parallel only if no execution observers are registered, as observers are
+ * not thread safe. Otherwise, and for the tests listed below, the batch falls
+ * back to the sequential {@link TestCaseExecutor}:
+ * <ul>
+ * <li>tests that accessed static fields of a class whose static state another
+ * test of the batch wrote, as their result may depend on the interleaving;</li>
+ * <li>tests that timed out, as the timeout may be caused by the load of the
+ * other slots;</li>
+ * <li>all tests of a batch that used the virtual file system, network or
+ * database, or the mocked random numbers, time or threads, which are shared by
+ * all slots. As this is a property of the class under test, later batches are
+ * then executed sequentially as well.</li>
+ * </ul>
+ * </p>
+ */
+public class ParallelTestCaseExecutor {
+
+	private static final Logger logger = LoggerFactory.getLogger(ParallelTestCaseExecutor.class);
+
+	private static ParallelTestCaseExecutor instance = null;
+
+	private final List<ExecutionSlot> slots = new ArrayList<ExecutionSlot>();
+
+	private final BlockingQueue<ExecutionSlot> freeSlots = new LinkedBlockingQueue<ExecutionSlot>();
+
+	/** Privileged threads that wait for the slots, one per slot */
+	private final ThreadPoolExecutor dispatcher;
+
+	/**
+	 * Set once a batch used the virtual file system, network or database, or
+	 * the mocked random numbers, time or threads
+	 */
+	private boolean sharedRuntimeUsed = false;
+
+	private int numParallelExecutions = 0;
+
+	private int numReExecutions = 0;
+
+	private ParallelTestCaseExecutor(int numSlots) {
+		for (int i = 0; i < numSlots; i++) {
+			ExecutionSlot slot = new ExecutionSlot(i);
+			slots.add(slot);
+			freeSlots.add(slot);
+		}
+		dispatcher = new ThreadPoolExecutor(numSlots, numSlots, 0L, TimeUnit.MILLISECONDS,
+		        new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+			        private int counter = 0;
+
+			        @Override
+			        public Thread newThread(Runnable r) {
+				        Thread thread = new Thread(r, "EXECUTION_SLOT_DISPATCHER_" + counter++);
+				        thread.setDaemon(true);
+				        // the dispatchers need to create new slot threads while the sandbox is on
+				        Sandbox.addPrivilegedThread(thread);
+				        return thread;
+			        }
+		        });
+		// start the dispatchers from the calling thread, which is privileged
+		dispatcher.prestartAllCoreThreads();
+	}
+
+	public static synchronized ParallelTestCaseExecutor getInstance() {
+		if (instance == null)
+			instance = new ParallelTestCaseExecutor(Properties.NUM_EXECUTION_SLOTS);
+
+		return instance;
+	}
+
+	/**
+	 * @return true if fitness evaluation should hand batches of tests to this
+	 *         executor
+	 */
+	public static boolean isEnabled() {
+		return Properties.NUM_EXECUTION_SLOTS > 1;
+	}
+
+	public static synchronized void pullDown() {
+		if (instance != null) {
+			instance.dispatcher.shutdownNow();
+			for (ExecutionSlot slot : instance.slots) {
+				slot.shutdown();
+			}
+			logger.info("Executed " + instance.numParallelExecutions + " tests in parallel, "
+			        + instance.numReExecutions + " of which were re-executed sequentially");
+			instance = null;
+		}
+	}
+
+	public int getNumParallelExecutions() {
+		return numParallelExecutions;
+	}
+
+	public int getNumReExecutions() {
+		return numReExecutions;
+	}
+
+	/**
+	 * Execute each of the tests on a new scope, as
+	 * {@link TestCaseExecutor#runTest(TestCase)} would do
+	 * 
+	 * @param tests
+	 *            the tests to execute
+	 * @return the results, in the same order as the tests
+	 */
+	public List<ExecutionResult> execute(List<TestCase> tests) {
+		if (!canExecuteInParallel(tests)) {
+			List<ExecutionResult> results = new ArrayList<ExecutionResult>(tests.size());
+			for (TestCase test : tests) {
+				results.add(TestCaseExecutor.runTest(test));
+			}
+			return results;
+		}
+
+		ExecutionResult[] results = executeInParallel(tests);
+
+		Set<Integer> reExecute = new LinkedHashSet<Integer>();
+		if (wasSharedRuntimeUsed()) {
+			logger.info("Tests used state of the runtime shared by all slots, executing them sequentially");
+			sharedRuntimeUsed = true;
+			for (int i = 0; i < results.length; i++)
+				reExecute.add(i);
+		} else if (PermissionStatistics.getInstance().getAndResetExceptionInfo()) {
+			// cannot tell which of the tests caused it
+			for (int i = 0; i < results.length; i++)
+				reExecute.add(i);
+		} else {
+			reExecute.addAll(getTestsWithStaticConflicts(results));
+			for (int i = 0; i < results.length; i++) {
+				if (results[i].hasTimeout())
+					reExecute.add(i);
+			}
+		}
+
+		if (Properties.RESET_STATIC_FIELDS) {
+			for (int i = 0; i < results.length; i++) {
+				ClassReInitializer.getInstance().reInitializeClassesAfterTestExecution(tests.get(i), results[i]);
+			}
+		}
+
+		for (int i : reExecute) {
+			results[i] = TestCaseExecutor.getInstance().execute(tests.get(i));
+		}
+		numParallelExecutions += results.length;
+		numReExecutions += reExecute.size();
+
+		for (int i = 0; i < results.length; i++) {
+			// the sequential executor already accounted for re-executed tests
+			if (!reExecute.contains(i)) {
+				MaxTestsStoppingCondition.testExecuted();
+				TestCaseExecutor.testsExecuted++;
+				TestCluster.getInstance().handleRuntimeAccesses(tests.get(i));
+			}
+			MaxStatementsStoppingCondition.statementsExecuted(results[i].getExecutedStatements());
+		}
+		return Arrays.asList(results);
+	}
+
+	/**
+	 * Execute the tests of all changed test chromosomes in one batch, and
+	 * store the results in the chromosomes so that the fitness functions do
+	 * not execute them again
+	 * 
+	 * @param chromosomes
+	 *            chromosomes of which only test chromosomes are considered
+	 */
+	public void executeChangedTests(Collection<? extends Chromosome> chromosomes) {
+		List<TestChromosome> changed = new ArrayList<TestChromosome>();
+		for (Chromosome chromosome : chromosomes) {
+			if (chromosome instanceof TestChromosome) {
+				TestChromosome test = (TestChromosome) chromosome;
+				if (test.isChanged() || test.getLastExecutionResult() == null)
+					changed.add(test);
+			}
+		}
+		if (changed.size() < 2)
+			return;
+
+		List<TestCase> tests = new ArrayList<TestCase>(changed.size());
+		for (TestChromosome test : changed) {
+			tests.add(test.getTestCase());
+		}
+		List<ExecutionResult> results = execute(tests);
+		for (int i = 0; i < changed.size(); i++) {
+			changed.get(i).setLastExecutionResult(results.get(i));
+			changed.get(i).setChanged(false);
+		}
+	}
+
+	private boolean canExecuteInParallel(List<TestCase> tests) {
+		return tests.size() > 1 && !sharedRuntimeUsed
+		        // static accesses are only traced if static fields are reset
+		        && Properties.RESET_STATIC_FIELDS
+		        // the testability transformation keeps a static stack
+		        && !Properties.TT
+		        && TestCaseExecutor.getInstance().getExecutionObservers().isEmpty();
+	}
+
+	private ExecutionResult[] executeInParallel(List<TestCase> tests) {
+		ExecutionResult[] results = new ExecutionResult[tests.size()];
+		long startTime = System.currentTimeMillis();
+
+		Runtime.getInstance().resetRuntime();
+
+		ThreadStopper threadStopper = createThreadStopper();
+		threadStopper.storeCurrentThreads();
+		threadStopper.startRecordingTime();
+
+		// important to call it before setting up the sandbox
+		SystemInUtil.getInstance().initForTestCase();
+		JOptionPaneInputs.getInstance().initForTestCase();
+
+		if (!Properties.PRINT_TO_SYSTEM) {
+			LoggingUtils.muteCurrentOutAndErrStream();
+		}
+		if (Properties.REPLACE_CALLS) {
+			ShutdownHookHandler.getInstance().initHandler();
+		}
+		Sandbox.goingToExecuteSUTCode();
+		TestGenerationContext.getInstance().goingToExecuteSUTCode();
+		try {
+			List<Future<ExecutionResult>> futures = new ArrayList<Future<ExecutionResult>>(tests.size());
+			for (final TestCase test : tests) {
+				futures.add(dispatcher.submit(new Callable<ExecutionResult>() {
+					@Override
+					public ExecutionResult call() throws InterruptedException {
+						ExecutionSlot slot = freeSlots.take();
+						try {
+							return slot.execute(test, Properties.TIMEOUT);
+						} finally {
+							freeSlots.add(slot);
+						}
+					}
+				}));
+			}
+			for (int i = 0; i < tests.size(); i++) {
+				results[i] = getResult(futures.get(i), tests.get(i));
+			}
+		} finally {
+			Sandbox.doneWithExecutingSUTCode();
+			TestGenerationContext.getInstance().doneWithExecutingSUTCode();
+			if (!Properties.PRINT_TO_SYSTEM) {
+				LoggingUtils.restorePreviousOutAndErrStream();
+			}
+			if (Properties.REPLACE_CALLS) {
+				ShutdownHookHandler.getInstance().safeExecuteAddedHooks();
+			}
+		}
+		threadStopper.killAndJoinClientThreads();
+
+		TestCaseExecutor.timeExecuted += System.currentTimeMillis() - startTime;
+		return results;
+	}
+
+	private ExecutionResult getResult(Future<ExecutionResult> future, TestCase test) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			logger.info("InterruptedException");
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			} else if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			logger.error("ExecutionException (this is likely a serious error in the framework)", e);
+		}
+		ExecutionResult result = new ExecutionResult(test, null);
+		result.setTrace(new ExecutionTraceProxy());
+		return result;
+	}
+
+	private ThreadStopper createThreadStopper() {
+		KillSwitch killSwitch = new KillSwitch() {
+			@Override
+			public void setKillSwitch(boolean kill) {
+				// threads spawned by the SUT report to the global tracer,
+				// tests still running on a slot to the tracer of the slot
+				ExecutionTracer.setKillSwitch(kill);
+				for (ExecutionSlot slot : slots) {
+					slot.setKillSwitch(kill);
+				}
+			}
+		};
+		Set<String> threadsToIgnore = new LinkedHashSet<String>();
+		threadsToIgnore.add(TestCaseExecutor.TEST_EXECUTION_THREAD);
+		threadsToIgnore.addAll(Arrays.asList(Properties.IGNORE_THREADS));
+		return new ThreadStopper(killSwitch, threadsToIgnore, Properties.TIMEOUT);
+	}
+
+	private boolean wasSharedRuntimeUsed() {
+		// the runtime is reset once per batch, so all slots share the state of these mocks
+		if (RuntimeSettings.mockJVMNonDeterminism
+		        && (Random.wasAccessed() || org.evosuite.runtime.System.wasTimeAccessed()
+		                || MockThread.wasAccessed() || ThreadCounter.getInstance().getNumberOfStartedThreads() > 0))
+			return true;
+		if (RuntimeSettings.useVFS && !VirtualFileSystem.getInstance().getAccessedFiles().isEmpty())
+			return true;
+		if (RuntimeSettings.useVNET) {
+			VirtualNetwork network = VirtualNetwork.getInstance();
+			if (!network.getViewOfOpenedTcpConnections().isEmpty()
+			        || !network.getViewOfLocalListeningPorts().isEmpty()
+			        || !network.getViewOfRemoteContactedPorts().isEmpty()
+			        || !network.getViewOfRemoteAccessedFiles().isEmpty())
+				return true;
+		}
+		return RuntimeSettings.useJEE && DBManager.getInstance().isWasAccessed();
+	}
+
+	/**
+	 * A test is in conflict if it read or wrote the static state of a class
+	 * that another test of the batch wrote
+	 * 
+	 * @param results
+	 *            of the tests of one batch
+	 * @return the positions of the conflicting tests
+	 */
+	static Set<Integer> getTestsWithStaticConflicts(ExecutionResult[] results) {
+		Map<String, Set<Integer>> writers = new HashMap<String, Set<Integer>>();
+		for (int i = 0; i < results.length; i++) {
+			for (String className : results[i].getTrace().getClassesWithStaticWrites()) {
+				Set<Integer> tests = writers.get(className);
+				if (tests == null) {
+					tests = new LinkedHashSet<Integer>();
+					writers.put(className, tests);
+				}
+				tests.add(i);
+			}
+		}
+
+		Set<Integer> conflicts = new LinkedHashSet<Integer>();
+		if (writers.isEmpty())
+			return conflicts;
+
+		for (int i = 0; i < results.length; i++) {
+			ExecutionTrace trace = results[i].getTrace();
+			Set<String> accessed = new LinkedHashSet<String>(trace.getClassesWithStaticWrites());
+			accessed.addAll(trace.getClassesWithStaticReads());
+			for (String className : accessed) {
+				Set<Integer> tests = writers.get(className);
+				if (tests != null && (tests.size() > 1 || !tests.contains(i))) {
+					conflicts.add(i);
+					break;
+				}
+			}
+		}
+		return conflicts;
+	}
+}
@@ -0,0 +1,278 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.evosuite.Properties;
+import org.evosuite.assertion.CheapPurityAnalyzer;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.NullStatement;
+import org.evosuite.testcase.statements.PrimitiveStatement;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.NumericalPrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of the state after executing a prefix of a test, so that tests with
+ * the same prefix can resume execution after it.
+ * 
+ * Only prefixes that have no side effects can be restored: they consist of
+ * primitive values and calls of pure static methods (according to
+ * {@link CheapPurityAnalyzer}). They must not throw exceptions, initialize
+ * classes, or access static fields, as these are the classes the
+ * {@link org.evosuite.testcase.execution.reset.ClassReInitializer} resets
+ * between executions. All values they produce have to be immutable. A
+ * snapshot consists of these values and a copy of the execution trace.
+ */
+public class PrefixExecutionCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(PrefixExecutionCache.class);
+
+	private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>(Arrays.asList(
+			void.class, boolean.class, byte.class, char.class, short.class, int.class, long.class,
+			float.class, double.class, Boolean.class, Byte.class, Character.class, Short.class,
+			Integer.class, Long.class, Float.class, Double.class, String.class));
+
+	private static PrefixExecutionCache instance = null;
+
+	private static class Snapshot {
+
+		private final Object[] values;
+
+		private final ExecutionTrace trace;
+
+		private Snapshot(Object[] values, ExecutionTrace trace) {
+			this.values = values;
+			this.trace = trace;
+		}
+	}
+
+	/** Snapshots by the key of the prefix, least recently used first */
+	private final Map<String, Snapshot> snapshots = new LinkedHashMap<String, Snapshot>(16, 0.75f, true) {
+		private static final long serialVersionUID = -3712563218426651342L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest) {
+			return size() > Properties.PREFIX_EXECUTION_CACHE_SIZE;
+		}
+	};
+
+	private final AtomicLong numHits = new AtomicLong(0);
+
+	private final AtomicLong numSavedStatements = new AtomicLong(0);
+
+	private PrefixExecutionCache() {
+	}
+
+	public static synchronized PrefixExecutionCache getInstance() {
+		if (instance == null)
+			instance = new PrefixExecutionCache();
+		return instance;
+	}
+
+	public static synchronized void resetSingleton() {
+		instance = null;
+	}
+
+	/**
+	 * Determine the length of the longest prefix of the test that could be
+	 * restored from a snapshot. The prefix ends with a method call, as
+	 * primitive values alone are not worth caching.
+	 * 
+	 * @param test
+	 * @return the length of the prefix, or 0 if there is none
+	 */
+	public int getCacheablePrefixLength(TestCase test) {
+		// Static field accesses are only traced if static fields are reset
+		if (!Properties.RESET_STATIC_FIELDS)
+			return 0;
+
+		int length = 0;
+		for (int position = 0; position < test.size(); position++) {
+			Statement statement = test.getStatement(position);
+			if (statement instanceof MethodStatement) {
+				if (!isPureStaticCall((MethodStatement) statement))
+					break;
+				length = position + 1;
+			} else if (!isImmutableValue(statement)) {
+				break;
+			}
+		}
+		return length;
+	}
+
+	private static boolean isImmutableValue(Statement statement) {
+		if (statement instanceof NullStatement)
+			return true;
+		return statement instanceof StringPrimitiveStatement
+		        || statement instanceof NumericalPrimitiveStatement;
+	}
+
+	private static boolean isPureStaticCall(MethodStatement statement) {
+		if (!statement.isStatic())
+			return false;
+		if (!IMMUTABLE_TYPES.contains(statement.getMethod().getRawGeneratedType()))
+			return false;
+		// Parameters have to be values of the prefix, not fields or array elements
+		for (VariableReference parameter : statement.getParameterReferences()) {
+			if (parameter.isFieldReference() || parameter.isArrayIndex())
+				return false;
+		}
+		return CheapPurityAnalyzer.getInstance().isPure(statement.getMethod().getMethod());
+	}
+
+	/**
+	 * The key identifies the statements of the prefix unambiguously: method
+	 * calls by the fully qualified declaring class, name and descriptor of the
+	 * method, values by their type and value. The code of the statements is
+	 * not sufficient, as it uses simple class names and does not show which
+	 * overload of a method is called.
+	 * 
+	 * @param test
+	 * @param length
+	 *            length of a prefix as returned by
+	 *            {@link #getCacheablePrefixLength(TestCase)}
+	 * @return the key of the snapshot after the first length statements
+	 */
+	public String getKey(TestCase test, int length) {
+		StringBuilder key = new StringBuilder();
+		for (int position = 0; position < length; position++) {
+			Statement statement = test.getStatement(position);
+			if (statement instanceof MethodStatement) {
+				MethodStatement methodStatement = (MethodStatement) statement;
+				key.append("call ");
+				key.append(methodStatement.getMethod().getDeclaringClass().getName());
+				key.append('.');
+				key.append(methodStatement.getMethodName());
+				key.append(methodStatement.getDescriptor());
+				for (VariableReference parameter : methodStatement.getParameterReferences()) {
+					key.append(' ');
+					key.append(parameter.getStPosition());
+				}
+			} else if (statement instanceof NullStatement) {
+				key.append("null ");
+				key.append(statement.getReturnClass().getName());
+			} else {
+				Object value = ((PrimitiveStatement<?>) statement).getValue();
+				key.append("value ");
+				key.append(statement.getReturnClass().getName());
+				if (value == null) {
+					key.append(" null");
+				} else {
+					// The length keeps strings containing separators apart
+					String text = value.toString();
+					key.append(' ');
+					key.append(text.length());
+					key.append(':');
+					key.append(text);
+				}
+			}
+			key.append('\n');
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Restore the state after the prefix with the given key into the scope
+	 * and the execution tracer, if there is a snapshot for it
+	 * 
+	 * @param key
+	 * @param test
+	 *            the test that is executed
+	 * @param scope
+	 *            the scope of the execution
+	 * @return true if the state was restored, i.e. the execution can continue
+	 *         after the prefix
+	 */
+	public boolean restore(String key, TestCase test, Scope scope) {
+		Snapshot snapshot;
+		synchronized (snapshots) {
+			snapshot = snapshots.get(key);
+		}
+		if (snapshot == null)
+			return false;
+
+		for (int position = 0; position < snapshot.values.length; position++) {
+			scope.setObject(test.getStatement(position).getReturnValue(), snapshot.values[position]);
+		}
+		ExecutionTracer.getExecutionTracer().restoreTrace(snapshot.trace, snapshot.values.length);
+		numHits.incrementAndGet();
+		numSavedStatements.addAndGet(snapshot.values.length);
+		logger.debug("Resuming execution after {} statements", snapshot.values.length);
+		return true;
+	}
+
+	/**
+	 * Store the state after executing the prefix with the given key, unless
+	 * the execution of the prefix had side effects
+	 * 
+	 * @param key
+	 * @param test
+	 *            the test that is executed
+	 * @param scope
+	 *            the scope of the execution
+	 * @param length
+	 *            length of the prefix
+	 */
+	public void store(String key, TestCase test, Scope scope, int length) {
+		ExecutionTrace trace = ExecutionTracer.getExecutionTracer().getTrace();
+		if (!trace.getInitializedClasses().isEmpty() || !trace.getClassesWithStaticReads().isEmpty()
+		        || !trace.getClassesWithStaticWrites().isEmpty())
+			return;
+
+		Object[] values = new Object[length];
+		for (int position = 0; position < length; position++) {
+			Object value = scope.getObject(test.getStatement(position).getReturnValue());
+			if (value != null && !IMMUTABLE_TYPES.contains(value.getClass()))
+				return;
+			values[position] = value;
+		}
+
+		Snapshot snapshot = new Snapshot(values, ExecutionTracer.getExecutionTracer().copyTrace());
+		synchronized (snapshots) {
+			snapshots.put(key, snapshot);
+		}
+	}
+
+	/**
+	 * @return how many executions were resumed from a snapshot
+	 */
+	public long getNumHits() {
+		return numHits.get();
+	}
+
+	/**
+	 * @return how many statement executions were saved by resuming from
+	 *         snapshots
+	 */
+	public long getNumSavedStatements() {
+		return numSavedStatements.get();
+	}
+}
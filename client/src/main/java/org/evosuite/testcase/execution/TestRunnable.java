@@ -73,6 +73,12 @@ public class TestRunnable implements InterfaceTestRunnable {
 	protected Set<ExecutionObserver> observers;
 
 	protected final ThreadStopper threadStopper;
+
+	/**
+	 * Whether output streams and shutdown hooks are handled by the caller,
+	 * as they are shared by all tests of a batch executed in parallel
+	 */
+	protected boolean executedInBatch = false;
 	
 	/**
 	 * <p>
@@ -121,6 +127,17 @@ public class TestRunnable implements InterfaceTestRunnable {
 		threadStopper.storeCurrentThreads();
 	}
 
+	/**
+	 * Leave the muting of the output streams and the handling of shutdown
+	 * hooks to the caller, see {@link ParallelTestCaseExecutor}
+	 * 
+	 * @param executedInBatch
+	 *            a boolean.
+	 */
+	public void setExecutedInBatch(boolean executedInBatch) {
+		this.executedInBatch = executedInBatch;
+	}
+
 	/**
 	 * Try to kill (and then join) the SUT threads. Killing the SUT threads is
 	 * important, because some spawn threads could just wait on objects/locks,
@@ -193,7 +210,7 @@ public class TestRunnable implements InterfaceTestRunnable {
 		PrintStream out = (Properties.PRINT_TO_SYSTEM ? System.out : new PrintStream(byteStream));
 		byteStream.reset();
 
-		if (!Properties.PRINT_TO_SYSTEM) {
+		if (!Properties.PRINT_TO_SYSTEM && !executedInBatch) {
 			LoggingUtils.muteCurrentOutAndErrStream();
 		}
 
@@ -206,7 +223,7 @@ public class TestRunnable implements InterfaceTestRunnable {
 		AtomicInteger num = new AtomicInteger(0);
 
 		try {
-			if(Properties.REPLACE_CALLS){
+			if(Properties.REPLACE_CALLS && !executedInBatch){
 				ShutdownHookHandler.getInstance().initHandler();
 			}
 			
@@ -244,10 +261,10 @@ public class TestRunnable implements InterfaceTestRunnable {
 			logger.error("Suppressed/ignored exception during test case execution on class "
 			                     + Properties.TARGET_CLASS + ": " + e.getMessage(), e);
 		} finally {
-			if (!Properties.PRINT_TO_SYSTEM) {
+			if (!Properties.PRINT_TO_SYSTEM && !executedInBatch) {
 				LoggingUtils.restorePreviousOutAndErrStream();
 			}
-			if(Properties.REPLACE_CALLS){
+			if(Properties.REPLACE_CALLS && !executedInBatch){
 				/*
 				 * For simplicity, we call it here. Ideally, we could call it among the
 				 * statements, with "non-safe" version, to check if any exception is thrown.
@@ -286,8 +303,28 @@ public class TestRunnable implements InterfaceTestRunnable {
 			AtomicInteger num) throws TimeoutException,
 			InvocationTargetException, IllegalAccessException,
 			InstantiationException, VMError, EvosuiteError {
-		
-		for (Statement s : test) {
+
+		/*
+		 * Observers need to see all statements, so executions cannot be
+		 * resumed after a cached prefix when there are any
+		 */
+		PrefixExecutionCache prefixCache = null;
+		String prefixKey = null;
+		int prefixLength = 0;
+		if (Properties.PREFIX_EXECUTION_CACHE && observers.isEmpty()) {
+			prefixCache = PrefixExecutionCache.getInstance();
+			prefixLength = prefixCache.getCacheablePrefixLength(test);
+			if (prefixLength > 0) {
+				prefixKey = prefixCache.getKey(test, prefixLength);
+				if (prefixCache.restore(prefixKey, test, scope)) {
+					num.set(prefixLength);
+					prefixKey = null;
+				}
+			}
+		}
+
+		for (int position = num.get(); position < test.size(); position++) {
+			Statement s = test.getStatement(position);
 
 			if (Thread.currentThread().isInterrupted() || Thread.interrupted()) {
 				logger.info("Thread interrupted at statement " + num + ": " + s.getCode());
@@ -362,6 +399,10 @@ public class TestRunnable implements InterfaceTestRunnable {
 			informObservers_after(s, exceptionThrown);
 
 			num.incrementAndGet();
+
+			if (prefixKey != null && num.get() == prefixLength && exceptionsThrown.isEmpty()) {
+				prefixCache.store(prefixKey, test, scope, prefixLength);
+			}
 		} // end of loop
 		informObservers_finished(result);
 		//TODO
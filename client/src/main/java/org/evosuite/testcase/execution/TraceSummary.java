@@ -0,0 +1,228 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.Statement;
+import org.objectweb.asm.Type;
+
+/**
+ * Immutable summary of the parts of an {@link ExecutionTrace} that suite level
+ * branch fitness functions aggregate: predicate execution counts, true and
+ * false distances, method execution counts and the constructor that failed
+ * without showing up in the trace.
+ * 
+ * The summary of an {@link ExecutionResult} is created once and shared with
+ * its clones, as they have the same trace. Its identity therefore tells
+ * whether a test was executed again since the last fitness evaluation.
+ */
+public final class TraceSummary {
+
+	private static final int[] NO_INTS = new int[0];
+
+	private static final double[] NO_DOUBLES = new double[0];
+
+	private static final String[] NO_STRINGS = new String[0];
+
+	private final boolean timeoutOrTestException;
+
+	/** Sorted branch ids, with their execution counts */
+	private final int[] predicates;
+	private final int[] predicateCounts;
+
+	/** Sorted branch ids, with their true distances */
+	private final int[] trueBranches;
+	private final double[] trueDistances;
+
+	/** Sorted branch ids, with their false distances */
+	private final int[] falseBranches;
+	private final double[] falseDistances;
+
+	/** Called methods, with their call counts */
+	private final String[] methods;
+	private final int[] methodCounts;
+
+	private final String failedConstructor;
+
+	private TraceSummary(ExecutionResult result) {
+		timeoutOrTestException = result.hasTimeout() || result.hasTestException();
+		if (timeoutOrTestException || result.getTrace() == null) {
+			predicates = predicateCounts = trueBranches = falseBranches = methodCounts = NO_INTS;
+			trueDistances = falseDistances = NO_DOUBLES;
+			methods = NO_STRINGS;
+			failedConstructor = null;
+			return;
+		}
+
+		ExecutionTrace trace = result.getTrace();
+
+		Map<Integer, Integer> predicateCount = new TreeMap<>(trace.getPredicateExecutionCount());
+		predicates = new int[predicateCount.size()];
+		predicateCounts = new int[predicateCount.size()];
+		int i = 0;
+		for (Map.Entry<Integer, Integer> entry : predicateCount.entrySet()) {
+			predicates[i] = entry.getKey();
+			predicateCounts[i++] = entry.getValue();
+		}
+
+		Map<Integer, Double> trueDistance = new TreeMap<>(trace.getTrueDistances());
+		trueBranches = new int[trueDistance.size()];
+		trueDistances = new double[trueDistance.size()];
+		i = 0;
+		for (Map.Entry<Integer, Double> entry : trueDistance.entrySet()) {
+			trueBranches[i] = entry.getKey();
+			trueDistances[i++] = entry.getValue();
+		}
+
+		Map<Integer, Double> falseDistance = new TreeMap<>(trace.getFalseDistances());
+		falseBranches = new int[falseDistance.size()];
+		falseDistances = new double[falseDistance.size()];
+		i = 0;
+		for (Map.Entry<Integer, Double> entry : falseDistance.entrySet()) {
+			falseBranches[i] = entry.getKey();
+			falseDistances[i++] = entry.getValue();
+		}
+
+		Map<String, Integer> methodCount = trace.getMethodExecutionCount();
+		methods = new String[methodCount.size()];
+		methodCounts = new int[methodCount.size()];
+		i = 0;
+		for (Map.Entry<String, Integer> entry : methodCount.entrySet()) {
+			methods[i] = entry.getKey();
+			methodCounts[i++] = entry.getValue();
+		}
+
+		String constructor = getFailedConstructor(result);
+		failedConstructor = methodCount.containsKey(constructor) ? null : constructor;
+	}
+
+	/**
+	 * If there is an exception in a superconstructor, then the corresponding
+	 * constructor might not be included in the execution trace
+	 * 
+	 * @return the name of the constructor that threw the first exception, if
+	 *         any
+	 */
+	private static String getFailedConstructor(ExecutionResult result) {
+		if (result.noThrownExceptions())
+			return null;
+
+		Integer exceptionPosition = result.getFirstPositionOfThrownException();
+		if (exceptionPosition >= result.test.size() || !result.test.hasStatement(exceptionPosition))
+			return null;
+
+		Statement statement = result.test.getStatement(exceptionPosition);
+		if (!(statement instanceof ConstructorStatement))
+			return null;
+
+		ConstructorStatement c = (ConstructorStatement) statement;
+		return c.getConstructor().getName() + ".<init>"
+		        + Type.getConstructorDescriptor(c.getConstructor().getConstructor());
+	}
+
+	/**
+	 * @return the summary of the trace of the given result
+	 */
+	public static TraceSummary of(ExecutionResult result) {
+		return new TraceSummary(result);
+	}
+
+	public boolean hasTimeoutOrTestException() {
+		return timeoutOrTestException;
+	}
+
+	public int getNumberOfPredicates() {
+		return predicates.length;
+	}
+
+	public int getPredicate(int index) {
+		return predicates[index];
+	}
+
+	public int getPredicateCount(int index) {
+		return predicateCounts[index];
+	}
+
+	public int getNumberOfTrueDistances() {
+		return trueBranches.length;
+	}
+
+	public int getTrueBranch(int index) {
+		return trueBranches[index];
+	}
+
+	public double getTrueDistance(int index) {
+		return trueDistances[index];
+	}
+
+	public int getNumberOfFalseDistances() {
+		return falseBranches.length;
+	}
+
+	public int getFalseBranch(int index) {
+		return falseBranches[index];
+	}
+
+	public double getFalseDistance(int index) {
+		return falseDistances[index];
+	}
+
+	public int getNumberOfMethods() {
+		return methods.length;
+	}
+
+	public String getMethod(int index) {
+		return methods[index];
+	}
+
+	public int getMethodCount(int index) {
+		return methodCounts[index];
+	}
+
+	/**
+	 * @return the constructor that threw an exception but is not part of the
+	 *         method execution counts, or null
+	 */
+	public String getFailedConstructor() {
+		return failedConstructor;
+	}
+
+	/**
+	 * @return the true distance of the given branch, or NaN if it was not
+	 *         reached
+	 */
+	public double getTrueDistanceOf(int branchId) {
+		int index = Arrays.binarySearch(trueBranches, branchId);
+		return index < 0 ? Double.NaN : trueDistances[index];
+	}
+
+	/**
+	 * @return the false distance of the given branch, or NaN if it was not
+	 *         reached
+	 */
+	public double getFalseDistanceOf(int branchId) {
+		int index = Arrays.binarySearch(falseBranches, branchId);
+		return index < 0 ? Double.NaN : falseDistances[index];
+	}
+}
@@ -23,8 +23,11 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
 import org.evosuite.assertion.CheapPurityAnalyzer;
 import org.evosuite.testcase.DefaultTestCase;
 import org.evosuite.testcase.TestCase;
@@ -176,6 +179,15 @@ public class ClassReInitializer {
 						loader = changedClassLoader;
 					}
 				}
+				if (Properties.STATIC_RESET_ENGINE == Properties.StaticResetEngine.SNAPSHOT) {
+					if (Properties.RESET_STATIC_FIELD_GETS) {
+						moreClassesForReset.addAll(trace.getClassesWithStaticReads());
+					}
+					classesToReset = restoreFromSnapshots(classesToReset, trace, moreClassesForReset, loader);
+					if (classesToReset.isEmpty()) {
+						return;
+					}
+				}
 				if (loader == null) {
 					ClassReInitializeExecutor.getInstance().resetClasses(classesToReset);
 				} else {
@@ -185,6 +197,48 @@ public class ClassReInitializer {
 		}
 	}
 
+	/**
+	 * Sets the static fields of the classes back to the values captured right
+	 * after their first initialization. Only the fields written during the
+	 * test execution are restored, unless the class was reset because of a
+	 * read or a test statement, in which case all its fields are restored.
+	 * 
+	 * Fields kept as deep copies are always restored, as the trace does not
+	 * show in-place mutations of their values. For the same reason, the deep
+	 * copies of classes whose static fields were only read are restored too.
+	 * 
+	 * @param classesToReset
+	 * @param trace
+	 * @param restoreAllFields
+	 * @param loader
+	 *            the class loader of the test, or null for the one of the SUT
+	 * @return the classes that could not be restored and still need to be
+	 *         re-initialized
+	 */
+	private static List<String> restoreFromSnapshots(List<String> classesToReset, ExecutionTrace trace,
+			Set<String> restoreAllFields, ClassLoader loader) {
+		if (loader == null) {
+			loader = TestGenerationContext.getInstance().getClassLoaderForSUT();
+		}
+		Map<String, Set<String>> staticFieldWrites = trace.getStaticFieldWrites();
+		StaticFieldSnapshots snapshots = StaticFieldSnapshots.getInstance();
+		List<String> notRestored = new LinkedList<String>();
+		for (String className : classesToReset) {
+			Set<String> fieldNames = restoreAllFields.contains(className) ? null : staticFieldWrites.get(className);
+			if (!snapshots.restore(className, loader, fieldNames)) {
+				notRestored.add(className);
+			}
+		}
+		if (Properties.STATIC_SNAPSHOT_DEEP_COPY) {
+			for (String className : trace.getClassesWithStaticReads()) {
+				if (!classesToReset.contains(className) && snapshots.hasSnapshot(className)) {
+					snapshots.restore(className, loader, Collections.<String> emptySet());
+				}
+			}
+		}
+		return notRestored;
+	}
+
 	private boolean reset_all_observed_classes = false;
 
 	/**
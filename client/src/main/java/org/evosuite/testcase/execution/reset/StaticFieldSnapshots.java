@@ -0,0 +1,216 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution.reset;
+
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.SerializationUtils;
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Alternative to the re-execution of __STATIC_RESET(): the values of the
+ * static fields of each instrumented class are captured once, right after its
+ * static initializer completed for the first time, and after a test execution
+ * only the fields the test wrote are set back to their captured value.
+ * 
+ * Setters are resolved once at capture time as method handles. Unless
+ * {@link Properties#STATIC_SNAPSHOT_DEEP_COPY} is set, references are restored
+ * as they are, i.e. in-place mutations of a static object are not undone.
+ */
+public class StaticFieldSnapshots {
+
+	private static final Logger logger = LoggerFactory.getLogger(StaticFieldSnapshots.class);
+
+	private static StaticFieldSnapshots instance = null;
+
+	public static synchronized StaticFieldSnapshots getInstance() {
+		if (instance == null) {
+			instance = new StaticFieldSnapshots();
+		}
+		return instance;
+	}
+
+	public static synchronized void resetSingleton() {
+		instance = null;
+	}
+
+	private final Map<String, ClassSnapshot> snapshots = new LinkedHashMap<String, ClassSnapshot>();
+
+	private StaticFieldSnapshots() {
+	}
+
+	/**
+	 * Invoked at the end of the static initializer of an instrumented class.
+	 * Only classes defined by the class loader of the SUT are captured, copies
+	 * in other class loaders (e.g. the concolic one) are ignored.
+	 * 
+	 * @param initializedClass
+	 */
+	public void captureInitializedClass(Class<?> initializedClass) {
+		if (initializedClass.getClassLoader() != TestGenerationContext.getInstance().getClassLoaderForSUT()) {
+			return;
+		}
+		try {
+			capture(initializedClass);
+		} catch (Throwable t) {
+			// the class will be re-initialized with __STATIC_RESET() instead
+			logger.debug("Could not capture static state of class " + initializedClass.getName() + ": " + t);
+		}
+	}
+
+	/**
+	 * Captures the current value of the writable static fields of the class,
+	 * unless a snapshot for a class with the same name was taken before.
+	 * 
+	 * @param clazz
+	 * @return true if a new snapshot was taken
+	 */
+	public synchronized boolean capture(Class<?> clazz) {
+		if (snapshots.containsKey(clazz.getName())) {
+			return false;
+		}
+		ClassSnapshot snapshot = new ClassSnapshot(clazz);
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		for (Field field : clazz.getDeclaredFields()) {
+			int modifiers = field.getModifiers();
+			if (!Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || field.isSynthetic()) {
+				continue;
+			}
+			try {
+				field.setAccessible(true);
+				MethodHandle setter = lookup.unreflectSetter(field)
+						.asType(MethodType.methodType(void.class, Object.class));
+				Object value = field.get(null);
+				boolean copy = Properties.STATIC_SNAPSHOT_DEEP_COPY && needsCopy(field.getType(), value);
+				if (copy) {
+					value = SerializationUtils.clone((Serializable) value);
+				}
+				snapshot.fields.put(field.getName(), new FieldSnapshot(setter, value, copy));
+			} catch (Throwable t) {
+				// a field we cannot restore makes the whole snapshot unusable
+				logger.debug("Cannot snapshot static field " + field + ": " + t);
+				snapshot.complete = false;
+			}
+		}
+		snapshots.put(clazz.getName(), snapshot);
+		return true;
+	}
+
+	public synchronized boolean hasSnapshot(String classNameWithDots) {
+		return snapshots.containsKey(classNameWithDots);
+	}
+
+	/**
+	 * Sets the given static fields of the class back to their captured value.
+	 * Fields kept as a deep copy are always restored, as in-place mutations of
+	 * their values do not show up as writes.
+	 * 
+	 * @param classNameWithDots
+	 * @param loader
+	 *            the class loader the test was executed with
+	 * @param fieldNames
+	 *            the fields written by the test, or null to restore all fields
+	 * @return false if the class has no usable snapshot for this class loader
+	 *         or one of the fields is unknown to it, in which case the class
+	 *         still needs to be re-initialized
+	 */
+	public synchronized boolean restore(String classNameWithDots, ClassLoader loader, Set<String> fieldNames) {
+		ClassSnapshot snapshot = snapshots.get(classNameWithDots);
+		if (snapshot == null || !snapshot.complete || snapshot.clazz.getClassLoader() != loader) {
+			return false;
+		}
+		if (fieldNames != null && !snapshot.fields.keySet().containsAll(fieldNames)) {
+			// e.g. a PUTSTATIC on a field inherited from a superclass
+			return false;
+		}
+		for (Map.Entry<String, FieldSnapshot> entry : snapshot.fields.entrySet()) {
+			FieldSnapshot field = entry.getValue();
+			if (fieldNames != null && !field.copy && !fieldNames.contains(entry.getKey())) {
+				continue;
+			}
+			try {
+				field.setter.invokeExact(field.getValue());
+			} catch (Throwable t) {
+				logger.debug("Cannot restore static field " + classNameWithDots + "." + entry.getKey() + ": " + t);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean needsCopy(Class<?> type, Object value) {
+		if (value == null || !(value instanceof Serializable)) {
+			return false;
+		}
+		Class<?> valueClass = value.getClass();
+		return !(valueClass.equals(String.class) || ClassUtils.isPrimitiveWrapper(valueClass)
+				|| valueClass.isEnum() || type.isPrimitive());
+	}
+
+	private static class ClassSnapshot {
+
+		private final Class<?> clazz;
+
+		private final Map<String, FieldSnapshot> fields = new LinkedHashMap<String, FieldSnapshot>();
+
+		private boolean complete = true;
+
+		private ClassSnapshot(Class<?> clazz) {
+			this.clazz = clazz;
+		}
+	}
+
+	private static class FieldSnapshot {
+
+		private final MethodHandle setter;
+
+		private final Object value;
+
+		private final boolean copy;
+
+		private FieldSnapshot(MethodHandle setter, Object value, boolean copy) {
+			this.setter = setter;
+			this.value = value;
+			this.copy = copy;
+		}
+
+		/**
+		 * Each restore gets its own copy, as the test may mutate it again
+		 */
+		private Object getValue() {
+			if (copy) {
+				return SerializationUtils.clone((Serializable) value);
+			}
+			return value;
+		}
+	}
+}
@@ -25,6 +25,7 @@ import org.evosuite.Properties;
 import org.evosuite.Properties.DSEType;
 import org.evosuite.ga.localsearch.LocalSearchObjective;
 import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.DefaultTestCase;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.statements.ArrayStatement;
 import org.evosuite.testcase.statements.ConstructorStatement;
@@ -41,6 +42,9 @@ public abstract class StatementLocalSearch {
 
     protected void backup(TestChromosome test) {
         backup = (TestChromosome) test.clone();
+        // The caller may modify statements it obtained before the backup
+        if (backup.getTestCase() instanceof DefaultTestCase)
+            ((DefaultTestCase) backup.getTestCase()).unshareStatements();
     }
 
     protected void restore(TestChromosome test) {
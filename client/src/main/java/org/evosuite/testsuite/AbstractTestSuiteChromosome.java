@@ -21,8 +21,10 @@ package org.evosuite.testsuite;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.evosuite.Properties;
@@ -49,6 +51,12 @@ public abstract class AbstractTestSuiteChromosome<T extends ExecutableChromosome
 	protected List<T> tests = new ArrayList<T>();
 	protected ChromosomeFactory<T> testChromosomeFactory;
 
+	/**
+	 * Aggregated traces of the tests per fitness function, only used with
+	 * incremental suite fitness
+	 */
+	private transient Map<Object, SuiteTraceAggregator> traceAggregators = null;
+
 	/**
 	 * only used for testing/debugging
 	 */
@@ -99,6 +107,31 @@ public abstract class AbstractTestSuiteChromosome<T extends ExecutableChromosome
         this.setNumberOfEvaluations(source.getNumberOfEvaluations());
         this.setKineticEnergy(source.getKineticEnergy());
         this.setNumCollisions(source.getNumCollisions());
+		if (source.traceAggregators != null) {
+			this.traceAggregators = new IdentityHashMap<>();
+			for (Map.Entry<Object, SuiteTraceAggregator> entry : source.traceAggregators.entrySet())
+				this.traceAggregators.put(entry.getKey(), new SuiteTraceAggregator(entry.getValue()));
+		}
+	}
+
+	/**
+	 * Aggregated traces of the last execution results of the tests, which
+	 * fitness functions bring up to date with {@link SuiteTraceAggregator#update}.
+	 * As the update only returns the results that are new to the aggregate,
+	 * each fitness function gets its own aggregate.
+	 *
+	 * @param consumer the fitness function using the aggregate
+	 * @return a {@link org.evosuite.testsuite.SuiteTraceAggregator} object.
+	 */
+	public SuiteTraceAggregator getTraceAggregator(Object consumer) {
+		if (traceAggregators == null)
+			traceAggregators = new IdentityHashMap<>();
+		SuiteTraceAggregator aggregator = traceAggregators.get(consumer);
+		if (aggregator == null) {
+			aggregator = new SuiteTraceAggregator();
+			traceAggregators.put(consumer, aggregator);
+		}
+		return aggregator;
 	}
 
 	/**
@@ -0,0 +1,333 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.TraceSummary;
+
+/**
+ * Aggregates the traces of all tests of a suite, like the branch suite fitness
+ * functions do on each evaluation, but only updates the aggregate with the
+ * tests that changed since the last evaluation.
+ * 
+ * Tests are identified by the {@link TraceSummary} of their last execution
+ * result, which clones of a test share until it is executed again. Counts are
+ * updated by adding and subtracting the counts of the changed tests. For each
+ * branch the best distance is kept together with the test it comes from, so
+ * retracting a test only requires to search for a new best distance of the
+ * branches that test was best for.
+ * 
+ * {@link #update} hands out each new result only once, so every fitness
+ * function needs its own aggregate, see
+ * {@link AbstractTestSuiteChromosome#getTraceAggregator(Object)}.
+ */
+public class SuiteTraceAggregator {
+
+	private static final class Best {
+		private final double distance;
+		private final TraceSummary test;
+
+		private Best(double distance, TraceSummary test) {
+			this.distance = distance;
+			this.test = test;
+		}
+	}
+
+	/** Tests in the suite, a test can be contained more than once */
+	private final Map<TraceSummary, Integer> tests;
+
+	private int numTimeoutOrTestException;
+
+	private final Map<Integer, Integer> predicateCount;
+
+	private final Map<String, Integer> callCount;
+
+	private final Map<String, Integer> failedConstructors;
+
+	private final Map<Integer, Best> trueDistance;
+
+	private final Map<Integer, Best> falseDistance;
+
+	public SuiteTraceAggregator() {
+		tests = new IdentityHashMap<>();
+		predicateCount = new HashMap<>();
+		callCount = new HashMap<>();
+		failedConstructors = new HashMap<>();
+		trueDistance = new HashMap<>();
+		falseDistance = new HashMap<>();
+	}
+
+	/**
+	 * Copy of the aggregate of a suite, for its clones. The entries are
+	 * immutable, so copying the maps is enough.
+	 */
+	public SuiteTraceAggregator(SuiteTraceAggregator other) {
+		tests = new IdentityHashMap<>(other.tests);
+		numTimeoutOrTestException = other.numTimeoutOrTestException;
+		predicateCount = new HashMap<>(other.predicateCount);
+		callCount = new HashMap<>(other.callCount);
+		failedConstructors = new HashMap<>(other.failedConstructors);
+		trueDistance = new HashMap<>(other.trueDistance);
+		falseDistance = new HashMap<>(other.falseDistance);
+	}
+
+	/**
+	 * Bring the aggregate up to date with the current execution results of the
+	 * suite.
+	 * 
+	 * @param results
+	 *            the results of all tests in the suite
+	 * @return the results that were not part of the aggregate yet
+	 */
+	public List<ExecutionResult> update(List<ExecutionResult> results) {
+		Map<TraceSummary, Integer> current = new IdentityHashMap<>();
+		Map<TraceSummary, List<ExecutionResult>> currentResults = new IdentityHashMap<>();
+		for (ExecutionResult result : results) {
+			TraceSummary summary = result.getTraceSummary();
+			current.merge(summary, 1, Integer::sum);
+			currentResults.computeIfAbsent(summary, s -> new ArrayList<>(1)).add(result);
+		}
+
+		Set<Integer> dirtyTrue = new HashSet<>();
+		Set<Integer> dirtyFalse = new HashSet<>();
+		for (Map.Entry<TraceSummary, Integer> entry : new ArrayList<>(tests.entrySet())) {
+			int count = current.getOrDefault(entry.getKey(), 0);
+			for (int i = count; i < entry.getValue(); i++) {
+				retract(entry.getKey(), dirtyTrue, dirtyFalse);
+			}
+		}
+
+		List<ExecutionResult> added = new ArrayList<>();
+		for (Map.Entry<TraceSummary, Integer> entry : current.entrySet()) {
+			int count = tests.getOrDefault(entry.getKey(), 0);
+			List<ExecutionResult> summaryResults = currentResults.get(entry.getKey());
+			for (int i = count; i < entry.getValue(); i++) {
+				add(entry.getKey());
+				added.add(summaryResults.get(i));
+			}
+		}
+
+		if (!dirtyTrue.isEmpty() || !dirtyFalse.isEmpty())
+			recomputeBest(dirtyTrue, dirtyFalse);
+
+		return added;
+	}
+
+	private void add(TraceSummary test) {
+		tests.merge(test, 1, Integer::sum);
+		if (test.hasTimeoutOrTestException()) {
+			numTimeoutOrTestException++;
+			return;
+		}
+
+		for (int i = 0; i < test.getNumberOfPredicates(); i++) {
+			predicateCount.merge(test.getPredicate(i), test.getPredicateCount(i), Integer::sum);
+		}
+		for (int i = 0; i < test.getNumberOfMethods(); i++) {
+			callCount.merge(test.getMethod(i), test.getMethodCount(i), Integer::sum);
+		}
+		if (test.getFailedConstructor() != null)
+			failedConstructors.merge(test.getFailedConstructor(), 1, Integer::sum);
+		for (int i = 0; i < test.getNumberOfTrueDistances(); i++) {
+			updateBest(trueDistance, test.getTrueBranch(i), test.getTrueDistance(i), test);
+		}
+		for (int i = 0; i < test.getNumberOfFalseDistances(); i++) {
+			updateBest(falseDistance, test.getFalseBranch(i), test.getFalseDistance(i), test);
+		}
+	}
+
+	private void retract(TraceSummary test, Set<Integer> dirtyTrue, Set<Integer> dirtyFalse) {
+		int count = tests.get(test);
+		if (count == 1)
+			tests.remove(test);
+		else
+			tests.put(test, count - 1);
+		if (test.hasTimeoutOrTestException()) {
+			numTimeoutOrTestException--;
+			return;
+		}
+
+		for (int i = 0; i < test.getNumberOfPredicates(); i++) {
+			subtract(predicateCount, test.getPredicate(i), test.getPredicateCount(i));
+		}
+		for (int i = 0; i < test.getNumberOfMethods(); i++) {
+			subtract(callCount, test.getMethod(i), test.getMethodCount(i));
+		}
+		if (test.getFailedConstructor() != null)
+			subtract(failedConstructors, test.getFailedConstructor(), 1);
+		for (int i = 0; i < test.getNumberOfTrueDistances(); i++) {
+			int branch = test.getTrueBranch(i);
+			if (trueDistance.get(branch).test == test)
+				dirtyTrue.add(branch);
+		}
+		for (int i = 0; i < test.getNumberOfFalseDistances(); i++) {
+			int branch = test.getFalseBranch(i);
+			if (falseDistance.get(branch).test == test)
+				dirtyFalse.add(branch);
+		}
+	}
+
+	private static <K> void subtract(Map<K, Integer> counts, K key, int value) {
+		int count = counts.get(key) - value;
+		if (count == 0)
+			counts.remove(key);
+		else
+			counts.put(key, count);
+	}
+
+	private static void updateBest(Map<Integer, Best> best, int branch, double distance,
+	        TraceSummary test) {
+		Best old = best.get(branch);
+		if (old == null || distance < old.distance)
+			best.put(branch, new Best(distance, test));
+	}
+
+	/**
+	 * Search for the best distances of branches whose best test was removed
+	 */
+	private void recomputeBest(Set<Integer> dirtyTrue, Set<Integer> dirtyFalse) {
+		for (Integer branch : dirtyTrue)
+			trueDistance.remove(branch);
+		for (Integer branch : dirtyFalse)
+			falseDistance.remove(branch);
+
+		for (TraceSummary test : tests.keySet()) {
+			if (test.hasTimeoutOrTestException())
+				continue;
+			for (Integer branch : dirtyTrue) {
+				double distance = test.getTrueDistanceOf(branch);
+				if (!Double.isNaN(distance))
+					updateBest(trueDistance, branch, distance, test);
+			}
+			for (Integer branch : dirtyFalse) {
+				double distance = test.getFalseDistanceOf(branch);
+				if (!Double.isNaN(distance))
+					updateBest(falseDistance, branch, distance, test);
+			}
+		}
+	}
+
+	/**
+	 * @return the number of tests, counting duplicates
+	 */
+	public int size() {
+		int size = 0;
+		for (int count : tests.values())
+			size += count;
+		return size;
+	}
+
+	/**
+	 * @return the distinct tests in the suite
+	 */
+	public Set<TraceSummary> getTests() {
+		return Collections.unmodifiableSet(tests.keySet());
+	}
+
+	/**
+	 * @return how often the given test is contained in the suite
+	 */
+	public int getMultiplicity(TraceSummary test) {
+		return tests.getOrDefault(test, 0);
+	}
+
+	public boolean hasTimeoutOrTestException() {
+		return numTimeoutOrTestException > 0;
+	}
+
+	public Set<Integer> getExecutedPredicates() {
+		return Collections.unmodifiableSet(predicateCount.keySet());
+	}
+
+	public int getPredicateExecutionCount(int branchId) {
+		return predicateCount.getOrDefault(branchId, 0);
+	}
+
+	public Set<String> getCalledMethods() {
+		return Collections.unmodifiableSet(callCount.keySet());
+	}
+
+	public int getMethodExecutionCount(String method) {
+		return callCount.getOrDefault(method, 0);
+	}
+
+	/**
+	 * @return constructors that threw an exception in some test, which might
+	 *         therefore be missing from the method execution counts
+	 */
+	public Set<String> getFailedConstructors() {
+		return Collections.unmodifiableSet(failedConstructors.keySet());
+	}
+
+	public Set<Integer> getTrueDistanceBranches() {
+		return Collections.unmodifiableSet(trueDistance.keySet());
+	}
+
+	public boolean hasTrueDistance(int branchId) {
+		return trueDistance.containsKey(branchId);
+	}
+
+	/**
+	 * @return the minimal true distance of the branch over all tests
+	 */
+	public double getTrueDistance(int branchId) {
+		return trueDistance.get(branchId).distance;
+	}
+
+	/**
+	 * @return the test with the minimal true distance of the branch
+	 */
+	public TraceSummary getBestTrueTest(int branchId) {
+		Best best = trueDistance.get(branchId);
+		return best == null ? null : best.test;
+	}
+
+	public Set<Integer> getFalseDistanceBranches() {
+		return Collections.unmodifiableSet(falseDistance.keySet());
+	}
+
+	public boolean hasFalseDistance(int branchId) {
+		return falseDistance.containsKey(branchId);
+	}
+
+	/**
+	 * @return the minimal false distance of the branch over all tests
+	 */
+	public double getFalseDistance(int branchId) {
+		return falseDistance.get(branchId).distance;
+	}
+
+	/**
+	 * @return the test with the minimal false distance of the branch
+	 */
+	public TraceSummary getBestFalseTest(int branchId) {
+		Best best = falseDistance.get(branchId);
+		return best == null ? null : best.test;
+	}
+}
@@ -28,6 +28,7 @@ import org.evosuite.testcase.ExecutableChromosome;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testcase.execution.ExecutionTracer;
+import org.evosuite.testcase.execution.ParallelTestCaseExecutor;
 import org.evosuite.testcase.execution.TestCaseExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -91,6 +92,10 @@ public abstract class TestSuiteFitnessFunction extends
 	        AbstractTestSuiteChromosome<? extends ExecutableChromosome> suite) {
 		List<ExecutionResult> results = new ArrayList<ExecutionResult>();
 
+		if (ParallelTestCaseExecutor.isEnabled() && canExecuteTestsInParallel()) {
+			ParallelTestCaseExecutor.getInstance().executeChangedTests(suite.getTestChromosomes());
+		}
+
 		for (ExecutableChromosome chromosome : suite.getTestChromosomes()) {
 			// Only execute test if it hasn't been changed
 			if (chromosome.isChanged() || chromosome.getLastExecutionResult() == null) {
@@ -113,6 +118,17 @@ public abstract class TestSuiteFitnessFunction extends
 
 
 
+	/**
+	 * Fitness functions that override {@link #runTest(TestCase)} need to
+	 * execute the tests themselves
+	 * 
+	 * @return true if changed tests can be executed by the
+	 *         {@link ParallelTestCaseExecutor}
+	 */
+	protected boolean canExecuteTestsInParallel() {
+		return true;
+	}
+
 	/* (non-Javadoc)
 	 * @see org.evosuite.ga.FitnessFunction#isMaximizationFunction()
 	 */
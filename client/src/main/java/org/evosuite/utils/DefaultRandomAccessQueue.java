@@ -22,15 +22,16 @@
  */
 package org.evosuite.utils;
 
-import java.util.ArrayDeque;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Queue;
 import java.util.Set;
 
 import org.evosuite.Properties;
 
 /**
+ * Values are kept in insertion order in a ring buffer, so that the oldest one
+ * can be evicted and a random one can be sampled in constant time, while the
+ * set is only used to skip duplicates.
+ * 
  * @author Gordon Fraser
  * 
  */
@@ -38,23 +39,40 @@ public class DefaultRandomAccessQueue<T> implements RandomAccessQueue<T> {
 
 	private final Set<T> valueSet = new HashSet<T>();
 
-	private final Queue<T> queue = new ArrayDeque<T>();
+	private Object[] ring = new Object[16];
+
+	/** Position of the oldest value in the ring */
+	private int head = 0;
+
+	private int size = 0;
 
 	/* (non-Javadoc)
 	 * @see org.evosuite.primitives.RandomAccessQueue#restrictedAdd(java.lang.Object)
 	 */
 	@Override
 	public void restrictedAdd(T value) {
-		if (!valueSet.contains(value)) {
-			queue.add(value);
-			valueSet.add(value);
+		if (valueSet.add(value)) {
+			if (size == ring.length) {
+				Object[] larger = new Object[ring.length * 2];
+				for (int i = 0; i < size; i++) {
+					larger[i] = ring[(head + i) % ring.length];
+				}
+				ring = larger;
+				head = 0;
+			}
+			ring[(head + size) % ring.length] = value;
+			size++;
 			reduceSize();
 		}
 	}
 
+	@SuppressWarnings("unchecked")
 	private void reduceSize() {
-		if (queue.size() > Properties.DYNAMIC_POOL_SIZE) {
-			T value = queue.poll();
+		while (size > Properties.DYNAMIC_POOL_SIZE) {
+			T value = (T) ring[head];
+			ring[head] = null;
+			head = (head + 1) % ring.length;
+			size--;
 			valueSet.remove(value);
 		}
 	}
@@ -62,21 +80,22 @@ public class DefaultRandomAccessQueue<T> implements RandomAccessQueue<T> {
 	/* (non-Javadoc)
 	 * @see org.evosuite.primitives.RandomAccessQueue#getRandomValue()
 	 */
+	@SuppressWarnings("unchecked")
 	@Override
 	public T getRandomValue() {
-		return Randomness.choice(valueSet);
+		if (size == 0)
+			return null;
+		return (T) ring[(head + Randomness.nextInt(size)) % ring.length];
 	}
 
 	@Override
 	public String toString() {
-		String res = new String("[ ");
-		Iterator<T> itr = queue.iterator();
-		while(itr.hasNext()) {
-			Object element = itr.next();
-			res += element + " ";
+		StringBuilder res = new StringBuilder("[ ");
+		for (int i = 0; i < size; i++) {
+			res.append(ring[(head + i) % ring.length]).append(" ");
 		}
-		res += "]";
-		return res;
+		res.append("]");
+		return res.toString();
 	}
 
 }
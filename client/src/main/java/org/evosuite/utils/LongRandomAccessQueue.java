@@ -0,0 +1,165 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils;
+
+import org.evosuite.Properties;
+
+/**
+ * A {@link RandomAccessQueue} specialized for <code>long</code> values (and
+ * <code>double</code> values, through their bit representation), which neither
+ * boxes the values nor allocates when sampling.
+ * 
+ * <p>
+ * Values are kept in insertion order in a ring buffer, and indexed in an open
+ * addressing hash set to skip duplicates. Adding, evicting the oldest value
+ * and sampling a random one all take constant time.
+ */
+public class LongRandomAccessQueue {
+
+	private long[] ring = new long[16];
+
+	/** Position of the oldest value in the ring */
+	private int head = 0;
+
+	private int size = 0;
+
+	/** Linear probing hash set of the values in the ring */
+	private long[] table = new long[32];
+
+	private boolean[] used = new boolean[32];
+
+	public void restrictedAdd(long value) {
+		if (contains(value)) {
+			return;
+		}
+		if (size == ring.length) {
+			grow();
+		}
+		ring[(head + size) % ring.length] = value;
+		size++;
+		insert(value);
+
+		while (size > Properties.DYNAMIC_POOL_SIZE) {
+			long oldest = ring[head];
+			head = (head + 1) % ring.length;
+			size--;
+			remove(oldest);
+		}
+	}
+
+	/**
+	 * @return a value chosen uniformly at random
+	 * @throws IllegalStateException if the queue is empty
+	 */
+	public long getRandomValue() {
+		if (size == 0) {
+			throw new IllegalStateException("Empty queue");
+		}
+		return ring[(head + Randomness.nextInt(size)) % ring.length];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param index position in insertion order, 0 being the oldest value
+	 * @return the value at that position
+	 */
+	public long get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+		}
+		return ring[(head + index) % ring.length];
+	}
+
+	public boolean contains(long value) {
+		int mask = table.length - 1;
+		for (int i = slot(value, mask); used[i]; i = (i + 1) & mask) {
+			if (table[i] == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int slot(long value, int mask) {
+		long h = value * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+
+	private void insert(long value) {
+		int mask = table.length - 1;
+		int i = slot(value, mask);
+		while (used[i]) {
+			i = (i + 1) & mask;
+		}
+		table[i] = value;
+		used[i] = true;
+	}
+
+	private void remove(long value) {
+		int mask = table.length - 1;
+		int i = slot(value, mask);
+		while (table[i] != value) {
+			i = (i + 1) & mask;
+		}
+		// shift back the following values of the cluster, so no lookup stops early
+		int j = i;
+		while (true) {
+			j = (j + 1) & mask;
+			if (!used[j]) {
+				break;
+			}
+			int k = slot(table[j], mask);
+			boolean canMove = (i <= j) ? (i >= k || k > j) : (i >= k && k > j);
+			if (canMove) {
+				table[i] = table[j];
+				i = j;
+			}
+		}
+		used[i] = false;
+	}
+
+	private void grow() {
+		long[] larger = new long[ring.length * 2];
+		for (int i = 0; i < size; i++) {
+			larger[i] = ring[(head + i) % ring.length];
+		}
+		ring = larger;
+		head = 0;
+
+		table = new long[ring.length * 2];
+		used = new boolean[ring.length * 2];
+		for (int i = 0; i < size; i++) {
+			insert(ring[i]);
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder res = new StringBuilder("[ ");
+		for (int i = 0; i < size; i++) {
+			res.append(ring[(head + i) % ring.length]).append(" ");
+		}
+		res.append("]");
+		return res.toString();
+	}
+}
@@ -22,8 +22,10 @@ package org.evosuite.utils;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
+import java.util.RandomAccess;
 
 import org.evosuite.Properties;
 import org.slf4j.Logger;
@@ -279,7 +281,15 @@ public class Randomness implements Serializable {
 			return null;
 
 		int position = random.nextInt(set.size());
-		return (T) set.toArray()[position];
+		if (set instanceof List && set instanceof RandomAccess) {
+			return ((List<T>) set).get(position);
+		}
+		// walk to the chosen element instead of copying the whole collection
+		Iterator<T> iterator = set.iterator();
+		for (int i = 0; i < position; i++) {
+			iterator.next();
+		}
+		return iterator.next();
 	}
 
 	/**
@@ -27,6 +27,7 @@ import java.lang.reflect.*;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -209,7 +210,8 @@ public abstract class GenericAccessibleObject<T extends GenericAccessibleObject<
 			return copy;
 		}
 
-		Map<TypeVariable<?>, Type> typeMap = copy.getOwnerClass().getTypeVariableMap();
+		Map<TypeVariable<?>, Type> typeMap = new LinkedHashMap<TypeVariable<?>, Type>(
+		        copy.getOwnerClass().getTypeVariableMap());
 
 		logger.debug("Getting random generic instantiation of method: " + toString()
 		        + " with owner type map: " + typeMap);
@@ -243,7 +245,8 @@ public abstract class GenericAccessibleObject<T extends GenericAccessibleObject<
 
 		logger.debug("Getting generic instantiation for callee " + calleeType
 		        + " of method: " + toString() + " for callee " + calleeType);
-		Map<TypeVariable<?>, Type> typeMap = calleeType.getTypeVariableMap();
+		Map<TypeVariable<?>, Type> typeMap = new LinkedHashMap<TypeVariable<?>, Type>(
+		        calleeType.getTypeVariableMap());
 		if (!hasTypeParameters()) {
 			logger.debug("Have no type parameters, just using typeMap of callee");
 			copy.owner = copy.getOwnerClass().getGenericInstantiation(typeMap);
@@ -280,7 +283,8 @@ public abstract class GenericAccessibleObject<T extends GenericAccessibleObject<
 		// and not type variables defined in the owner
 		Map<TypeVariable<?>, Type> concreteTypes = new HashMap<TypeVariable<?>, Type>();
 		logger.debug("Getting type map of generated type");
-		Map<TypeVariable<?>, Type> generatorTypes = generatedType.getTypeVariableMap();
+		Map<TypeVariable<?>, Type> generatorTypes = new LinkedHashMap<TypeVariable<?>, Type>(
+		        generatedType.getTypeVariableMap());
 		logger.debug("Got type map of generated type: "+generatorTypes);
 		Type genericReturnType = getGenericGeneratedType();
 
@@ -162,6 +162,10 @@ public class GenericClass implements Serializable {
 		if (rhsType == null || lhsType == null)
 			return false;
 
+		return GenericTypeCache.getInstance().isAssignable(lhsType, rhsType);
+	}
+
+	static boolean computeAssignable(Type lhsType, Type rhsType) {
 		try {
 			return TypeUtils.isAssignable(rhsType, lhsType);
 		} catch (Throwable e) {
@@ -301,7 +305,8 @@ public class GenericClass implements Serializable {
 		if (otherRawClass.isAssignableFrom(rawClass)) {
 			//logger.debug("Raw classes are assignable: " + otherType + ", have: "
 			//        + toString());
-			Map<TypeVariable<?>, Type> typeMap = otherType.getTypeVariableMap();
+			Map<TypeVariable<?>, Type> typeMap = new LinkedHashMap<TypeVariable<?>, Type>(
+			        otherType.getTypeVariableMap());
 			if (otherType.isParameterizedType()) {
 				typeMap.putAll(TypeUtils.determineTypeArguments(rawClass,
 				                                                (ParameterizedType) otherType.getType()));
@@ -895,14 +900,23 @@ public class GenericClass implements Serializable {
 	 * @return a {@link java.lang.String} object.
 	 */
 	public String getTypeName() {
-		return GenericTypeReflector.getTypeName(type);
+		return GenericTypeCache.getInstance().getTypeName(type);
 	}
 
 	private Map<TypeVariable<?>, Type> typeVariableMap = null;
-	
+
+	/**
+	 * @return an unmodifiable map of the type variables of this class and its
+	 *         super types to their values
+	 */
 	public Map<TypeVariable<?>, Type> getTypeVariableMap() {
 		if(typeVariableMap != null)
 			return typeVariableMap;
+		typeVariableMap = GenericTypeCache.getInstance().getTypeVariableMap(this);
+		return typeVariableMap;
+	}
+
+	Map<TypeVariable<?>, Type> computeTypeVariableMap() {
 		//logger.debug("Getting type variable map for " + type);
 		List<TypeVariable<?>> typeVariables = getTypeVariables();
 		List<Type> types = getParameterTypes();
@@ -942,7 +956,6 @@ public class GenericClass implements Serializable {
 		}
 
 		//logger.debug("Type map: " + typeMap);
-		typeVariableMap = typeMap;
 		return typeMap;
 	}
 
@@ -1480,7 +1493,8 @@ public class GenericClass implements Serializable {
 	        Map<TypeVariable<?>, Type> typeMap) {
 		boolean isAssignable = true;
 		// logger.debug("Checking class: " + type + " against type variable " + typeVariable+" with map "+typeMap);
-		Map<TypeVariable<?>, Type> ownerVariableMap = getTypeVariableMap();
+		Map<TypeVariable<?>, Type> ownerVariableMap = new LinkedHashMap<TypeVariable<?>, Type>(
+		        getTypeVariableMap());
 		for(Type bound : typeVariable.getBounds()) {
 			if(bound instanceof ParameterizedType) {
 				Class<?> boundClass = GenericTypeReflector.erase(bound);
@@ -1611,7 +1625,8 @@ public class GenericClass implements Serializable {
 	public boolean satisfiesBoundaries(WildcardType wildcardType,
 	        Map<TypeVariable<?>, Type> typeMap) {
 		boolean isAssignable = true;
-		Map<TypeVariable<?>, Type> ownerVariableMap = getTypeVariableMap();
+		Map<TypeVariable<?>, Type> ownerVariableMap = new LinkedHashMap<TypeVariable<?>, Type>(
+		        getTypeVariableMap());
 		ownerVariableMap.putAll(typeMap);
 
 		// ? extends X
@@ -26,6 +26,7 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.lang.reflect.*;
+import java.util.LinkedHashMap;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.evosuite.TestGenerationContext;
@@ -73,7 +74,8 @@ public class GenericField extends GenericAccessibleObject<GenericField> {
 	public GenericField copyWithOwnerFromReturnType(GenericClass returnType)
 	        throws ConstructionFailedException {
 		return new GenericField(field,
-		        getOwnerClass().getGenericInstantiation(returnType.getTypeVariableMap()));
+		        getOwnerClass().getGenericInstantiation(new LinkedHashMap<TypeVariable<?>, Type>(
+		                returnType.getTypeVariableMap())));
 		/*
 		if (returnType.isParameterizedType()) {
 			GenericClass newOwner = new GenericClass(
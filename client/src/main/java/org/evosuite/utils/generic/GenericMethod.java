@@ -32,6 +32,7 @@ import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 
 import org.evosuite.TestGenerationContext;
@@ -82,7 +83,8 @@ public class GenericMethod extends GenericAccessibleObject<GenericMethod> {
 	@Override
 	public GenericMethod copyWithOwnerFromReturnType(GenericClass returnType)
 	        throws ConstructionFailedException {
-		GenericClass newOwner = getOwnerClass().getGenericInstantiation(returnType.getTypeVariableMap());
+		GenericClass newOwner = getOwnerClass().getGenericInstantiation(
+		        new LinkedHashMap<TypeVariable<?>, Type>(returnType.getTypeVariableMap()));
 		GenericMethod copy = new GenericMethod(method, newOwner);
 		copyTypeVariables(copy);
 		return copy;
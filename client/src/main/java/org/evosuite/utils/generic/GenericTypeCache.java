@@ -0,0 +1,194 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils.generic;
+
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.evosuite.Properties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.googlecode.gentyref.GenericTypeReflector;
+
+/**
+ * Memoized results of the generic type computations that the test factory
+ * repeats for nearly every statement it inserts: type names (which equality
+ * of {@link GenericClass} is based on), type variable maps, and
+ * assignability checks.
+ * 
+ * Results are keyed by the underlying {@link Type}, so all instances of
+ * {@link GenericClass} for the same type share them, also after one of them
+ * has been changed to a different type. Lookups do not lock; if two threads
+ * compute the same entry concurrently, both results are equal and either is
+ * kept.
+ */
+public class GenericTypeCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(GenericTypeCache.class);
+
+	/** Each table is cleared once it grows beyond this size */
+	private static final int MAX_SIZE = 100000;
+
+	private static GenericTypeCache instance = null;
+
+	private static final class Key {
+
+		private final Object first;
+
+		private final Object second;
+
+		private final int hashCode;
+
+		private Key(Object first, Object second) {
+			this.first = first;
+			this.second = second;
+			this.hashCode = 31 * first.hashCode() + (second == null ? 0 : second.hashCode());
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return hashCode == other.hashCode && first.equals(other.first)
+			        && (second == null ? other.second == null : second.equals(other.second));
+		}
+	}
+
+	private final Map<Type, String> typeNames = new ConcurrentHashMap<>();
+
+	/** By type and raw class */
+	private final Map<Key, Map<TypeVariable<?>, Type>> typeVariableMaps = new ConcurrentHashMap<>();
+
+	/** By left hand side and right hand side type */
+	private final Map<Key, Boolean> assignable = new ConcurrentHashMap<>();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private GenericTypeCache() {
+	}
+
+	public static synchronized GenericTypeCache getInstance() {
+		if (instance == null)
+			instance = new GenericTypeCache();
+		return instance;
+	}
+
+	/**
+	 * Forget all types, e.g. when the classes are loaded by a new class loader
+	 */
+	public static synchronized void resetSingleton() {
+		if (instance != null)
+			instance.logHitRate();
+		instance = null;
+	}
+
+	private static <K, V> void put(Map<K, V> table, K key, V value) {
+		if (table.size() >= MAX_SIZE)
+			table.clear();
+		table.put(key, value);
+	}
+
+	public String getTypeName(Type type) {
+		if (!Properties.CACHE_GENERIC_TYPES || type == null)
+			return GenericTypeReflector.getTypeName(type);
+
+		String name = typeNames.get(type);
+		if (name != null) {
+			hits.increment();
+			return name;
+		}
+		misses.increment();
+		name = GenericTypeReflector.getTypeName(type);
+		put(typeNames, type, name);
+		return name;
+	}
+
+	/**
+	 * @param genericClass
+	 * @return an unmodifiable type variable map of the class
+	 */
+	public Map<TypeVariable<?>, Type> getTypeVariableMap(GenericClass genericClass) {
+		if (!Properties.CACHE_GENERIC_TYPES || genericClass.type == null)
+			return Collections.unmodifiableMap(genericClass.computeTypeVariableMap());
+
+		Key key = new Key(genericClass.type, genericClass.rawClass);
+		Map<TypeVariable<?>, Type> typeMap = typeVariableMaps.get(key);
+		if (typeMap != null) {
+			hits.increment();
+		} else {
+			// Not computeIfAbsent, as the computation recurses into super types
+			misses.increment();
+			typeMap = Collections.unmodifiableMap(genericClass.computeTypeVariableMap());
+			put(typeVariableMaps, key, typeMap);
+		}
+		return typeMap;
+	}
+
+	/**
+	 * @param lhsType
+	 * @param rhsType
+	 * @return whether a value of rhsType can be assigned to lhsType
+	 */
+	public boolean isAssignable(Type lhsType, Type rhsType) {
+		if (!Properties.CACHE_GENERIC_TYPES)
+			return GenericClass.computeAssignable(lhsType, rhsType);
+
+		Key key = new Key(lhsType, rhsType);
+		Boolean result = assignable.get(key);
+		if (result != null) {
+			hits.increment();
+			return result;
+		}
+		misses.increment();
+		boolean isAssignable = GenericClass.computeAssignable(lhsType, rhsType);
+		put(assignable, key, isAssignable);
+		return isAssignable;
+	}
+
+	public long getNumHits() {
+		return hits.sum();
+	}
+
+	public long getNumMisses() {
+		return misses.sum();
+	}
+
+	private void logHitRate() {
+		long numHits = hits.sum();
+		long total = numHits + misses.sum();
+		if (total > 0)
+			logger.debug("Generic type cache hit rate: {}% of {} lookups", 100 * numHits / total, total);
+	}
+}
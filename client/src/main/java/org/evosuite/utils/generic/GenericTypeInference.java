@@ -228,7 +228,8 @@ public class GenericTypeInference extends TestVisitor {
 		logger.debug("Inferring types for: " + constructorStatement.getCode()
 		        + " at position " + constructorStatement.getPosition());
 
-		Map<TypeVariable<?>, Type> typeMap = constructor.getOwnerClass().getTypeVariableMap();
+		Map<TypeVariable<?>, Type> typeMap = new LinkedHashMap<TypeVariable<?>, Type>(
+		        constructor.getOwnerClass().getTypeVariableMap());
 		if (constructor.getOwnerClass().hasTypeVariables()) {
 			// if (!typeMap.isEmpty()) {
 			logger.info("Has types: " + constructor.getOwnerClass());
@@ -0,0 +1,195 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.assertion;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.evosuite.Properties;
+import org.evosuite.coverage.mutation.Mutation;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.execution.ExecutionObserver;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionTracer;
+import org.evosuite.testcase.execution.Scope;
+import org.evosuite.testcase.execution.TestCaseExecutor;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MutantInfectionObserverTest {
+
+	private static final int MUTANT_ID = 17;
+
+	private final boolean DEFAULT_SANDBOX = Properties.SANDBOX;
+
+	/**
+	 * Reports the mutant as reached from the first statement on, and as
+	 * infected from the given statement on, as the instrumentation of a
+	 * mutant would
+	 */
+	private static class FakeMutant extends ExecutionObserver {
+
+		private final int infectingPosition;
+
+		FakeMutant(int infectingPosition) {
+			this.infectingPosition = infectingPosition;
+		}
+
+		@Override
+		public void output(int position, String output) {
+		}
+
+		@Override
+		public void beforeStatement(Statement statement, Scope scope) {
+		}
+
+		@Override
+		public void afterStatement(Statement statement, Scope scope, Throwable exception) {
+			if (statement.getPosition() == 0)
+				return;
+			double distance = statement.getPosition() >= infectingPosition ? 0.0 : 1.0;
+			ExecutionTracer.passedMutation(distance, MUTANT_ID);
+		}
+
+		@Override
+		public void testExecutionFinished(ExecutionResult r, Scope s) {
+		}
+
+		@Override
+		public void clear() {
+		}
+	}
+
+	@Before
+	public void setUp() {
+		Properties.SANDBOX = false;
+		TestCaseExecutor.getInstance().newObservers();
+	}
+
+	@After
+	public void tearDown() {
+		Properties.SANDBOX = DEFAULT_SANDBOX;
+		AssertionTraceObserver.setFirstObservedPosition(0);
+		TestCaseExecutor.getInstance().newObservers();
+	}
+
+	/**
+	 * int0 = -1; int1 = Math.abs(int0); int2 = Math.abs(int1); int3 =
+	 * Math.abs(int2)
+	 */
+	private static DefaultTestCase buildTest() throws NoSuchMethodException {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		VariableReference var = builder.appendIntPrimitive(-1);
+		for (int i = 0; i < 3; i++)
+			var = builder.appendMethod(null, Math.class.getMethod("abs", int.class), var);
+		return builder.getDefaultTestCase();
+	}
+
+	private static Mutation mutant() {
+		Mutation mutant = mock(Mutation.class);
+		when(mutant.getId()).thenReturn(MUTANT_ID);
+		return mutant;
+	}
+
+	private static ExecutionResult runOnOriginal(DefaultTestCase test, FakeMutant fakeMutant,
+	        MutantInfectionObserver infectionObserver) {
+		TestCaseExecutor executor = TestCaseExecutor.getInstance();
+		executor.newObservers();
+		executor.addObserver(fakeMutant);
+		executor.addObserver(infectionObserver);
+		return executor.execute(test);
+	}
+
+	private static OutputTrace<PrimitiveTraceEntry> observe(DefaultTestCase test, int firstObservedPosition) {
+		PrimitiveTraceObserver observer = new PrimitiveTraceObserver();
+		TestCaseExecutor executor = TestCaseExecutor.getInstance();
+		executor.newObservers();
+		executor.addObserver(observer);
+		AssertionTraceObserver.setFirstObservedPosition(firstObservedPosition);
+		executor.execute(test);
+		return observer.getTrace();
+	}
+
+	@Test
+	public void testStatementsBeforeInfectionAreNotObserved() throws NoSuchMethodException {
+		DefaultTestCase test = buildTest();
+		MutantInfectionObserver infectionObserver = new MutantInfectionObserver();
+		ExecutionResult result = runOnOriginal(test, new FakeMutant(2), infectionObserver);
+
+		Assert.assertEquals(Integer.valueOf(1), infectionObserver.getReachingPositions().get(MUTANT_ID));
+		Map<Integer, Integer> infectingPositions = infectionObserver.getInfectingPositions();
+		Assert.assertEquals(Integer.valueOf(2), infectingPositions.get(MUTANT_ID));
+
+		int firstObservedPosition = SimpleMutationAssertionGenerator.getFirstObservedPosition(mutant(), result,
+		        infectingPositions);
+		Assert.assertEquals(2, firstObservedPosition);
+
+		OutputTrace<PrimitiveTraceEntry> trace = observe(test, firstObservedPosition);
+		Assert.assertFalse(trace.containsEntry(1, test.getStatement(1).getReturnValue()));
+		Assert.assertTrue(trace.containsEntry(2, test.getStatement(2).getReturnValue()));
+		Assert.assertTrue(trace.containsEntry(3, test.getStatement(3).getReturnValue()));
+
+		// Without infection information all statements are observed
+		OutputTrace<PrimitiveTraceEntry> fullTrace = observe(test, 0);
+		Assert.assertTrue(fullTrace.containsEntry(1, test.getStatement(1).getReturnValue()));
+	}
+
+	@Test
+	public void testMutantWithoutInfectionIsNotObserved() throws NoSuchMethodException {
+		DefaultTestCase test = buildTest();
+		MutantInfectionObserver infectionObserver = new MutantInfectionObserver();
+		ExecutionResult result = runOnOriginal(test, new FakeMutant(Integer.MAX_VALUE), infectionObserver);
+
+		Assert.assertEquals(Integer.valueOf(1), infectionObserver.getReachingPositions().get(MUTANT_ID));
+		Assert.assertTrue(infectionObserver.getInfectingPositions().isEmpty());
+		Assert.assertEquals(-1, SimpleMutationAssertionGenerator.getFirstObservedPosition(mutant(), result,
+		        infectionObserver.getInfectingPositions()));
+	}
+
+	@Test
+	public void testUnknownInfectingPositionObservesAll() throws NoSuchMethodException {
+		DefaultTestCase test = buildTest();
+		MutantInfectionObserver infectionObserver = new MutantInfectionObserver();
+		ExecutionResult result = runOnOriginal(test, new FakeMutant(1), infectionObserver);
+
+		Assert.assertEquals(Integer.valueOf(1), infectionObserver.getInfectingPositions().get(MUTANT_ID));
+		Assert.assertEquals(1, SimpleMutationAssertionGenerator.getFirstObservedPosition(mutant(), result,
+		        infectionObserver.getInfectingPositions()));
+		Assert.assertEquals(0, SimpleMutationAssertionGenerator.getFirstObservedPosition(mutant(), result,
+		        Collections.<Integer, Integer> emptyMap()));
+	}
+
+	@Test
+	public void testClear() throws NoSuchMethodException {
+		MutantInfectionObserver infectionObserver = new MutantInfectionObserver();
+		runOnOriginal(buildTest(), new FakeMutant(2), infectionObserver);
+		infectionObserver.clear();
+		Assert.assertTrue(infectionObserver.getReachingPositions().isEmpty());
+		Assert.assertTrue(infectionObserver.getInfectingPositions().isEmpty());
+	}
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.graphs;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.evosuite.Properties;
+import org.evosuite.coverage.branch.BranchPool;
+import org.evosuite.graphs.cdg.ControlDependenceGraph;
+import org.evosuite.graphs.cfg.ActualControlFlowGraph;
+import org.evosuite.graphs.cfg.BasicBlock;
+import org.evosuite.graphs.cfg.BytecodeInstruction;
+import org.evosuite.graphs.cfg.BytecodeInstructionPool;
+import org.evosuite.graphs.cfg.ControlFlowEdge;
+import org.evosuite.graphs.cfg.RawControlFlowGraph;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.AccessExamples;
+import com.examples.with.different.packagename.ArrayStack;
+import com.examples.with.different.packagename.FlagExample1;
+
+public class ParallelGraphBuilderTest {
+
+	private static final List<String> CLASSES = Arrays.asList(ArrayStack.class.getName(),
+	        FlagExample1.class.getName(), AccessExamples.class.getName());
+
+	private final boolean DEFAULT_ALWAYS_REGISTER_BRANCH = Properties.ALWAYS_REGISTER_BRANCH;
+
+	/** The pools are per class loader, so each builder gets its own */
+	private ClassLoader sequentialLoader;
+
+	private ClassLoader parallelLoader;
+
+	@Before
+	public void setUp() {
+		// Build the CDGs of all methods
+		Properties.ALWAYS_REGISTER_BRANCH = true;
+		sequentialLoader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+		parallelLoader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+	}
+
+	@After
+	public void tearDown() {
+		Properties.ALWAYS_REGISTER_BRANCH = DEFAULT_ALWAYS_REGISTER_BRANCH;
+		BranchPool.getInstance(sequentialLoader).reset();
+		BranchPool.getInstance(parallelLoader).reset();
+		BytecodeInstructionPool.clearAll();
+		GraphPool.clearAll();
+	}
+
+	@Test
+	public void testSameGraphsAsSequentialBuilder() {
+		for (String className : CLASSES) {
+			GraphPool.getInstance(sequentialLoader).registerClass(className);
+		}
+		ParallelGraphBuilder builder = new ParallelGraphBuilder(parallelLoader, 4);
+		builder.build(CLASSES);
+
+		GraphPool sequential = GraphPool.getInstance(sequentialLoader);
+		GraphPool parallel = GraphPool.getInstance(parallelLoader);
+		int numMethods = 0;
+		for (String className : CLASSES) {
+			Map<String, RawControlFlowGraph> rawCFGs = sequential.getRawCFGs(className);
+			Assert.assertNotNull(className, rawCFGs);
+			Assert.assertEquals(className, rawCFGs.keySet(), parallel.getRawCFGs(className).keySet());
+
+			for (String methodName : rawCFGs.keySet()) {
+				String method = className + "." + methodName;
+				Assert.assertEquals(method, describe(sequential.getRawCFG(className, methodName), INSTRUCTION),
+				        describe(parallel.getRawCFG(className, methodName), INSTRUCTION));
+
+				ActualControlFlowGraph sequentialCFG = sequential.getActualCFG(className, methodName);
+				ActualControlFlowGraph parallelCFG = parallel.getActualCFG(className, methodName);
+				Assert.assertNotNull(method, parallelCFG);
+				Assert.assertEquals(method, describe(sequentialCFG, BLOCK), describe(parallelCFG, BLOCK));
+				Assert.assertEquals(method, sequentialCFG.getDiameter(), parallelCFG.getDiameter());
+
+				ControlDependenceGraph sequentialCDG = sequential.getCDG(className, methodName);
+				ControlDependenceGraph parallelCDG = parallel.getCDG(className, methodName);
+				Assert.assertNotNull(method, parallelCDG);
+				Assert.assertEquals(method, describe(sequentialCDG, BLOCK), describe(parallelCDG, BLOCK));
+				numMethods++;
+			}
+		}
+		Assert.assertEquals(numMethods, builder.getNumberOfMethods());
+	}
+
+	@Test
+	public void testKnownMethodsAreNotBuiltAgain() {
+		ParallelGraphBuilder builder = new ParallelGraphBuilder(parallelLoader, 2);
+		builder.build(CLASSES);
+		int numMethods = builder.getNumberOfMethods();
+		Assert.assertTrue(numMethods > 0);
+
+		ActualControlFlowGraph cfg = GraphPool.getInstance(parallelLoader).getActualCFG(FlagExample1.class.getName(),
+		        "<init>()V");
+		ParallelGraphBuilder second = new ParallelGraphBuilder(parallelLoader, 2);
+		second.build(CLASSES);
+		Assert.assertEquals(0, second.getNumberOfMethods());
+		Assert.assertSame(cfg,
+		        GraphPool.getInstance(parallelLoader).getActualCFG(FlagExample1.class.getName(), "<init>()V"));
+	}
+
+	private static final Function<BytecodeInstruction, String> INSTRUCTION = instruction -> "I"
+	        + instruction.getInstructionId() + " " + instruction.getASMNode().getOpcode();
+
+	private static final Function<BasicBlock, String> BLOCK = block -> {
+		if (block.isEntryBlock())
+			return "entry";
+		if (block.isExitBlock())
+			return "exit";
+		return "B" + block.getFirstInstruction().getInstructionId() + "-"
+		        + block.getLastInstruction().getInstructionId();
+	};
+
+	/**
+	 * Describes a graph independently of the class loader it was built for,
+	 * ie by instruction ids instead of object identities
+	 */
+	private static <V> List<String> describe(EvoSuiteGraph<V, ControlFlowEdge> graph,
+	        Function<V, String> vertex) {
+		List<String> description = new ArrayList<>();
+		for (V v : graph.vertexSet()) {
+			description.add(vertex.apply(v));
+		}
+		for (ControlFlowEdge edge : graph.edgeSet()) {
+			String e = vertex.apply(graph.getEdgeSource(edge)) + " -> "
+			        + vertex.apply(graph.getEdgeTarget(edge));
+			if (edge.isExceptionEdge())
+				e += " exception";
+			if (edge.hasControlDependency())
+				e += " on I" + edge.getControlDependency().getBranch().getInstruction().getInstructionId()
+				        + " " + edge.getBranchExpressionValue();
+			description.add(e);
+		}
+		Collections.sort(description);
+		return description;
+	}
+}
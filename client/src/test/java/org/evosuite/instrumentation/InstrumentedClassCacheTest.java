@@ -0,0 +1,239 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.evosuite.runtime.LoopCounter;
+import org.evosuite.runtime.classhandling.ModifiedTargetStaticFields;
+import org.evosuite.testcase.execution.ExecutionTracer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+public class InstrumentedClassCacheTest {
+
+	private static final String LOOP_COUNTER = Type.getInternalName(LoopCounter.class);
+
+	private static final String EXECUTION_TRACER = Type.getInternalName(ExecutionTracer.class);
+
+	private File directory;
+
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("instrumentation_cache").toFile();
+	}
+
+	@After
+	public void tearDown() {
+		deleteRecursively(directory);
+	}
+
+	private static void deleteRecursively(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children)
+				deleteRecursively(child);
+		}
+		file.delete();
+	}
+
+	/**
+	 * A class with a method that looks like it was instrumented: a static field
+	 * access notification and a loop counter with the given index
+	 */
+	private static byte[] createInstrumentedClass(int loopIndex) {
+		ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, "foo/Bar", null, "java/lang/Object", null);
+		MethodVisitor mv = writer.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "run", "()V", null, null);
+		mv.visitCode();
+		mv.visitLdcInsn("original");
+		mv.visitInsn(Opcodes.POP);
+		mv.visitLdcInsn("foo.Bar");
+		mv.visitLdcInsn("field");
+		mv.visitMethodInsn(Opcodes.INVOKESTATIC, EXECUTION_TRACER, "passedGetStatic",
+				"(Ljava/lang/String;Ljava/lang/String;)V", false);
+		mv.visitMethodInsn(Opcodes.INVOKESTATIC, LOOP_COUNTER, "getInstance", "()L" + LOOP_COUNTER + ";", false);
+		mv.visitLdcInsn(loopIndex);
+		mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, LOOP_COUNTER, "checkLoop", "(I)V", false);
+		mv.visitLdcInsn(loopIndex);
+		mv.visitInsn(Opcodes.POP);
+		mv.visitInsn(Opcodes.RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+		writer.visitEnd();
+		return writer.toByteArray();
+	}
+
+	/**
+	 * A class with a static field, which is final or not
+	 */
+	private static byte[] createClassWithField(String fieldName, boolean isFinal) {
+		ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		writer.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, "foo/Bar", null, "java/lang/Object", null);
+		int access = Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC | (isFinal ? Opcodes.ACC_FINAL : 0);
+		writer.visitField(access, fieldName, "I", null, null).visitEnd();
+		writer.visitField(Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, "unchanged", "I", null, null).visitEnd();
+		writer.visitEnd();
+		return writer.toByteArray();
+	}
+
+	/**
+	 * Records the constants and method calls a visitor sees
+	 */
+	private static class RecordingClassVisitor extends ClassVisitor {
+
+		private final List<Object> constants = new ArrayList<Object>();
+
+		private final List<String> calls = new ArrayList<String>();
+
+		RecordingClassVisitor() {
+			super(Opcodes.ASM5);
+		}
+
+		@Override
+		public MethodVisitor visitMethod(int access, String name, String desc, String signature,
+				String[] exceptions) {
+			return new MethodVisitor(Opcodes.ASM5) {
+				@Override
+				public void visitLdcInsn(Object cst) {
+					constants.add(cst);
+				}
+
+				@Override
+				public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean itf) {
+					calls.add(name);
+				}
+			};
+		}
+	}
+
+	@Test
+	public void testEntriesAreStoredAndRead() {
+		byte[] bytes = createInstrumentedClass(3);
+		File file = new File(new File(directory, "ab"), "cdef.inst");
+
+		InstrumentedClassCache.write(file, new InstrumentedClassCache.Entry(bytes, Arrays.asList("FIELD", "OTHER")));
+
+		InstrumentedClassCache.Entry entry = InstrumentedClassCache.read(file);
+		assertArrayEquals(bytes, entry.bytecode);
+		assertEquals(Arrays.asList("FIELD", "OTHER"), entry.modifiedFinalFields);
+		assertNull(InstrumentedClassCache.read(new File(directory, "missing.inst")));
+	}
+
+	@Test
+	public void testTruncatedEntriesAreIgnored() throws IOException {
+		File file = new File(directory, "truncated.inst");
+		InstrumentedClassCache.write(file, new InstrumentedClassCache.Entry(createInstrumentedClass(3),
+				Collections.<String> emptyList()));
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(raf.length() - 1);
+		}
+		assertNull(InstrumentedClassCache.read(file));
+	}
+
+	@Test
+	public void testKeyDependsOnBytecode() {
+		InstrumentedClassCache cache = new InstrumentedClassCache(directory);
+		byte[] bytes = createInstrumentedClass(3);
+
+		assertEquals(cache.computeKey("foo/Bar", bytes), cache.computeKey("foo/Bar", bytes.clone()));
+		assertNotEquals(cache.computeKey("foo/Bar", bytes), cache.computeKey("foo/Bar", createInstrumentedClass(4)));
+		assertNotEquals(cache.computeKey("foo/Bar", bytes), cache.computeKey("foo/Baz", bytes));
+	}
+
+	@Test
+	public void testLoopIndicesAreReassigned() {
+		int next = LoopCounter.getInstance().getNewIndex() + 1;
+
+		byte[] bytes = InstrumentedClassCache.assignLoopIndices(createInstrumentedClass(12345));
+
+		RecordingClassVisitor recorder = new RecordingClassVisitor();
+		new ClassReader(bytes).accept(recorder, 0);
+		List<Object> expected = new ArrayList<Object>();
+		expected.add("original");
+		expected.add("foo.Bar");
+		expected.add("field");
+		expected.add(next);
+		// other int constants are not changed
+		expected.add(12345);
+		assertEquals(expected, recorder.constants);
+	}
+
+	@Test
+	public void testStrippingHidesInstrumentation() {
+		byte[] bytes = createInstrumentedClass(7);
+
+		RecordingClassVisitor all = new RecordingClassVisitor();
+		new ClassReader(bytes).accept(new InstrumentedClassCache.StrippingClassVisitor(all, true), 0);
+		List<Object> expected = new ArrayList<Object>();
+		expected.add("original");
+		expected.add(7);
+		assertEquals(expected, all.constants);
+		assertEquals(0, all.calls.size());
+
+		RecordingClassVisitor staticAccess = new RecordingClassVisitor();
+		new ClassReader(bytes).accept(new InstrumentedClassCache.StrippingClassVisitor(staticAccess, false), 0);
+		assertEquals(3, staticAccess.constants.size());
+		assertEquals("getInstance", staticAccess.calls.get(0));
+		assertEquals("checkLoop", staticAccess.calls.get(1));
+	}
+
+	@Test
+	public void testModifiedFinalFieldsAreRegisteredOnRestore() {
+		String field = "CONSTANT";
+		byte[] original = createClassWithField(field, true);
+		byte[] instrumented = createClassWithField(field, false);
+
+		List<String> modified = InstrumentedClassCache.getModifiedFinalFields(original, instrumented);
+		assertEquals(Collections.singletonList(field), modified);
+		assertTrue(InstrumentedClassCache.getModifiedFinalFields(original, original).isEmpty());
+
+		File file = new File(directory, "final.inst");
+		InstrumentedClassCache.write(file, new InstrumentedClassCache.Entry(instrumented, modified));
+
+		ModifiedTargetStaticFields.resetSingleton();
+		assertFalse(ModifiedTargetStaticFields.getInstance().containsField(field));
+		new InstrumentedClassCache(directory).restore("foo/Bar", original, InstrumentedClassCache.read(file));
+		assertTrue(ModifiedTargetStaticFields.getInstance().containsField(field));
+		assertFalse(ModifiedTargetStaticFields.getInstance().containsField("unchanged"));
+		ModifiedTargetStaticFields.resetSingleton();
+	}
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+public class InMemoryCompilerTest {
+
+	@Before
+	public void checkCompiler() {
+		Assume.assumeTrue(InMemoryCompiler.getInstance().isAvailable());
+	}
+
+	@Test
+	public void testCompilesAllClassesInOneTask() throws IOException {
+		Map<String, String> sources = new LinkedHashMap<>();
+		sources.put("foo.A", "package foo; public class A { public int get() { return 1; } }");
+		sources.put("foo.B", "package foo; public class B { public Runnable run() { return new Runnable() { public void run() { new A().get(); } }; } }");
+
+		InMemoryCompiler.Result result = InMemoryCompiler.getInstance().compile(sources);
+
+		assertTrue(result.isSuccessful());
+		assertTrue(result.getFailedSources().isEmpty());
+		assertEquals(3, result.getClasses().size());
+		assertTrue(result.getClasses().containsKey("foo.A"));
+		assertTrue(result.getClasses().containsKey("foo.B"));
+		assertTrue(result.getClasses().containsKey("foo.B$1"));
+	}
+
+	@Test
+	public void testErrorsAreAttributedToSources() throws IOException {
+		Map<String, String> sources = new LinkedHashMap<>();
+		sources.put("foo.Good", "package foo; public class Good { }");
+		sources.put("foo.Bad", "package foo; public class Bad { int x = \"not an int\"; }");
+		sources.put("foo.AlsoBad", "package foo; public class AlsoBad { void m() { undefined(); } }");
+
+		InMemoryCompiler.Result result = InMemoryCompiler.getInstance().compile(sources);
+
+		assertFalse(result.isSuccessful());
+		assertFalse(result.hasUnattributedErrors());
+		assertEquals(2, result.getFailedSources().size());
+		assertTrue(result.getFailedSources().contains("foo.Bad"));
+		assertTrue(result.getFailedSources().contains("foo.AlsoBad"));
+
+		sources.remove("foo.Bad");
+		sources.remove("foo.AlsoBad");
+		result = InMemoryCompiler.getInstance().compile(sources);
+		assertTrue(result.isSuccessful());
+		assertEquals(Collections.singleton("foo.Good"), result.getClasses().keySet());
+	}
+}
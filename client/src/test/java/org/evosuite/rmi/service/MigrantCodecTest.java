@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.rmi.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.junit.Test;
+
+public class MigrantCodecTest {
+
+	private static TestChromosome createMigrant(int length) {
+		DefaultTestCase test = new DefaultTestCase();
+		for (int i = 0; i < length; i++)
+			test.addStatement(new IntPrimitiveStatement(test, i));
+		TestChromosome migrant = new TestChromosome();
+		migrant.setTestCase(test);
+		return migrant;
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException, ClassNotFoundException {
+		List<TestChromosome> migrants = new ArrayList<>();
+		migrants.add(createMigrant(3));
+		migrants.add(createMigrant(5));
+
+		List<TestChromosome> decoded = MigrantCodec.decode(MigrantCodec.encode(migrants));
+
+		assertEquals(migrants.size(), decoded.size());
+		for (int i = 0; i < migrants.size(); i++) {
+			assertEquals(migrants.get(i).getTestCase().toCode(), decoded.get(i).getTestCase().toCode());
+			assertTrue(decoded.get(i).isChanged());
+			assertTrue(decoded.get(i).getFitnessValues().isEmpty());
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testCorruptData() throws IOException, ClassNotFoundException {
+		MigrantCodec.decode(new byte[] { 1, 2, 3 });
+	}
+
+	@Test
+	public void testRoundTripWithCalls() throws IOException, ClassNotFoundException, NoSuchMethodException {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		VariableReference string0 = builder.appendStringPrimitive("42");
+		VariableReference int0 = builder.appendMethod(null, Integer.class.getMethod("parseInt", String.class),
+		        string0);
+		builder.appendMethod(null, Math.class.getMethod("abs", int.class), int0);
+		TestChromosome migrant = new TestChromosome();
+		migrant.setTestCase(builder.getDefaultTestCase());
+		List<TestChromosome> migrants = new ArrayList<>();
+		migrants.add(migrant);
+
+		List<TestChromosome> decoded = MigrantCodec.decode(MigrantCodec.encode(migrants));
+
+		assertEquals(1, decoded.size());
+		assertEquals(migrant.getTestCase().toCode(), decoded.get(0).getTestCase().toCode());
+	}
+
+	@Test(expected = InvalidClassException.class)
+	public void testOtherClassesAreRejected() throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(new DeflaterOutputStream(bytes))) {
+			out.writeInt(MigrantCodec.VERSION);
+			out.writeInt(1);
+			out.writeObject(new File("migrant"));
+		}
+		MigrantCodec.decode(bytes.toByteArray());
+	}
+
+	@Test
+	public void testAllowedClasses() {
+		assertTrue(MigrantCodec.isAllowed(DefaultTestCase.class.getName()));
+		assertTrue(MigrantCodec.isAllowed(IntPrimitiveStatement[].class.getName()));
+		assertTrue(MigrantCodec.isAllowed(ArrayList.class.getName()));
+		assertTrue(MigrantCodec.isAllowed(Integer.class.getName()));
+		assertTrue(MigrantCodec.isAllowed(int[][].class.getName()));
+		assertFalse(MigrantCodec.isAllowed(File.class.getName()));
+		assertFalse(MigrantCodec.isAllowed(File[].class.getName()));
+		assertFalse(MigrantCodec.isAllowed(java.util.concurrent.ConcurrentHashMap.class.getName()));
+		assertFalse(MigrantCodec.isAllowed(Thread.class.getName()));
+	}
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.rmi.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.rmi.RemoteException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.evosuite.ga.Chromosome;
+import org.evosuite.statistics.RuntimeVariable;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+public class StatisticsSenderTest {
+
+	private static final String ID = "ClientNode";
+
+	@Test
+	public void testOutputVariablesAreMerged() throws RemoteException {
+		MasterNodeRemote master = mock(MasterNodeRemote.class);
+		StatisticsSender sender = new StatisticsSender(master, ID);
+
+		sender.trackOutputVariable(RuntimeVariable.Coverage, 0.5);
+		sender.trackOutputVariable(RuntimeVariable.Size, 3);
+		sender.trackOutputVariable(RuntimeVariable.Coverage, 0.75);
+		sender.flush();
+
+		Map<RuntimeVariable, Object> expected = new LinkedHashMap<>();
+		expected.put(RuntimeVariable.Coverage, 0.75);
+		expected.put(RuntimeVariable.Size, 3);
+		verify(master).evosuite_collectStatistics(ID, expected);
+	}
+
+	@Test
+	public void testStateChangesAreSentInOrderAfterStatistics() throws RemoteException {
+		MasterNodeRemote master = mock(MasterNodeRemote.class);
+		StatisticsSender sender = new StatisticsSender(master, ID);
+
+		ClientStateInformation first = new ClientStateInformation(ClientState.SEARCH);
+		ClientStateInformation second = new ClientStateInformation(ClientState.SEARCH);
+		ClientStateInformation done = new ClientStateInformation(ClientState.DONE);
+		sender.changeState(ClientState.SEARCH, first);
+		sender.changeState(ClientState.SEARCH, second);
+		sender.trackOutputVariable(RuntimeVariable.Coverage, 1.0);
+		sender.changeState(ClientState.DONE, done);
+		sender.flush();
+
+		InOrder order = inOrder(master);
+		order.verify(master).evosuite_collectStatistics(eq(ID), anyMap());
+		order.verify(master).evosuite_informChangeOfStateInClient(ID, ClientState.SEARCH, second);
+		order.verify(master).evosuite_informChangeOfStateInClient(ID, ClientState.DONE, done);
+		verify(master, never()).evosuite_informChangeOfStateInClient(ID, ClientState.SEARCH, first);
+	}
+
+	private static Chromosome individual(Chromosome copy) {
+		Chromosome individual = mock(Chromosome.class);
+		when(individual.clone()).thenReturn(copy);
+		return individual;
+	}
+
+	@Test
+	public void testIndividualIsCopiedOncePerBatch() throws RemoteException {
+		MasterNodeRemote master = mock(MasterNodeRemote.class);
+		StatisticsSender sender = new StatisticsSender(master, ID);
+
+		Chromosome firstCopy = mock(Chromosome.class);
+		Chromosome first = individual(firstCopy);
+		Chromosome second = individual(mock(Chromosome.class));
+		Chromosome thirdCopy = mock(Chromosome.class);
+		Chromosome third = individual(thirdCopy);
+
+		// The first individual is copied, the second only kept
+		sender.updateStatistics(first);
+		sender.updateStatistics(second);
+		verify(first).clone();
+		verify(second, never()).clone();
+
+		// The background thread only sends copies
+		sender.send();
+		verify(master).evosuite_collectStatistics(ID, firstCopy);
+
+		// After a batch was sent, the next individual is copied again
+		sender.updateStatistics(third);
+		verify(third).clone();
+		verify(second, never()).clone();
+		sender.send();
+		verify(master).evosuite_collectStatistics(ID, thirdCopy);
+	}
+
+	@Test
+	public void testFlushCopiesLatestIndividual() throws RemoteException {
+		MasterNodeRemote master = mock(MasterNodeRemote.class);
+		StatisticsSender sender = new StatisticsSender(master, ID);
+
+		Chromosome firstCopy = mock(Chromosome.class);
+		Chromosome first = individual(firstCopy);
+		Chromosome secondCopy = mock(Chromosome.class);
+		Chromosome second = individual(secondCopy);
+
+		sender.updateStatistics(first);
+		sender.updateStatistics(second);
+		sender.flush();
+
+		verify(second, times(1)).clone();
+		verify(master).evosuite_collectStatistics(ID, secondCopy);
+		verify(master, never()).evosuite_collectStatistics(ID, firstCopy);
+	}
+
+	@Test
+	public void testNothingIsSentWithoutUpdates() throws RemoteException {
+		MasterNodeRemote master = mock(MasterNodeRemote.class);
+		StatisticsSender sender = new StatisticsSender(master, ID);
+		sender.flush();
+
+		verify(master, never()).evosuite_collectStatistics(eq(ID), anyMap());
+		verify(master, never()).evosuite_informChangeOfStateInClient(eq(ID), any(), any());
+	}
+}
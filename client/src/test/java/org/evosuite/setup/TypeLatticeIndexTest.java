@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.setup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.evosuite.utils.generic.GenericClass;
+import org.junit.Test;
+
+import com.googlecode.gentyref.TypeToken;
+
+public class TypeLatticeIndexTest {
+
+	private static class Holder<T> {
+		@SuppressWarnings("unused")
+		public T value;
+	}
+
+	private static GenericClass typeVariable() throws NoSuchFieldException {
+		return new GenericClass(Holder.class.getField("value").getGenericType());
+	}
+
+	@Test
+	public void testGeneratedTypesBySuperType() {
+		TypeLatticeIndex index = new TypeLatticeIndex();
+		GenericClass string = new GenericClass(String.class);
+		GenericClass integer = new GenericClass(Integer.class);
+		GenericClass arrayList = new GenericClass(ArrayList.class);
+		index.addGeneratedType(string);
+		index.addGeneratedType(integer);
+		index.addGeneratedType(arrayList);
+
+		assertEquals(Arrays.asList(string), index.getGeneratedTypeCandidates(new GenericClass(CharSequence.class)));
+		assertEquals(Arrays.asList(integer), index.getGeneratedTypeCandidates(new GenericClass(Number.class)));
+		assertEquals(Arrays.asList(arrayList), index.getGeneratedTypeCandidates(new GenericClass(List.class)));
+		assertEquals(Arrays.asList(string, integer), index.getGeneratedTypeCandidates(new GenericClass(Comparable.class)));
+		assertEquals(Collections.emptyList(), index.getGeneratedTypeCandidates(new GenericClass(Thread.class)));
+	}
+
+	@Test
+	public void testPrimitives() {
+		TypeLatticeIndex index = new TypeLatticeIndex();
+		GenericClass intClass = new GenericClass(int.class);
+		index.addGeneratedType(intClass);
+
+		assertEquals(Arrays.asList(intClass), index.getGeneratedTypeCandidates(new GenericClass(long.class)));
+		assertEquals(Arrays.asList(intClass), index.getGeneratedTypeCandidates(new GenericClass(Integer.class)));
+		assertEquals(Arrays.asList(intClass), index.getGeneratedTypeCandidates(new GenericClass(Number.class)));
+		assertEquals(Collections.emptyList(), index.getGeneratedTypeCandidates(new GenericClass(short.class)));
+	}
+
+	@Test
+	public void testArrays() {
+		TypeLatticeIndex index = new TypeLatticeIndex();
+		GenericClass stringArray = new GenericClass(String[].class);
+		index.addGeneratedType(stringArray);
+
+		assertEquals(Arrays.asList(stringArray), index.getGeneratedTypeCandidates(new GenericClass(Object[].class)));
+		assertEquals(Arrays.asList(stringArray), index.getGeneratedTypeCandidates(new GenericClass(CharSequence[].class)));
+		assertEquals(Collections.emptyList(), index.getGeneratedTypeCandidates(new GenericClass(Integer[].class)));
+	}
+
+	@Test
+	public void testTypeVariablesAreAlwaysCandidates() throws NoSuchFieldException {
+		TypeLatticeIndex index = new TypeLatticeIndex();
+		GenericClass string = new GenericClass(String.class);
+		GenericClass variable = typeVariable();
+		GenericClass integer = new GenericClass(Integer.class);
+		index.addGeneratedType(string);
+		index.addGeneratedType(variable);
+		index.addGeneratedType(integer);
+
+		assertEquals(Arrays.asList(string, variable, integer), index.getGeneratedTypeCandidates(new GenericClass(Comparable.class)));
+		assertEquals(Arrays.asList(variable), index.getGeneratedTypeCandidates(new GenericClass(Thread.class)));
+		assertNull(index.getGeneratedTypeCandidates(variable));
+	}
+
+	@Test
+	public void testModifiedTypes() {
+		TypeLatticeIndex index = new TypeLatticeIndex();
+		GenericClass collection = new GenericClass(Collection.class);
+		GenericClass thread = new GenericClass(Thread.class);
+		GenericClass list = new GenericClass(List.class);
+		index.addModifiedType(collection);
+		index.addModifiedType(thread);
+		index.addModifiedType(list);
+
+		Type listOfStrings = new TypeToken<ArrayList<String>>() {
+		}.getType();
+		assertEquals(Arrays.asList(collection, list), index.getModifiedTypeCandidates(new GenericClass(listOfStrings)));
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.vm.ConstraintFactory;
+import org.junit.Test;
+
+public class ConstraintSubsumptionIndexTest {
+
+	private static final IntegerVariable x = new IntegerVariable("x", 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+	private static final IntegerVariable y = new IntegerVariable("y", 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+	private static final Constraint<?> a = ConstraintFactory.gt(x, new IntegerConstant(0));
+	private static final Constraint<?> b = ConstraintFactory.lt(y, new IntegerConstant(10));
+	private static final Constraint<?> c = ConstraintFactory.eq(x, y);
+	private static final Constraint<?> d = ConstraintFactory.neq(y, new IntegerConstant(5));
+
+	private static Set<Constraint<?>> set(Constraint<?>... constraints) {
+		return new HashSet<Constraint<?>>(Arrays.asList(constraints));
+	}
+
+	@Test
+	public void testEmptyIndex() {
+		ConstraintSubsumptionIndex index = new ConstraintSubsumptionIndex();
+		assertFalse(index.isSubsumed(set(a)));
+		assertFalse(index.isSubsumed(Collections.<Constraint<?>>emptySet()));
+		assertFalse(index.contains(set(a)));
+	}
+
+	@Test
+	public void testSubsumption() {
+		ConstraintSubsumptionIndex index = new ConstraintSubsumptionIndex();
+		assertTrue(index.add(set(a, b)));
+		assertTrue(index.add(set(b, c, d)));
+		assertFalse(index.add(set(b, a)));
+		assertEquals(2, index.size());
+
+		assertTrue(index.contains(set(a, b)));
+		assertFalse(index.contains(set(a)));
+
+		assertTrue(index.isSubsumed(set(a)));
+		assertTrue(index.isSubsumed(set(a, b)));
+		assertTrue(index.isSubsumed(set(c, d)));
+		assertTrue(index.isSubsumed(Collections.<Constraint<?>>emptySet()));
+
+		// every constraint is stored, but never all together
+		assertFalse(index.isSubsumed(set(a, c)));
+		assertFalse(index.isSubsumed(set(a, b, c, d)));
+		// never stored
+		assertFalse(index.isSubsumed(set(b, ConstraintFactory.lt(x, y))));
+	}
+
+	@Test
+	public void testStoresCopy() {
+		ConstraintSubsumptionIndex index = new ConstraintSubsumptionIndex();
+		Set<Constraint<?>> constraints = set(a);
+		index.add(constraints);
+		constraints.add(b);
+		assertFalse(index.isSubsumed(set(a, b)));
+
+		index.clear();
+		assertEquals(0, index.size());
+		assertFalse(index.isSubsumed(set(a)));
+	}
+
+	@Test
+	public void testCopyIsIndependent() {
+		ConstraintSubsumptionIndex index = new ConstraintSubsumptionIndex();
+		index.add(set(a, b));
+		ConstraintSubsumptionIndex copy = new ConstraintSubsumptionIndex(index);
+		assertTrue(copy.isSubsumed(set(a)));
+
+		copy.add(set(a, c));
+		assertTrue(copy.isSubsumed(set(a, c)));
+		assertFalse(index.isSubsumed(set(a, c)));
+
+		index.add(set(b, d));
+		assertTrue(index.isSubsumed(set(b, d)));
+		assertFalse(copy.isSubsumed(set(b, d)));
+	}
+}
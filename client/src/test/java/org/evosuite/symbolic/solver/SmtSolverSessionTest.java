@@ -0,0 +1,125 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SmtSolverSessionTest {
+
+	private static final File STUB_SOLVER = new File("src/test/resources/solver/stub_smt_solver.sh");
+
+	private static final List<String> PREAMBLE = Collections.singletonList("(set-option :timeout 1000)");
+
+	private File log;
+
+	@Before
+	public void setUp() throws IOException {
+		Assume.assumeTrue(new File("/bin/sh").exists() && STUB_SOLVER.exists());
+		log = File.createTempFile("stub_smt_solver", ".log");
+	}
+
+	@After
+	public void tearDown() {
+		SmtSolverSession.closeAll();
+		if (log != null)
+			log.delete();
+	}
+
+	private String solverCmd() {
+		return "/bin/sh " + STUB_SOLVER.getAbsolutePath() + " " + log.getAbsolutePath();
+	}
+
+	private List<String> logLines() throws IOException {
+		return Files.readAllLines(log.toPath(), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testSharedPrefixIsNotSentAgain() throws Exception {
+		SmtSolverSession session = SmtSolverSession.acquire(solverCmd(), PREAMBLE);
+
+		String first = session.solve(Arrays.asList("(declare-const x Int)", "(assert (> x 0))", "(assert (< x 5))"),
+				1000);
+		String second = session.solve(Arrays.asList("(declare-const x Int)", "(assert (> x 0))", "(assert (>= x 5))"),
+				1000);
+		SmtSolverSession.release(session);
+
+		assertTrue(first.startsWith("sat"));
+		assertTrue(second.startsWith("sat"));
+		assertTrue(second.contains("(define-fun x () Int 1)"));
+		assertEquals(1, session.getNumStarts());
+		assertEquals(2, session.getNumReusedCommands());
+
+		List<String> lines = logLines();
+		assertEquals(1, Collections.frequency(lines, "start"));
+		assertEquals(1, Collections.frequency(lines, "(set-option :timeout 1000)"));
+		assertEquals(1, Collections.frequency(lines, "(assert (> x 0))"));
+		assertEquals(1, Collections.frequency(lines, "(pop 1)"));
+		assertEquals(1, Collections.frequency(lines, "(assert (>= x 5))"));
+	}
+
+	@Test
+	public void testReleasedSessionIsReused() throws Exception {
+		SmtSolverSession first = SmtSolverSession.acquire(solverCmd(), PREAMBLE);
+		SmtSolverSession.release(first);
+		SmtSolverSession second = SmtSolverSession.acquire(solverCmd(), PREAMBLE);
+		SmtSolverSession other = SmtSolverSession.acquire(solverCmd(), PREAMBLE);
+
+		assertTrue(first == second);
+		assertTrue(first != other);
+	}
+
+	@Test
+	public void testUnsat() throws Exception {
+		SmtSolverSession session = SmtSolverSession.acquire(solverCmd(), PREAMBLE);
+		String answer = session.solve(Arrays.asList("(declare-const x Int)", "(assert false)"), 1000);
+		assertTrue(answer.startsWith("unsat"));
+	}
+
+	@Test
+	public void testRestartAfterCrash() throws Exception {
+		SmtSolverSession session = SmtSolverSession.acquire(solverCmd(), PREAMBLE);
+		session.solve(Arrays.asList("(declare-const x Int)", "(assert (> x 0))"), 1000);
+		try {
+			session.solve(Arrays.asList("(declare-const x Int)", "(assert crash)"), 1000);
+			fail("Expected the solver to fail");
+		} catch (SolverErrorException e) {
+			// the process died on the query and again on its retry
+		}
+		String answer = session.solve(Arrays.asList("(declare-const x Int)", "(assert (> x 0))"), 1000);
+		assertTrue(answer.startsWith("sat"));
+		assertEquals(3, session.getNumStarts());
+		assertEquals(3, Collections.frequency(logLines(), "start"));
+	}
+}
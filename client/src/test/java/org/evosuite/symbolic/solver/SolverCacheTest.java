@@ -0,0 +1,220 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.symbolic.expr.Comparator;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.IntegerConstraint;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.junit.Test;
+
+public class SolverCacheTest {
+
+	/**
+	 * Answers every query with the same result and records the queries
+	 */
+	private static class RecordingSolver extends Solver {
+
+		private final SolverResult result;
+
+		private final List<Collection<Constraint<?>>> queries = new ArrayList<Collection<Constraint<?>>>();
+
+		RecordingSolver(SolverResult result) {
+			this.result = result;
+		}
+
+		@Override
+		public SolverResult solve(Collection<Constraint<?>> constraints) {
+			queries.add(constraints);
+			return result;
+		}
+	}
+
+	private static IntegerVariable var(String name, long value) {
+		return new IntegerVariable(name, value, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	private static Constraint<?> cmp(IntegerVariable var, Comparator comparator, long value) {
+		return new IntegerConstraint(var, comparator, new IntegerConstant(value));
+	}
+
+	private static SolverResult sat(String name, long value) {
+		Map<String, Object> model = new HashMap<String, Object>();
+		model.put(name, value);
+		return SolverResult.newSAT(model);
+	}
+
+	@Test
+	public void testRenamedQueryIsAnsweredFromCache() {
+		SolverCache cache = new SolverCache(1024 * 1024);
+		RecordingSolver solver = new RecordingSolver(sat("a", 2L));
+
+		SolverResult first = cache.solve(solver, Arrays.<Constraint<?>> asList(cmp(var("a", 7), Comparator.LT, 5)));
+		SolverResult second = cache.solve(solver, Arrays.<Constraint<?>> asList(cmp(var("b", 9), Comparator.LT, 5)));
+
+		assertEquals(1, solver.queries.size());
+		assertEquals(2L, first.getValue("a"));
+		assertTrue(second.isSAT());
+		assertEquals(2L, second.getValue("b"));
+		assertFalse(second.containsVariable("a"));
+		assertEquals(0.5, cache.getHitRate(), 0.0);
+	}
+
+	@Test
+	public void testConstraintOrderDoesNotMatter() {
+		SolverCache cache = new SolverCache(1024 * 1024);
+		RecordingSolver solver = new RecordingSolver(SolverResult.newUNSAT());
+		IntegerVariable x = var("x", 0);
+
+		cache.solve(solver, Arrays.<Constraint<?>> asList(cmp(x, Comparator.GT, 10), cmp(x, Comparator.LT, 5)));
+		SolverResult result = cache.solve(solver,
+				Arrays.<Constraint<?>> asList(cmp(x, Comparator.LT, 5), cmp(x, Comparator.GT, 10)));
+
+		assertEquals(1, solver.queries.size());
+		assertTrue(result.isUNSAT());
+	}
+
+	@Test
+	public void testIndependentConstraintsAreSliced() {
+		SolverCache cache = new SolverCache(1024 * 1024);
+		RecordingSolver solver = new RecordingSolver(sat("x", 1L));
+		IntegerVariable x = var("x", 7);
+		IntegerVariable y = var("y", 3);
+
+		cache.solve(solver, Arrays.<Constraint<?>> asList(cmp(y, Comparator.EQ, 3), cmp(x, Comparator.LT, 5)));
+
+		assertEquals(1, solver.queries.size());
+		assertEquals(1, solver.queries.get(0).size());
+	}
+
+	@Test
+	public void testViolatedIndependentConstraintsAreKept() {
+		SolverCache cache = new SolverCache(1024 * 1024);
+		RecordingSolver solver = new RecordingSolver(SolverResult.newUNSAT());
+		IntegerVariable x = var("x", 7);
+		IntegerVariable y = var("y", 4);
+
+		cache.solve(solver, Arrays.<Constraint<?>> asList(cmp(y, Comparator.EQ, 3), cmp(x, Comparator.LT, 5)));
+
+		assertEquals(2, solver.queries.get(0).size());
+	}
+
+	@Test
+	public void testUnsatSubsetAnswersQuery() {
+		SolverCache cache = new SolverCache(1024 * 1024);
+		RecordingSolver solver = new RecordingSolver(SolverResult.newUNSAT());
+		IntegerVariable x = var("x", 0);
+
+		cache.solve(solver, Arrays.<Constraint<?>> asList(cmp(x, Comparator.GT, 10), cmp(x, Comparator.LT, 5)));
+		SolverResult result = cache.solve(solver, Arrays.<Constraint<?>> asList(cmp(x, Comparator.GT, 10),
+				cmp(x, Comparator.NE, 7), cmp(x, Comparator.LT, 5)));
+
+		assertEquals(1, solver.queries.size());
+		assertTrue(result.isUNSAT());
+	}
+
+	@Test
+	public void testSatModelsAreReused() {
+		SolverCache cache = new SolverCache(1024 * 1024);
+		RecordingSolver solver = new RecordingSolver(sat("x", 0L));
+		IntegerVariable x = var("x", 9);
+
+		// superset
+		cache.solve(solver, Arrays.<Constraint<?>> asList(cmp(x, Comparator.LT, 3), cmp(x, Comparator.LT, 5)));
+		SolverResult superset = cache.solve(solver, Arrays.<Constraint<?>> asList(cmp(x, Comparator.LT, 5)));
+		// overlapping query whose model still fits
+		SolverResult overlap = cache.solve(solver,
+				Arrays.<Constraint<?>> asList(cmp(x, Comparator.LT, 5), cmp(x, Comparator.GE, 0)));
+
+		assertEquals(1, solver.queries.size());
+		assertEquals(0L, superset.getValue("x"));
+		assertEquals(0L, overlap.getValue("x"));
+		// the concrete value is restored after checking the model
+		assertEquals(9L, (long) x.getConcreteValue());
+	}
+
+	@Test
+	public void testOverlappingModelIsCheckedBeforeReuse() {
+		SolverCache cache = new SolverCache(1024 * 1024);
+		RecordingSolver solver = new RecordingSolver(sat("x", 0L));
+		IntegerVariable x = var("x", 9);
+
+		cache.solve(solver, Arrays.<Constraint<?>> asList(cmp(x, Comparator.LT, 5)));
+		cache.solve(solver, Arrays.<Constraint<?>> asList(cmp(x, Comparator.LT, 5), cmp(x, Comparator.GT, 2)));
+
+		assertEquals(2, solver.queries.size());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEntriesAreEvicted() {
+		SolverCache cache = new SolverCache(2048);
+		RecordingSolver solver = new RecordingSolver(SolverResult.newUNSAT());
+		IntegerVariable x = var("x", 0);
+
+		for (int i = 0; i < 100; i++) {
+			cache.solve(solver, Arrays.<Constraint<?>> asList(cmp(x, Comparator.EQ, i)));
+		}
+		assertTrue(cache.getNumberOfEntries() < 100);
+		assertTrue(cache.getNumberOfEntries() > 0);
+
+		cache.solve(solver, Arrays.<Constraint<?>> asList(cmp(x, Comparator.EQ, 99)));
+		assertEquals(100, solver.queries.size());
+		cache.solve(solver, Arrays.<Constraint<?>> asList(cmp(x, Comparator.EQ, 0)));
+		assertEquals(101, solver.queries.size());
+	}
+
+	@Test
+	public void testCacheIsRestoredFromFile() throws IOException {
+		File file = File.createTempFile("solver_cache", ".ser");
+		try {
+			SolverCache cache = new SolverCache(1024 * 1024);
+			RecordingSolver solver = new RecordingSolver(sat("a", 2L));
+			cache.solve(solver, Arrays.<Constraint<?>> asList(cmp(var("a", 7), Comparator.LT, 5)));
+			cache.save(file);
+
+			SolverCache restored = new SolverCache(1024 * 1024);
+			restored.load(file);
+			SolverResult result = restored.solve(solver,
+					Arrays.<Constraint<?>> asList(cmp(var("b", 7), Comparator.LT, 5)));
+
+			assertEquals(1, solver.queries.size());
+			assertNotNull(result);
+			assertEquals(2L, result.getValue("b"));
+			assertEquals(1, restored.getNumberOfEntries());
+		} finally {
+			file.delete();
+		}
+	}
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver.smt;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.evosuite.symbolic.solver.SmtExprBuilder;
+import org.junit.Test;
+
+public class SmtQueryPrinterTest {
+
+	@Test
+	public void testIncrementalCommandsFollowAssertionOrder() {
+		SmtIntVariable x = SmtExprBuilder.mkIntVariable("x");
+		SmtIntVariable y = SmtExprBuilder.mkIntVariable("y");
+
+		SmtQuery query = new SmtQuery();
+		query.addOption(":timeout", "1000");
+		query.setLogic("QF_LIA");
+		query.addConstantDeclaration(SmtExprBuilder.mkIntConstantDeclaration("y"));
+		query.addConstantDeclaration(SmtExprBuilder.mkIntConstantDeclaration("x"));
+		query.addAssertion(new SmtAssertion(SmtExprBuilder.mkGt(x, SmtExprBuilder.ZERO_INT)));
+		query.addAssertion(new SmtAssertion(SmtExprBuilder.mkLt(y, x)));
+
+		SmtQueryPrinter printer = new SmtQueryPrinter();
+		assertEquals(Arrays.asList("(set-logic QF_LIA)", "(set-option :timeout 1000)"), printer.printPreamble(query));
+
+		List<String> commands = printer.printIncrementalCommands(query);
+		assertEquals(4, commands.size());
+		assertEquals("(declare-const x Int)", commands.get(0));
+		assertEquals(printer.print(query.getAssertions().get(0)), commands.get(1));
+		assertEquals("(declare-const y Int)", commands.get(2));
+		assertEquals(printer.print(query.getAssertions().get(1)), commands.get(3));
+	}
+
+	@Test
+	public void testSharedAssertionPrefixGivesSharedCommandPrefix() {
+		SmtIntVariable x = SmtExprBuilder.mkIntVariable("x");
+		SmtIntVariable y = SmtExprBuilder.mkIntVariable("y");
+
+		SmtQuery first = new SmtQuery();
+		first.addConstantDeclaration(SmtExprBuilder.mkIntConstantDeclaration("x"));
+		first.addAssertion(new SmtAssertion(SmtExprBuilder.mkGt(x, SmtExprBuilder.ZERO_INT)));
+
+		SmtQuery second = new SmtQuery();
+		second.addConstantDeclaration(SmtExprBuilder.mkIntConstantDeclaration("y"));
+		second.addConstantDeclaration(SmtExprBuilder.mkIntConstantDeclaration("x"));
+		second.addAssertion(new SmtAssertion(SmtExprBuilder.mkGt(x, SmtExprBuilder.ZERO_INT)));
+		second.addAssertion(new SmtAssertion(SmtExprBuilder.mkLt(x, y)));
+
+		SmtQueryPrinter printer = new SmtQueryPrinter();
+		List<String> firstCommands = printer.printIncrementalCommands(first);
+		List<String> secondCommands = printer.printIncrementalCommands(second);
+		assertEquals(firstCommands, secondCommands.subList(0, firstCommands.size()));
+	}
+}
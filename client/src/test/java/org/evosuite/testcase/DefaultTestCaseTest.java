@@ -19,11 +19,30 @@
  */
 package org.evosuite.testcase;
 
+import org.evosuite.Properties;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
 
 public class DefaultTestCaseTest {
 
+	@After
+	public void resetProperties() {
+		Properties.COPY_ON_WRITE_TEST_CLONES = false;
+	}
+
+	private static DefaultTestCase createTest(int... values) {
+		DefaultTestCase tc = new DefaultTestCase();
+		for (int value : values)
+			tc.addStatement(new IntPrimitiveStatement(tc, value));
+		return tc;
+	}
+
+	private static int getValue(TestCase tc, int position) {
+		return ((IntPrimitiveStatement) tc.getStatement(position)).getValue();
+	}
+
 	@Test
 	public void testClone(){
 				
@@ -31,4 +50,38 @@ public class DefaultTestCaseTest {
 		DefaultTestCase clone = (DefaultTestCase) tc.clone();
 		Assert.assertTrue(tc.statements != clone.statements);
 	}
+
+	@Test
+	public void testCopyOnWriteCloneIsIndependentOfOriginal() {
+		Properties.COPY_ON_WRITE_TEST_CLONES = true;
+
+		DefaultTestCase tc = createTest(1, 2, 3);
+		DefaultTestCase clone = tc.clone();
+		Assert.assertEquals(3, clone.size());
+
+		((IntPrimitiveStatement) tc.getStatement(1)).setValue(42);
+		tc.remove(2);
+
+		Assert.assertEquals(3, clone.size());
+		Assert.assertEquals(2, getValue(clone, 1));
+		Assert.assertEquals(42, getValue(tc, 1));
+		Assert.assertSame(clone, clone.getStatement(0).getTestCase());
+		Assert.assertNotSame(tc.getStatement(0), clone.getStatement(0));
+	}
+
+	@Test
+	public void testCopyOnWriteCloneOfClone() {
+		Properties.COPY_ON_WRITE_TEST_CLONES = true;
+
+		DefaultTestCase tc = createTest(1, 2);
+		DefaultTestCase clone = tc.clone();
+		DefaultTestCase cloneOfClone = clone.clone();
+
+		((IntPrimitiveStatement) clone.getStatement(0)).setValue(7);
+
+		Assert.assertEquals(1, getValue(tc, 0));
+		Assert.assertEquals(7, getValue(clone, 0));
+		Assert.assertEquals(1, getValue(cloneOfClone, 0));
+		Assert.assertEquals(tc, cloneOfClone);
+	}
 }
@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BranchCoverageStoreTest {
+
+	@Test
+	public void testDistancesAndCounts() {
+		BranchCoverageStore store = new BranchCoverageStore(5);
+		store.branchPassed(3, 2.0, 0.0, true);
+		store.branchPassed(3, 1.0, 0.0, true);
+		store.branchPassed(1, 0.0, 4.0, true);
+
+		Assert.assertTrue(store.isReached(3));
+		Assert.assertFalse(store.isReached(2));
+		Assert.assertEquals(1.0, store.getTrueDistance(3), 0.0);
+		Assert.assertEquals(0.0, store.getFalseDistance(3), 0.0);
+		Assert.assertEquals(3.0, store.getTrueDistancesSum().get(3), 0.0);
+
+		Assert.assertEquals(Integer.valueOf(2), store.getPredicateExecutionCount().get(3));
+		Assert.assertEquals(Integer.valueOf(2), store.getCoveredFalse().get(3));
+		Assert.assertNull(store.getCoveredTrue().get(3));
+		Assert.assertTrue(store.isCoveredTrue(1));
+		Assert.assertEquals(1, store.getCoveredTrue().size());
+		Assert.assertEquals(2, store.getTrueDistances().size());
+	}
+
+	@Test
+	public void testViewsMatchHashMap() {
+		BranchCoverageStore store = new BranchCoverageStore(10);
+		Map<Integer, Double> expected = new HashMap<>();
+		int[] branches = { 7, 2, 9, 2, 4, 7 };
+		double[] distances = { 3.0, 1.0, 0.0, 0.5, 2.0, 1.0 };
+		for (int i = 0; i < branches.length; i++) {
+			store.branchPassed(branches[i], distances[i], 1.0, true);
+			Double old = expected.get(branches[i]);
+			expected.put(branches[i], old == null ? distances[i] : Math.min(old, distances[i]));
+		}
+		Assert.assertEquals(expected, store.getTrueDistances());
+		Assert.assertEquals(expected.keySet(), store.getPredicateExecutionCount().keySet());
+
+		List<Integer> order = new ArrayList<>(store.getTrueDistances().keySet());
+		Assert.assertEquals(new ArrayList<>(expected.keySet()), order);
+	}
+
+	@Test
+	public void testGrowBeyondInitialCapacity() {
+		BranchCoverageStore store = new BranchCoverageStore(1);
+		store.branchPassed(100, 0.0, 1.0, true);
+		Assert.assertTrue(store.isReached(100));
+		Assert.assertTrue(store.isCoveredTrue(100));
+		Assert.assertEquals(1, store.getNumReached());
+		Assert.assertEquals(100, store.getReachedBranch(0));
+	}
+
+	@Test
+	public void testClearAndCopy() {
+		BranchCoverageStore store = new BranchCoverageStore(5);
+		store.branchPassed(2, 0.0, 1.0, true);
+		BranchCoverageStore copy = store.copy();
+
+		store.clear();
+		Assert.assertFalse(store.isReached(2));
+		Assert.assertTrue(store.getTrueDistances().isEmpty());
+		Assert.assertTrue(store.getCoveredTrue().isEmpty());
+
+		Assert.assertTrue(copy.isReached(2));
+		Assert.assertEquals(Integer.valueOf(1), copy.getCoveredTrue().get(2));
+
+		store.branchPassed(2, 3.0, 0.0, true);
+		Assert.assertEquals(3.0, store.getTrueDistance(2), 0.0);
+		Assert.assertEquals(3.0, store.getTrueDistancesSum().get(2), 0.0);
+	}
+
+	@Test
+	public void testNoCoverageCounting() {
+		BranchCoverageStore store = new BranchCoverageStore(5);
+		store.branchPassed(2, 0.0, 1.0, false);
+		Assert.assertTrue(store.isReached(2));
+		Assert.assertTrue(store.getPredicateExecutionCount().isEmpty());
+		Assert.assertFalse(store.isCoveredTrue(2));
+	}
+}
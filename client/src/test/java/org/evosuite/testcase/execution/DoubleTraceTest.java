@@ -0,0 +1,46 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DoubleTraceTest {
+
+	@Test
+	public void testCopyOnWrite() {
+		DoubleTrace original = new DoubleTrace();
+		original.addDouble(0.5);
+		original.addDouble(1.0);
+		DoubleTrace copy = original.copy();
+		DoubleTrace snapshot = original.snapshot();
+
+		original.addDouble(2.0);
+		copy.set(0, 0.0);
+
+		Assert.assertEquals(Arrays.asList(0.5, 1.0, 2.0), original);
+		Assert.assertEquals(Arrays.asList(0.0, 1.0), copy);
+		Assert.assertEquals(Arrays.asList(0.5, 1.0), snapshot);
+		Assert.assertEquals(Arrays.asList(0.5, 1.0).hashCode(), snapshot.hashCode());
+		Assert.assertEquals(1.0, copy.getDouble(1), 0.0);
+	}
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IntTraceTest {
+
+	private static IntTrace trace(int... values) {
+		IntTrace trace = new IntTrace();
+		for (int value : values)
+			trace.addInt(value);
+		return trace;
+	}
+
+	@Test
+	public void testBehavesLikeList() {
+		IntTrace trace = trace(500, 501, 502);
+		List<Integer> expected = new ArrayList<>(Arrays.asList(500, 501, 502));
+		Assert.assertEquals(expected, trace);
+		Assert.assertEquals(trace, expected);
+		Assert.assertEquals(expected.hashCode(), trace.hashCode());
+
+		Assert.assertEquals(Integer.valueOf(501), trace.remove(1));
+		expected.remove(1);
+		Assert.assertEquals(expected, trace);
+
+		trace.add(0, 7);
+		expected.add(0, 7);
+		Assert.assertEquals(expected, trace);
+	}
+
+	@Test
+	public void testCopyOnWrite() {
+		IntTrace original = trace(1, 2, 3);
+		IntTrace copy = original.copy();
+
+		copy.addInt(4);
+		original.set(0, 10);
+
+		Assert.assertEquals(Arrays.asList(10, 2, 3), original);
+		Assert.assertEquals(Arrays.asList(1, 2, 3, 4), copy);
+	}
+
+	@Test
+	public void testSnapshotIsNotAffectedByLaterChanges() {
+		IntTrace trace = trace(1, 2);
+		IntTrace snapshot = trace.snapshot();
+
+		for (int i = 0; i < 100; i++)
+			trace.addInt(i);
+		Assert.assertEquals(Arrays.asList(1, 2), snapshot);
+
+		IntTrace second = trace.snapshot();
+		trace.remove(0);
+		Assert.assertEquals(102, second.size());
+		Assert.assertEquals(1, second.getInt(0));
+		Assert.assertEquals(2, trace.getInt(0));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testSnapshotIsImmutable() {
+		trace(1).snapshot().addInt(2);
+	}
+
+	@Test
+	public void testSnapshotAsMapKey() {
+		IntTrace trace = trace(300, 301);
+		Map<List<Integer>, Double> table = new HashMap<>();
+		table.put(trace.snapshot(), 1.0);
+		trace.addInt(302);
+
+		Assert.assertEquals(1.0, table.get(Arrays.asList(300, 301)), 0.0);
+		Assert.assertNull(table.get(trace));
+	}
+}
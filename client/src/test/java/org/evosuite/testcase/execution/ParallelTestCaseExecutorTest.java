@@ -0,0 +1,199 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.runtime.Random;
+import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.variable.VariableReference;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelTestCaseExecutorTest {
+
+	private final boolean DEFAULT_SANDBOX = Properties.SANDBOX;
+
+	private final boolean DEFAULT_RESET_STATIC_FIELDS = Properties.RESET_STATIC_FIELDS;
+
+	private final int DEFAULT_NUM_EXECUTION_SLOTS = Properties.NUM_EXECUTION_SLOTS;
+
+	private final boolean DEFAULT_MOCK_JVM_NON_DETERMINISM = RuntimeSettings.mockJVMNonDeterminism;
+
+	@Before
+	public void setUp() {
+		Properties.SANDBOX = false;
+		Properties.RESET_STATIC_FIELDS = true;
+		Properties.NUM_EXECUTION_SLOTS = 2;
+		RuntimeSettings.mockJVMNonDeterminism = false;
+		ParallelTestCaseExecutor.pullDown();
+		TestCaseExecutor.getInstance().newObservers();
+		ExecutionTracer.getExecutionTracer().clear();
+	}
+
+	@After
+	public void tearDown() {
+		ParallelTestCaseExecutor.pullDown();
+		Properties.SANDBOX = DEFAULT_SANDBOX;
+		Properties.RESET_STATIC_FIELDS = DEFAULT_RESET_STATIC_FIELDS;
+		Properties.NUM_EXECUTION_SLOTS = DEFAULT_NUM_EXECUTION_SLOTS;
+		RuntimeSettings.mockJVMNonDeterminism = DEFAULT_MOCK_JVM_NON_DETERMINISM;
+	}
+
+	/**
+	 * int0 = -3; int1 = Math.abs(int0); new StringBuilder(int1)
+	 */
+	private static DefaultTestCase buildAbsTest() throws NoSuchMethodException {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		VariableReference int0 = builder.appendIntPrimitive(-3);
+		VariableReference int1 = builder.appendMethod(null, Math.class.getMethod("abs", int.class), int0);
+		builder.appendConstructor(StringBuilder.class.getConstructor(int.class), int1);
+		return builder.getDefaultTestCase();
+	}
+
+	/**
+	 * string0 = value; int0 = Integer.parseInt(string0); new StringBuilder(int0)
+	 */
+	private static DefaultTestCase buildParseTest(String value) throws NoSuchMethodException {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		VariableReference string0 = builder.appendStringPrimitive(value);
+		VariableReference int0 = builder.appendMethod(null, Integer.class.getMethod("parseInt", String.class),
+				string0);
+		builder.appendConstructor(StringBuilder.class.getConstructor(int.class), int0);
+		return builder.getDefaultTestCase();
+	}
+
+	/**
+	 * int0 = Random.nextInt()
+	 */
+	private static DefaultTestCase buildRandomTest() throws NoSuchMethodException {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		builder.appendMethod(null, Random.class.getMethod("nextInt"));
+		return builder.getDefaultTestCase();
+	}
+
+	private static ExecutionResult createResult() {
+		ExecutionResult result = new ExecutionResult(new DefaultTestCase());
+		result.setTrace(new ExecutionTraceImpl());
+		return result;
+	}
+
+	@Test
+	public void testParallelExecutionMatchesSequentialExecution() throws NoSuchMethodException {
+		List<TestCase> tests = Arrays.<TestCase> asList(buildAbsTest(), buildParseTest("42"), buildParseTest("x"),
+				buildParseTest("-1"), buildAbsTest());
+
+		List<ExecutionResult> sequential = new ArrayList<ExecutionResult>();
+		for (TestCase test : tests) {
+			sequential.add(TestCaseExecutor.runTest(test.clone()));
+		}
+
+		List<TestCase> copies = new ArrayList<TestCase>();
+		for (TestCase test : tests) {
+			copies.add(test.clone());
+		}
+		ParallelTestCaseExecutor executor = ParallelTestCaseExecutor.getInstance();
+		List<ExecutionResult> parallel = executor.execute(copies);
+
+		Assert.assertEquals(tests.size(), executor.getNumParallelExecutions());
+		Assert.assertEquals(0, executor.getNumReExecutions());
+		Assert.assertEquals(sequential.size(), parallel.size());
+		for (int i = 0; i < tests.size(); i++) {
+			ExecutionResult expected = sequential.get(i);
+			ExecutionResult actual = parallel.get(i);
+			Assert.assertSame(copies.get(i), actual.test);
+			Assert.assertEquals(expected.getExecutedStatements(), actual.getExecutedStatements());
+			Assert.assertEquals(expected.getPositionsWhereExceptionsWereThrown(),
+					actual.getPositionsWhereExceptionsWereThrown());
+			for (Integer position : expected.getPositionsWhereExceptionsWereThrown()) {
+				Assert.assertEquals(expected.getExceptionThrownAtPosition(position).getClass(),
+						actual.getExceptionThrownAtPosition(position).getClass());
+			}
+		}
+		// int0 = Integer.parseInt("x")
+		Assert.assertEquals(new LinkedHashSet<Integer>(Arrays.asList(1)),
+				parallel.get(2).getPositionsWhereExceptionsWereThrown());
+		Assert.assertEquals(NumberFormatException.class, parallel.get(2).getExceptionThrownAtPosition(1).getClass());
+	}
+
+	@Test
+	public void testMockedRandomNumbersAreNotShared() throws NoSuchMethodException {
+		RuntimeSettings.mockJVMNonDeterminism = true;
+		ParallelTestCaseExecutor executor = ParallelTestCaseExecutor.getInstance();
+
+		executor.execute(Arrays.<TestCase> asList(buildRandomTest(), buildRandomTest()));
+		Assert.assertEquals(2, executor.getNumParallelExecutions());
+		Assert.assertEquals(2, executor.getNumReExecutions());
+
+		// the class under test uses the mocks, so later batches are sequential
+		executor.execute(Arrays.<TestCase> asList(buildAbsTest(), buildAbsTest()));
+		Assert.assertEquals(2, executor.getNumParallelExecutions());
+	}
+
+	@Test
+	public void testNoStaticConflicts() {
+		ExecutionResult[] results = new ExecutionResult[] { createResult(), createResult(), createResult() };
+		// a test may read and write its own static state
+		results[0].getTrace().putStaticPassed("A", "x");
+		results[0].getTrace().getStaticPassed("A", "x");
+		results[1].getTrace().putStaticPassed("B", "x");
+		// reading a class nobody wrote is fine
+		results[1].getTrace().getStaticPassed("C", "x");
+		results[2].getTrace().getStaticPassed("C", "y");
+
+		Assert.assertTrue(ParallelTestCaseExecutor.getTestsWithStaticConflicts(results).isEmpty());
+	}
+
+	@Test
+	public void testStaticConflicts() {
+		ExecutionResult[] results = new ExecutionResult[] { createResult(), createResult(), createResult(),
+				createResult() };
+		// written by 0 and read by 1, which may depend on whether 0 ran before
+		results[0].getTrace().putStaticPassed("A", "x");
+		results[1].getTrace().getStaticPassed("A", "y");
+		// written by 2 and 3
+		results[2].getTrace().putStaticPassed("B", "x");
+		results[3].getTrace().putStaticPassed("B", "y");
+
+		Assert.assertEquals(new LinkedHashSet<Integer>(Arrays.asList(1, 2, 3)),
+				ParallelTestCaseExecutor.getTestsWithStaticConflicts(results));
+	}
+
+	@Test
+	public void testStaticConflictsOnlyAffectTestsAccessingTheClass() {
+		ExecutionResult[] results = new ExecutionResult[] { createResult(), createResult(), createResult() };
+		results[0].getTrace().putStaticPassed("A", "x");
+		results[1].getTrace().putStaticPassed("B", "x");
+		results[2].getTrace().getStaticPassed("A", "x");
+		results[2].getTrace().putStaticPassed("C", "x");
+
+		Assert.assertEquals(new LinkedHashSet<Integer>(Arrays.asList(2)),
+				ParallelTestCaseExecutor.getTestsWithStaticConflicts(results));
+	}
+}
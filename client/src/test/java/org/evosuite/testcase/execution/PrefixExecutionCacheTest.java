@@ -0,0 +1,181 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.util.ArrayList;
+
+import org.evosuite.Properties;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.variable.VariableReference;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PrefixExecutionCacheTest {
+
+	private final boolean DEFAULT_SANDBOX = Properties.SANDBOX;
+
+	private final boolean DEFAULT_RESET_STATIC_FIELDS = Properties.RESET_STATIC_FIELDS;
+
+	private final boolean DEFAULT_PREFIX_EXECUTION_CACHE = Properties.PREFIX_EXECUTION_CACHE;
+
+	@Before
+	public void setUp() {
+		Properties.SANDBOX = false;
+		Properties.RESET_STATIC_FIELDS = true;
+		PrefixExecutionCache.resetSingleton();
+		ExecutionTracer.getExecutionTracer().clear();
+	}
+
+	@After
+	public void tearDown() {
+		Properties.SANDBOX = DEFAULT_SANDBOX;
+		Properties.RESET_STATIC_FIELDS = DEFAULT_RESET_STATIC_FIELDS;
+		Properties.PREFIX_EXECUTION_CACHE = DEFAULT_PREFIX_EXECUTION_CACHE;
+		PrefixExecutionCache.resetSingleton();
+	}
+
+	/**
+	 * int0 = -3; int1 = Math.abs(int0); new StringBuilder(int1)
+	 */
+	private static DefaultTestCase buildTest() throws NoSuchMethodException {
+		TestCaseBuilder builder = new TestCaseBuilder();
+		VariableReference int0 = builder.appendIntPrimitive(-3);
+		VariableReference int1 = builder.appendMethod(null, Math.class.getMethod("abs", int.class), int0);
+		builder.appendConstructor(StringBuilder.class.getConstructor(int.class), int1);
+		return builder.getDefaultTestCase();
+	}
+
+	@Test
+	public void testCacheablePrefix() throws NoSuchMethodException {
+		DefaultTestCase test = buildTest();
+		Assert.assertEquals(2, PrefixExecutionCache.getInstance().getCacheablePrefixLength(test));
+
+		Properties.RESET_STATIC_FIELDS = false;
+		Assert.assertEquals(0, PrefixExecutionCache.getInstance().getCacheablePrefixLength(test));
+	}
+
+	@Test
+	public void testMiss() throws NoSuchMethodException {
+		PrefixExecutionCache cache = PrefixExecutionCache.getInstance();
+		DefaultTestCase test = buildTest();
+		Scope scope = new Scope();
+
+		Assert.assertFalse(cache.restore(cache.getKey(test, 2), test, scope));
+		Assert.assertNull(scope.getObject(test.getStatement(1).getReturnValue()));
+		Assert.assertEquals(0, cache.getNumHits());
+	}
+
+	@Test
+	public void testHit() throws NoSuchMethodException {
+		PrefixExecutionCache cache = PrefixExecutionCache.getInstance();
+		DefaultTestCase test = buildTest();
+		String key = cache.getKey(test, 2);
+
+		Scope scope = new Scope();
+		scope.setObject(test.getStatement(0).getReturnValue(), -3);
+		scope.setObject(test.getStatement(1).getReturnValue(), 3);
+		cache.store(key, test, scope, 2);
+
+		// Another test with the same prefix resumes from the snapshot
+		DefaultTestCase other = buildTest();
+		Assert.assertEquals(key, cache.getKey(other, 2));
+		Scope otherScope = new Scope();
+		Assert.assertTrue(cache.restore(key, other, otherScope));
+		Assert.assertEquals(-3, otherScope.getObject(other.getStatement(0).getReturnValue()));
+		Assert.assertEquals(3, otherScope.getObject(other.getStatement(1).getReturnValue()));
+		Assert.assertEquals(1, cache.getNumHits());
+		Assert.assertEquals(2, cache.getNumSavedStatements());
+	}
+
+	@Test
+	public void testMutableValuesAreNotStored() throws NoSuchMethodException {
+		PrefixExecutionCache cache = PrefixExecutionCache.getInstance();
+		DefaultTestCase test = buildTest();
+		String key = cache.getKey(test, 2);
+
+		Scope scope = new Scope();
+		scope.setObject(test.getStatement(0).getReturnValue(), -3);
+		scope.setObject(test.getStatement(1).getReturnValue(), new ArrayList<Object>());
+		cache.store(key, test, scope, 2);
+
+		Assert.assertFalse(cache.restore(key, test, new Scope()));
+	}
+
+	@Test
+	public void testOverloadsHaveDifferentKeys() throws NoSuchMethodException {
+		TestCaseBuilder intBuilder = new TestCaseBuilder();
+		VariableReference int0 = intBuilder.appendIntPrimitive(-3);
+		intBuilder.appendMethod(null, Math.class.getMethod("abs", int.class), int0);
+		DefaultTestCase intTest = intBuilder.getDefaultTestCase();
+
+		TestCaseBuilder longBuilder = new TestCaseBuilder();
+		VariableReference int1 = longBuilder.appendIntPrimitive(-3);
+		longBuilder.appendMethod(null, Math.class.getMethod("abs", long.class), int1);
+		DefaultTestCase longTest = longBuilder.getDefaultTestCase();
+
+		PrefixExecutionCache cache = PrefixExecutionCache.getInstance();
+		Assert.assertNotEquals(cache.getKey(intTest, 2), cache.getKey(longTest, 2));
+	}
+
+	@Test
+	public void testValuesOfDifferentTypesHaveDifferentKeys() {
+		TestCaseBuilder intBuilder = new TestCaseBuilder();
+		intBuilder.appendIntPrimitive(1);
+		TestCaseBuilder longBuilder = new TestCaseBuilder();
+		longBuilder.appendLongPrimitive(1L);
+
+		PrefixExecutionCache cache = PrefixExecutionCache.getInstance();
+		Assert.assertNotEquals(cache.getKey(intBuilder.getDefaultTestCase(), 1),
+		        cache.getKey(longBuilder.getDefaultTestCase(), 1));
+	}
+
+	@Test
+	public void testStringsContainingSeparatorsHaveDifferentKeys() {
+		TestCaseBuilder oneBuilder = new TestCaseBuilder();
+		oneBuilder.appendStringPrimitive("a\nvalue int 1:b");
+		TestCaseBuilder twoBuilder = new TestCaseBuilder();
+		twoBuilder.appendStringPrimitive("a");
+		twoBuilder.appendStringPrimitive("b");
+
+		PrefixExecutionCache cache = PrefixExecutionCache.getInstance();
+		Assert.assertNotEquals(cache.getKey(oneBuilder.getDefaultTestCase(), 1),
+		        cache.getKey(twoBuilder.getDefaultTestCase(), 2));
+	}
+
+	@Test
+	public void testExecutionResumesAfterCachedPrefix() throws NoSuchMethodException {
+		Properties.PREFIX_EXECUTION_CACHE = true;
+		TestCaseExecutor.getInstance().newObservers();
+
+		ExecutionResult first = TestCaseExecutor.runTest(buildTest());
+		Assert.assertTrue(first.noThrownExceptions());
+		Assert.assertEquals(0, PrefixExecutionCache.getInstance().getNumHits());
+
+		// The constructor fails unless int1 is restored with its value 3
+		ExecutionResult second = TestCaseExecutor.runTest(buildTest());
+		Assert.assertTrue(second.noThrownExceptions());
+		Assert.assertEquals(3, second.getExecutedStatements());
+		Assert.assertEquals(1, PrefixExecutionCache.getInstance().getNumHits());
+		Assert.assertEquals(2, PrefixExecutionCache.getInstance().getNumSavedStatements());
+	}
+}
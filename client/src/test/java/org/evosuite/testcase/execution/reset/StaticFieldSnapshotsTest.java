@@ -0,0 +1,176 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution.reset;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.evosuite.Properties;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionTrace;
+import org.evosuite.testcase.execution.ExecutionTraceImpl;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StaticFieldSnapshotsTest {
+
+	private static class StaticState {
+		private static int counter = 1;
+		private static String name = "initial";
+		private static List<String> values = new ArrayList<String>();
+		private static final int CONSTANT = 42;
+	}
+
+	private boolean deepCopy;
+
+	private Properties.StaticResetEngine engine;
+
+	@Before
+	public void setUp() {
+		deepCopy = Properties.STATIC_SNAPSHOT_DEEP_COPY;
+		engine = Properties.STATIC_RESET_ENGINE;
+		StaticFieldSnapshots.resetSingleton();
+		ClassReInitializer.resetSingleton();
+		StaticState.counter = 1;
+		StaticState.name = "initial";
+		StaticState.values = new ArrayList<String>();
+	}
+
+	@After
+	public void tearDown() {
+		Properties.STATIC_SNAPSHOT_DEEP_COPY = deepCopy;
+		Properties.STATIC_RESET_ENGINE = engine;
+		StaticFieldSnapshots.resetSingleton();
+		ClassReInitializer.resetSingleton();
+	}
+
+	private static ClassLoader loader() {
+		return StaticState.class.getClassLoader();
+	}
+
+	@Test
+	public void testRestoresOnlyWrittenFields() {
+		Assert.assertTrue(StaticFieldSnapshots.getInstance().capture(StaticState.class));
+		Assert.assertFalse(StaticFieldSnapshots.getInstance().capture(StaticState.class));
+
+		StaticState.counter = 5;
+		StaticState.name = "changed";
+
+		Assert.assertTrue(StaticFieldSnapshots.getInstance().restore(StaticState.class.getName(), loader(),
+				Collections.singleton("counter")));
+		Assert.assertEquals(1, StaticState.counter);
+		Assert.assertEquals("changed", StaticState.name);
+
+		Assert.assertTrue(StaticFieldSnapshots.getInstance().restore(StaticState.class.getName(), loader(), null));
+		Assert.assertEquals("initial", StaticState.name);
+		Assert.assertEquals(42, StaticState.CONSTANT);
+	}
+
+	@Test
+	public void testFallsBackWithoutSnapshot() {
+		StaticFieldSnapshots snapshots = StaticFieldSnapshots.getInstance();
+		Assert.assertFalse(snapshots.restore(StaticState.class.getName(), loader(), null));
+
+		snapshots.capture(StaticState.class);
+		Assert.assertFalse(snapshots.restore(StaticState.class.getName(), new ClassLoader() {
+		}, null));
+		Assert.assertFalse(
+				snapshots.restore(StaticState.class.getName(), loader(), Collections.singleton("inheritedField")));
+	}
+
+	@Test
+	public void testShallowSnapshotKeepsInPlaceMutations() {
+		Properties.STATIC_SNAPSHOT_DEEP_COPY = false;
+		StaticFieldSnapshots.getInstance().capture(StaticState.class);
+		StaticState.values.add("shallow");
+		StaticFieldSnapshots.getInstance().restore(StaticState.class.getName(), loader(), null);
+		Assert.assertEquals(Collections.singletonList("shallow"), StaticState.values);
+	}
+
+	@Test
+	public void testDeepCopiesAreRestoredWithoutWrites() {
+		Properties.STATIC_SNAPSHOT_DEEP_COPY = true;
+		StaticFieldSnapshots.getInstance().capture(StaticState.class);
+		for (int i = 0; i < 2; i++) {
+			StaticState.values.add("deep");
+			StaticState.name = "changed";
+			// only counter was written according to the trace
+			StaticFieldSnapshots.getInstance().restore(StaticState.class.getName(), loader(),
+					Collections.singleton("counter"));
+			Assert.assertTrue(StaticState.values.isEmpty());
+			Assert.assertEquals("changed", StaticState.name);
+		}
+	}
+
+	private static ExecutionResult executedTest(ExecutionTrace trace) {
+		DefaultTestCase test = new DefaultTestCase();
+		test.changeClassLoader(loader());
+		ExecutionResult result = new ExecutionResult(test);
+		result.setTrace(trace);
+		return result;
+	}
+
+	@Test
+	public void testRestoreAfterTestExecution() {
+		Properties.STATIC_RESET_ENGINE = Properties.StaticResetEngine.SNAPSHOT;
+		Properties.STATIC_SNAPSHOT_DEEP_COPY = true;
+		StaticFieldSnapshots.getInstance().capture(StaticState.class);
+
+		ExecutionTrace trace = new ExecutionTraceImpl();
+		trace.classInitialized(StaticState.class.getName());
+		trace.putStaticPassed(StaticState.class.getName(), "counter");
+		StaticState.counter = 7;
+		StaticState.values.add("mutated in place");
+		StaticState.name = "not written";
+
+		ExecutionResult result = executedTest(trace);
+		ClassReInitializer.getInstance().reInitializeClassesAfterTestExecution(result.test, result);
+		Assert.assertEquals(1, StaticState.counter);
+		Assert.assertTrue(StaticState.values.isEmpty());
+		Assert.assertEquals("not written", StaticState.name);
+	}
+
+	@Test
+	public void testRestoreDeepCopiesAfterStaticReads() {
+		Properties.STATIC_RESET_ENGINE = Properties.StaticResetEngine.SNAPSHOT;
+		Properties.STATIC_SNAPSHOT_DEEP_COPY = true;
+		StaticFieldSnapshots.getInstance().capture(StaticState.class);
+
+		ExecutionTrace trace = new ExecutionTraceImpl();
+		trace.classInitialized(StaticState.class.getName());
+		trace.getStaticPassed(StaticState.class.getName(), "values");
+		StaticState.values.add("mutated in place");
+
+		ExecutionResult result = executedTest(trace);
+		ClassReInitializer.getInstance().reInitializeClassesAfterTestExecution(result.test, result);
+		Assert.assertTrue(StaticState.values.isEmpty());
+	}
+
+	@Test
+	public void testOnlyClassesOfTheSUTLoaderAreCaptured() {
+		// loaded by the class loader of the tests, not the instrumenting one
+		StaticFieldSnapshots.getInstance().captureInitializedClass(StaticState.class);
+		Assert.assertFalse(StaticFieldSnapshots.getInstance().hasSnapshot(StaticState.class.getName()));
+	}
+}
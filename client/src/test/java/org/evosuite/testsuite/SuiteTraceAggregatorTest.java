@@ -0,0 +1,164 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.execution.ExecutionResult;
+import org.evosuite.testcase.execution.ExecutionTrace;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SuiteTraceAggregatorTest {
+
+	private static final double DELTA = 0.0;
+
+	/**
+	 * Result of a test that executed branch 1 with the given true distance
+	 * and called the given method once
+	 */
+	private static ExecutionResult result(double trueDistance, String method) {
+		Map<Integer, Integer> predicates = new HashMap<>();
+		predicates.put(1, 1);
+		Map<Integer, Double> trueDistances = new HashMap<>();
+		trueDistances.put(1, trueDistance);
+		Map<Integer, Double> falseDistances = new HashMap<>();
+		falseDistances.put(1, 1.0);
+		Map<String, Integer> methods = new HashMap<>();
+		methods.put(method, 1);
+
+		ExecutionTrace trace = mock(ExecutionTrace.class);
+		when(trace.getPredicateExecutionCount()).thenReturn(predicates);
+		when(trace.getTrueDistances()).thenReturn(trueDistances);
+		when(trace.getFalseDistances()).thenReturn(falseDistances);
+		when(trace.getMethodExecutionCount()).thenReturn(methods);
+
+		ExecutionResult result = new ExecutionResult(new DefaultTestCase());
+		result.setTrace(trace);
+		return result;
+	}
+
+	@Test
+	public void testAdd() {
+		ExecutionResult first = result(2.0, "Foo.bar()V");
+		ExecutionResult second = result(1.0, "Foo.baz()V");
+		List<ExecutionResult> results = Arrays.asList(first, second);
+
+		SuiteTraceAggregator aggregator = new SuiteTraceAggregator();
+		Assert.assertEquals(2, aggregator.update(results).size());
+		Assert.assertEquals(2, aggregator.size());
+		Assert.assertEquals(2, aggregator.getPredicateExecutionCount(1));
+		Assert.assertEquals(1.0, aggregator.getTrueDistance(1), DELTA);
+		Assert.assertSame(second.getTraceSummary(), aggregator.getBestTrueTest(1));
+		Assert.assertEquals(1.0, aggregator.getFalseDistance(1), DELTA);
+		Assert.assertEquals(2, aggregator.getCalledMethods().size());
+
+		// nothing changed since the last update
+		Assert.assertTrue(aggregator.update(results).isEmpty());
+	}
+
+	@Test
+	public void testRetract() {
+		ExecutionResult first = result(2.0, "Foo.bar()V");
+		ExecutionResult second = result(1.0, "Foo.baz()V");
+
+		SuiteTraceAggregator aggregator = new SuiteTraceAggregator();
+		aggregator.update(Arrays.asList(first, second));
+		Assert.assertTrue(aggregator.update(Collections.singletonList(first)).isEmpty());
+
+		Assert.assertEquals(1, aggregator.size());
+		Assert.assertEquals(1, aggregator.getPredicateExecutionCount(1));
+		Assert.assertEquals(2.0, aggregator.getTrueDistance(1), DELTA);
+		Assert.assertSame(first.getTraceSummary(), aggregator.getBestTrueTest(1));
+		Assert.assertEquals(Collections.singleton("Foo.bar()V"), aggregator.getCalledMethods());
+		Assert.assertEquals(0, aggregator.getMethodExecutionCount("Foo.baz()V"));
+
+		aggregator.update(Collections.<ExecutionResult> emptyList());
+		Assert.assertEquals(0, aggregator.size());
+		Assert.assertFalse(aggregator.hasTrueDistance(1));
+		Assert.assertTrue(aggregator.getExecutedPredicates().isEmpty());
+	}
+
+	@Test
+	public void testRecomputeAfterExecution() {
+		ExecutionResult first = result(2.0, "Foo.bar()V");
+		ExecutionResult second = result(1.0, "Foo.bar()V");
+		ExecutionResult third = result(3.0, "Foo.bar()V");
+
+		SuiteTraceAggregator aggregator = new SuiteTraceAggregator();
+		aggregator.update(Arrays.asList(first, second, third));
+
+		// the test with the best distance was mutated and executed again
+		ExecutionResult executed = result(5.0, "Foo.bar()V");
+		List<ExecutionResult> added = aggregator.update(Arrays.asList(first, executed, third));
+		Assert.assertEquals(Collections.singletonList(executed), added);
+		Assert.assertEquals(2.0, aggregator.getTrueDistance(1), DELTA);
+		Assert.assertSame(first.getTraceSummary(), aggregator.getBestTrueTest(1));
+		Assert.assertEquals(3, aggregator.getMethodExecutionCount("Foo.bar()V"));
+	}
+
+	@Test
+	public void testDuplicateTests() {
+		ExecutionResult first = result(2.0, "Foo.bar()V");
+		// clones share the summary once it was created
+		first.getTraceSummary();
+		ExecutionResult clone = first.clone();
+
+		SuiteTraceAggregator aggregator = new SuiteTraceAggregator();
+		Assert.assertEquals(2, aggregator.update(Arrays.asList(first, clone)).size());
+		Assert.assertEquals(2, aggregator.getMultiplicity(first.getTraceSummary()));
+		Assert.assertEquals(2, aggregator.getPredicateExecutionCount(1));
+
+		aggregator.update(Collections.singletonList(first));
+		Assert.assertEquals(1, aggregator.getMultiplicity(first.getTraceSummary()));
+		Assert.assertEquals(2.0, aggregator.getTrueDistance(1), DELTA);
+	}
+
+	@Test
+	public void testTwoFitnessFunctionsOnOneSuite() {
+		Object branchFitness = new Object();
+		Object fbranchFitness = new Object();
+		List<ExecutionResult> results = new ArrayList<>();
+		results.add(result(2.0, "Foo.bar()V"));
+		results.add(result(1.0, "Foo.baz()V"));
+
+		TestSuiteChromosome suite = new TestSuiteChromosome();
+		Assert.assertEquals(2, suite.getTraceAggregator(branchFitness).update(results).size());
+		// the second fitness function still sees all new results
+		Assert.assertEquals(2, suite.getTraceAggregator(fbranchFitness).update(results).size());
+		Assert.assertNotSame(suite.getTraceAggregator(branchFitness), suite.getTraceAggregator(fbranchFitness));
+
+		// clones continue from the aggregates of the original suite
+		TestSuiteChromosome clone = suite.clone();
+		results.add(result(0.0, "Foo.bar()V"));
+		Assert.assertEquals(1, clone.getTraceAggregator(branchFitness).update(results).size());
+		Assert.assertEquals(1, clone.getTraceAggregator(fbranchFitness).update(results).size());
+		Assert.assertEquals(0.0, clone.getTraceAggregator(fbranchFitness).getTrueDistance(1), DELTA);
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.evosuite.Properties;
+import org.junit.After;
+import org.junit.Test;
+
+public class RandomAccessQueueTest {
+
+	private final int defaultPoolSize = Properties.DYNAMIC_POOL_SIZE;
+
+	@After
+	public void restoreProperties() {
+		Properties.DYNAMIC_POOL_SIZE = defaultPoolSize;
+	}
+
+	@Test
+	public void testIntQueueEvictsOldest() {
+		Properties.DYNAMIC_POOL_SIZE = 50;
+		IntRandomAccessQueue queue = new IntRandomAccessQueue();
+		for (int i = 0; i < 200; i++) {
+			queue.restrictedAdd(i);
+			queue.restrictedAdd(i); // duplicates are ignored
+		}
+		assertEquals(50, queue.size());
+		for (int i = 0; i < 150; i++) {
+			assertFalse(queue.contains(i));
+		}
+		for (int i = 150; i < 200; i++) {
+			assertTrue(queue.contains(i));
+			assertEquals(i, queue.get(i - 150));
+		}
+
+		// an evicted value can be added again
+		queue.restrictedAdd(0);
+		assertTrue(queue.contains(0));
+		assertFalse(queue.contains(150));
+	}
+
+	@Test
+	public void testIntQueueWithCollidingValues() {
+		Properties.DYNAMIC_POOL_SIZE = 20;
+		IntRandomAccessQueue queue = new IntRandomAccessQueue();
+		for (int i = 0; i < 1000; i++) {
+			queue.restrictedAdd(i << 16);
+		}
+		assertEquals(20, queue.size());
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i >= 980, queue.contains(i << 16));
+		}
+	}
+
+	@Test
+	public void testLongQueueSamplesAllValues() {
+		Properties.DYNAMIC_POOL_SIZE = 50;
+		LongRandomAccessQueue queue = new LongRandomAccessQueue();
+		for (long i = 0; i < 10; i++) {
+			queue.restrictedAdd(i * Integer.MAX_VALUE);
+		}
+		Set<Long> sampled = new HashSet<>();
+		for (int i = 0; i < 1000; i++) {
+			long value = queue.getRandomValue();
+			assertTrue(queue.contains(value));
+			sampled.add(value);
+		}
+		assertEquals(10, sampled.size());
+	}
+
+	@Test
+	public void testDefaultQueue() {
+		Properties.DYNAMIC_POOL_SIZE = 3;
+		DefaultRandomAccessQueue<String> queue = new DefaultRandomAccessQueue<>();
+		for (String s : new String[] { "a", "b", "a", "c", "d", "e" }) {
+			queue.restrictedAdd(s);
+		}
+		assertEquals("[ c d e ]", queue.toString());
+
+		Set<String> sampled = new HashSet<>();
+		for (int i = 0; i < 1000; i++) {
+			sampled.add(queue.getRandomValue());
+		}
+		assertEquals(3, sampled.size());
+		assertFalse(sampled.contains("a"));
+	}
+}
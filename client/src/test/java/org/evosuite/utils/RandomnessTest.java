@@ -19,7 +19,14 @@
  */
 package org.evosuite.utils;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 import org.junit.Test;
 
 /**
@@ -40,4 +47,16 @@ public class RandomnessTest {
 					(Double.compare(r, min) >= 0) && (Double.compare(r, max) <= 0));
 		}
 	}
+
+	@Test
+	public void testChoiceFromSetReachesAllElements() {
+		Set<String> set = new LinkedHashSet<>(Arrays.asList("a", "b", "c", "d"));
+		Set<String> chosen = new HashSet<>();
+		for (int i = 0; i < 1_000; i++) {
+			String choice = Randomness.choice(set);
+			assertTrue(set.contains(choice));
+			chosen.add(choice);
+		}
+		assertEquals(set, chosen);
+	}
 }
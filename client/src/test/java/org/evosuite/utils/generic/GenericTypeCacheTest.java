@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.utils.generic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.Properties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.googlecode.gentyref.TypeToken;
+
+public class GenericTypeCacheTest {
+
+	private static class Box<T> {
+	}
+
+	private static class StringBox extends Box<String> {
+	}
+
+	private boolean cacheGenericTypes;
+
+	@Before
+	public void setUp() {
+		cacheGenericTypes = Properties.CACHE_GENERIC_TYPES;
+		Properties.CACHE_GENERIC_TYPES = true;
+		GenericTypeCache.resetSingleton();
+	}
+
+	@After
+	public void tearDown() {
+		Properties.CACHE_GENERIC_TYPES = cacheGenericTypes;
+		GenericTypeCache.resetSingleton();
+	}
+
+	@Test
+	public void testTypeVariableMapIsSharedBetweenInstances() {
+		Map<TypeVariable<?>, Type> first = new GenericClass(StringBox.class).getTypeVariableMap();
+		long misses = GenericTypeCache.getInstance().getNumMisses();
+		Map<TypeVariable<?>, Type> second = new GenericClass(StringBox.class).getTypeVariableMap();
+
+		assertEquals(first, second);
+		assertEquals(misses, GenericTypeCache.getInstance().getNumMisses());
+		assertTrue(GenericTypeCache.getInstance().getNumHits() > 0);
+		assertEquals(String.class, second.get(Box.class.getTypeParameters()[0]));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testTypeVariableMapCannotBeModified() {
+		new GenericClass(StringBox.class).getTypeVariableMap().clear();
+	}
+
+	@Test
+	public void testTypeVariableMapIsKeptByInstanceWithoutCache() {
+		Properties.CACHE_GENERIC_TYPES = false;
+		GenericClass clazz = new GenericClass(StringBox.class);
+
+		assertSame(clazz.getTypeVariableMap(), clazz.getTypeVariableMap());
+		assertEquals(0, GenericTypeCache.getInstance().getNumMisses());
+	}
+
+	@Test
+	public void testAssignability() {
+		Type listOfStrings = new TypeToken<List<String>>() {
+		}.getType();
+		Type arrayListOfStrings = new TypeToken<ArrayList<String>>() {
+		}.getType();
+		Type listOfIntegers = new TypeToken<List<Integer>>() {
+		}.getType();
+
+		for (int i = 0; i < 2; i++) {
+			assertTrue(GenericClass.isAssignable(listOfStrings, arrayListOfStrings));
+			assertFalse(GenericClass.isAssignable(arrayListOfStrings, listOfStrings));
+			assertFalse(GenericClass.isAssignable(listOfStrings, listOfIntegers));
+		}
+		assertEquals(3, GenericTypeCache.getInstance().getNumMisses());
+		assertEquals(3, GenericTypeCache.getInstance().getNumHits());
+	}
+}
@@ -0,0 +1,31 @@
+#!/bin/sh
+# Stands in for "z3 -smt2 -in" in tests of SmtSolverSession.
+# Every line read is appended to the log file given as first argument,
+# after a "start" line for each process. A (check-sat) is answered with
+# "unsat" if the command just before it was (assert false), else "sat".
+# The process exits on any command containing "crash".
+log="$1"
+echo "start" >> "$log"
+last=""
+while IFS= read -r line; do
+  echo "$line" >> "$log"
+  case "$line" in
+    *crash*)
+      exit 1 ;;
+    "(check-sat)")
+      if [ "$last" = "(assert false)" ]; then
+        echo "unsat"
+      else
+        echo "sat"
+      fi ;;
+    "(get-model)")
+      echo "(model"
+      echo "  (define-fun x () Int 1)"
+      echo ")" ;;
+    "(echo "*)
+      echo "$line" | sed 's/^(echo "\(.*\)")$/\1/' ;;
+    "(exit)")
+      exit 0 ;;
+  esac
+  last="$line"
+done
@@ -24,15 +24,19 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Set;
 
 import org.evosuite.Properties;
 import org.evosuite.continuous.job.JobDefinition;
 import org.evosuite.continuous.job.JobExecutor;
 import org.evosuite.continuous.job.JobScheduler;
+import org.evosuite.continuous.persistency.BytecodeHashIndex;
 import org.evosuite.continuous.persistency.StorageManager;
 import org.evosuite.continuous.project.ProjectAnalyzer;
 import org.evosuite.continuous.project.ProjectStaticData;
+import org.evosuite.continuous.project.ProjectStaticData.ClassInfo;
 import org.evosuite.utils.FileIOUtils;
+import org.evosuite.utils.LoggingUtils;
 import org.evosuite.xsd.Project;
 import org.evosuite.xsd.ProjectUtil;
 
@@ -166,22 +170,48 @@ public class ContinuousTestGeneration {
 			throw new IllegalStateException("Cannot debug CTG when more than one CUT is selected");
 		}
 
-		if (Properties.CTG_TIME_PER_CLASS != null) {
-			configuration = configuration.getWithChangedTime(Properties.CTG_TIME_PER_CLASS, data.getTotalNumberOfTestableCUTs());
+		/*
+		 * the storage always needs the whole project, otherwise it would
+		 * delete the tests of the classes that are not scheduled
+		 */
+		ProjectStaticData toSchedule = data;
+		BytecodeHashIndex hashIndex = null;
+		if (Properties.CTG_INCREMENTAL) {
+			hashIndex = new BytecodeHashIndex();
+			Set<String> affected = hashIndex.getAffectedClasses(data, StorageManager.getDatabaseProject());
+			for (ClassInfo info : data.getClassInfos()) {
+				if (info.isTestable() && !affected.contains(info.getClassName())) {
+					info.setChanged(false);
+					info.isToTest(false);
+				}
+			}
+			LoggingUtils.getEvoLogger().info("* Classes affected by changes since last CTG execution: "
+					+ affected.size() + "/" + data.getTotalNumberOfTestableCUTs());
+			toSchedule = data.getSubset(affected);
 		}
 
-		JobScheduler scheduler = new JobScheduler(data, configuration);
-		JobExecutor executor = new JobExecutor(storage, projectClassPath, configuration);
+		if (toSchedule.getTotalNumberOfTestableCUTs() > 0) {
+			if (Properties.CTG_TIME_PER_CLASS != null) {
+				configuration = configuration.getWithChangedTime(Properties.CTG_TIME_PER_CLASS, toSchedule.getTotalNumberOfTestableCUTs());
+			}
+
+			JobScheduler scheduler = new JobScheduler(toSchedule, configuration);
+			JobExecutor executor = new JobExecutor(storage, projectClassPath, configuration);
 
-		//loop: define (partial) schedule
-		while (scheduler.canExecuteMore()) {
-			List<JobDefinition> jobs = scheduler.createNewSchedule();
-			executor.executeJobs(jobs, configuration.getNumberOfUsableCores());
-			executor.waitForJobs();
+			//loop: define (partial) schedule
+			while (scheduler.canExecuteMore()) {
+				List<JobDefinition> jobs = scheduler.createNewSchedule();
+				executor.executeJobs(jobs, configuration.getNumberOfUsableCores());
+				executor.waitForJobs();
+			}
 		}
 
 		String description = storage.mergeAndCommitChanges(data, cuts);
 
+		if (hashIndex != null) {
+			hashIndex.save(data, StorageManager.getDatabaseProject());
+		}
+
 		if(exportFolder != null){
 			try {
 				exportToFolder(".",exportFolder);
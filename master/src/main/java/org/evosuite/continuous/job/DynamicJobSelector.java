@@ -0,0 +1,203 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.job;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.evosuite.xsd.CUT;
+import org.evosuite.xsd.Generation;
+import org.evosuite.xsd.Project;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Chooses the next job to run when a core becomes free, instead of following
+ * the order of the schedule.
+ * 
+ * <p>
+ * Among the jobs whose dependencies are done, jobs that other pending jobs
+ * depend on come first, so that seeding can start as early as possible.
+ * Otherwise the job with the longest predicted running time is chosen, so
+ * that short jobs fill the cores at the end. The predicted running time is
+ * the budget of the job, scaled by the share of the budget that previous
+ * generations for the same class actually used. Budget that jobs leave
+ * unused when they end early is shared among the jobs that are still
+ * pending.
+ */
+class DynamicJobSelector {
+
+	private static Logger logger = LoggerFactory.getLogger(DynamicJobSelector.class);
+
+	private final List<JobDefinition> schedule;
+
+	private final List<JobDefinition> pending;
+
+	private final Map<String, Double> predictedSeconds = new HashMap<>();
+
+	/** No job can get a budget larger than this */
+	private final int maxSecondsPerJob;
+
+	private final AtomicLong unusedSeconds = new AtomicLong(0);
+
+	/**
+	 * 
+	 * @param schedule
+	 * @param history
+	 *            previous generations, can be {@code null}
+	 * @param maxSecondsPerJob
+	 */
+	DynamicJobSelector(List<JobDefinition> schedule, Project history, int maxSecondsPerJob) {
+		this.schedule = schedule;
+		this.pending = new LinkedList<>(schedule);
+		this.maxSecondsPerJob = maxSecondsPerJob;
+
+		Map<String, Double> usedShare = getUsedShareOfBudget(history);
+		for (JobDefinition job : schedule) {
+			predictedSeconds.put(job.cut, job.seconds * usedShare.getOrDefault(job.cut, 1d));
+		}
+	}
+
+	/**
+	 * For each class, the average share of the budget its previous
+	 * successful generations used
+	 */
+	private static Map<String, Double> getUsedShareOfBudget(Project history) {
+		Map<String, Double> shares = new HashMap<>();
+		if (history == null) {
+			return shares;
+		}
+		for (CUT cut : history.getCut()) {
+			double sum = 0;
+			int count = 0;
+			for (Generation generation : cut.getGeneration()) {
+				if (generation.isFailed() || generation.getSuite() == null
+						|| generation.getTimeBudgetInSeconds().intValue() <= 0) {
+					continue;
+				}
+				double effort = generation.getSuite().getTotalEffortInSeconds().doubleValue();
+				sum += Math.min(1d, effort / generation.getTimeBudgetInSeconds().doubleValue());
+				count++;
+			}
+			if (count > 0) {
+				shares.put(cut.getFullNameOfTargetClass(), sum / count);
+			}
+		}
+		return shares;
+	}
+
+	public boolean hasPendingJobs() {
+		return !pending.isEmpty();
+	}
+
+	/**
+	 * A job ended, and did not use the given amount of its budget
+	 * 
+	 * @param seconds
+	 */
+	public void addUnusedBudget(long seconds) {
+		if (seconds > 0) {
+			unusedSeconds.addAndGet(seconds);
+		}
+	}
+
+	/**
+	 * Remove the next job to execute from the pending ones
+	 * 
+	 * @param done
+	 *            the classes whose jobs are finished
+	 * @param remainingSeconds
+	 *            time left for the whole schedule
+	 * @return {@code null} if there are no pending jobs
+	 */
+	public JobDefinition nextJob(Set<String> done, long remainingSeconds) {
+		if (pending.isEmpty()) {
+			return null;
+		}
+
+		JobDefinition chosen = null;
+		for (JobDefinition job : pending) {
+			if (job.areDependenciesSatisfied(schedule, done) && isBetter(job, chosen)) {
+				chosen = job;
+			}
+		}
+
+		if (chosen == null) {
+			/*
+			 * all pending jobs wait for jobs that are still running.
+			 * As dependencies are only used for seeding, it is not wrong to run
+			 * any of them: take the one waiting for the fewest classes
+			 */
+			for (JobDefinition job : pending) {
+				if (chosen == null || getNumberOfMissingDependencies(job, done) < getNumberOfMissingDependencies(chosen, done)) {
+					chosen = job;
+				}
+			}
+		}
+
+		int share = (int) (unusedSeconds.get() / pending.size());
+		pending.remove(chosen);
+
+		int extra = (int) Math.min(share, Math.min(maxSecondsPerJob, remainingSeconds) - chosen.seconds);
+		if (extra > 0) {
+			unusedSeconds.addAndGet(-extra);
+			logger.info("Adding " + extra + " seconds of unused budget to job for " + chosen.cut);
+			chosen = chosen.getByAddingBudget(extra);
+		}
+		return chosen;
+	}
+
+	private boolean isBetter(JobDefinition job, JobDefinition other) {
+		if (other == null) {
+			return true;
+		}
+		boolean unblocks = isNeededByPendingJobs(job);
+		if (unblocks != isNeededByPendingJobs(other)) {
+			return unblocks;
+		}
+		// on ties, keep the order of the schedule
+		return predictedSeconds.get(job.cut) > predictedSeconds.get(other.cut);
+	}
+
+	private boolean isNeededByPendingJobs(JobDefinition job) {
+		for (JobDefinition other : pending) {
+			if (other.dependOn(job)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int getNumberOfMissingDependencies(JobDefinition job, Set<String> done) {
+		int missing = 0;
+		if (job.dependentOnClasses != null) {
+			for (String name : job.dependentOnClasses) {
+				if (!done.contains(name)) {
+					missing++;
+				}
+			}
+		}
+		return missing;
+	}
+}
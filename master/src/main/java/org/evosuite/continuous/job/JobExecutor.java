@@ -30,12 +30,14 @@ import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 import org.evosuite.Properties;
 import org.evosuite.continuous.CtgConfiguration;
 import org.evosuite.continuous.persistency.StorageManager;
 import org.evosuite.utils.LoggingUtils;
+import org.evosuite.xsd.Project;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -87,6 +89,21 @@ public class JobExecutor {
 	 */
 	private Map<String,JobDefinition> finishedJobs; 
 
+	/**
+	 * Chooses the next job when a core is free, if jobs are scheduled dynamically
+	 */
+	private DynamicJobSelector selector;
+
+	/**
+	 * Number of handlers that are not running a job, if jobs are scheduled dynamically
+	 */
+	private Semaphore freeHandlers;
+
+	/**
+	 * Start time of the running jobs, by job id
+	 */
+	private Map<Integer,Long> startTimes;
+
 	protected final CtgConfiguration configuration;
 	
 	private String projectClassPath;
@@ -131,7 +148,7 @@ public class JobExecutor {
 
 		logger.info("Going to execute "+jobs.size()+" jobs");
 		
-		initExecution(jobs);
+		initExecution(jobs, cores);
 		
 		Thread mainThread = new Thread(){
 			@Override
@@ -187,6 +204,10 @@ public class JobExecutor {
 	}
 
 	protected void initExecution(final List<JobDefinition> jobs) {
+		initExecution(jobs, 1);
+	}
+
+	protected void initExecution(final List<JobDefinition> jobs, final int cores) {
 		executing = true;
 		startTimeInMs = System.currentTimeMillis(); 		
 		latch = new CountDownLatch(jobs.size());
@@ -200,10 +221,29 @@ public class JobExecutor {
 		 */
 		jobQueue = new ArrayBlockingQueue<>(1);
 		finishedJobs = new ConcurrentHashMap<>();
+		startTimes = new ConcurrentHashMap<>();
+
+		if(Properties.CTG_DYNAMIC_SCHEDULING){
+			Project history = null;
+			try {
+				history = StorageManager.getDatabaseProject();
+			} catch(RuntimeException e){
+				logger.warn("Cannot read history of previous generations: "+e.getMessage());
+			}
+			selector = new DynamicJobSelector(jobs, history, configuration.timeInMinutes * 60);
+			freeHandlers = new Semaphore(cores);
+		} else {
+			selector = null;
+			freeHandlers = null;
+		}
 	}
 
 	protected long execute(List<JobDefinition> jobs){
 		
+		if(selector != null){
+			return executeDynamically();
+		}
+
 		long longestJob = -1l;
 		
 		//TODO handle memory
@@ -289,15 +329,54 @@ public class JobExecutor {
 		
 		return longestJob;
 	}
-	
 
-	
+	/**
+	 * Wait until a handler is free before choosing which job it should run next
+	 * 
+	 * @return the longest budget of a submitted job, in milliseconds
+	 */
+	protected long executeDynamically(){
+
+		long longestJob = -1l;
+
+		while(selector.hasPendingJobs()){
+
+			long remaining = getRemainingTimeInMs();
+			if(remaining <= 0){
+				break;
+			}
+
+			try {
+				if(!freeHandlers.tryAcquire(remaining, TimeUnit.MILLISECONDS)){
+					break;
+				}
+				JobDefinition chosenJob = selector.nextJob(finishedJobs.keySet(), getRemainingTimeInMs() / 1000);
+				longestJob = Math.max(longestJob, chosenJob.seconds * 1000);
+				jobQueue.put(chosenJob);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt(); //important for check later
+				break;
+			}
+		}
+
+		return longestJob;
+	}
 
 	public JobDefinition pollJob() throws InterruptedException{
-		return jobQueue.take();
+		JobDefinition job = jobQueue.take();
+		startTimes.put(job.jobID, System.currentTimeMillis());
+		return job;
 	}
 	
 	public void doneWithJob(JobDefinition job){
+		Long start = startTimes.remove(job.jobID);
+		if(selector != null){
+			if(start != null){
+				long elapsedSeconds = (System.currentTimeMillis() - start) / 1000;
+				selector.addUnusedBudget(job.seconds - elapsedSeconds);
+			}
+			freeHandlers.release();
+		}
 		finishedJobs.put(job.cut, job);
 		latch.countDown();
 		LoggingUtils.getEvoLogger().info("Completed job. Left: "+latch.getCount());
@@ -0,0 +1,372 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.persistency;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.commons.io.IOUtils;
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ResourceList;
+import org.evosuite.continuous.project.ProjectGraph;
+import org.evosuite.continuous.project.ProjectStaticData;
+import org.evosuite.continuous.project.ProjectStaticData.ClassInfo;
+import org.evosuite.xsd.CUT;
+import org.evosuite.xsd.CUTUtil;
+import org.evosuite.xsd.Generation;
+import org.evosuite.xsd.Project;
+import org.evosuite.xsd.ProjectUtil;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Content-hash index of the bytecode of the CUTs, used by incremental CTG.
+ *
+ * <p>
+ * For each CUT we store a hash of its own bytecode combined with the
+ * bytecode of all the classes it depends on, transitively: the CUTs used as
+ * input in its public methods, its CUT ancestors, and all the classes of the
+ * project referenced from its constant pool, which include the callees and
+ * the nested and anonymous classes. If none of them changed since the last
+ * CTG execution, and there is already a test suite for the CUT in the
+ * database, then there is no need to generate new tests for it.
+ * 
+ * @see Properties#CTG_INCREMENTAL
+ */
+public class BytecodeHashIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(BytecodeHashIndex.class);
+
+	/**
+	 * Tag of a CONSTANT_Class entry in the constant pool
+	 */
+	private static final int CONSTANT_CLASS = 7;
+
+	/**
+	 * Closure hashes computed in the previous CTG execution
+	 */
+	private final Map<String, String> storedHashes;
+
+	/**
+	 * Closure hashes of the current version of the CUTs
+	 */
+	private final Map<String, String> currentHashes = new LinkedHashMap<>();
+
+	public BytecodeHashIndex() {
+		this(load(getIndexFile()));
+	}
+
+	protected BytecodeHashIndex(Map<String, String> storedHashes) {
+		this.storedHashes = storedHashes;
+	}
+
+	public static File getIndexFile() {
+		return new File(Properties.CTG_DIR + File.separator + Properties.CTG_BYTECODE_HASHES);
+	}
+
+	/**
+	 * Compute the closure hashes of all the testable CUTs in <code>data</code>,
+	 * and return the ones that need new tests, ie the ones whose bytecode or
+	 * whose dependencies changed, or that have no test suite in <code>db</code> yet
+	 * 
+	 * @param data
+	 * @param db the current database, can be <code>null</code>
+	 * @return full qualifying names of the affected CUTs
+	 */
+	public Set<String> getAffectedClasses(ProjectStaticData data, Project db) {
+
+		ProjectGraph graph = data.getProjectGraph();
+		Map<String, String> ownHashes = new LinkedHashMap<>();
+		Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+		Set<String> cuts = new LinkedHashSet<>();
+		Deque<String> toAnalyze = new ArrayDeque<>();
+
+		for (ClassInfo info : data.getClassInfos()) {
+			if (!info.isTestable()) {
+				continue;
+			}
+			String name = info.getClassName();
+			cuts.add(name);
+
+			Set<String> deps = new LinkedHashSet<>();
+			analyzeBytecode(name, ownHashes, deps);
+			try {
+				deps.addAll(graph.getCUTsDirectlyUsedAsInput(name, true));
+				deps.addAll(graph.getAllCUTsParents(name));
+			} catch (RuntimeException e) {
+				/*
+				 * without the dependencies we cannot tell whether the CUT is affected
+				 * by a change, so it will be tested as if it was new
+				 */
+				logger.warn("Failed to compute the dependencies of " + name + ": " + e.getMessage());
+				ownHashes.remove(name);
+			}
+			dependencies.put(name, deps);
+			toAnalyze.addAll(deps);
+		}
+
+		//callees and nested classes, which are not necessarily CUTs themselves
+		while (!toAnalyze.isEmpty()) {
+			String name = toAnalyze.poll();
+			if (dependencies.containsKey(name)) {
+				continue;
+			}
+			Set<String> deps = new LinkedHashSet<>();
+			analyzeBytecode(name, ownHashes, deps);
+			dependencies.put(name, deps);
+			toAnalyze.addAll(deps);
+		}
+
+		currentHashes.clear();
+		currentHashes.putAll(computeClosureHashes(cuts, ownHashes, dependencies));
+
+		Set<String> affected = new LinkedHashSet<>();
+		for (String name : cuts) {
+			String hash = currentHashes.get(name);
+			if (hash == null || !hash.equals(storedHashes.get(name)) || !hasTestSuite(db, name)) {
+				affected.add(name);
+			}
+		}
+		return affected;
+	}
+
+	/**
+	 * Store the current hashes of the CUTs that were tested in this CTG
+	 * execution and whose latest generation in <code>db</code> did not fail,
+	 * so that they can be reused in the next CTG execution. The other CUTs
+	 * keep the hash stored before, as their tests were not regenerated, so a
+	 * change since then will still be detected in the next CTG execution
+	 * 
+	 * @param data
+	 * @param db
+	 */
+	public void save(ProjectStaticData data, Project db) {
+		java.util.Properties out = new java.util.Properties();
+		for (Map.Entry<String, String> entry : currentHashes.entrySet()) {
+			String name = entry.getKey();
+			String hash = isRegenerated(data, db, name) ? entry.getValue() : storedHashes.get(name);
+			if (hash != null) {
+				out.setProperty(name, hash);
+			}
+		}
+
+		File file = getIndexFile();
+		try (OutputStream stream = new FileOutputStream(file)) {
+			out.store(stream, "Bytecode closure hashes of the CUTs");
+		} catch (IOException e) {
+			logger.error("Failed to write " + file + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Combine the own hash of each CUT with the ones of the CUTs it
+	 * (transitively) depends on.
+	 * 
+	 * @param cuts
+	 * @param ownHashes bytecode hash of each CUT
+	 * @param dependencies direct dependencies of each CUT
+	 * @return the closure hash of each CUT in <code>cuts</code>, apart from the
+	 *         ones for which the hash of some class in the closure is unknown
+	 */
+	protected static Map<String, String> computeClosureHashes(Collection<String> cuts,
+			Map<String, String> ownHashes, Map<String, Set<String>> dependencies) {
+
+		Map<String, String> closureHashes = new LinkedHashMap<>();
+
+		cutLoop: for (String cut : cuts) {
+			//sorted, so that the hash does not depend on the order of the dependencies
+			Set<String> closure = new TreeSet<>();
+			Deque<String> toVisit = new ArrayDeque<>();
+			toVisit.add(cut);
+			while (!toVisit.isEmpty()) {
+				String name = toVisit.poll();
+				if (!closure.add(name)) {
+					continue;
+				}
+				Set<String> deps = dependencies.get(name);
+				if (deps != null) {
+					toVisit.addAll(deps);
+				}
+			}
+
+			StringBuilder content = new StringBuilder();
+			for (String name : closure) {
+				String hash = ownHashes.get(name);
+				if (hash == null) {
+					continue cutLoop;
+				}
+				content.append(name).append('=').append(hash).append(';');
+			}
+			closureHashes.put(cut, hash(content.toString().getBytes(StandardCharsets.UTF_8)));
+		}
+
+		return closureHashes;
+	}
+
+	/**
+	 * @return whether new tests were generated for the CUT in this CTG
+	 *         execution, ie it was tested and its latest generation did not fail
+	 */
+	private static boolean isRegenerated(ProjectStaticData data, Project db, String className) {
+		ClassInfo info = data.getClassInfo(className);
+		if (info == null || !info.isToTest() || db == null) {
+			return false;
+		}
+		CUT cut = ProjectUtil.getCUT(db, className);
+		if (cut == null || cut.getGeneration().isEmpty()) {
+			return false;
+		}
+		Generation latest = CUTUtil.getLatestGeneration(cut);
+		return !latest.isFailed();
+	}
+
+	private static boolean hasTestSuite(Project db, String className) {
+		if (db == null) {
+			return false;
+		}
+		CUT cut = ProjectUtil.getCUT(db, className);
+		return cut != null && CUTUtil.getLatestSuccessfulGeneration(cut) != null;
+	}
+
+	/**
+	 * Store the hash of the bytecode of the class in <code>ownHashes</code>,
+	 * and add the project classes it references to <code>references</code>
+	 */
+	private void analyzeBytecode(String className, Map<String, String> ownHashes, Set<String> references) {
+		byte[] bytecode = getBytecode(className);
+		if (bytecode == null) {
+			return;
+		}
+		ownHashes.put(className, hash(bytecode));
+		try {
+			for (String name : getReferencedClasses(bytecode)) {
+				if (!name.equals(className) && isProjectClass(name)) {
+					references.add(name);
+				}
+			}
+		} catch (RuntimeException e) {
+			logger.warn("Failed to parse bytecode of " + className + ": " + e.getMessage());
+			ownHashes.remove(className);
+		}
+	}
+
+	/**
+	 * @param bytecode
+	 * @return full qualifying names of all the classes in the constant pool,
+	 *         which include the owners of all the called methods and accessed
+	 *         fields, and the nested classes
+	 */
+	protected static Set<String> getReferencedClasses(byte[] bytecode) {
+		ClassReader reader = new ClassReader(bytecode);
+		char[] buffer = new char[reader.getMaxStringLength()];
+		Set<String> names = new TreeSet<>();
+		for (int i = 1; i < reader.getItemCount(); i++) {
+			int offset = reader.getItem(i);
+			//second slot of long and double constants
+			if (offset <= 0 || reader.b[offset - 1] != CONSTANT_CLASS) {
+				continue;
+			}
+			String internalName = reader.readUTF8(offset, buffer);
+			if (internalName.startsWith("[")) {
+				Type element = Type.getType(internalName).getElementType();
+				if (element.getSort() != Type.OBJECT) {
+					continue;
+				}
+				internalName = element.getInternalName();
+			}
+			names.add(internalName.replace('/', '.'));
+		}
+		return names;
+	}
+
+	/**
+	 * @return whether the class is on the classpath of the project, as opposed
+	 *         to the Java API
+	 */
+	protected boolean isProjectClass(String className) {
+		return ResourceList.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT()).hasClass(className);
+	}
+
+	protected byte[] getBytecode(String className) {
+		ResourceList resources = ResourceList.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT());
+		try (InputStream stream = resources.getClassAsStream(className)) {
+			if (stream == null) {
+				logger.warn("Cannot find bytecode of " + className);
+				return null;
+			}
+			return IOUtils.toByteArray(stream);
+		} catch (IOException e) {
+			logger.warn("Failed to read bytecode of " + className + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+	protected static String hash(byte[] content) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+
+		StringBuilder hash = new StringBuilder();
+		for (byte b : digest.digest(content)) {
+			hash.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hash.toString();
+	}
+
+	private static Map<String, String> load(File file) {
+		Map<String, String> hashes = new LinkedHashMap<>();
+		if (!file.exists()) {
+			return hashes;
+		}
+
+		java.util.Properties in = new java.util.Properties();
+		try (InputStream stream = new FileInputStream(file)) {
+			in.load(stream);
+		} catch (IOException e) {
+			logger.error("Failed to read " + file + ": " + e.getMessage(), e);
+			return hashes;
+		}
+		for (String name : in.stringPropertyNames()) {
+			hashes.put(name, in.getProperty(name));
+		}
+		return hashes;
+	}
+}
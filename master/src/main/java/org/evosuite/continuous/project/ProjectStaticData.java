@@ -305,6 +305,28 @@ public class ProjectStaticData {
 		return Collections.unmodifiableCollection(classes.keySet());
 	}
 
+	/**
+	 * Return a copy of this data restricted to the given classes. The
+	 * ClassInfo objects are shared, and so is the project graph, as the
+	 * classes in the subset can still depend on the ones outside of it
+	 * 
+	 * @param classNames
+	 * @return
+	 */
+	public ProjectStaticData getSubset(Collection<String> classNames) {
+		ProjectStaticData subset = new ProjectStaticData();
+		for (String name : classNames) {
+			ClassInfo info = classes.get(name);
+			if (info != null) {
+				subset.addNewClass(info);
+			}
+		}
+		subset.modifiedFiles.addAll(modifiedFiles);
+		subset.project = project;
+		subset.graph = getProjectGraph();
+		return subset;
+	}
+
 	/**
      * Returns true if a class has been changed, false otherwise
      */
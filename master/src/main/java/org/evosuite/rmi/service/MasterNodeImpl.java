@@ -63,10 +63,17 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
 
 	private final Map<String, ClientStateInformation> clientStateInformation;
 
+	/**
+	 * Local ports on which clients receive migrants directly from their
+	 * neighbour, if they use migration channels
+	 */
+	private final Map<String, Integer> migrationPorts;
+
 	public MasterNodeImpl(Registry registry) {
 		clients = new ConcurrentHashMap<String, ClientNodeRemote>();
 		clientStates = new ConcurrentHashMap<String, ClientState>();
 		clientStateInformation = new ConcurrentHashMap<String, ClientStateInformation>();
+		migrationPorts = new ConcurrentHashMap<String, Integer>();
 		this.registry = registry;
 	}
 
@@ -175,6 +182,14 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
 		SearchStatistics.getInstance(clientRmiIdentifier).setOutputVariable(variable, value);
 	}
 
+	@Override
+	public void evosuite_collectStatistics(String clientRmiIdentifier, Map<RuntimeVariable, Object> variables)
+	        throws RemoteException {
+		for (Map.Entry<RuntimeVariable, Object> entry : variables.entrySet()) {
+			SearchStatistics.getInstance(clientRmiIdentifier).setOutputVariable(entry.getKey(), entry.getValue());
+		}
+	}
+
 	@Override
 	public void evosuite_collectTestGenerationResult(
 			String clientRmiIdentifier, List<TestGenerationResult> results)
@@ -197,7 +212,41 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
     @Override
     public void evosuite_migrate(String clientRmiIdentifier, Set<? extends Chromosome> migrants)
             throws RemoteException {
-        //implements ring topology
+        String neighbour = getNeighbour(clientRmiIdentifier);
+        if (neighbour != null) {
+            ClientNodeRemote node = clients.get(neighbour);
+            node.immigrate(migrants);
+        }
+    }
+
+    @Override
+    public void evosuite_registerMigrationPort(String clientRmiIdentifier, int port) throws RemoteException {
+        migrationPorts.put(clientRmiIdentifier, port);
+    }
+
+    @Override
+    public int evosuite_getMigrationPort(String clientRmiIdentifier) throws RemoteException {
+        String neighbour = getNeighbour(clientRmiIdentifier);
+        if (neighbour == null) {
+            return NO_NEIGHBOUR;
+        }
+        Integer port = migrationPorts.get(neighbour);
+        if (port == null) {
+            // the channel of the neighbour is disabled or failed to open
+            return NO_MIGRATION_CHANNEL;
+        }
+        return port;
+    }
+
+    /**
+     * Implements the ring topology: the neighbour of a client is the next
+     * client that is still searching
+     * 
+     * @param clientRmiIdentifier
+     * @return the identifier of the neighbour, or null if no other client is
+     *         searching
+     */
+    private String getNeighbour(String clientRmiIdentifier) {
         int idSender = Integer.parseInt(clientRmiIdentifier.replaceAll("[^0-9]", ""));
         int idNeighbour = (idSender + 1) % Properties.NUM_PARALLEL_CLIENTS;
 
@@ -205,10 +254,10 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
             idNeighbour = (idNeighbour + 1) % Properties.NUM_PARALLEL_CLIENTS;
         }
 
-        if (idNeighbour != idSender) {
-            ClientNodeRemote node = clients.get("ClientNode" + idNeighbour);
-            node.immigrate(migrants);
+        if (idNeighbour == idSender) {
+            return null;
         }
+        return "ClientNode" + idNeighbour;
     }
 
     @Override
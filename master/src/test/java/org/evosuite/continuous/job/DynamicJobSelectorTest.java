@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.job;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DynamicJobSelectorTest {
+
+	@Test
+	public void testLongestJobFirst() {
+		JobDefinition a = new JobDefinition(30, 1000, "A", 0, null, null);
+		JobDefinition b = new JobDefinition(90, 1000, "B", 0, null, null);
+		JobDefinition c = new JobDefinition(60, 1000, "C", 0, null, null);
+		DynamicJobSelector selector = new DynamicJobSelector(Arrays.asList(a, b, c), null, 600);
+
+		Assert.assertEquals("B", selector.nextJob(Collections.emptySet(), 600).cut);
+		Assert.assertEquals("C", selector.nextJob(Collections.emptySet(), 600).cut);
+		Assert.assertEquals("A", selector.nextJob(Collections.emptySet(), 600).cut);
+		Assert.assertFalse(selector.hasPendingJobs());
+		Assert.assertNull(selector.nextJob(Collections.emptySet(), 600));
+	}
+
+	@Test
+	public void testDependenciesFirst() {
+		JobDefinition user = new JobDefinition(90, 1000, "User", 0,
+				new HashSet<>(Arrays.asList("Used")), null);
+		JobDefinition other = new JobDefinition(60, 1000, "Other", 0, null, null);
+		JobDefinition used = new JobDefinition(30, 1000, "Used", 0, null, null);
+		List<JobDefinition> jobs = Arrays.asList(user, other, used);
+		DynamicJobSelector selector = new DynamicJobSelector(jobs, null, 600);
+
+		// needed for seeding, even if shortest
+		Assert.assertEquals("Used", selector.nextJob(Collections.emptySet(), 600).cut);
+		// dependency still running
+		Assert.assertEquals("Other", selector.nextJob(Collections.emptySet(), 600).cut);
+		Assert.assertEquals("User", selector.nextJob(new HashSet<>(Arrays.asList("Used")), 600).cut);
+	}
+
+	@Test
+	public void testUnusedBudgetIsShared() {
+		JobDefinition a = new JobDefinition(60, 1000, "A", 0, null, null);
+		JobDefinition b = new JobDefinition(60, 1000, "B", 0, null, null);
+		JobDefinition c = new JobDefinition(60, 1000, "C", 0, null, null);
+		DynamicJobSelector selector = new DynamicJobSelector(Arrays.asList(a, b, c), null, 90);
+
+		Assert.assertEquals(60, selector.nextJob(Collections.emptySet(), 600).seconds);
+		selector.addUnusedBudget(50);
+
+		// half of the unused budget for each of the two pending jobs
+		Assert.assertEquals(85, selector.nextJob(Collections.emptySet(), 600).seconds);
+		selector.addUnusedBudget(100);
+		// limited by the maximum budget per job
+		Assert.assertEquals(90, selector.nextJob(Collections.emptySet(), 600).seconds);
+	}
+}
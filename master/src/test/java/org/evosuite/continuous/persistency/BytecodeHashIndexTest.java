@@ -0,0 +1,245 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.persistency;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.evosuite.Properties;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.continuous.project.ProjectAnalyzer;
+import org.evosuite.continuous.project.ProjectStaticData;
+import org.evosuite.xsd.CUT;
+import org.evosuite.xsd.Generation;
+import org.evosuite.xsd.Project;
+import org.evosuite.xsd.TestSuite;
+import org.evosuite.xsd.XSDUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.examples.with.different.packagename.continuous.NoBranches;
+import com.examples.with.different.packagename.continuous.Trivial;
+import com.examples.with.different.packagename.continuous.UsingCalleeAndAnonymous;
+
+public class BytecodeHashIndexTest {
+
+	/**
+	 * Index that sees a modified bytecode for one class
+	 */
+	private static class ChangingIndex extends BytecodeHashIndex {
+
+		private final String changedClass;
+
+		private ChangingIndex(String changedClass) {
+			this.changedClass = changedClass;
+		}
+
+		@Override
+		protected byte[] getBytecode(String className) {
+			byte[] bytecode = super.getBytecode(className);
+			if (bytecode != null && className.equals(changedClass)) {
+				//trailing bytes are ignored when parsing the class
+				bytecode = Arrays.copyOf(bytecode, bytecode.length + 1);
+			}
+			return bytecode;
+		}
+
+		@Override
+		protected boolean isProjectClass(String className) {
+			return className.startsWith(UsingCalleeAndAnonymous.class.getPackage().getName());
+		}
+	}
+
+	private static final String[] CUTS = new String[] { UsingCalleeAndAnonymous.class.getName(),
+			Trivial.class.getName(), NoBranches.class.getName() };
+
+	private String ctgDir;
+
+	@BeforeClass
+	public static void initClass() {
+		ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		ctgDir = Properties.CTG_DIR;
+		Properties.CTG_DIR = Files.createTempDirectory("ctg").toString();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		FileUtils.deleteDirectory(BytecodeHashIndex.getIndexFile().getParentFile());
+		Properties.CTG_DIR = ctgDir;
+	}
+
+	private static Set<String> set(String... names) {
+		return new LinkedHashSet<>(Arrays.asList(names));
+	}
+
+	@Test
+	public void testChangeInDependencyIsPropagated() {
+		Map<String, String> own = new HashMap<>();
+		own.put("A", BytecodeHashIndex.hash(new byte[]{1}));
+		own.put("B", BytecodeHashIndex.hash(new byte[]{2}));
+		own.put("C", BytecodeHashIndex.hash(new byte[]{3}));
+		own.put("D", BytecodeHashIndex.hash(new byte[]{4}));
+
+		//A -> B -> C, and D is independent
+		Map<String, Set<String>> deps = new HashMap<>();
+		deps.put("A", set("B"));
+		deps.put("B", set("C"));
+		deps.put("C", set());
+		deps.put("D", set());
+
+		Set<String> cuts = set("A", "B", "C", "D");
+		Map<String, String> before = BytecodeHashIndex.computeClosureHashes(cuts, own, deps);
+		Assert.assertEquals(4, before.size());
+
+		own.put("C", BytecodeHashIndex.hash(new byte[]{5}));
+		Map<String, String> after = BytecodeHashIndex.computeClosureHashes(cuts, own, deps);
+
+		Assert.assertNotEquals(before.get("A"), after.get("A"));
+		Assert.assertNotEquals(before.get("B"), after.get("B"));
+		Assert.assertNotEquals(before.get("C"), after.get("C"));
+		Assert.assertEquals(before.get("D"), after.get("D"));
+	}
+
+	@Test
+	public void testCyclicDependencies() {
+		Map<String, String> own = new HashMap<>();
+		own.put("A", BytecodeHashIndex.hash(new byte[]{1}));
+		own.put("B", BytecodeHashIndex.hash(new byte[]{2}));
+
+		Map<String, Set<String>> deps = new HashMap<>();
+		deps.put("A", set("B"));
+		deps.put("B", set("A"));
+
+		Map<String, String> hashes = BytecodeHashIndex.computeClosureHashes(set("A", "B"), own, deps);
+		Assert.assertEquals(2, hashes.size());
+		//same closure, same hash
+		Assert.assertEquals(hashes.get("A"), hashes.get("B"));
+	}
+
+	@Test
+	public void testUnknownHashInClosure() {
+		Map<String, String> own = new HashMap<>();
+		own.put("A", BytecodeHashIndex.hash(new byte[]{1}));
+
+		Map<String, Set<String>> deps = new HashMap<>();
+		deps.put("A", set("B"));
+		deps.put("B", Collections.emptySet());
+
+		Map<String, String> hashes = BytecodeHashIndex.computeClosureHashes(set("A", "B"), own, deps);
+		Assert.assertTrue(hashes.isEmpty());
+	}
+
+	@Test
+	public void testReferencedClasses() {
+		String cut = UsingCalleeAndAnonymous.class.getName();
+		Set<String> names = BytecodeHashIndex.getReferencedClasses(new ChangingIndex(null).getBytecode(cut));
+		Assert.assertTrue(names.contains(cut + "$1"));
+		Assert.assertTrue(names.contains(cut + "$Helper"));
+		Assert.assertTrue(names.contains(Trivial.class.getName()));
+		Assert.assertFalse(names.contains(NoBranches.class.getName()));
+	}
+
+	private static Project createDatabase() {
+		Project db = new Project();
+		db.setTotalNumberOfTestableClasses(XSDUtils.convert(CUTS.length));
+		for (String name : CUTS) {
+			Generation generation = new Generation();
+			generation.setId(XSDUtils.convert(0));
+			generation.setFailed(false);
+			generation.setSuite(new TestSuite());
+
+			CUT cut = new CUT();
+			cut.setFullNameOfTargetClass(name);
+			cut.setFullNameOfTestSuite(name + "_ESTest");
+			cut.getGeneration().add(generation);
+			db.getCut().add(cut);
+		}
+		return db;
+	}
+
+	private static Set<String> getAffectedClassesAfterChange(String changedClass) {
+		ProjectStaticData data = new ProjectAnalyzer(CUTS).analyze();
+		Project db = createDatabase();
+
+		ChangingIndex before = new ChangingIndex(null);
+		//no hashes stored yet
+		Assert.assertEquals(set(CUTS), before.getAffectedClasses(data, db));
+		before.save(data, db);
+
+		return new ChangingIndex(changedClass).getAffectedClasses(data, db);
+	}
+
+	@Test
+	public void testNoChange() {
+		Assert.assertTrue(getAffectedClassesAfterChange(null).isEmpty());
+	}
+
+	@Test
+	public void testChangeInAnonymousClass() {
+		String cut = UsingCalleeAndAnonymous.class.getName();
+		Assert.assertEquals(set(cut), getAffectedClassesAfterChange(cut + "$1"));
+	}
+
+	@Test
+	public void testChangeInNestedClass() {
+		String cut = UsingCalleeAndAnonymous.class.getName();
+		Assert.assertEquals(set(cut), getAffectedClassesAfterChange(cut + "$Helper"));
+	}
+
+	@Test
+	public void testChangeInCallee() {
+		Assert.assertEquals(set(UsingCalleeAndAnonymous.class.getName(), Trivial.class.getName()),
+				getAffectedClassesAfterChange(Trivial.class.getName()));
+	}
+
+	@Test
+	public void testClassNotTestedKeepsStoredHash() {
+		String callee = Trivial.class.getName();
+		ProjectStaticData data = new ProjectAnalyzer(CUTS).analyze();
+		Project db = createDatabase();
+
+		ChangingIndex before = new ChangingIndex(null);
+		before.getAffectedClasses(data, db);
+		before.save(data, db);
+
+		ChangingIndex changed = new ChangingIndex(callee);
+		Assert.assertEquals(set(UsingCalleeAndAnonymous.class.getName(), callee),
+				changed.getAffectedClasses(data, db));
+		//eg, no time budget left for it
+		data.getClassInfo(callee).isToTest(false);
+		changed.save(data, db);
+
+		Assert.assertEquals(set(callee), new ChangingIndex(callee).getAffectedClasses(data, db));
+	}
+}
@@ -109,6 +109,27 @@ public class DSEAlgorithmSystemTest extends SystemTestBase {
 		assertEquals(0, best.getNumOfNotCoveredGoals());
 	}
 
+	@Test
+	public void testMaxWithParallelSolving() {
+		Properties.DSE_SOLVER_THREADS = 4;
+
+		EvoSuite evosuite = new EvoSuite();
+		String targetClass = Max.class.getCanonicalName();
+		Properties.TARGET_CLASS = targetClass;
+
+		String[] command = new String[] { "-generateSuite", "-class", targetClass };
+
+		Object result = evosuite.parseCommandLine(command);
+		GeneticAlgorithm<?> ga = getGAFromResult(result);
+		TestSuiteChromosome best = (TestSuiteChromosome) ga.getBestIndividual();
+		System.out.println("EvolvedTestSuite:\n" + best);
+
+		assertFalse(best.getTests().isEmpty());
+
+		assertEquals(7, best.getNumOfCoveredGoals());
+		assertEquals(0, best.getNumOfNotCoveredGoals());
+	}
+
 	@Test
 	public void testAdd() {
 		EvoSuite evosuite = new EvoSuite();
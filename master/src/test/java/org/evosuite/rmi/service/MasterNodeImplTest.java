@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.rmi.service;
+
+import static org.junit.Assert.assertEquals;
+
+import org.evosuite.Properties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MasterNodeImplTest {
+
+	private int numParallelClients;
+
+	private MasterNodeImpl master;
+
+	@Before
+	public void setUp() {
+		numParallelClients = Properties.NUM_PARALLEL_CLIENTS;
+		Properties.NUM_PARALLEL_CLIENTS = 3;
+		master = new MasterNodeImpl(null);
+	}
+
+	@After
+	public void tearDown() {
+		Properties.NUM_PARALLEL_CLIENTS = numParallelClients;
+	}
+
+	private void search(String clientRmiIdentifier) throws Exception {
+		master.evosuite_informChangeOfStateInClient(clientRmiIdentifier, ClientState.SEARCH,
+				new ClientStateInformation(ClientState.SEARCH));
+	}
+
+	@Test
+	public void testNoNeighbour() throws Exception {
+		search("ClientNode0");
+		master.evosuite_registerMigrationPort("ClientNode0", 4000);
+
+		assertEquals(MasterNodeRemote.NO_NEIGHBOUR, master.evosuite_getMigrationPort("ClientNode0"));
+	}
+
+	@Test
+	public void testNeighbourWithoutMigrationChannel() throws Exception {
+		search("ClientNode0");
+		search("ClientNode1");
+		master.evosuite_registerMigrationPort("ClientNode0", 4000);
+
+		assertEquals(MasterNodeRemote.NO_MIGRATION_CHANNEL, master.evosuite_getMigrationPort("ClientNode0"));
+		assertEquals(4000, master.evosuite_getMigrationPort("ClientNode1"));
+	}
+
+	@Test
+	public void testNeighbourSkipsClientsNotSearching() throws Exception {
+		search("ClientNode0");
+		search("ClientNode2");
+		master.evosuite_registerMigrationPort("ClientNode1", 4001);
+		master.evosuite_registerMigrationPort("ClientNode2", 4002);
+
+		assertEquals(4002, master.evosuite_getMigrationPort("ClientNode0"));
+	}
+}
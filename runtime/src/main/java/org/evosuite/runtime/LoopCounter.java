@@ -37,6 +37,17 @@ public class LoopCounter {
 
     private static final LoopCounter singleton = new LoopCounter();
 
+    /**
+     * Counters of the threads that execute tests in parallel, see {@link #bindNewInstanceToCurrentThread()}
+     */
+    private static final ThreadLocal<LoopCounter> threadCounter = new ThreadLocal<>();
+
+    /**
+     * Only look up thread counters once at least one has been bound, to keep the
+     * sequential execution as cheap as it was
+     */
+    private static volatile boolean threadCountersInUse = false;
+
     private boolean activated = true;
     
     /**
@@ -50,9 +61,30 @@ public class LoopCounter {
     }
 
     public static LoopCounter getInstance(){
+        if(threadCountersInUse){
+            LoopCounter counter = threadCounter.get();
+            if(counter != null){
+                return counter;
+            }
+        }
         return singleton;
     }
 
+    /**
+     * Bind a new counter to the current thread, so that tests executed in parallel
+     * on different threads do not share their iteration counts.
+     * Loop indexes are still assigned by the shared singleton.
+     *
+     * @return the counter used by the current thread from now on
+     */
+    public static LoopCounter bindNewInstanceToCurrentThread(){
+        LoopCounter counter = new LoopCounter();
+        counter.activated = singleton.activated;
+        threadCounter.set(counter);
+        threadCountersInUse = true;
+        return counter;
+    }
+
     public void reset(){
         counters.clear();
     }
@@ -71,7 +103,10 @@ public class LoopCounter {
      *
      * @return the next valid index for a new loop
      */
-    public int getNewIndex(){
+    public synchronized int getNewIndex(){
+        if(this != singleton){
+            return singleton.getNewIndex();
+        }
         int index = counters.size();
         counters.add(0l);
         return index;
@@ -20,6 +20,7 @@
 package org.evosuite.runtime.mock.java.io;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.evosuite.runtime.vfs.FSObject;
@@ -60,6 +61,46 @@ public class NativeMockedIO {
 		return b; 
 	}
 
+	/**
+	 * Read up to {@code len} bytes in one go, instead of one {@link #read} call per byte
+	 * 
+	 * @return the number of bytes read, or -1 if the position is at the end of the file
+	 */
+	public static int readBytes(String path, AtomicInteger position, byte b[], int off, int len) throws IOException{
+		VFile vf = NativeMockedIO.getFileForReading(path);
+		if(vf==null){
+			throw new MockIOException();
+		}
+
+		VirtualFileSystem.getInstance().throwSimuledIOExceptionIfNeeded(path);
+
+		int n = vf.readBytes(position.get(), b, off, len);
+		if(n > 0){
+			position.addAndGet(n);
+		}
+		return n;
+	}
+
+	/**
+	 * Fill {@code dst} with the bytes at the given position, copying them directly from the file
+	 * 
+	 * @return the number of bytes read, or -1 if the position is at the end of the file
+	 */
+	public static int readBytes(String path, AtomicInteger position, ByteBuffer dst) throws IOException{
+		VFile vf = NativeMockedIO.getFileForReading(path);
+		if(vf==null){
+			throw new MockIOException();
+		}
+
+		VirtualFileSystem.getInstance().throwSimuledIOExceptionIfNeeded(path);
+
+		int n = vf.readBytes(position.get(), dst);
+		if(n > 0){
+			position.addAndGet(n);
+		}
+		return n;
+	}
+
 	
 	public static VFile getFileForWriting(String path){
 		FSObject target = VirtualFileSystem.getInstance().findFSObject(path);
@@ -87,6 +128,23 @@ public class NativeMockedIO {
 		position.addAndGet(written);
 	}
 
+	public static void writeBytes(String path, AtomicInteger position, ByteBuffer src)
+			throws IOException{
+
+		VFile vf = NativeMockedIO.getFileForWriting(path);
+		if(vf==null){
+			throw new MockIOException();
+		}
+
+		VirtualFileSystem.getInstance().throwSimuledIOExceptionIfNeeded(path);
+
+		int written = vf.writeBytes(position.get(), src);
+		if(written==0){
+			throw new MockIOException("Error in writing to file");
+		}
+		position.addAndGet(written);
+	}
+
 	
 	public static int size(String path) throws IOException{
 		VFile vf = NativeMockedIO.getFileForReading(path);
@@ -50,6 +50,13 @@ public class MockThread extends Thread implements OverrideMock {
         threadMap.clear();
     }
 
+    /**
+     * @return whether the id of any thread was mocked since the last reset
+     */
+    public static boolean wasAccessed() {
+        return !threadMap.isEmpty();
+    }
+
     private boolean isSutRelated() {
         String sut = RuntimeSettings.className;
         String threadName = this.getClass().getName();
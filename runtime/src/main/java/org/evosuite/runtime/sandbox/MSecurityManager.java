@@ -39,8 +39,11 @@ import java.sql.SQLPermission;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
 import java.util.PropertyPermission;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.logging.FileHandler;
 import java.util.logging.LoggingPermission;
@@ -185,6 +188,23 @@ public class MSecurityManager extends SecurityManager {
 	 */
 	private final Set<Permission>  unrecognizedPermissions;
 
+	/**
+	 * Maximum number of decisions kept in {@link #decisionCache} before it is cleared
+	 */
+	private static final int MAX_CACHED_DECISIONS = 10_000;
+
+	/**
+	 * Decisions taken for non-privileged threads on permissions that only
+	 * depend on the permission itself (ie not on the stack trace or on the
+	 * state of the test execution), see {@link #isCacheable(Permission)}
+	 */
+	private final Map<PermissionKey, Boolean> decisionCache;
+
+	/**
+	 * The sandbox mode for which the decisions in the cache were taken
+	 */
+	private volatile Sandbox.SandboxMode cachedSandboxMode;
+
 	/**
 	 * Create a custom security manager for the SUT. The thread that create this
 	 * instance is automatically added as "privileged"
@@ -198,6 +218,55 @@ public class MSecurityManager extends SecurityManager {
 		unrecognizedPermissions = new CopyOnWriteArraySet<>();
 
 		filesToDelete = new CopyOnWriteArraySet<>();
+
+		decisionCache = new ConcurrentHashMap<>();
+		cachedSandboxMode = RuntimeSettings.sandboxMode;
+		/*
+		 * load the classes used by the cache now, otherwise their loading
+		 * would be checked by this security manager while using the cache
+		 */
+		decisionCache.put(new PermissionKey(new RuntimePermission("getStackTrace")), true);
+		decisionCache.clear();
+	}
+
+	/**
+	 * Key of a cached decision. Permissions are compared by type, name and actions,
+	 * as {@link Permission#equals(Object)} is not reliable for permissions defined by the SUT
+	 */
+	private static final class PermissionKey {
+
+		private final String type;
+		private final String name;
+		private final String actions;
+		private final int hash;
+
+		PermissionKey(Permission perm) {
+			this.type = perm.getClass().getName();
+			this.name = perm.getName();
+			this.actions = perm.getActions();
+			int h = type.hashCode();
+			h = 31 * h + (name == null ? 0 : name.hashCode());
+			h = 31 * h + (actions == null ? 0 : actions.hashCode());
+			this.hash = h;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof PermissionKey)) {
+				return false;
+			}
+			PermissionKey other = (PermissionKey) obj;
+			return hash == other.hash && type.equals(other.type)
+					&& Objects.equals(name, other.name) && Objects.equals(actions, other.actions);
+		}
 	}
 
     /**
@@ -430,16 +499,21 @@ public class MSecurityManager extends SecurityManager {
 	public void checkPermission(Permission perm) throws SecurityException {
 		// check access
 		if (!allowPermission(perm)) {
-			String stack = "\n";
-			for (StackTraceElement e : Thread.currentThread().getStackTrace()) {
-				if (e.toString().contains(
-						//FIXME use ObjectFields.class, but without adding Maven dependency (which would create a cycle)
-						PackageInfo.getEvoSuitePackage()+".regression.ObjectFields")) {
+			// the stack is only needed once a permission is denied
+			StackTraceElement[] elements = Thread.currentThread().getStackTrace();
+			//FIXME use ObjectFields.class, but without adding Maven dependency (which would create a cycle)
+			String objectFields = PackageInfo.getEvoSuitePackage()+".regression.ObjectFields";
+			for (StackTraceElement e : elements) {
+				if (e.toString().contains(objectFields)) {
 					statistics.permissionAllowed(perm);
 					return;
 				}
-				stack += e + "\n";
 			}
+			StringBuilder builder = new StringBuilder("\n");
+			for (StackTraceElement e : elements) {
+				builder.append(e).append("\n");
+			}
+			String stack = builder.toString();
 			if (executingTestCase) {
 				/*
 				 * report statistics only during test case execution, although still log them. The reason is to avoid EvoSuite threads which might not
@@ -526,6 +600,55 @@ public class MSecurityManager extends SecurityManager {
 			}
 		}
 
+		if (!isCacheable(perm)) {
+			return allowPermissionInSandbox(perm);
+		}
+
+		Sandbox.SandboxMode mode = RuntimeSettings.sandboxMode;
+		if (mode != cachedSandboxMode) {
+			decisionCache.clear();
+			cachedSandboxMode = mode;
+		}
+
+		PermissionKey key = new PermissionKey(perm);
+		Boolean decision = decisionCache.get(key);
+		if (decision == null) {
+			decision = allowPermissionInSandbox(perm);
+			if (decisionCache.size() >= MAX_CACHED_DECISIONS) {
+				decisionCache.clear();
+			}
+			decisionCache.put(key, decision);
+		}
+		return decision;
+	}
+
+	/**
+	 * Whether the decision on a permission for a thread in the sandbox only
+	 * depends on the permission itself. File permissions depend on the stack
+	 * trace, property permissions on the test execution (and reading a
+	 * property is recorded), and shutdown hooks on the stack trace and on
+	 * the mocking of the JVM
+	 * 
+	 * @param perm
+	 * @return
+	 */
+	private static boolean isCacheable(Permission perm) {
+		if (perm instanceof FilePermission || perm instanceof PropertyPermission) {
+			return false;
+		}
+		if (perm instanceof RuntimePermission) {
+			return !"shutdownHooks".equals(perm.getName().trim());
+		}
+		return true;
+	}
+
+	/**
+	 * Decide on a permission requested by a non-privileged thread
+	 * 
+	 * @param perm
+	 * @return false if access is forbidden, true otherwise
+	 */
+	private boolean allowPermissionInSandbox(Permission perm) {
 
 
 		if (RuntimeSettings.sandboxMode.equals(Sandbox.SandboxMode.IO)) {
@@ -723,9 +846,10 @@ public class MSecurityManager extends SecurityManager {
 
 		final String pattern = "sun.rmi.";
 		boolean foundRMI = false;
+		StackTraceElement[] stack = Thread.currentThread().getStackTrace();
 
 		//first check if there is any reference to RMI in the stack trace
-		for(StackTraceElement element : Thread.currentThread().getStackTrace()) {
+		for(StackTraceElement element : stack) {
 			if(element.toString().startsWith(pattern)) {
 				foundRMI = true;
 				break;
@@ -739,7 +863,7 @@ public class MSecurityManager extends SecurityManager {
 
 		boolean foundMasterNode = false;
 
-		traceLoop: for(StackTraceElement element : Thread.currentThread().getStackTrace()) {
+		traceLoop: for(StackTraceElement element : stack) {
 			for(String masterNodeMethod : masterNodeRemoteMethodNames) {
 				if(element.toString().contains(masterNodeMethod)) {
 					foundMasterNode = true;
@@ -1028,13 +1152,10 @@ public class MSecurityManager extends SecurityManager {
 
 		// AWT needs to be treated specially
 		//FIXME handling of awt read permission
-		if ("true".equals(AWT_HEADLESS) && isAWTThread()) {
-			if (name.equals("shutdownHooks"))
-				return true;
-			if (name.equals("modifyThreadGroup"))
-				return true;
-			if (name.equals("modifyThread"))
-				return true;
+		if ("true".equals(AWT_HEADLESS)
+				&& (name.equals("shutdownHooks") || name.equals("modifyThreadGroup") || name.equals("modifyThread"))
+				&& isAWTThread()) {
+			return true;
 		}
 
 		/*
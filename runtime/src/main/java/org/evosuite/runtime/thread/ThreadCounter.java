@@ -51,6 +51,13 @@ public class ThreadCounter {
         counter = 0;
     }
 
+    /**
+     * @return the number of threads started since the last reset
+     */
+    public int getNumberOfStartedThreads(){
+        return counter;
+    }
+
     public synchronized void checkIfCanStartNewThread() throws TooManyResourcesException{
         if(counter >= RuntimeSettings.maxNumberOfThreads){
             throw new TooManyResourcesException("This test case has tried to start too many threads. "+
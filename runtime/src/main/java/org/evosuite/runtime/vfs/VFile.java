@@ -19,8 +19,8 @@
  */
 package org.evosuite.runtime.vfs;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /**
  * Representation of a virtual file
@@ -31,45 +31,59 @@ import java.util.List;
 public class VFile extends FSObject{
 
 	/**
-	 * the actual data contained in file as a list of bytes
+	 * Size of the arrays the data of a file is split into
 	 */
-	private final List<Byte> data;
+	private static final int CHUNK_SIZE = 1024;
+
+	private static final byte[][] NO_CHUNKS = new byte[0][];
+
+	/**
+	 * the actual data contained in file, in chunks of {@link #CHUNK_SIZE} bytes.
+	 * Bytes after the end of the file are always 0, so growing the file does not
+	 * need to clear them. Trailing entries might not be allocated yet
+	 */
+	private byte[][] chunks;
+
+	private int size;
 
 	public VFile(String path, VFolder parent) {
 		super(path, parent);
 
-		//TODO might need a better type of data structure supporting multi-threading
-		data = new ArrayList<Byte>(1024);
+		chunks = NO_CHUNKS;
+		size = 0;
 	}
 
-	public void eraseData(){
-		data.clear();
+	public synchronized void eraseData(){
+		chunks = NO_CHUNKS;
+		size = 0;
 	}
 
 	public synchronized int getDataSize(){
-		return data.size();
+		return size;
 	}
 
 
 	public synchronized void setLength(int newLength){
-
-		/*
-		 * Note: this implementation is not particularly efficient...
-		 * but setLength is rarely called
-		 */
-
-		while(newLength > data.size()){
-			data.add((byte)0);
+		if(newLength < 0){
+			throw new IllegalArgumentException("Length of the file cannot be negative");
 		}
 
 		if(newLength==0){
-			data.clear();
+			eraseData();
 			return;
 		}
-		
-		while(data.size() > newLength){
-			data.remove(data.size()-1);
+
+		if(newLength > size){
+			ensureCapacity(newLength);
+		} else if(newLength < size){
+			int used = (newLength + CHUNK_SIZE - 1) / CHUNK_SIZE;
+			if(used < chunks.length){
+				chunks = Arrays.copyOf(chunks, used);
+			}
+			int end = Math.min(size - (used - 1) * CHUNK_SIZE, CHUNK_SIZE);
+			Arrays.fill(chunks[used - 1], newLength - (used - 1) * CHUNK_SIZE, end, (byte) 0);
 		}
+		size = newLength;
 	}
 
     /**
@@ -82,15 +96,71 @@ public class VFile extends FSObject{
 			throw new IllegalArgumentException("Position in the file cannot be negative");
 		}
 
-		if(position >= data.size()){
+		if(position >= size){
 			return -1; //this represent the end of the stream
 		}
 
-		return data.get(position) & 0xFF;
+		return chunks[position / CHUNK_SIZE][position % CHUNK_SIZE] & 0xFF;
+	}
+
+	/**
+	 * Copy up to {@code len} bytes starting at {@code position} into {@code b}
+	 * 
+	 * @return the number of bytes copied, or -1 if {@code position} is at or after the end of the file
+	 */
+	public synchronized int readBytes(int position, byte b[], int off, int len) throws IllegalArgumentException{
+		if(position<0){
+			throw new IllegalArgumentException("Position in the file cannot be negative");
+		}
+		if(off < 0 || len < 0 || len > b.length - off){
+			throw new IndexOutOfBoundsException();
+		}
+
+		if(position >= size){
+			return -1;
+		}
+
+		int n = Math.min(len, size - position);
+		int copied = 0;
+		while(copied < n){
+			int chunk = (position + copied) / CHUNK_SIZE;
+			int start = (position + copied) % CHUNK_SIZE;
+			int length = Math.min(n - copied, CHUNK_SIZE - start);
+			System.arraycopy(chunks[chunk], start, b, off + copied, length);
+			copied += length;
+		}
+		return n;
+	}
+
+	/**
+	 * Copy bytes starting at {@code position} into {@code dst}, until either
+	 * {@code dst} is full or the end of the file is reached
+	 * 
+	 * @return the number of bytes copied, or -1 if {@code position} is at or after the end of the file
+	 */
+	public synchronized int readBytes(int position, ByteBuffer dst) throws IllegalArgumentException{
+		if(position<0){
+			throw new IllegalArgumentException("Position in the file cannot be negative");
+		}
+
+		if(position >= size){
+			return -1;
+		}
+
+		int n = Math.min(dst.remaining(), size - position);
+		int copied = 0;
+		while(copied < n){
+			int chunk = (position + copied) / CHUNK_SIZE;
+			int start = (position + copied) % CHUNK_SIZE;
+			int length = Math.min(n - copied, CHUNK_SIZE - start);
+			dst.put(chunks[chunk], start, length);
+			copied += length;
+		}
+		return n;
 	}
 
 	public synchronized int writeBytes(byte b[], int off, int len){
-		return writeBytes(data.size(),b,off,len);
+		return writeBytes(size,b,off,len);
 	}
 
 	
@@ -104,24 +174,73 @@ public class VFile extends FSObject{
 			return 0;
 		}
 
-		if(position >= data.size()){
-			setLength(position);
+		int n = Math.max(0, Math.min(len, b.length - off));
+		if(position + n > size){
+			//also for empty writes after the end, as they extend the file up to position
+			ensureCapacity(position + n);
+			size = position + n;
+		}
+		int written = 0;
+		while(written < n){
+			int chunk = (position + written) / CHUNK_SIZE;
+			int start = (position + written) % CHUNK_SIZE;
+			int length = Math.min(n - written, CHUNK_SIZE - start);
+			System.arraycopy(b, off + written, chunks[chunk], start, length);
+			written += length;
+		}
+
+		setLastModified(getCurrentTimeMillis());
+
+		return n;
+	}
+
+	/**
+	 * Write all the remaining bytes of {@code src} starting at {@code position}
+	 * 
+	 * @return the number of written bytes
+	 */
+	public synchronized int writeBytes(int position, ByteBuffer src) throws IllegalArgumentException{
+
+		if(position<0){
+			throw new IllegalArgumentException("Position in the file cannot be negative");
+		}
+
+		if(deleted || !isWritePermission()){
+			return 0;
 		}
 
+		int n = src.remaining();
+		if(position + n > size){
+			//also for empty writes after the end, as they extend the file up to position
+			ensureCapacity(position + n);
+			size = position + n;
+		}
 		int written = 0;
-		for(int i=off; i<b.length & (i-off)<len; i++){
-			if(position < data.size()){
-				data.set(position,(b[i]));
-			} else {
-				data.add(b[i]);
-			}
-			position++;
-			written++;
+		while(written < n){
+			int chunk = (position + written) / CHUNK_SIZE;
+			int start = (position + written) % CHUNK_SIZE;
+			int length = Math.min(n - written, CHUNK_SIZE - start);
+			src.get(chunks[chunk], start, length);
+			written += length;
 		}
 
 		setLastModified(getCurrentTimeMillis());
 
-		return written;
+		return n;
+	}
+
+	private void ensureCapacity(int capacity){
+		if(capacity < 0){
+			throw new IllegalArgumentException("Virtual file system does not handle files larger than "+Integer.MAX_VALUE+" bytes");
+		}
+		int needed = (capacity + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		if(needed > chunks.length){
+			chunks = Arrays.copyOf(chunks, Math.max(needed, chunks.length + (chunks.length >> 1)));
+		}
+		//chunks are allocated in order, so only the ones at the end can be missing
+		for(int i=needed-1; i>=0 && chunks[i]==null; i--){
+			chunks[i] = new byte[CHUNK_SIZE];
+		}
 	}
 
 
@@ -69,4 +69,36 @@ public class LoopCounterTest {
 		LoopCounter.getInstance().checkLoop(5);
 		LoopCounter.getInstance().checkLoop(6);
     }
+
+    @Test
+    public void testThreadBoundCounter() throws InterruptedException {
+        final LoopCounter shared = LoopCounter.getInstance();
+        final int index = shared.getNewIndex();
+        final Object[] seen = new Object[3];
+
+        Thread thread = new Thread(() -> {
+            LoopCounter bound = LoopCounter.bindNewInstanceToCurrentThread();
+            seen[0] = LoopCounter.getInstance();
+            seen[1] = bound;
+            //indexes still come from the shared counter
+            seen[2] = LoopCounter.getInstance().getNewIndex();
+            try {
+                for (long i = 0; i < RuntimeSettings.maxNumberOfIterationsPerLoop - 1; i++) {
+                    LoopCounter.getInstance().checkLoop(index);
+                }
+            } catch (TooManyResourcesException e) {
+                seen[0] = e;
+            }
+        });
+        thread.start();
+        thread.join();
+
+        Assert.assertSame(seen[1], seen[0]);
+        Assert.assertNotSame(shared, seen[1]);
+        Assert.assertEquals(index + 1, seen[2]);
+        Assert.assertSame(shared, LoopCounter.getInstance());
+
+        //the iterations on the other thread do not count here
+        LoopCounter.getInstance().checkLoop(index);
+    }
 }
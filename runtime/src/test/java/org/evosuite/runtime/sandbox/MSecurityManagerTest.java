@@ -350,6 +350,36 @@ public class MSecurityManagerTest {
 		});	
 		future.get(1000, TimeUnit.MILLISECONDS);
 	}
+
+	@Test
+	public void testCachedDecisionsFollowSandboxMode() throws Exception {
+
+		Runnable setSecurityManager = new Runnable(){
+			@Override
+			public void run() {
+				securityManager.checkPermission(new RuntimePermission("setSecurityManager"));
+			}
+		};
+
+		Sandbox.SandboxMode mode = RuntimeSettings.sandboxMode;
+		try {
+			RuntimeSettings.sandboxMode = Sandbox.SandboxMode.RECOMMENDED;
+			for (int i = 0; i < 2; i++) {
+				try {
+					executor.submit(setSecurityManager).get(1000, TimeUnit.MILLISECONDS);
+					Assert.fail();
+				} catch (ExecutionException e) {
+					Assert.assertTrue(e.getCause() instanceof SecurityException);
+				}
+			}
+
+			// in IO mode only file permissions are checked, so the cached denial must not be used
+			RuntimeSettings.sandboxMode = Sandbox.SandboxMode.IO;
+			executor.submit(setSecurityManager).get(1000, TimeUnit.MILLISECONDS);
+		} finally {
+			RuntimeSettings.sandboxMode = mode;
+		}
+	}
 	
 	
 }
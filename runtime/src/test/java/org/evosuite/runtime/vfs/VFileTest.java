@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.vfs;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VFileTest {
+
+	private static byte[] data(int length){
+		byte[] data = new byte[length];
+		for(int i=0; i<length; i++){
+			data[i] = (byte) (i * 31);
+		}
+		return data;
+	}
+
+	@Test
+	public void testWriteAndReadAcrossChunks(){
+		VFile file = new VFile("/foo.txt", null);
+		byte[] data = data(5000);
+
+		Assert.assertEquals(data.length, file.writeBytes(data, 0, data.length));
+		Assert.assertEquals(data.length, file.getDataSize());
+
+		byte[] read = new byte[data.length];
+		Assert.assertEquals(data.length, file.readBytes(0, read, 0, read.length));
+		Assert.assertArrayEquals(data, read);
+
+		for(int i=0; i<data.length; i+=7){
+			Assert.assertEquals(data[i] & 0xFF, file.read(i));
+		}
+		Assert.assertEquals(-1, file.read(data.length));
+		Assert.assertEquals(-1, file.readBytes(data.length, read, 0, 1));
+	}
+
+	@Test
+	public void testReadStopsAtEndOfFile(){
+		VFile file = new VFile("/foo.txt", null);
+		byte[] data = data(1500);
+		file.writeBytes(data, 0, data.length);
+
+		byte[] read = new byte[1000];
+		Assert.assertEquals(500, file.readBytes(1000, read, 0, read.length));
+		for(int i=0; i<500; i++){
+			Assert.assertEquals(data[1000 + i], read[i]);
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(1000);
+		Assert.assertEquals(400, file.readBytes(1100, buffer));
+		Assert.assertEquals(400, buffer.position());
+		Assert.assertEquals(data[1100], buffer.get(0));
+	}
+
+	@Test
+	public void testOverwriteAndWriteAfterEnd(){
+		VFile file = new VFile("/foo.txt", null);
+		file.writeBytes(new byte[]{1, 2, 3}, 0, 3);
+		file.writeBytes(1, new byte[]{9}, 0, 1);
+		Assert.assertEquals(3, file.getDataSize());
+		Assert.assertEquals(9, file.read(1));
+
+		//the gap is filled with 0s
+		file.writeBytes(2000, new byte[]{7}, 0, 1);
+		Assert.assertEquals(2001, file.getDataSize());
+		Assert.assertEquals(3, file.read(2));
+		Assert.assertEquals(0, file.read(1500));
+		Assert.assertEquals(7, file.read(2000));
+
+		file.writeBytes(2001, ByteBuffer.wrap(new byte[]{4, 5}));
+		Assert.assertEquals(2003, file.getDataSize());
+		Assert.assertEquals(5, file.read(2002));
+	}
+
+	@Test
+	public void testEmptyWriteAfterEnd(){
+		VFile file = new VFile("/foo.txt", null);
+		file.writeBytes(new byte[]{1, 2, 3}, 0, 3);
+
+		Assert.assertEquals(0, file.writeBytes(3000, new byte[0], 0, 0));
+		Assert.assertEquals(3000, file.getDataSize());
+		Assert.assertEquals(0, file.read(2999));
+		byte[] buffer = new byte[3000];
+		Assert.assertEquals(3000, file.readBytes(0, buffer, 0, buffer.length));
+		Assert.assertEquals(3, buffer[2]);
+
+		Assert.assertEquals(0, file.writeBytes(5000, ByteBuffer.allocate(0)));
+		Assert.assertEquals(5000, file.getDataSize());
+		ByteBuffer dst = ByteBuffer.allocate(2000);
+		Assert.assertEquals(2000, file.readBytes(3000, dst));
+		Assert.assertEquals(0, dst.get(1999));
+	}
+
+	@Test
+	public void testTruncateAndGrow(){
+		VFile file = new VFile("/foo.txt", null);
+		byte[] data = data(3000);
+		file.writeBytes(data, 0, data.length);
+
+		file.setLength(1030);
+		Assert.assertEquals(1030, file.getDataSize());
+		Assert.assertEquals(data[1029] & 0xFF, file.read(1029));
+		Assert.assertEquals(-1, file.read(1030));
+
+		//truncated bytes must not come back
+		file.setLength(2500);
+		Assert.assertEquals(2500, file.getDataSize());
+		for(int i=1030; i<2500; i++){
+			Assert.assertEquals(0, file.read(i));
+		}
+
+		file.setLength(0);
+		Assert.assertEquals(0, file.getDataSize());
+		Assert.assertEquals(-1, file.read(0));
+	}
+
+	@Test
+	public void testNoWritePermission(){
+		VFile file = new VFile("/foo.txt", null);
+		file.setWritePermission(false);
+		Assert.assertEquals(0, file.writeBytes(new byte[]{1}, 0, 1));
+		Assert.assertEquals(0, file.writeBytes(0, ByteBuffer.wrap(new byte[]{1})));
+		Assert.assertEquals(0, file.getDataSize());
+	}
+}